@@ -3,6 +3,8 @@ import os
 import uuid
 import json
 import subprocess
+import numpy as np
+import rasterio
 from rio_cogeo.cogeo import cog_translate
 from rio_cogeo.profiles import cog_profiles
 
@@ -14,6 +16,159 @@ app = Flask(__name__)
 BASE_DIR = "/tmp/cogConverter"
 # 폴더가 없으면 생성 (애플리케이션 시작 시 1회 실행)
 os.makedirs(BASE_DIR, exist_ok=True)
+# 밴드별 히스토그램 구간 수
+HISTOGRAM_BUCKETS = 256
+# 8비트가 아닌 밴드의 누적 히스토그램 구간 수 (결과 구간보다 촘촘하게 누적한 뒤 마지막에 HISTOGRAM_BUCKETS개로 합침)
+FINE_HISTOGRAM_BUCKETS = 4096
+
+# -------------------- 밴드 통계 계산 --------------------
+class StreamingHistogram:
+    """
+    값 범위를 미리 모르는 밴드의 히스토그램을 블록마다 누적하는 클래스
+
+    구간 폭은 2의 거듭제곱이고 하한은 구간 폭의 배수로 맞춘다. 새 블록의 값이 범위를 벗어나면 구간 폭을 두 배씩 늘리며
+    인접한 구간을 합치므로(경계가 맞아 떨어져 나뉘는 구간이 없음), 블록 순서와 관계없이 모든 값이 정확히 한 번씩 세어진다.
+    정수 밴드는 구간 폭을 1 이상으로 두어 한 정수 값이 두 구간에 나뉘지 않게 한다.
+    """
+
+    def __init__(self, integer):
+        self.integer = integer
+        self.lower = None
+        self.width = None
+        self.counts = np.zeros(FINE_HISTOGRAM_BUCKETS, dtype=np.int64)
+
+    def add(self, values, block_min, block_max):
+        if self.lower is None:
+            span = max(block_max - block_min, abs(block_max) * 1e-6, 1e-30)
+            exponent = int(np.ceil(np.log2(span / FINE_HISTOGRAM_BUCKETS)))
+            self.width = 2.0 ** (max(exponent, 0) if self.integer else exponent)
+            self.lower = np.floor(block_min / self.width) * self.width
+        # 범위를 벗어나는 값이 있으면 기존 범위와 새 값을 모두 담을 때까지 구간 폭을 두 배씩 늘리고 기존 구간을 합침
+        upper = self.lower + self.width * FINE_HISTOGRAM_BUCKETS
+        if block_min < self.lower or block_max >= upper:
+            low, high = min(self.lower, block_min), max(upper, block_max)
+            width = self.width
+            while True:
+                width *= 2
+                lower = np.floor(low / width) * width
+                if high < lower + width * FINE_HISTOGRAM_BUCKETS:
+                    break
+            factor = int(round(width / self.width))
+            offset = int(round((self.lower - lower) / self.width))
+            merged = np.bincount((offset + np.arange(FINE_HISTOGRAM_BUCKETS)) // factor, weights=self.counts,
+                                 minlength=FINE_HISTOGRAM_BUCKETS)
+            self.lower, self.width, self.counts = lower, width, merged.astype(np.int64)
+        indices = np.floor((values - self.lower) / self.width).astype(np.int64)
+        self.counts += np.bincount(np.clip(indices, 0, FINE_HISTOGRAM_BUCKETS - 1),
+                                   minlength=FINE_HISTOGRAM_BUCKETS)
+
+    def buckets(self, band_range):
+        """누적한 구간을 band_range 범위의 HISTOGRAM_BUCKETS개 구간으로 합침 (누적 구간은 중심이 속한 구간으로 옮김)"""
+        if self.lower is None:
+            return np.zeros(HISTOGRAM_BUCKETS, dtype=np.int64)
+        # 정수 밴드의 구간 폭이 1이면 구간 하나가 정수 값 하나이므로 하한을, 그 외에는 중심을 대표값으로 사용
+        offset = 0.0 if self.integer and self.width == 1 else self.width / 2
+        centers = self.lower + np.arange(FINE_HISTOGRAM_BUCKETS) * self.width + offset
+        scale = HISTOGRAM_BUCKETS / (band_range[1] - band_range[0])
+        indices = np.clip(np.floor((centers - band_range[0]) * scale).astype(np.int64), 0, HISTOGRAM_BUCKETS - 1)
+        return np.bincount(indices, weights=self.counts, minlength=HISTOGRAM_BUCKETS).astype(np.int64)
+
+
+def compute_band_statistics(input_path):
+    """
+    래스터를 블록 단위로 한 번만 읽으면서 밴드별 통계와 히스토그램을 누적 계산하는 함수
+
+    블록마다 모든 밴드를 한 번에 읽고, 밴드별로 블록의 건수/평균/편차 제곱합을 구해 Chan의 병렬 결합식으로 합친다
+    (합과 제곱합으로 분산을 구할 때 생기는 자릿수 손실이 없음). 히스토그램도 같은 패스에서 만든다.
+    8비트 정수 밴드는 타입 범위(256개 값)를 그대로 구간으로 쓰고, 그 외 밴드(16/32비트 정수, 실수)는
+    StreamingHistogram으로 관측 범위에 맞춰 누적한 뒤 최소~최대 범위로 합치므로 구간별 빈도의 합이 유효 픽셀 수와 같다.
+
+    Args:
+        input_path: 통계를 계산할 래스터 파일 경로
+
+    Returns:
+        밴드별 통계(min, max, mean, stdDev, nodataPercent, histogram) 목록
+    """
+    with rasterio.open(input_path) as src:
+        nodata = src.nodata
+        dtypes = [np.dtype(dtype) for dtype in src.dtypes]
+        is_integer = [np.issubdtype(dtype, np.integer) for dtype in dtypes]
+        # 8비트 정수 밴드만 타입 범위 전체를 히스토그램 범위로 사용
+        full_range = [(float(np.iinfo(dtype).min), float(np.iinfo(dtype).max) + 1)
+                      if integer and dtype.itemsize == 1 else None
+                      for dtype, integer in zip(dtypes, is_integer)]
+        # 밴드마다 타입이 다르면 한 번에 읽을 수 없으므로 float64로 읽음
+        read_dtype = None if len(set(dtypes)) == 1 else "float64"
+
+        # 밴드별 누적값 (건수, 평균, 편차 제곱합, 최소, 최대, nodata 건수, 히스토그램)
+        totals = [{"count": 0, "mean": 0.0, "m2": 0.0, "min": None, "max": None, "nodata": 0,
+                   "buckets": np.zeros(HISTOGRAM_BUCKETS, dtype=np.int64) if full_range[index] else None,
+                   "histogram": None if full_range[index] else StreamingHistogram(is_integer[index])}
+                  for index in range(src.count)]
+
+        # 내부 블록 단위로 모든 밴드를 한 번에 읽어 단일 패스로 누적
+        for _, window in src.block_windows(1):
+            block = src.read(window=window, out_dtype=read_dtype)
+            for index in range(src.count):
+                values = block[index].ravel()
+                valid = np.ones(values.shape, dtype=bool)
+                if nodata is not None:
+                    valid &= values != nodata
+                if not is_integer[index]:
+                    valid &= np.isfinite(values)
+
+                total = totals[index]
+                total["nodata"] += int(values.size - np.count_nonzero(valid))
+                values = values[valid].astype(np.float64)
+                if values.size == 0:
+                    continue
+
+                # 블록 통계를 누적값과 결합 (Chan et al.)
+                count = int(values.size)
+                block_mean = float(values.mean())
+                block_m2 = float(np.square(values - block_mean).sum())
+                combined = total["count"] + count
+                delta = block_mean - total["mean"]
+                total["mean"] += delta * count / combined
+                total["m2"] += block_m2 + delta * delta * total["count"] * count / combined
+                total["count"] = combined
+
+                block_min, block_max = float(values.min()), float(values.max())
+                total["min"] = block_min if total["min"] is None else min(total["min"], block_min)
+                total["max"] = block_max if total["max"] is None else max(total["max"], block_max)
+                if full_range[index] is not None:
+                    total["buckets"] += np.histogram(values, bins=HISTOGRAM_BUCKETS, range=full_range[index])[0]
+                else:
+                    total["histogram"].add(values, block_min, block_max)
+
+        pixel_count = src.width * src.height
+        bands = []
+        for index, total in enumerate(totals):
+            band_range = full_range[index]
+            if band_range is None and total["count"] > 0:
+                # 관측한 최소/최대 범위로 누적 히스토그램을 합침 (정수는 최대값이 마지막 구간에 들어가도록 상한을 1 늘림)
+                upper = total["max"] + 1 if is_integer[index] else total["max"]
+                band_range = (total["min"], upper) if upper > total["min"] else (total["min"], total["min"] + 1)
+                total["buckets"] = total["histogram"].buckets(band_range)
+            elif band_range is None:
+                total["buckets"] = np.zeros(HISTOGRAM_BUCKETS, dtype=np.int64)
+
+            count = total["count"]
+            bands.append({
+                "band": index + 1,                                       # 밴드 번호 (1부터 시작)
+                "min": total["min"],                                     # 최소값
+                "max": total["max"],                                     # 최대값
+                "mean": total["mean"] if count > 0 else None,            # 평균
+                "stdDev": float(np.sqrt(max(total["m2"] / count, 0.0))) if count > 0 else None,  # 표준편차 (모표준편차)
+                "noDataValue": float(nodata) if nodata is not None else None,                    # nodata 값
+                "nodataPercent": total["nodata"] * 100.0 / pixel_count if pixel_count else 0.0,  # nodata 비율(%)
+                "histogram": {
+                    "min": band_range[0] if band_range else None,        # 히스토그램 하한
+                    "max": band_range[1] if band_range else None,        # 히스토그램 상한
+                    "buckets": [int(v) for v in total["buckets"]]        # 구간별 빈도
+                }
+            })
+        return bands
 
 # -------------------- 헬스 체크 엔드포인트 --------------------
 @app.route('/health', methods=['GET'])
@@ -70,7 +225,8 @@ def extract_metadata():
             "bandCount": len(metadata.get("bands", [])),      # 밴드 수
             "projection": metadata.get("coordinateSystem", {}).get("wkt", ""),  # 투영법(WKT 형식)
             "geotransform": metadata.get("geoTransform", []), # 지리 변환 정보
-            "originalName": file.filename                     # 원본 파일명
+            "originalName": file.filename,                    # 원본 파일명
+            "bands": compute_band_statistics(input_path)      # 밴드별 통계 및 히스토그램
         }
         # 추출된 메타데이터 JSON 반환
         return jsonify(response)
@@ -78,6 +234,9 @@ def extract_metadata():
     except subprocess.CalledProcessError as e:
         # gdalinfo 실행 중 오류 발생 시
         return jsonify({"error": "메타데이터 추출 실패", "details": e.stderr}), 500
+    except rasterio.errors.RasterioError as e:
+        # 밴드 통계 계산 중 오류 발생 시
+        return jsonify({"error": "밴드 통계 계산 실패", "details": str(e)}), 500
     finally:
         # 작업 완료 후 임시 파일 삭제 (성공, 실패 모두)
         if os.path.exists(input_path):
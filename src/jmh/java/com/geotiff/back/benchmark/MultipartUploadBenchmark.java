@@ -0,0 +1,87 @@
+package com.geotiff.back.benchmark;
+
+import com.geotiff.back.support.FakeGdalApiServer;
+import com.geotiff.back.support.SyntheticGeoTiff;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GDAL API 멀티파트 요청 구성 방식 비교 벤치마크
+ * 현재 서비스가 사용하는 readAllBytes + ByteArrayResource 방식과 FileSystemResource 스트리밍 방식을
+ * 지연 없는 GDAL API 대체 서버에 대해 비교합니다.
+ * 힙 할당량 차이는 -prof gc 옵션으로 함께 확인합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MultipartUploadBenchmark {
+
+    @Param({"1", "64"})
+    public int sizeMb;
+
+    private Path workDirectory;
+    private Path file;
+    private FakeGdalApiServer gdalApi;
+    private RestTemplate restTemplate;
+    private String url;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDirectory = Files.createTempDirectory("bench-multipart");
+        file = SyntheticGeoTiff.writeApproximately(workDirectory.resolve("scene.tif"), sizeMb * 1024L * 1024L, 3);
+        gdalApi = new FakeGdalApiServer(workDirectory.resolve("gdal"), Duration.ZERO, Duration.ZERO);
+        restTemplate = new RestTemplate();
+        url = gdalApi.endpoint() + "/extractMetadata";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        gdalApi.close();
+        FileSystemUtils.deleteRecursively(workDirectory);
+    }
+
+    /**
+     * 현재 방식: 파일 전체를 바이트 배열로 읽어 전송
+     */
+    @Benchmark
+    public String readAllBytes() throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        return post(new ByteArrayResource(data) {
+            @Override
+            public String getFilename() {
+                return file.getFileName().toString();
+            }
+        });
+    }
+
+    /**
+     * 스트리밍 방식: 파일 리소스를 그대로 전송
+     */
+    @Benchmark
+    public String streaming() {
+        return post(new FileSystemResource(file));
+    }
+
+    private String post(Resource resource) {
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("file", resource);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        return restTemplate.postForObject(url, new HttpEntity<>(body, headers), String.class);
+    }
+}
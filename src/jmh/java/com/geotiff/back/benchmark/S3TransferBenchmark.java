@@ -0,0 +1,130 @@
+package com.geotiff.back.benchmark;
+
+import com.geotiff.back.global.service.S3Service;
+import com.geotiff.back.support.LocalS3Server;
+import com.geotiff.back.support.SyntheticGeoTiff;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * S3Service 업로드/다운로드 처리량 벤치마크
+ * 로컬 S3 대체 서버를 대상으로 하므로 네트워크 없이 재현 가능하며,
+ * SDK 요청 구성/서명/스트림 복사 등 클라이언트 측 비용의 회귀를 확인하는 용도입니다.
+ * 동기 클라이언트와 CRT 기반 비동기 전송(멀티파트 병렬 전송, 동시 HEAD 요청)을 비교합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class S3TransferBenchmark {
+
+    private static final String BUCKET = "bench-bucket";
+    private static final String SOURCE_KEY = "scenes/scene.tif";
+    private static final int HEAD_REQUESTS = 64;
+
+    @Param({"8", "128"})
+    public int sizeMb;
+
+    private Path workDirectory;
+    private Path sourceFile;
+    private Path downloadTarget;
+    private LocalS3Server s3Server;
+    private S3Client s3Client;
+    private S3AsyncClient s3AsyncClient;
+    private S3TransferManager transferManager;
+    private S3Service s3Service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDirectory = Files.createTempDirectory("bench-s3");
+        sourceFile = SyntheticGeoTiff.writeApproximately(workDirectory.resolve("scene.tif"), sizeMb * 1024L * 1024L, 3);
+        downloadTarget = workDirectory.resolve("download.tif");
+
+        s3Server = new LocalS3Server(workDirectory.resolve("s3"));
+        s3Server.putObject(BUCKET, SOURCE_KEY, sourceFile);
+        s3Client = S3Client.builder()
+                .endpointOverride(s3Server.endpoint())
+                .forcePathStyle(true)
+                .region(Region.of(LocalS3Server.REGION))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(LocalS3Server.ACCESS_KEY, LocalS3Server.SECRET_KEY)))
+                .build();
+        s3AsyncClient = S3AsyncClient.crtBuilder()
+                .endpointOverride(s3Server.endpoint())
+                .forcePathStyle(true)
+                .region(Region.of(LocalS3Server.REGION))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(LocalS3Server.ACCESS_KEY, LocalS3Server.SECRET_KEY)))
+                .build();
+        transferManager = S3TransferManager.builder().s3Client(s3AsyncClient).build();
+        s3Service = new S3Service(s3Client, s3AsyncClient, transferManager, "bench");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        transferManager.close();
+        s3AsyncClient.close();
+        s3Client.close();
+        s3Server.close();
+        FileSystemUtils.deleteRecursively(workDirectory);
+    }
+
+    @Benchmark
+    public Path download() throws IOException {
+        return s3Service.downloadFile(BUCKET, SOURCE_KEY, downloadTarget);
+    }
+
+    @Benchmark
+    public String upload() throws IOException {
+        return s3Service.uploadFile(BUCKET, sourceFile, "uploaded/scene.tif");
+    }
+
+    @Benchmark
+    public Path downloadAsync() throws IOException {
+        return S3Service.await(s3Service.downloadFileAsync(BUCKET, SOURCE_KEY, downloadTarget));
+    }
+
+    @Benchmark
+    public String uploadAsync() throws IOException {
+        return S3Service.await(s3Service.uploadFileAsync(BUCKET, sourceFile, "uploaded/scene.tif"));
+    }
+
+    /**
+     * 시퀀스 확인과 같은 작은 HEAD 요청 여러 개: 순차 동기 호출
+     */
+    @Benchmark
+    public int existsSequential() {
+        int found = 0;
+        for (int i = 0; i < HEAD_REQUESTS; i++) {
+            if (s3Service.isFileExists(BUCKET, "missing/" + i)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 시퀀스 확인과 같은 작은 HEAD 요청 여러 개: 비동기 동시 호출
+     */
+    @Benchmark
+    public int existsConcurrent() throws IOException {
+        List<CompletableFuture<Boolean>> probes = IntStream.range(0, HEAD_REQUESTS)
+                .mapToObj(i -> s3Service.isFileExistsAsync(BUCKET, "missing/" + i))
+                .toList();
+        S3Service.await(CompletableFuture.allOf(probes.toArray(CompletableFuture[]::new)));
+        return (int) probes.stream().filter(CompletableFuture::join).count();
+    }
+}
@@ -0,0 +1,102 @@
+package com.geotiff.back.benchmark;
+
+import com.geotiff.back.domain.sateliteImagery.dto.SatelliteImagerySearchDto;
+import com.geotiff.back.domain.sateliteImagery.dto.SatelliteImagerySummaryDto;
+import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImagery;
+import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImageryBandStatistics;
+import com.geotiff.back.domain.sateliteImagery.repository.SatelliteImageryRepositoryCustomImpl;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메타데이터 검색 페이지 조회 방식 비교 벤치마크
+ * 실제 검색 저장소(SatelliteImageryRepositoryCustomImpl)를 H2 인메모리 DB 기반 Hibernate 위에서 호출하여,
+ * searchByMetadata(count + offset/limit, DTO 조회)와 searchByMetadataAfter(키셋, id 커서)를 10k/1M 행에 대해 비교합니다.
+ * 깊은 페이지(전체 결과의 중간)를 조회합니다.
+ * 스키마는 엔티티 매핑에서 생성하므로(애플리케이션과 같은 이름 규칙) 엔티티가 바뀌어도 벤치마크 DDL을 따로 고칠 필요가 없습니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchPagingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int BAND_COUNT = 3;
+
+    @Param({"10000", "1000000"})
+    public int rows;
+
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+    private SatelliteImageryRepositoryCustomImpl repository;
+    private SatelliteImagerySearchDto searchDto;
+    private int deepPage;
+    private long deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(SatelliteImagery.class)
+                .addAnnotatedClass(SatelliteImageryBandStatistics.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:paging" + rows + ";DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, "")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false")
+                // Spring Boot 기본 이름 규칙과 같게 (originalName → original_name)
+                .setPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy())
+                .buildSessionFactory();
+
+        // 행 수가 많아 엔티티를 하나씩 저장하지 않고 한 번의 INSERT ... SELECT로 채움 (컬럼 목록만 사용)
+        sessionFactory.inTransaction(session -> session.createNativeMutationQuery("""
+                        INSERT INTO satellite_imagery
+                            (original_name, cog_name, width, height, band_count, projection, s3_path, sequence, file_size, created_at)
+                        SELECT 'scene_' || X, 'scene_' || X || '_to_cog_1.tiff', 1024, 1024, MOD(X, 4) + 1,
+                               'GEOGCS["WGS 84"]', 'bench/scene_' || X, 1, 1048576, CURRENT_TIMESTAMP
+                        FROM SYSTEM_RANGE(1, :rows)""")
+                .setParameter("rows", rows)
+                .executeUpdate());
+
+        entityManager = sessionFactory.createEntityManager();
+        repository = new SatelliteImageryRepositoryCustomImpl(entityManager);
+        searchDto = SatelliteImagerySearchDto.builder().bandCount(BAND_COUNT).build();
+
+        // 조건에 맞는 결과의 중간 페이지와, 그 페이지 직전 행의 id(키셋 커서)를 미리 계산
+        long matching = repository.searchByMetadata(searchDto, PageRequest.of(0, 1)).getTotalElements();
+        deepPage = (int) (matching / 2 / PAGE_SIZE);
+        List<SatelliteImagerySummaryDto> previousPage =
+                repository.searchByMetadata(searchDto, PageRequest.of(deepPage - 1, PAGE_SIZE)).getContent();
+        deepCursor = previousPage.get(previousPage.size() - 1).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        sessionFactory.close();
+    }
+
+    /**
+     * 현재 방식: 전체 건수 조회 + offset/limit 페이지 조회
+     */
+    @Benchmark
+    public Page<SatelliteImagerySummaryDto> offsetPage() {
+        return repository.searchByMetadata(searchDto, PageRequest.of(deepPage, PAGE_SIZE));
+    }
+
+    /**
+     * 키셋 방식: 이전 페이지 마지막 id 이후를 조회 (건수 조회 없음)
+     */
+    @Benchmark
+    public List<SatelliteImagerySummaryDto> keysetPage() {
+        return repository.searchByMetadataAfter(searchDto, deepCursor, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,61 @@
+package com.geotiff.back.benchmark;
+
+import com.geotiff.back.global.tiff.RangeSource;
+import com.geotiff.back.global.tiff.TiffReader;
+import com.geotiff.back.global.tiff.TiffStructure;
+import com.geotiff.back.support.SyntheticGeoTiff;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TIFF 헤더(IFD 체인) 파싱 벤치마크
+ * 타일 수가 늘어나 타일 오프셋 배열이 선행 읽기 범위를 넘는 경우까지 포함하여
+ * 메모리 원본과 파일 채널 원본에서의 파싱 비용을 측정합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TiffHeaderBenchmark {
+
+    /**
+     * 정사각형 이미지 한 변의 픽셀 수 (1024: 16타일, 16384: 4096타일)
+     */
+    @Param({"1024", "16384"})
+    public int side;
+
+    private Path workDirectory;
+    private byte[] header;
+    private FileChannel channel;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDirectory = Files.createTempDirectory("bench-tiff");
+        Path file = SyntheticGeoTiff.write(workDirectory.resolve("scene.tif"), side, side, 1);
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        // 헤더와 IFD 값 영역만 메모리에 올림 (첫 타일 이전까지)
+        header = RangeSource.of(channel).read(0, (int) TiffReader.read(RangeSource.of(channel)).primary().getTileOffsets()[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        channel.close();
+        FileSystemUtils.deleteRecursively(workDirectory);
+    }
+
+    @Benchmark
+    public TiffStructure parseFromMemory() throws IOException {
+        return TiffReader.read(RangeSource.of(header));
+    }
+
+    @Benchmark
+    public TiffStructure parseFromFile() throws IOException {
+        return TiffReader.read(RangeSource.of(channel));
+    }
+}
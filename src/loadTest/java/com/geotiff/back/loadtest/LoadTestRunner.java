@@ -0,0 +1,233 @@
+package com.geotiff.back.loadtest;
+
+import com.geotiff.back.GeotiffApplication;
+import com.geotiff.back.support.FakeGdalApiServer;
+import com.geotiff.back.support.LocalS3Server;
+import com.geotiff.back.support.SyntheticGeoTiff;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 종단 간 부하 테스트 실행기
+ * 로컬 S3 대체 서버(합성 GeoTIFF 시드)와 지연 시간을 조절할 수 있는 GDAL API 대체 서버를 띄우고,
+ * 같은 JVM에서 애플리케이션을 기동한 뒤 단일 변환/일괄 변환/검색 API를 목표 동시성으로 호출합니다.
+ * mixed 시나리오는 다른 사용자의 일괄 변환이 진행되는 동안 대화형 단일 변환의 응답 시간을 측정합니다.
+ * 결과(p50/p99 응답 시간, 처리량, 최대 힙/임시 디렉토리 사용량)는 콘솔과 JSON 보고서로 출력합니다.
+ * 모든 구성 요소가 로컬에서 동작하므로 네트워크 없이 단일 리눅스 머신에서 실행됩니다.
+ *
+ * <p>실행: ./gradlew loadTest -Ploadtest.scenes=40 -Ploadtest.concurrency=8</p>
+ */
+public class LoadTestRunner {
+
+    // 서비스가 사용하는 버킷 이름 (SatelliteImageryService와 동일)
+    private static final String SOURCE_BUCKET = "dev1-apne2-pre-test-scene-bucket";
+    private static final String SCENE_PREFIX = "loadtest/";
+
+    public static void main(String[] args) throws Exception {
+        int scenes = intProperty("loadtest.scenes", 20);
+        int sceneSizeMb = intProperty("loadtest.sceneSizeMb", 16);
+        int bands = intProperty("loadtest.bands", 3);
+        int concurrency = intProperty("loadtest.concurrency", 4);
+        int batchSize = intProperty("loadtest.batchSize", 5);
+        int searchRequests = intProperty("loadtest.searchRequests", 500);
+        Duration metadataLatency = Duration.ofMillis(intProperty("loadtest.gdalMetadataLatencyMs", 50));
+        Duration convertLatency = Duration.ofMillis(intProperty("loadtest.gdalConvertLatencyMs", 500));
+        List<String> scenarios = List.of(System.getProperty("loadtest.scenarios", "single,batch,search").split(","));
+        Path workDirectory = Path.of(System.getProperty("loadtest.workDir", "build/load-test")).toAbsolutePath();
+        Path reportFile = Path.of(System.getProperty("loadtest.report", "build/reports/load-test/report.json"));
+
+        FileSystemUtils.deleteRecursively(workDirectory);
+        Path tempDirectory = Files.createDirectories(workDirectory.resolve("tmp"));
+
+        try (LocalS3Server s3 = new LocalS3Server(workDirectory.resolve("s3"));
+             // GDAL API 대체 서버는 실제 구성과 같이 애플리케이션과 임시 디렉토리를 공유
+             FakeGdalApiServer gdalApi = new FakeGdalApiServer(tempDirectory, metadataLatency, convertLatency)) {
+
+            // 1. 합성 GeoTIFF 시드
+            System.out.printf("합성 GeoTIFF %d개 생성 중 (%dMB, %d밴드)%n", scenes, sceneSizeMb, bands);
+            Path scene = SyntheticGeoTiff.writeApproximately(workDirectory.resolve("scene.tif"),
+                    sceneSizeMb * 1024L * 1024L, bands);
+            List<String> keys = new ArrayList<>();
+            for (int i = 0; i < scenes; i++) {
+                String key = String.format("%sscene_%04d.tif", SCENE_PREFIX, i);
+                s3.putObject(SOURCE_BUCKET, key, scene);
+                keys.add(key);
+            }
+
+            // 2. 대체 서버를 바라보도록 애플리케이션 기동
+            Path credentials = workDirectory.resolve("credentials.json");
+            Files.writeString(credentials, String.format(
+                    "{\"access_key_id\":\"%s\",\"secret_access_key\":\"%s\",\"region\":\"%s\","
+                            + "\"bucket_name\":\"%s\",\"username\":\"loadtest\"}",
+                    LocalS3Server.ACCESS_KEY, LocalS3Server.SECRET_KEY, LocalS3Server.REGION, SOURCE_BUCKET));
+
+            try (ConfigurableApplicationContext context = SpringApplication.run(GeotiffApplication.class,
+                    "--server.port=0",
+                    "--aws.credentials.path=file:" + credentials,
+                    "--aws.s3.endpoint=" + s3.endpoint(),
+                    "--app.gdal-api.url=" + gdalApi.endpoint(),
+                    "--app.cog.temp-dir=" + tempDirectory,
+                    "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                    "--logging.level.com.geotiff=WARN");
+                 ResourceSampler sampler = new ResourceSampler(tempDirectory, 100)) {
+
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                URI base = URI.create("http://127.0.0.1:" + port);
+                HttpClient client = HttpClient.newBuilder()
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build();
+
+                // 3. 시나리오 실행
+                List<ScenarioResult> results = new ArrayList<>();
+                for (String scenario : scenarios) {
+                    sampler.reset();
+                    ScenarioResult result = switch (scenario.trim()) {
+                        case "single" -> run("single", concurrency, keys.size(), 1, sampler, client, i ->
+                                HttpRequest.newBuilder(base.resolve("/api/imagery/convert?imageryKey=" + keys.get(i)))
+                                        .POST(HttpRequest.BodyPublishers.noBody())
+                                        .build());
+                        case "batch" -> {
+                            List<List<String>> batches = partition(keys, batchSize);
+                            yield run("batch", concurrency, batches.size(), batchSize, sampler, client, i ->
+                                    HttpRequest.newBuilder(base.resolve("/api/imagery/convert-batch"))
+                                            .header("Content-Type", "application/json")
+                                            .POST(HttpRequest.BodyPublishers.ofString(toJsonArray(batches.get(i))))
+                                            .build());
+                        }
+                        case "mixed" -> {
+                            // 다른 사용자의 일괄 변환이 진행되는 동안 대화형 단일 변환의 응답 시간 측정
+                            List<List<String>> batches = partition(keys, batchSize);
+                            ExecutorService bulk = Executors.newFixedThreadPool(concurrency);
+                            try {
+                                for (List<String> batch : batches) {
+                                    bulk.submit(() -> client.send(
+                                            HttpRequest.newBuilder(base.resolve("/api/imagery/convert-batch"))
+                                                    .header("Content-Type", "application/json")
+                                                    .header("X-User-Id", "bulk-user")
+                                                    .POST(HttpRequest.BodyPublishers.ofString(toJsonArray(batch)))
+                                                    .build(),
+                                            HttpResponse.BodyHandlers.discarding()));
+                                }
+                                yield run("mixed", Math.max(1, concurrency / 2), Math.max(1, keys.size() / 4), 1,
+                                        sampler, client, i ->
+                                                HttpRequest.newBuilder(base.resolve(
+                                                                "/api/imagery/convert?imageryKey=" + keys.get(i)))
+                                                        .header("X-User-Id", "interactive-user")
+                                                        .POST(HttpRequest.BodyPublishers.noBody())
+                                                        .build());
+                            } finally {
+                                bulk.shutdown();
+                                bulk.awaitTermination(1, TimeUnit.HOURS);
+                            }
+                        }
+                        case "search" -> run("search", concurrency, searchRequests, 0, sampler, client, i ->
+                                HttpRequest.newBuilder(base.resolve("/api/imagery?size=20&page="
+                                                + ThreadLocalRandom.current().nextInt(Math.max(1, scenes / 20))))
+                                        .GET()
+                                        .build());
+                        default -> throw new IllegalArgumentException("알 수 없는 시나리오: " + scenario);
+                    };
+                    System.out.println(result.toSummary());
+                    results.add(result);
+                }
+
+                // 4. 보고서 기록
+                Files.createDirectories(reportFile.toAbsolutePath().getParent());
+                Files.writeString(reportFile, results.stream()
+                        .map(ScenarioResult::toJson)
+                        .collect(Collectors.joining(",\n  ", "[\n  ", "\n]\n")));
+                System.out.println("보고서: " + reportFile.toAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * 요청을 목표 동시성으로 실행하고 응답 시간을 측정
+     *
+     * @param name 시나리오 이름
+     * @param concurrency 동시 요청 수
+     * @param requests 전체 요청 수
+     * @param scenesPerRequest 요청 하나가 처리하는 위성 영상 수
+     * @param requestFactory 요청 번호별 HTTP 요청 생성 함수
+     */
+    private static ScenarioResult run(String name, int concurrency, int requests, int scenesPerRequest,
+                                      ResourceSampler sampler, HttpClient client,
+                                      IntFunction<HttpRequest> requestFactory) throws Exception {
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+
+        long started = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    long requestStarted = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(requestFactory.apply(index),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() / 100 != 2) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        errors.incrementAndGet();
+                    } finally {
+                        latencies[index] = System.nanoTime() - requestStarted;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - started;
+
+        return new ScenarioResult(name, concurrency, requests, errors.get(),
+                (requests - errors.get()) * scenesPerRequest, elapsed, latencies,
+                sampler.peakHeapBytes(), sampler.peakTempBytes());
+    }
+
+    private static List<List<String>> partition(List<String> keys, int size) {
+        return IntStream.range(0, (keys.size() + size - 1) / size)
+                .mapToObj(i -> keys.subList(i * size, Math.min(keys.size(), (i + 1) * size)))
+                .toList();
+    }
+
+    private static String toJsonArray(List<String> values) {
+        return values.stream()
+                .map(value -> "\"" + value + "\"")
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        return Integer.parseInt(System.getProperty(name, String.valueOf(defaultValue)));
+    }
+}
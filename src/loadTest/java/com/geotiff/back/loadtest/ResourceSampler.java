@@ -0,0 +1,76 @@
+package com.geotiff.back.loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 힙 사용량과 임시 디렉토리 사용량의 최대값을 주기적으로 측정
+ */
+class ResourceSampler implements AutoCloseable {
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final Path tempDirectory;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "load-test-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong peakHeapBytes = new AtomicLong();
+    private final AtomicLong peakTempBytes = new AtomicLong();
+
+    ResourceSampler(Path tempDirectory, long intervalMillis) {
+        this.tempDirectory = tempDirectory;
+        scheduler.scheduleAtFixedRate(this::sample, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 다음 시나리오 측정을 위해 최대값 초기화
+     */
+    void reset() {
+        peakHeapBytes.set(0);
+        peakTempBytes.set(0);
+    }
+
+    long peakHeapBytes() {
+        return peakHeapBytes.get();
+    }
+
+    long peakTempBytes() {
+        return peakTempBytes.get();
+    }
+
+    private void sample() {
+        peakHeapBytes.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+        peakTempBytes.accumulateAndGet(directorySize(), Math::max);
+    }
+
+    private long directorySize() {
+        try (Stream<Path> files = Files.walk(tempDirectory)) {
+            return files.filter(Files::isRegularFile)
+                    .mapToLong(path -> {
+                        try {
+                            return Files.size(path);
+                        } catch (IOException e) {
+                            return 0L;
+                        }
+                    })
+                    .sum();
+        } catch (IOException | UncheckedIOException e) {
+            return 0L;
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,58 @@
+package com.geotiff.back.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 부하 시나리오 하나의 측정 결과
+ *
+ * @param name 시나리오 이름
+ * @param concurrency 동시 요청 수
+ * @param requests 전체 요청 수
+ * @param errors 실패 요청 수 (2xx 이외 응답 또는 예외)
+ * @param scenes 처리한 위성 영상 수 (검색 시나리오는 0)
+ * @param elapsedNanos 시나리오 전체 소요 시간
+ * @param latencyNanos 요청별 응답 시간
+ * @param peakHeapBytes 시나리오 중 최대 힙 사용량
+ * @param peakTempBytes 시나리오 중 최대 임시 디렉토리 사용량
+ */
+record ScenarioResult(String name, int concurrency, int requests, int errors, int scenes, long elapsedNanos,
+                      long[] latencyNanos, long peakHeapBytes, long peakTempBytes) {
+
+    double percentileMillis(double percentile) {
+        if (latencyNanos.length == 0) {
+            return 0;
+        }
+        long[] sorted = latencyNanos.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    double requestsPerSecond() {
+        return requests / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    double scenesPerMinute() {
+        return scenes / (elapsedNanos / 60_000_000_000.0);
+    }
+
+    String toSummary() {
+        return String.format(Locale.ROOT,
+                "%-7s concurrency=%d requests=%d errors=%d p50=%.1fms p99=%.1fms throughput=%.2f req/s "
+                        + "scenes/min=%.1f peakHeap=%dMB peakTemp=%dMB",
+                name, concurrency, requests, errors, percentileMillis(50), percentileMillis(99),
+                requestsPerSecond(), scenesPerMinute(), peakHeapBytes >> 20, peakTempBytes >> 20);
+    }
+
+    String toJson() {
+        return String.format(Locale.ROOT,
+                "{\"name\":\"%s\",\"concurrency\":%d,\"requests\":%d,\"errors\":%d,\"scenes\":%d,"
+                        + "\"elapsedMillis\":%d,\"p50Millis\":%.3f,\"p99Millis\":%.3f,\"maxMillis\":%.3f,"
+                        + "\"requestsPerSecond\":%.3f,\"scenesPerMinute\":%.3f,"
+                        + "\"peakHeapBytes\":%d,\"peakTempBytes\":%d}",
+                name, concurrency, requests, errors, scenes, elapsedNanos / 1_000_000,
+                percentileMillis(50), percentileMillis(99), percentileMillis(100),
+                requestsPerSecond(), scenesPerMinute(), peakHeapBytes, peakTempBytes);
+    }
+}
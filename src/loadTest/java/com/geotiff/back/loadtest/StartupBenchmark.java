@@ -0,0 +1,232 @@
+package com.geotiff.back.loadtest;
+
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 애플리케이션 시작 시간 측정기
+ * cdsArchive 태스크가 압축 해제한 jar를 구성별로 별도 JVM에서 여러 번 기동하고,
+ * 프로세스 시작부터 헬스 체크(/actuator/health)가 200을 반환할 때까지의 시간을 측정합니다.
+ * 오토스케일링으로 추가되는 복제본이 요청을 받을 수 있게 되기까지의 시간과 같은 기준입니다.
+ *
+ * <p>구성: 기본(default), 빠른 시작 프로필(fast-startup), + AOT(fast-startup-aot), + AOT + CDS(fast-startup-aot-cds)</p>
+ * <p>구성마다 별도의 H2 파일 DB를 사용하며, 측정 전에 기본 프로필로 컨텍스트 초기화까지만 실행하여 스키마를 만들어 둡니다.
+ * 빠른 시작 프로필은 스키마를 만들지 않으므로 다른 구성의 실행 순서나 결과에 의존하지 않도록 합니다.</p>
+ * <p>실행: ./gradlew startupBenchmark -Pstartup.runs=10</p>
+ */
+public class StartupBenchmark {
+
+    private static final Duration READY_TIMEOUT = Duration.ofSeconds(120);
+
+    public static void main(String[] args) throws Exception {
+        String java = System.getProperty("startup.java", "java");
+        Path cdsDirectory = Path.of(System.getProperty("startup.cdsDir", "build/cds")).toAbsolutePath();
+        String jar = System.getProperty("startup.jar");
+        int runs = Integer.parseInt(System.getProperty("startup.runs", "5"));
+        Path workDirectory = Path.of(System.getProperty("startup.workDir", "build/startup")).toAbsolutePath();
+        Path reportFile = Path.of(System.getProperty("startup.report", "build/reports/startup/report.json"));
+
+        FileSystemUtils.deleteRecursively(workDirectory);
+        Files.createDirectories(workDirectory);
+
+        // S3 클라이언트는 첫 요청 시 생성되므로 시작 시점에는 형식만 맞는 인증 정보로 충분
+        Path credentials = workDirectory.resolve("credentials.json");
+        Files.writeString(credentials, "{\"access_key_id\":\"startup\",\"secret_access_key\":\"startup\","
+                + "\"region\":\"ap-northeast-2\",\"bucket_name\":\"startup\",\"username\":\"startup\"}");
+
+        // DB와 임시 디렉토리는 구성별로 따로 지정 (environment 참고)
+        List<String> common = List.of(
+                "--aws.credentials.path=file:" + credentials,
+                "--app.checkpoint.resume-on-startup=false",
+                "--logging.level.root=WARN");
+
+        List<Variant> variants = List.of(
+                new Variant("default", List.of(), List.of()),
+                new Variant("fast-startup", List.of(), List.of("--spring.profiles.active=fast-startup")),
+                new Variant("fast-startup-aot", List.of("-Dspring.aot.enabled=true"),
+                        List.of("--spring.profiles.active=fast-startup")),
+                new Variant("fast-startup-aot-cds", List.of("-Dspring.aot.enabled=true",
+                        "-XX:SharedArchiveFile=" + cdsDirectory.resolve("application.jsa")),
+                        List.of("--spring.profiles.active=fast-startup")));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(200))
+                .build();
+
+        List<StartupResult> results = new ArrayList<>();
+        for (Variant variant : variants) {
+            List<String> environment = environment(workDirectory.resolve(variant.name()));
+            provision(java, jar, variant, common, environment, cdsDirectory);
+
+            long[] readyNanos = new long[runs];
+            // 첫 실행은 파일 시스템 캐시 워밍업으로 버림
+            for (int run = -1; run < runs; run++) {
+                long elapsed = start(java, jar, variant, common, environment, cdsDirectory, client);
+                if (run >= 0) {
+                    readyNanos[run] = elapsed;
+                }
+            }
+            StartupResult result = new StartupResult(variant.name(), readyNanos);
+            System.out.println(result.toSummary());
+            results.add(result);
+        }
+
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        Files.writeString(reportFile, results.stream()
+                .map(StartupResult::toJson)
+                .collect(Collectors.joining(",\n  ", "[\n  ", "\n]\n")));
+        System.out.println("보고서: " + reportFile.toAbsolutePath());
+    }
+
+    /**
+     * 구성 전용 DB와 임시 디렉토리 인자
+     *
+     * @param directory 구성별 작업 디렉토리
+     */
+    private static List<String> environment(Path directory) throws IOException {
+        Files.createDirectories(directory.resolve("tmp"));
+        return List.of(
+                "--spring.datasource.url=jdbc:h2:file:" + directory.resolve("data/geotiff") + ";DB_CLOSE_ON_EXIT=FALSE",
+                "--app.cog.temp-dir=" + directory.resolve("tmp"));
+    }
+
+    /**
+     * 구성 전용 DB에 스키마 생성
+     * 기본 프로필(ddl-auto: update)로 컨텍스트 초기화까지만 실행하고 종료합니다. 측정 시간에는 포함하지 않습니다.
+     */
+    private static void provision(String java, String jar, Variant variant, List<String> common,
+                                  List<String> environment, Path workingDirectory) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.add("-Dspring.context.exit=onRefresh");
+        command.add("-jar");
+        command.add(jar);
+        command.add("--server.port=0");
+        command.addAll(common);
+        command.addAll(environment);
+
+        Process process = new ProcessBuilder(command)
+                .directory(workingDirectory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        if (!process.waitFor(READY_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+            throw new IllegalStateException(variant.name() + " DB 준비 시간 초과: " + READY_TIMEOUT);
+        }
+        if (process.exitValue() != 0) {
+            throw new IllegalStateException(variant.name() + " DB 준비 실패: 종료 코드 " + process.exitValue());
+        }
+    }
+
+    /**
+     * 애플리케이션을 한 번 기동하고 준비 완료까지의 시간을 측정한 뒤 종료
+     * CDS 아카이브가 기록한 클래스패스와 같도록 학습 실행과 같은 위치(cds 디렉토리)에서 같은 상대 경로로 실행합니다.
+     *
+     * @return 프로세스 시작부터 헬스 체크 200 응답까지의 시간 (나노초)
+     */
+    private static long start(String java, String jar, Variant variant, List<String> common,
+                              List<String> environment, Path workingDirectory, HttpClient client) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(variant.jvmArgs());
+        command.add("-jar");
+        command.add(jar);
+        command.add("--server.port=" + port);
+        command.addAll(common);
+        command.addAll(environment);
+        command.addAll(variant.args());
+
+        URI health = URI.create("http://127.0.0.1:" + port + "/actuator/health");
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(workingDirectory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (System.nanoTime() - started < READY_TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(variant.name() + " 기동 실패: 종료 코드 " + process.exitValue());
+                }
+                try {
+                    HttpResponse<Void> response = client.send(HttpRequest.newBuilder(health).GET().build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        return System.nanoTime() - started;
+                    }
+                } catch (ConnectException e) {
+                    // 아직 포트가 열리지 않음
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException(variant.name() + " 기동 시간 초과: " + READY_TIMEOUT);
+        } finally {
+            // 정상 종료로 H2 파일 잠금을 해제한 뒤 다음 실행
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * 측정 구성
+     *
+     * @param name 구성 이름
+     * @param jvmArgs JVM 옵션
+     * @param args 애플리케이션 인자
+     */
+    private record Variant(String name, List<String> jvmArgs, List<String> args) {
+    }
+
+    /**
+     * 구성 하나의 측정 결과
+     *
+     * @param name 구성 이름
+     * @param readyNanos 실행별 준비 완료 시간
+     */
+    private record StartupResult(String name, long[] readyNanos) {
+
+        double percentileMillis(double percentile) {
+            long[] sorted = readyNanos.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+        }
+
+        String toSummary() {
+            return String.format(Locale.ROOT, "%-21s runs=%d min=%.0fms p50=%.0fms max=%.0fms",
+                    name, readyNanos.length, percentileMillis(0), percentileMillis(50), percentileMillis(100));
+        }
+
+        String toJson() {
+            return String.format(Locale.ROOT,
+                    "{\"name\":\"%s\",\"runs\":%d,\"minMillis\":%.3f,\"p50Millis\":%.3f,\"maxMillis\":%.3f}",
+                    name, readyNanos.length, percentileMillis(0), percentileMillis(50), percentileMillis(100));
+        }
+    }
+}
@@ -1,20 +1,41 @@
 package com.geotiff.back.domain.sateliteImagery.controller;
 
+import com.geotiff.back.domain.sateliteImagery.dto.BandMathRequestDto;
 import com.geotiff.back.domain.sateliteImagery.dto.SatelliteImagerySearchDto;
+import com.geotiff.back.domain.sateliteImagery.dto.SatelliteImagerySummaryDto;
+import com.geotiff.back.domain.sateliteImagery.dto.SubsetRequestDto;
 import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImagery;
+import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImageryBandStatistics;
+import com.geotiff.back.domain.sateliteImagery.entity.SourceScene;
+import com.geotiff.back.domain.sateliteImagery.service.BandMathService;
+import com.geotiff.back.domain.sateliteImagery.service.ImageryCatalogVersion;
+import com.geotiff.back.domain.sateliteImagery.service.ImageryExportService;
+import com.geotiff.back.domain.sateliteImagery.service.ImagerySubsetService;
 import com.geotiff.back.domain.sateliteImagery.service.SatelliteImageryService;
+import com.geotiff.back.domain.sateliteImagery.service.ScheduledConversionService;
+import com.geotiff.back.domain.sateliteImagery.service.SourceSceneProbeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.json.JSONObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * 위성 영상 처리 컨트롤러
@@ -31,6 +52,24 @@ public class SatelliteImageryController {
     // final로 선언되어 생성자 주입 방식으로 의존성이 주입됩니다.
     private final SatelliteImageryService satelliteImageryService;
 
+    // 변환 요청을 우선순위 등급과 사용자별 공정 큐 순서로 실행하는 서비스입니다.
+    private final ScheduledConversionService scheduledConversionService;
+
+    // 저장된 COG에서 필요한 타일만 읽어 부분 영역을 추출하는 서비스입니다.
+    private final ImagerySubsetService imagerySubsetService;
+
+    // 저장된 COG의 밴드로 연산식을 평가해 새 COG를 만드는 서비스입니다.
+    private final BandMathService bandMathService;
+
+    // 검색 조건에 맞는 전체 카탈로그를 스트리밍으로 내보내는 서비스입니다.
+    private final ImageryExportService imageryExportService;
+
+    // 검색 응답의 ETag/Last-Modified를 만드는 카탈로그 버전입니다.
+    private final ImageryCatalogVersion imageryCatalogVersion;
+
+    // 원본 버킷의 GeoTIFF 헤더만 읽어 변환 전 메타데이터를 수집하는 서비스입니다.
+    private final SourceSceneProbeService sourceSceneProbeService;
+
     /**
      * 사용 가능한 위성 영상 목록 조회 API
      * S3 버킷에서 사용 가능한 모든 위성 영상 파일 목록을 반환합니다.
@@ -57,17 +96,19 @@ public class SatelliteImageryController {
      * HTTP POST 요청을 처리합니다.
      *
      * @param imageryKey 변환할 위성 영상의 S3 키(경로)로, 요청 파라미터로 전달됩니다.
+     * @param tenant 요청한 사용자로, 공정 큐 단위가 됩니다. 없으면 기본 사용자로 처리합니다.
      * @return 변환된 위성 영상 메타데이터 또는 오류 정보를 담은 ResponseEntity 객체
      */
     @PostMapping("/convert") // HTTP POST 요청을 "/api/imagery/convert" 경로에 매핑합니다.
-    public ResponseEntity<?> convertSingleImagery(@RequestParam String imageryKey) {
+    public ResponseEntity<?> convertSingleImagery(@RequestParam String imageryKey,
+                                                  @RequestHeader(value = "X-User-Id", required = false) String tenant) {
         // 요청 수신 로그를 INFO 레벨로 기록합니다. 변환할 영상의 키도 함께 기록합니다.
         log.info("단일 위성 영상 변환 요청 수신: {}", imageryKey);
 
         try {
-            // 서비스 계층의 메서드를 호출하여 위성 영상을 처리합니다.
+            // 대화형 등급으로 실행 허가를 받은 뒤 위성 영상을 처리합니다.
             // 이 과정에서 영상 다운로드, 메타데이터 추출, COG 변환, S3 업로드 등이 수행됩니다.
-            SatelliteImagery result = satelliteImageryService.processSingleImagery(imageryKey);
+            SatelliteImagery result = scheduledConversionService.convert(imageryKey, tenant);
 
             // 변환 성공 시 HTTP 200 OK 상태 코드와 함께 변환 결과를 응답 본문에 포함하여 반환합니다.
             return ResponseEntity.ok(result);
@@ -94,34 +135,22 @@ public class SatelliteImageryController {
      * HTTP POST 요청을 처리합니다.
      *
      * @param imageryKeys 변환할 위성 영상 키 목록으로, 요청 본문(JSON)으로 전달됩니다.
+     * @param tenant 요청한 사용자로, 공정 큐 단위가 됩니다. 없으면 기본 사용자로 처리합니다.
      * @return 변환된 위성 영상 메타데이터 목록 또는 오류 정보를 담은 ResponseEntity 객체
      */
     @PostMapping("/convert-batch") // HTTP POST 요청을 "/api/imagery/convert-batch" 경로에 매핑합니다.
-    public ResponseEntity<?> convertMultipleImagery(@RequestBody List<String> imageryKeys) {
+    public ResponseEntity<?> convertMultipleImagery(@RequestBody List<String> imageryKeys,
+                                                    @RequestHeader(value = "X-User-Id", required = false) String tenant) {
         // 요청 수신 로그를 INFO 레벨로 기록합니다. 변환할 영상 개수도 함께 기록합니다.
         log.info("다중 위성 영상 변환 요청 수신: 개수={}", imageryKeys.size());
 
-        try {
-            // 서비스 계층의 메서드를 호출하여 여러 위성 영상을 일괄 처리합니다.
-            // 내부적으로는 각 영상에 대해 단일 영상 처리 로직이 순차적으로 적용됩니다.
-            List<SatelliteImagery> results = satelliteImageryService.processMultipleImagery(imageryKeys);
+        // 서비스 계층의 메서드를 호출하여 여러 위성 영상을 일괄 처리합니다.
+        // 예상 변환 시간 순서(큰 영상은 전용 스레드에서 먼저, 나머지는 짧은 것부터)로 병렬 처리하며,
+        // 영상마다 일괄 등급으로 실행 허가를 받고, 실패한 영상은 건너뜁니다.
+        List<SatelliteImagery> results = scheduledConversionService.convertBatch(imageryKeys, tenant);
 
-            // 변환 성공 시 HTTP 200 OK 상태 코드와 함께 변환 결과 목록을 응답 본문에 포함하여 반환합니다.
-            return ResponseEntity.ok(results);
-        } catch (IOException e) {
-            // 변환 과정에서 오류 발생 시 로그를 ERROR 레벨로 기록합니다.
-            log.error("다중 위성 영상 변환 오류", e);
-
-            // 클라이언트에게 반환할 오류 정보를 Map으로 구성합니다.
-            Map<String, String> error = new HashMap<>();
-            // 오류 유형 정보를 추가합니다.
-            error.put("error", "다중 위성 영상 변환 실패");
-            // 상세 오류 메시지를 추가합니다.
-            error.put("message", e.getMessage());
-
-            // HTTP 500 Internal Server Error 상태 코드와 함께 오류 정보를 응답 본문에 포함하여 반환합니다.
-            return ResponseEntity.internalServerError().body(error);
-        }
+        // HTTP 200 OK 상태 코드와 함께 변환 결과 목록을 응답 본문에 포함하여 반환합니다.
+        return ResponseEntity.ok(results);
     }
 
     /**
@@ -131,21 +160,31 @@ public class SatelliteImageryController {
      *
      * @param searchDto 검색 조건 DTO로, 요청 파라미터를 객체로 바인딩합니다.
      * @param pageable 페이지네이션 정보로, 기본 페이지 크기는 20으로 설정됩니다.
-     * @return 검색된 위성 영상 페이지를 담은 ResponseEntity 객체
+     * @param webRequest 조건부 요청 헤더를 확인할 요청 객체입니다.
+     * @return 검색된 위성 영상 페이지를 담은 ResponseEntity 객체 (카탈로그가 바뀌지 않았으면 304)
      */
     @GetMapping // HTTP GET 요청을 기본 경로 "/api/imagery"에 매핑합니다.
-    public ResponseEntity<Page<SatelliteImagery>> searchImagery(
+    public ResponseEntity<Page<SatelliteImagerySummaryDto>> searchImagery(
             @ModelAttribute SatelliteImagerySearchDto searchDto, // HTTP 요청 파라미터를 DTO 객체로 변환합니다.
-            @PageableDefault(size = 20) Pageable pageable) { // 페이지 정보를 추출하며, 기본 크기는 20으로 설정합니다.
+            @PageableDefault(size = 20) Pageable pageable, // 페이지 정보를 추출하며, 기본 크기는 20으로 설정합니다.
+            WebRequest webRequest) { // 조건부 요청(If-None-Match, If-Modified-Since) 확인에 사용합니다.
 
         // 요청 수신 로그를 INFO 레벨로 기록합니다. 검색 조건도 함께 기록합니다.
         log.info("위성 영상 검색 요청 수신: {}", searchDto);
 
+        // 카탈로그가 바뀌지 않았으면 조회 없이 HTTP 304 Not Modified를 반환합니다.
+        // ETag는 카탈로그 버전과 검색 조건/페이지 정보로 만들므로 다른 조건이나 페이지의 응답과 겹치지 않습니다.
+        long catalogVersion = imageryCatalogVersion.current();
+        String etag = imageryCatalogVersion.etag(catalogVersion, searchDto.toMap(), pageable);
+        if (webRequest.checkNotModified(etag, catalogVersion)) {
+            return null;
+        }
+
         // 서비스 계층의 메서드를 호출하여 검색 조건에 맞는 위성 영상을 페이지네이션하여 조회합니다.
-        Page<SatelliteImagery> results = satelliteImageryService.searchImagery(searchDto, pageable);
+        Page<SatelliteImagerySummaryDto> results = satelliteImageryService.searchImagery(searchDto, pageable);
 
-        // HTTP 200 OK 상태 코드와 함께 검색 결과를 응답 본문에 포함하여 반환합니다.
-        return ResponseEntity.ok(results);
+        // HTTP 200 OK 상태 코드와 함께 검색 결과와 캐시 검증 헤더(ETag, Last-Modified)를 반환합니다.
+        return ResponseEntity.ok().eTag(etag).lastModified(catalogVersion).body(results);
     }
 
     /**
@@ -155,21 +194,279 @@ public class SatelliteImageryController {
      *
      * @param searchDto 검색 조건 DTO로, 요청 본문(JSON)을 객체로 바인딩합니다.
      * @param pageable 페이지네이션 정보로, 기본 페이지 크기는 20으로 설정됩니다.
-     * @return 검색된 위성 영상 페이지를 담은 ResponseEntity 객체
+     * @param webRequest 조건부 요청 헤더 확인용 요청 객체
+     * @return 검색된 위성 영상 페이지를 담은 ResponseEntity 객체 (카탈로그가 바뀌지 않았으면 304)
      */
     @PostMapping("/search") // HTTP POST 요청을 "/api/imagery/search" 경로에 매핑합니다.
-    public ResponseEntity<Page<SatelliteImagery>> advancedSearch(
+    public ResponseEntity<Page<SatelliteImagerySummaryDto>> advancedSearch(
             @RequestBody SatelliteImagerySearchDto searchDto, // HTTP 요청 본문을 DTO 객체로 변환합니다.
-            @PageableDefault(size = 20) Pageable pageable) { // 페이지 정보를 추출하며, 기본 크기는 20으로 설정합니다.
+            @PageableDefault(size = 20) Pageable pageable, // 페이지 정보를 추출하며, 기본 크기는 20으로 설정합니다.
+            WebRequest webRequest) { // 조건부 요청(If-None-Match, If-Modified-Since) 확인에 사용합니다.
 
         // 요청 수신 로그를 INFO 레벨로 기록합니다. 검색 조건도 함께 기록합니다.
         log.info("위성 영상 고급 검색 요청 수신: {}", searchDto);
 
+        // 카탈로그가 바뀌지 않았으면 조회 없이 HTTP 304 Not Modified를 반환합니다.
+        // POST 요청이므로 checkNotModified(일치 시 412) 대신 카탈로그 버전과 직접 비교합니다.
+        long catalogVersion = imageryCatalogVersion.current();
+        String etag = imageryCatalogVersion.etag(catalogVersion, searchDto.toMap(), pageable);
+        if (imageryCatalogVersion.isNotModified(webRequest, etag, catalogVersion)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).lastModified(catalogVersion).build();
+        }
+
         // 서비스 계층의 메서드를 호출하여 검색 조건에 맞는 위성 영상을 페이지네이션하여 조회합니다.
         // 기본 검색 API와 동일한 서비스 메서드를 사용하지만, 요청 형식이 다릅니다.
-        Page<SatelliteImagery> results = satelliteImageryService.searchImagery(searchDto, pageable);
+        Page<SatelliteImagerySummaryDto> results = satelliteImageryService.searchImagery(searchDto, pageable);
 
-        // HTTP 200 OK 상태 코드와 함께 검색 결과를 응답 본문에 포함하여 반환합니다.
-        return ResponseEntity.ok(results);
+        // HTTP 200 OK 상태 코드와 함께 검색 결과와 캐시 검증 헤더(ETag, Last-Modified)를 반환합니다.
+        return ResponseEntity.ok().eTag(etag).lastModified(catalogVersion).body(results);
+    }
+
+    /**
+     * 위성 영상 카탈로그 내보내기 API
+     * 검색 조건에 맞는 전체 위성 영상을 페이지 없이 NDJSON 또는 CSV로 스트리밍합니다.
+     * DB에서 한 방향 커서로 일정 개수씩 읽어 바로 기록하므로 행 수와 관계없이 메모리 사용량이 일정합니다.
+     * HTTP GET 요청을 처리합니다.
+     *
+     * @param searchDto 검색 조건 DTO로, 요청 파라미터를 객체로 바인딩합니다. (includeProjection=true이면 좌표계 WKT 포함)
+     * @param format 출력 형식으로, ndjson(기본값) 또는 csv입니다.
+     * @return 내보내기 스트림 또는 오류 정보(JSON)를 담은 ResponseEntity 객체
+     */
+    @GetMapping("/export") // HTTP GET 요청을 "/api/imagery/export" 경로에 매핑합니다.
+    public ResponseEntity<StreamingResponseBody> exportImagery(
+            @ModelAttribute SatelliteImagerySearchDto searchDto, // HTTP 요청 파라미터를 DTO 객체로 변환합니다.
+            @RequestParam(defaultValue = "ndjson") String format) {
+        // 요청 수신 로그를 INFO 레벨로 기록합니다. 검색 조건도 함께 기록합니다.
+        log.info("위성 영상 카탈로그 내보내기 요청 수신: 형식={}, 조건={}", format, searchDto);
+
+        // 오류 정보를 담을 Map입니다.
+        Map<String, String> error = new HashMap<>();
+        ImageryExportService.Format exportFormat;
+        try {
+            // 출력 형식을 결정합니다.
+            exportFormat = ImageryExportService.Format.from(format);
+        } catch (IllegalArgumentException e) {
+            // 지원하지 않는 형식이면 HTTP 400 Bad Request를 반환합니다.
+            error.put("error", "잘못된 내보내기 요청");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(jsonBody(error));
+        }
+
+        // 조회와 기록은 응답을 쓰는 시점에 서비스의 읽기 전용 트랜잭션 안에서 수행합니다.
+        StreamingResponseBody body = out -> imageryExportService.export(searchDto, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("imagery." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    /**
+     * 위성 영상 단건 조회 API
+     * 저장된 위성 영상은 변경되지 않으므로 ID와 등록 시각으로 만든 ETag로 조건부 요청에 응답합니다.
+     * HTTP GET 요청을 처리합니다.
+     *
+     * @param id 위성 영상 ID로, 경로 변수로 전달됩니다.
+     * @param webRequest 조건부 요청 헤더를 확인할 요청 객체입니다.
+     * @return 위성 영상 메타데이터를 담은 ResponseEntity 객체 (없으면 404, 바뀌지 않았으면 304)
+     */
+    @GetMapping("/{id}") // HTTP GET 요청을 "/api/imagery/{id}" 경로에 매핑합니다.
+    public ResponseEntity<SatelliteImagery> getImagery(@PathVariable Long id, WebRequest webRequest) {
+        // 서비스 계층의 메서드를 호출하여 위성 영상을 조회합니다. (Hibernate 2차 캐시에 있으면 DB를 조회하지 않습니다.)
+        Optional<SatelliteImagery> found = satelliteImageryService.findImagery(id);
+
+        // 위성 영상이 없으면 HTTP 404 Not Found를 반환합니다.
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // 클라이언트가 가진 것과 같으면 본문 없이 HTTP 304 Not Modified를 반환합니다.
+        SatelliteImagery imagery = found.get();
+        long lastModified = imagery.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        String etag = "\"" + imagery.getId() + "-" + Long.toHexString(lastModified) + "\"";
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+
+        // HTTP 200 OK 상태 코드와 함께 위성 영상 메타데이터와 캐시 검증 헤더를 반환합니다.
+        return ResponseEntity.ok().eTag(etag).lastModified(lastModified).body(imagery);
+    }
+
+    /**
+     * 위성 영상 밴드별 통계 조회 API
+     * 변환 시 계산된 밴드별 최소/최대/평균/표준편차, nodata 비율, 히스토그램을 반환합니다.
+     * HTTP GET 요청을 처리합니다.
+     *
+     * @param id 위성 영상 ID로, 경로 변수로 전달됩니다.
+     * @return 밴드별 통계 목록을 담은 ResponseEntity 객체 (통계가 없으면 404)
+     */
+    @GetMapping("/{id}/statistics") // HTTP GET 요청을 "/api/imagery/{id}/statistics" 경로에 매핑합니다.
+    public ResponseEntity<List<SatelliteImageryBandStatistics>> getBandStatistics(@PathVariable Long id) {
+        // 요청 수신 로그를 INFO 레벨로 기록합니다.
+        log.info("위성 영상 밴드 통계 조회 요청 수신: id={}", id);
+
+        // 서비스 계층의 메서드를 호출하여 밴드 통계를 조회합니다.
+        List<SatelliteImageryBandStatistics> statistics = satelliteImageryService.getBandStatistics(id);
+
+        // 통계가 없으면 HTTP 404 Not Found를, 있으면 HTTP 200 OK와 함께 통계 목록을 반환합니다.
+        return statistics.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(statistics);
+    }
+
+    /**
+     * 위성 영상 부분 영역(subset) 추출 API
+     * 저장된 COG에서 요청한 창과 밴드만 읽어 작은 GeoTIFF로 반환합니다.
+     * 요청 창과 겹치는 타일만 S3에서 가져오므로 원본 크기와 관계없이 창 크기에 비례하는 비용으로 처리됩니다.
+     * HTTP POST 요청을 처리합니다.
+     *
+     * @param id 위성 영상 ID로, 경로 변수로 전달됩니다.
+     * @param request 추출할 창(픽셀 또는 지리 좌표), 밴드, 목표 크기로, 요청 본문(JSON)으로 전달됩니다.
+     * @return GeoTIFF 스트림 또는 오류 정보(JSON)를 담은 ResponseEntity 객체 (영상이 없으면 404)
+     */
+    @PostMapping("/{id}/subset") // HTTP POST 요청을 "/api/imagery/{id}/subset" 경로에 매핑합니다.
+    public ResponseEntity<StreamingResponseBody> extractSubset(@PathVariable Long id, @RequestBody SubsetRequestDto request) {
+        // 요청 수신 로그를 INFO 레벨로 기록합니다. 추출 조건도 함께 기록합니다.
+        log.info("위성 영상 부분 영역 추출 요청 수신: id={}, 요청={}", id, request);
+
+        // 오류 정보를 담을 Map입니다.
+        Map<String, String> error = new HashMap<>();
+        try {
+            // 서비스 계층의 메서드를 호출하여 COG 헤더를 읽고 추출할 창과 오버뷰 레벨을 결정합니다.
+            Optional<ImagerySubsetService.Subset> subset = imagerySubsetService.prepareSubset(id, request);
+
+            // 위성 영상이 없으면 HTTP 404 Not Found를 반환합니다.
+            if (subset.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            // 픽셀 데이터는 응답을 쓰는 시점에 타일을 읽어 스트리밍합니다.
+            StreamingResponseBody body = subset.get()::writeTo;
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("image/tiff"))
+                    .contentLength(subset.get().getContentLength())
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename(subset.get().getFileName())
+                            .build()
+                            .toString())
+                    .body(body);
+        } catch (IllegalArgumentException e) {
+            // 잘못된 창/밴드 지정 또는 출력 크기 초과 시 HTTP 400 Bad Request를 반환합니다.
+            error.put("error", "잘못된 부분 영역 추출 요청");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(jsonBody(error));
+        } catch (IOException e) {
+            // COG 헤더 읽기 실패 등 처리 중 오류 발생 시 로그를 ERROR 레벨로 기록합니다.
+            log.error("위성 영상 부분 영역 추출 오류: id={}", id, e);
+            error.put("error", "위성 영상 부분 영역 추출 실패");
+            error.put("message", e.getMessage());
+            return ResponseEntity.internalServerError().contentType(MediaType.APPLICATION_JSON).body(jsonBody(error));
+        }
+    }
+
+    /**
+     * 밴드 연산(band math) API
+     * 저장된 COG의 밴드로 연산식(예: NDVI = (b4-b3)/(b4+b3))을 타일 단위로 병렬 평가하여
+     * 단일 밴드 float32 COG를 만들고, S3에 업로드한 뒤 새 위성 영상으로 등록합니다.
+     * HTTP POST 요청을 처리합니다.
+     *
+     * @param id 원본 위성 영상 ID로, 경로 변수로 전달됩니다.
+     * @param request 연산식과 결과 이름으로, 요청 본문(JSON)으로 전달됩니다.
+     * @return 새로 등록된 위성 영상 메타데이터 또는 오류 정보를 담은 ResponseEntity 객체 (영상이 없으면 404)
+     */
+    @PostMapping("/{id}/band-math") // HTTP POST 요청을 "/api/imagery/{id}/band-math" 경로에 매핑합니다.
+    public ResponseEntity<?> computeBandMath(@PathVariable Long id, @RequestBody BandMathRequestDto request) {
+        // 요청 수신 로그를 INFO 레벨로 기록합니다. 연산식도 함께 기록합니다.
+        log.info("밴드 연산 요청 수신: id={}, 요청={}", id, request);
+
+        // 오류 정보를 담을 Map입니다.
+        Map<String, String> error = new HashMap<>();
+        try {
+            // 서비스 계층의 메서드를 호출하여 연산, COG 작성, S3 업로드, 메타데이터 저장을 수행합니다.
+            Optional<SatelliteImagery> result = bandMathService.computeBandMath(id, request);
+
+            // 원본 위성 영상이 없으면 HTTP 404 Not Found를, 있으면 HTTP 200 OK와 함께 새 위성 영상을 반환합니다.
+            return result.<ResponseEntity<?>>map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            // 연산식 문법 오류, 존재하지 않는 밴드 참조, 지원하지 않는 샘플 형식 등은 HTTP 400 Bad Request를 반환합니다.
+            error.put("error", "잘못된 밴드 연산 요청");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (IOException e) {
+            // 타일 읽기, COG 작성, 업로드 중 오류 발생 시 로그를 ERROR 레벨로 기록합니다.
+            log.error("밴드 연산 오류: id={}", id, e);
+            error.put("error", "밴드 연산 실패");
+            error.put("message", e.getMessage());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    /**
+     * 원본 버킷 메타데이터 일괄 수집 시작 API
+     * 원본 버킷을 순회하며 GeoTIFF 헤더만 읽어 크기, 밴드, 좌표계, 범위를 원본 영상 메타데이터로 저장합니다.
+     * 수집은 별도 스레드에서 실행되므로 바로 응답하며, 진행 상황은 상태 조회 API로 확인합니다.
+     * HTTP POST 요청을 처리합니다.
+     *
+     * @param prefix 수집할 키 접두사로, 없으면 버킷 전체를 수집합니다.
+     * @param force true이면 이전 수집 이후 바뀌지 않은 영상도 다시 읽습니다.
+     * @return 시작한 수집 작업 상태(202) 또는 오류 정보(이미 실행 중이면 409)를 담은 ResponseEntity 객체
+     */
+    @PostMapping("/source-scenes/probe") // HTTP POST 요청을 "/api/imagery/source-scenes/probe" 경로에 매핑합니다.
+    public ResponseEntity<?> startSourceSceneProbe(@RequestParam(defaultValue = "") String prefix,
+                                                   @RequestParam(defaultValue = "false") boolean force) {
+        // 요청 수신 로그를 INFO 레벨로 기록합니다. 접두사도 함께 기록합니다.
+        log.info("원본 메타데이터 수집 요청 수신: 접두사={}, 강제={}", prefix, force);
+
+        // 서비스 계층의 메서드를 호출하여 수집 작업을 시작합니다.
+        Optional<SourceSceneProbeService.ProbeStatus> started = sourceSceneProbeService.start(prefix, force);
+
+        // 이미 실행 중인 수집 작업이 있으면 HTTP 409 Conflict를 반환합니다.
+        if (started.isEmpty()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "원본 메타데이터 수집이 이미 실행 중입니다");
+            error.put("message", "GET /api/imagery/source-scenes/probe 로 진행 상황을 확인하세요");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        }
+
+        // HTTP 202 Accepted 상태 코드와 함께 시작한 작업의 상태를 반환합니다.
+        return ResponseEntity.accepted().body(started.get());
+    }
+
+    /**
+     * 원본 버킷 메타데이터 수집 상태 조회 API
+     * 현재 실행 중이거나 마지막으로 실행한 수집 작업의 건수와 초당 처리량을 반환합니다.
+     * HTTP GET 요청을 처리합니다.
+     *
+     * @return 수집 작업 상태를 담은 ResponseEntity 객체
+     */
+    @GetMapping("/source-scenes/probe") // HTTP GET 요청을 "/api/imagery/source-scenes/probe" 경로에 매핑합니다.
+    public ResponseEntity<SourceSceneProbeService.ProbeStatus> getSourceSceneProbeStatus() {
+        // HTTP 200 OK 상태 코드와 함께 수집 작업 상태를 반환합니다.
+        return ResponseEntity.ok(sourceSceneProbeService.getStatus());
+    }
+
+    /**
+     * 원본 영상 메타데이터 조회 API
+     * 수집된 원본 영상(변환 전)의 크기, 밴드, 좌표계, 범위를 페이지네이션하여 반환합니다.
+     * HTTP GET 요청을 처리합니다.
+     *
+     * @param pageable 페이지네이션 정보로, 기본 페이지 크기는 20으로 설정됩니다.
+     * @return 원본 영상 메타데이터 페이지를 담은 ResponseEntity 객체
+     */
+    @GetMapping("/source-scenes") // HTTP GET 요청을 "/api/imagery/source-scenes" 경로에 매핑합니다.
+    public ResponseEntity<Page<SourceScene>> listSourceScenes(@PageableDefault(size = 20) Pageable pageable) {
+        // HTTP 200 OK 상태 코드와 함께 조회된 페이지를 반환합니다.
+        return ResponseEntity.ok(sourceSceneProbeService.findScenes(pageable));
+    }
+
+    /**
+     * 스트리밍 응답 API의 오류 정보를 JSON 본문으로 변환합니다.
+     * 응답 타입이 StreamingResponseBody로 고정되므로 오류 Map도 같은 타입으로 감싸서 반환합니다.
+     *
+     * @param error 오류 정보
+     * @return JSON을 기록하는 응답 본문
+     */
+    private StreamingResponseBody jsonBody(Map<String, String> error) {
+        return out -> out.write(new JSONObject(error).toString().getBytes(StandardCharsets.UTF_8));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package com.geotiff.back.domain.sateliteImagery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 밴드 연산(band math) 요청 DTO
+ * 저장된 COG의 밴드로 계산한 결과를 새 단일 밴드 float32 COG로 저장합니다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class BandMathRequestDto {
+
+    // 연산식 (밴드는 b1, b2, ... 로 참조, 예: (b4-b3)/(b4+b3))
+    private String expression;
+
+    // 결과 파일명에 붙일 이름 (영문/숫자/-/_, 없으면 bandmath)
+    private String name;
+}
@@ -0,0 +1,20 @@
+package com.geotiff.back.domain.sateliteImagery.dto;
+
+/**
+ * 변환 기록 조회 결과 (변환 시간 예측 모델 학습용)
+ * 엔티티 대신 모델 학습에 필요한 컬럼만 조회하는 인터페이스 프로젝션입니다.
+ */
+public interface ConversionHistoryDto {
+
+    Long getSourceFileSize();
+
+    Integer getWidth();
+
+    Integer getHeight();
+
+    Integer getBandCount();
+
+    Integer getSourceCompression();
+
+    Long getConversionMillis();
+}
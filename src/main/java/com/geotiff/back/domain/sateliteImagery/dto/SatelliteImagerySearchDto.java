@@ -4,11 +4,14 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 /**
  * 위성 영상 메타데이터 검색을 위한 DTO
+ * GET 요청의 쿼리 파라미터(@ModelAttribute)로도 바인딩되도록 setter를 둡니다.
  */
 @Getter
+@Setter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,6 +24,10 @@ public class SatelliteImagerySearchDto {
     private Integer height;
     private Integer bandCount;
     private String projection;
+    // 모든 밴드의 nodata 비율(%)이 이 값 이하인 영상만 조회
+    private Double maxNodataPercent;
+    // 결과에 좌표계 WKT(projection)를 포함할지 여부 (기본 제외)
+    private Boolean includeProjection;
 
     // DTO를 Map으로 변환하는 정적 메서드 (필요하다면 사용)
     public java.util.Map<String, Object> toMap() {
@@ -54,6 +61,21 @@ public class SatelliteImagerySearchDto {
             map.put("projection", projection);
         }
 
+        if (maxNodataPercent != null) {
+            map.put("maxNodataPercent", maxNodataPercent);
+        }
+
+        if (includeProjection != null) {
+            map.put("includeProjection", includeProjection);
+        }
+
         return map;
     }
+
+    /**
+     * 결과에 좌표계 WKT를 포함해야 하는지 여부
+     */
+    public boolean isProjectionIncluded() {
+        return Boolean.TRUE.equals(includeProjection);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.geotiff.back.domain.sateliteImagery.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 위성 영상 검색/내보내기 결과 DTO
+ * 엔티티 대신 필요한 컬럼만 조회하며, 크기가 큰 좌표계 WKT(projection)는 요청한 경우에만 채웁니다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SatelliteImagerySummaryDto {
+
+    private Long id;
+    private String originalName;
+    private String cogName;
+    private Integer width;
+    private Integer height;
+    private Integer bandCount;
+    // includeProjection=true인 경우에만 조회 (없으면 응답에서 생략)
+    private String projection;
+    private String s3Path;
+    private Integer sequence;
+    private Long fileSize;
+    private LocalDateTime createdAt;
+}
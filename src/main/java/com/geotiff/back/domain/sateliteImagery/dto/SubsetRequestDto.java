@@ -0,0 +1,53 @@
+package com.geotiff.back.domain.sateliteImagery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * 위성 영상 부분 영역(subset) 추출 요청 DTO
+ * 픽셀 창(x, y, width, height) 또는 지리 좌표 창(minX, minY, maxX, maxY) 중 하나를 지정합니다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class SubsetRequestDto {
+
+    // 픽셀 창 (원본 해상도 기준)
+    private Integer x;
+    private Integer y;
+    private Integer width;
+    private Integer height;
+
+    // 지리 좌표 창 (영상의 좌표계 기준, 재투영하지 않음)
+    private Double minX;
+    private Double minY;
+    private Double maxX;
+    private Double maxY;
+
+    // 추출할 밴드 번호 (1부터 시작, 없으면 전체 밴드)
+    private List<Integer> bands;
+
+    // 출력 긴 변의 목표 픽셀 수 (이 크기 이상을 만족하는 가장 낮은 해상도의 오버뷰를 사용, 없으면 원본 해상도)
+    private Integer targetSize;
+
+    /**
+     * 지리 좌표 창 지정 여부
+     */
+    public boolean hasGeoWindow() {
+        return minX != null && minY != null && maxX != null && maxY != null;
+    }
+
+    /**
+     * 픽셀 창 지정 여부
+     */
+    public boolean hasPixelWindow() {
+        return x != null && y != null && width != null && height != null;
+    }
+}
@@ -0,0 +1,204 @@
+package com.geotiff.back.domain.sateliteImagery.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 위성 영상 변환 체크포인트
+ * 변환 한 건이 마지막으로 완료한 단계와 다음 단계를 재개하는 데 필요한 정보를 기록합니다.
+ * 애플리케이션이 재시작되면 이 정보로 완료된 단계를 건너뛰고 이어서 진행합니다.
+ */
+@Entity
+@Table(name = "conversion_checkpoint", indexes = {
+        @Index(name = "idx_conversion_checkpoint_imagery_key", columnList = "imageryKey"),
+        @Index(name = "idx_conversion_checkpoint_stage", columnList = "stage")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConversionCheckpoint {
+
+    /**
+     * 완료된 변환 단계
+     */
+    public enum Stage {
+        // 체크포인트만 생성됨
+        STARTED,
+        // 원본 다운로드 완료 (로컬 경로, 크기, 원본 ETag)
+        DOWNLOADED,
+        // COG 변환 완료 (로컬 경로, 크기, 메타데이터)
+        CONVERTED,
+        // S3 업로드 완료 (키, ETag)
+        UPLOADED,
+        // SatelliteImagery 저장 완료
+        CATALOGUED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String imageryKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Stage stage;
+
+    // 다운로드 단계
+    @Column
+    private String downloadedPath;
+
+    @Column
+    private Long sourceSize;
+
+    @Column
+    private String sourceETag;
+
+    // 변환 단계
+    @Column
+    private String cogPath;
+
+    @Column
+    private Long cogSize;
+
+    @Lob
+    @Column
+    private String metadata;
+
+    // 업로드 단계 (uploadId는 업로드 시작 시, ETag는 완료 시 기록)
+    @Column
+    private Integer sequence;
+
+    @Column
+    private String cogName;
+
+    @Column
+    private String s3Path;
+
+    @Column
+    private String uploadId;
+
+    @Column
+    private String uploadETag;
+
+    // 카탈로그 단계
+    @Column
+    private Long satelliteImageryId;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * 다운로드 완료 기록
+     * 이후 단계 정보는 새 원본 기준으로 다시 만들어야 하므로 초기화합니다.
+     */
+    public void markDownloaded(String downloadedPath, long sourceSize, String sourceETag) {
+        this.stage = Stage.DOWNLOADED;
+        this.downloadedPath = downloadedPath;
+        this.sourceSize = sourceSize;
+        this.sourceETag = sourceETag;
+        this.cogPath = null;
+        this.cogSize = null;
+        this.metadata = null;
+        this.uploadId = null;
+        this.uploadETag = null;
+    }
+
+    /**
+     * 메모리로 받은 원본 기록 (IN_MEMORY 경로)
+     * 원본을 파일로 남기지 않으므로 다운로드 단계는 기록하지 않고, 변환 결과 재사용 확인에 쓸 원본 크기와 ETag만 기록합니다.
+     */
+    public void recordInMemorySource(long sourceSize, String sourceETag) {
+        this.downloadedPath = null;
+        this.sourceSize = sourceSize;
+        this.sourceETag = sourceETag;
+    }
+
+    /**
+     * 변환 완료 기록
+     * 원본 파일은 더 이상 필요 없으므로 경로를 지웁니다.
+     */
+    public void markConverted(String cogPath, long cogSize, String metadata) {
+        this.stage = Stage.CONVERTED;
+        this.downloadedPath = null;
+        this.cogPath = cogPath;
+        this.cogSize = cogSize;
+        this.metadata = metadata;
+        this.uploadId = null;
+        this.uploadETag = null;
+    }
+
+    /**
+     * 멀티파트 업로드 시작 기록 (단계는 CONVERTED 유지)
+     */
+    public void startUpload(int sequence, String cogName, String s3Path, String uploadId) {
+        this.sequence = sequence;
+        this.cogName = cogName;
+        this.s3Path = s3Path;
+        this.uploadId = uploadId;
+    }
+
+    /**
+     * 업로드 완료 기록
+     * 로컬 COG 파일은 더 이상 필요 없으므로 경로를 지웁니다.
+     */
+    public void markUploaded(String uploadETag) {
+        this.stage = Stage.UPLOADED;
+        this.cogPath = null;
+        this.uploadId = null;
+        this.uploadETag = uploadETag;
+    }
+
+    /**
+     * 카탈로그(DB) 저장 완료 기록
+     */
+    public void markCatalogued(Long satelliteImageryId) {
+        this.stage = Stage.CATALOGUED;
+        this.satelliteImageryId = satelliteImageryId;
+        this.lastError = null;
+    }
+
+    /**
+     * 실행 시도 횟수 증가
+     */
+    public void startAttempt() {
+        this.attempts = attempts != null ? attempts + 1 : 1;
+    }
+
+    /**
+     * 실패 원인 기록 (다음 실행에서 같은 단계부터 재시도)
+     */
+    public void recordFailure(String message) {
+        this.lastError = message != null && message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+        if (this.attempts == null) {
+            this.attempts = 0;
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -5,11 +5,18 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "satellite_imagery")
+// 같은 S3 객체를 가리키는 결과가 두 번 저장되지 않도록 경로에 유일 제약 (시퀀스 할당은 CogSequenceAllocator)
+@Table(name = "satellite_imagery",
+        uniqueConstraints = @UniqueConstraint(name = "uk_satellite_imagery_s3_path", columnNames = "s3_path"))
+// id 조회 결과를 Hibernate 2차 캐시에 보관 (영역 설정은 application.conf)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "satelliteImagery")
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -48,6 +55,22 @@ public class SatelliteImagery {
     @Column
     private Long fileSize;
 
+    // 변환 기록 (변환 시간 예측 모델 학습용)
+    // 원본 크기와 원본 압축 방식 (원본 메타데이터가 수집되지 않았으면 압축 방식은 null)
+    @Column
+    private Long sourceFileSize;
+
+    @Column
+    private Integer sourceCompression;
+
+    // 임시 공간 예약 후 업로드 완료까지 걸린 시간 (체크포인트에서 재개한 변환은 null)
+    @Column
+    private Long conversionMillis;
+
+    // 변환 경로 (IN_MEMORY, STANDARD, LARGE)
+    @Column(length = 20)
+    private String conversionLane;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,65 @@
+package com.geotiff.back.domain.sateliteImagery.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 위성 영상의 밴드별 통계 정보
+ * 메타데이터 추출 시 GDAL API가 단일 패스로 계산한 값을 저장하여 래스터를 다시 읽지 않고 조회/검색할 수 있게 합니다.
+ */
+@Entity
+@Table(name = "satellite_imagery_band_statistics",
+        indexes = @Index(name = "idx_band_statistics_imagery", columnList = "satellite_imagery_id"))
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SatelliteImageryBandStatistics {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "satellite_imagery_id", nullable = false)
+    private SatelliteImagery satelliteImagery;
+
+    @Column(nullable = false)
+    private Integer bandIndex;
+
+    @Column
+    private Double minValue;
+
+    @Column
+    private Double maxValue;
+
+    @Column
+    private Double mean;
+
+    @Column
+    private Double stdDev;
+
+    @Column
+    private Double noDataValue;
+
+    @Column(nullable = false)
+    private Double nodataPercent;
+
+    @Column
+    private Double histogramMin;
+
+    @Column
+    private Double histogramMax;
+
+    /**
+     * 히스토그램 구간별 빈도 (쉼표로 구분)
+     */
+    @Lob
+    @Column
+    private String histogram;
+}
@@ -0,0 +1,90 @@
+package com.geotiff.back.domain.sateliteImagery.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 원본 버킷의 위성 영상(변환 전) 메타데이터
+ * 원본 GeoTIFF 헤더만 ranged GET으로 읽어 채우므로, 변환하지 않고도 크기/밴드/좌표계/범위로 변환 대상을 고를 수 있습니다.
+ * 같은 키의 객체가 바뀌지 않았으면(ETag와 크기가 같으면) 다시 읽지 않습니다.
+ */
+@Entity
+@Table(name = "source_scene", indexes = {
+        @Index(name = "idx_source_scene_source_key", columnList = "sourceKey", unique = true),
+        @Index(name = "idx_source_scene_epsg", columnList = "epsg")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SourceScene {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 원본 버킷의 S3 키
+    @Column(nullable = false, length = 1024)
+    private String sourceKey;
+
+    // 목록 조회 시점의 객체 크기와 ETag (변경 감지용)
+    @Column(nullable = false)
+    private Long fileSize;
+
+    @Column
+    private String etag;
+
+    // 원본 해상도 이미지 정보 (헤더를 읽지 못했으면 null)
+    @Column
+    private Integer width;
+
+    @Column
+    private Integer height;
+
+    @Column
+    private Integer bandCount;
+
+    @Column
+    private Integer bitsPerSample;
+
+    @Column
+    private Integer sampleFormat;
+
+    @Column
+    private Integer compression;
+
+    @Column
+    private Boolean tiled;
+
+    @Column
+    private Integer overviewCount;
+
+    // 좌표계 EPSG 코드 (사용자 정의 좌표계이거나 지리 참조가 없으면 null)
+    @Column
+    private Integer epsg;
+
+    // 영상 범위 (영상 좌표계 기준, 지리 참조가 없으면 null)
+    @Column
+    private Double minX;
+
+    @Column
+    private Double minY;
+
+    @Column
+    private Double maxX;
+
+    @Column
+    private Double maxY;
+
+    // 헤더 읽기 실패 원인 (성공하면 null)
+    @Column(length = 1000)
+    private String probeError;
+
+    @Column(nullable = false)
+    private LocalDateTime probedAt;
+}
@@ -0,0 +1,32 @@
+package com.geotiff.back.domain.sateliteImagery.repository;
+
+import com.geotiff.back.domain.sateliteImagery.entity.ConversionCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ConversionCheckpointRepository extends JpaRepository<ConversionCheckpoint, Long> {
+
+    /**
+     * 영상의 진행 중인(카탈로그 저장 전) 체크포인트 조회 (최신순)
+     */
+    List<ConversionCheckpoint> findByImageryKeyAndStageNotOrderByIdDesc(String imageryKey,
+                                                                        ConversionCheckpoint.Stage stage);
+
+    /**
+     * 재개 대상 체크포인트 조회 (완료되지 않았고 시도 횟수가 남은 것)
+     */
+    List<ConversionCheckpoint> findByStageNotAndAttemptsLessThanOrderByIdAsc(ConversionCheckpoint.Stage stage,
+                                                                             int attempts);
+
+    /**
+     * 업로드를 시작했지만 카탈로그 저장 전인 체크포인트의 시퀀스 (결과 COG 시퀀스 할당용, 패턴의 이스케이프 문자는 '\')
+     */
+    @Query("SELECT c.sequence FROM ConversionCheckpoint c "
+            + "WHERE c.cogName LIKE :pattern ESCAPE '\\' AND c.stage <> :stage AND c.sequence IS NOT NULL")
+    List<Integer> findSequencesInUse(@Param("pattern") String pattern, @Param("stage") ConversionCheckpoint.Stage stage);
+}
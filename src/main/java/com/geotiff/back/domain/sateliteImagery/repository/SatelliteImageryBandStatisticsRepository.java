@@ -0,0 +1,13 @@
+package com.geotiff.back.domain.sateliteImagery.repository;
+
+import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImageryBandStatistics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SatelliteImageryBandStatisticsRepository extends JpaRepository<SatelliteImageryBandStatistics, Long> {
+
+    List<SatelliteImageryBandStatistics> findBySatelliteImageryIdOrderByBandIndexAsc(Long satelliteImageryId);
+}
@@ -1,6 +1,8 @@
 package com.geotiff.back.domain.sateliteImagery.repository;
 
+import com.geotiff.back.domain.sateliteImagery.dto.ConversionHistoryDto;
 import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImagery;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
@@ -14,6 +16,24 @@ import java.util.Optional;
 public interface SatelliteImageryRepository extends JpaRepository<SatelliteImagery, Long>,
         QuerydslPredicateExecutor<SatelliteImagery>, SatelliteImageryRepositoryCustom {
 
-    @Query("SELECT MAX(s.sequence) FROM SatelliteImagery s WHERE s.originalName = :originalName")
-    Integer findMaxSequenceByOriginalName(@Param("originalName") String originalName);
+    /**
+     * 파일명 패턴에 맞는 결과의 최대 시퀀스 (결과 COG 시퀀스 할당용, 패턴의 이스케이프 문자는 '\')
+     */
+    @Query("SELECT MAX(s.sequence) FROM SatelliteImagery s WHERE s.cogName LIKE :pattern ESCAPE '\\'")
+    Integer findMaxSequenceByCogNameLike(@Param("pattern") String pattern);
+
+    /**
+     * S3 경로로 조회 (체크포인트 재개 시 이미 저장된 결과인지 확인)
+     */
+    Optional<SatelliteImagery> findFirstByS3Path(String s3Path);
+
+    /**
+     * 최근 변환 기록 조회 (변환 시간 예측 모델 학습용)
+     * 모델 학습에 필요한 컬럼만 최신순으로 조회합니다. (좌표계 WKT 등 큰 컬럼과 영속성 컨텍스트 관리 생략)
+     */
+    @Query("SELECT s.sourceFileSize AS sourceFileSize, s.width AS width, s.height AS height, s.bandCount AS bandCount, "
+            + "s.sourceCompression AS sourceCompression, s.conversionMillis AS conversionMillis "
+            + "FROM SatelliteImagery s WHERE s.conversionMillis IS NOT NULL AND s.sourceFileSize IS NOT NULL "
+            + "ORDER BY s.id DESC")
+    List<ConversionHistoryDto> findRecentConversionHistory(Pageable pageable);
 }
\ No newline at end of file
@@ -2,11 +2,26 @@ package com.geotiff.back.domain.sateliteImagery.repository;
 
 
 import com.geotiff.back.domain.sateliteImagery.dto.SatelliteImagerySearchDto;
-import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImagery;
+import com.geotiff.back.domain.sateliteImagery.dto.SatelliteImagerySummaryDto;
+import org.hibernate.ScrollableResults;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface SatelliteImageryRepositoryCustom {
 
-    Page<SatelliteImagery> searchByMetadata(SatelliteImagerySearchDto searchDto, Pageable pageable);
-}
\ No newline at end of file
+    Page<SatelliteImagerySummaryDto> searchByMetadata(SatelliteImagerySearchDto searchDto, Pageable pageable);
+
+    /**
+     * 키셋 페이지 조회: id 내림차순으로 afterId보다 작은 영상을 size개 조회 (전체 건수 조회와 offset 건너뛰기 없음)
+     *
+     * @param afterId 이전 페이지 마지막 영상의 id (첫 페이지는 null)
+     */
+    List<SatelliteImagerySummaryDto> searchByMetadataAfter(SatelliteImagerySearchDto searchDto, Long afterId, int size);
+
+    /**
+     * 검색 조건에 맞는 전체 영상을 id 순으로 한 방향 커서로 조회 (트랜잭션 안에서 호출하고 사용 후 닫아야 함)
+     */
+    ScrollableResults<SatelliteImagerySummaryDto> scrollByMetadata(SatelliteImagerySearchDto searchDto, int fetchSize);
+}
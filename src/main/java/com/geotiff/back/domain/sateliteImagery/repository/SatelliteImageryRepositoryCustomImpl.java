@@ -1,62 +1,44 @@
 package com.geotiff.back.domain.sateliteImagery.repository;
 
 import com.geotiff.back.domain.sateliteImagery.dto.SatelliteImagerySearchDto;
+import com.geotiff.back.domain.sateliteImagery.dto.SatelliteImagerySummaryDto;
 import com.geotiff.back.domain.sateliteImagery.entity.QSatelliteImagery;
-import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImagery;
+import com.geotiff.back.domain.sateliteImagery.entity.QSatelliteImageryBandStatistics;
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QBean;
+import com.querydsl.jpa.JPAExpressions;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Repository
 public class SatelliteImageryRepositoryCustomImpl implements SatelliteImageryRepositoryCustom {
 
-    @PersistenceContext
-    private EntityManager entityManager;
+    private final EntityManager entityManager;
+
+    public SatelliteImageryRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
 
     @Override
-    public Page<SatelliteImagery> searchByMetadata(SatelliteImagerySearchDto searchDto, Pageable pageable) {
+    public Page<SatelliteImagerySummaryDto> searchByMetadata(SatelliteImagerySearchDto searchDto, Pageable pageable) {
         JPAQueryFactory queryFactory = new JPAQueryFactory(entityManager);
         QSatelliteImagery qSatelliteImagery = QSatelliteImagery.satelliteImagery;
 
-        BooleanBuilder whereBuilder = new BooleanBuilder();
-
-        // DTO 기반 동적 검색 조건 구성
-        if (StringUtils.hasText(searchDto.getOriginalName())) {
-            whereBuilder.and(qSatelliteImagery.originalName.eq(searchDto.getOriginalName()));
-        }
-
-        if (StringUtils.hasText(searchDto.getOriginalNameContains())) {
-            whereBuilder.and(qSatelliteImagery.originalName.contains(searchDto.getOriginalNameContains()));
-        }
-
-        if (StringUtils.hasText(searchDto.getCogName())) {
-            whereBuilder.and(qSatelliteImagery.cogName.eq(searchDto.getCogName()));
-        }
-
-        if (searchDto.getWidth() != null) {
-            whereBuilder.and(qSatelliteImagery.width.eq(searchDto.getWidth()));
-        }
-
-        if (searchDto.getHeight() != null) {
-            whereBuilder.and(qSatelliteImagery.height.eq(searchDto.getHeight()));
-        }
-
-        if (searchDto.getBandCount() != null) {
-            whereBuilder.and(qSatelliteImagery.bandCount.eq(searchDto.getBandCount()));
-        }
-
-        if (StringUtils.hasText(searchDto.getProjection())) {
-            whereBuilder.and(qSatelliteImagery.projection.contains(searchDto.getProjection()));
-        }
+        BooleanBuilder whereBuilder = buildWhere(searchDto);
 
         // 전체 카운트 쿼리
         long total = queryFactory
@@ -64,9 +46,10 @@ public class SatelliteImageryRepositoryCustomImpl implements SatelliteImageryRep
                 .where(whereBuilder)
                 .fetchCount();
 
-        // 페이징 적용 쿼리
-        JPAQuery<SatelliteImagery> query = queryFactory
-                .selectFrom(qSatelliteImagery)
+        // 페이징 적용 쿼리 (엔티티 대신 필요한 컬럼만 DTO로 조회)
+        JPAQuery<SatelliteImagerySummaryDto> query = queryFactory
+                .select(summary(searchDto.isProjectionIncluded()))
+                .from(qSatelliteImagery)
                 .where(whereBuilder)
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize());
@@ -92,8 +75,124 @@ public class SatelliteImageryRepositoryCustomImpl implements SatelliteImageryRep
             query.orderBy(qSatelliteImagery.id.desc());
         }
 
-        List<SatelliteImagery> content = query.fetch();
+        List<SatelliteImagerySummaryDto> content = query.fetch();
 
         return new PageImpl<>(content, pageable, total);
     }
+
+    @Override
+    public List<SatelliteImagerySummaryDto> searchByMetadataAfter(SatelliteImagerySearchDto searchDto, Long afterId,
+                                                                   int size) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(entityManager);
+        QSatelliteImagery qSatelliteImagery = QSatelliteImagery.satelliteImagery;
+
+        BooleanBuilder whereBuilder = buildWhere(searchDto);
+        if (afterId != null) {
+            // 기본 키 인덱스로 커서 위치부터 바로 읽음 (앞 페이지 행을 건너뛰며 읽지 않음)
+            whereBuilder.and(qSatelliteImagery.id.lt(afterId));
+        }
+
+        return queryFactory
+                .select(summary(searchDto.isProjectionIncluded()))
+                .from(qSatelliteImagery)
+                .where(whereBuilder)
+                .orderBy(qSatelliteImagery.id.desc())
+                .limit(size)
+                .fetch();
+    }
+
+    @Override
+    public ScrollableResults<SatelliteImagerySummaryDto> scrollByMetadata(SatelliteImagerySearchDto searchDto, int fetchSize) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(entityManager);
+        QSatelliteImagery qSatelliteImagery = QSatelliteImagery.satelliteImagery;
+
+        JPAQuery<SatelliteImagerySummaryDto> query = queryFactory
+                .select(summary(searchDto.isProjectionIncluded()))
+                .from(qSatelliteImagery)
+                .where(buildWhere(searchDto))
+                .orderBy(qSatelliteImagery.id.asc());
+
+        // 결과 전체를 목록으로 올리지 않고 fetchSize만큼씩 가져오는 읽기 전용 한 방향 커서로 조회
+        // (DTO 조회이므로 영속성 컨텍스트에 엔티티가 쌓이지 않아 행 수와 관계없이 메모리 사용량이 일정)
+        @SuppressWarnings("unchecked")
+        Query<SatelliteImagerySummaryDto> hibernateQuery = query.createQuery().unwrap(Query.class);
+        return hibernateQuery
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    /**
+     * DTO 기반 동적 검색 조건 구성
+     */
+    private BooleanBuilder buildWhere(SatelliteImagerySearchDto searchDto) {
+        QSatelliteImagery qSatelliteImagery = QSatelliteImagery.satelliteImagery;
+        BooleanBuilder whereBuilder = new BooleanBuilder();
+
+        if (StringUtils.hasText(searchDto.getOriginalName())) {
+            whereBuilder.and(qSatelliteImagery.originalName.eq(searchDto.getOriginalName()));
+        }
+
+        if (StringUtils.hasText(searchDto.getOriginalNameContains())) {
+            whereBuilder.and(qSatelliteImagery.originalName.contains(searchDto.getOriginalNameContains()));
+        }
+
+        if (StringUtils.hasText(searchDto.getCogName())) {
+            whereBuilder.and(qSatelliteImagery.cogName.eq(searchDto.getCogName()));
+        }
+
+        if (searchDto.getWidth() != null) {
+            whereBuilder.and(qSatelliteImagery.width.eq(searchDto.getWidth()));
+        }
+
+        if (searchDto.getHeight() != null) {
+            whereBuilder.and(qSatelliteImagery.height.eq(searchDto.getHeight()));
+        }
+
+        if (searchDto.getBandCount() != null) {
+            whereBuilder.and(qSatelliteImagery.bandCount.eq(searchDto.getBandCount()));
+        }
+
+        if (StringUtils.hasText(searchDto.getProjection())) {
+            whereBuilder.and(qSatelliteImagery.projection.contains(searchDto.getProjection()));
+        }
+
+        if (searchDto.getMaxNodataPercent() != null) {
+            // 통계가 존재하고, 기준을 초과하는 밴드가 하나도 없는 영상만 조회
+            QSatelliteImageryBandStatistics qBandStatistics = QSatelliteImageryBandStatistics.satelliteImageryBandStatistics;
+            whereBuilder.and(JPAExpressions.selectOne()
+                    .from(qBandStatistics)
+                    .where(qBandStatistics.satelliteImagery.id.eq(qSatelliteImagery.id))
+                    .exists());
+            whereBuilder.and(JPAExpressions.selectOne()
+                    .from(qBandStatistics)
+                    .where(qBandStatistics.satelliteImagery.id.eq(qSatelliteImagery.id),
+                            qBandStatistics.nodataPercent.gt(searchDto.getMaxNodataPercent()))
+                    .notExists());
+        }
+
+        return whereBuilder;
+    }
+
+    /**
+     * 검색 결과 DTO 조회 컬럼 (좌표계 WKT는 includeProjection인 경우에만 조회)
+     */
+    private QBean<SatelliteImagerySummaryDto> summary(boolean includeProjection) {
+        QSatelliteImagery qSatelliteImagery = QSatelliteImagery.satelliteImagery;
+        List<Expression<?>> columns = new ArrayList<>(List.of(
+                qSatelliteImagery.id,
+                qSatelliteImagery.originalName,
+                qSatelliteImagery.cogName,
+                qSatelliteImagery.width,
+                qSatelliteImagery.height,
+                qSatelliteImagery.bandCount,
+                qSatelliteImagery.s3Path,
+                qSatelliteImagery.sequence,
+                qSatelliteImagery.fileSize,
+                qSatelliteImagery.createdAt));
+        if (includeProjection) {
+            columns.add(qSatelliteImagery.projection);
+        }
+        return Projections.fields(SatelliteImagerySummaryDto.class, columns.toArray(new Expression<?>[0]));
+    }
 }
\ No newline at end of file
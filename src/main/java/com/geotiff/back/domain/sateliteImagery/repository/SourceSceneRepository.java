@@ -0,0 +1,23 @@
+package com.geotiff.back.domain.sateliteImagery.repository;
+
+import com.geotiff.back.domain.sateliteImagery.entity.SourceScene;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SourceSceneRepository extends JpaRepository<SourceScene, Long> {
+
+    /**
+     * 원본 키로 조회
+     */
+    Optional<SourceScene> findBySourceKey(String sourceKey);
+
+    /**
+     * 여러 원본 키를 한 번에 조회 (목록 한 페이지의 변경 여부 확인용)
+     */
+    List<SourceScene> findBySourceKeyIn(Collection<String> sourceKeys);
+}
@@ -0,0 +1,410 @@
+package com.geotiff.back.domain.sateliteImagery.service;
+
+import com.geotiff.back.domain.sateliteImagery.dto.BandMathRequestDto;
+import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImagery;
+import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImageryBandStatistics;
+import com.geotiff.back.domain.sateliteImagery.repository.SatelliteImageryRepository;
+import com.geotiff.back.global.metrics.ConversionMetrics;
+import com.geotiff.back.global.raster.BandExpression;
+import com.geotiff.back.global.raster.RasterParallel;
+import com.geotiff.back.global.service.S3Service;
+import com.geotiff.back.global.service.TempSpaceManager;
+import com.geotiff.back.global.tiff.AsyncRangeSource;
+import com.geotiff.back.global.tiff.Float32CogWriter;
+import com.geotiff.back.global.tiff.TiffEntry;
+import com.geotiff.back.global.tiff.TiffIfd;
+import com.geotiff.back.global.tiff.TiffReader;
+import com.geotiff.back.global.tiff.TiffStructure;
+import com.geotiff.back.global.tiff.TiffTag;
+import com.geotiff.back.global.tiff.TileWindowReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+/**
+ * 밴드 연산(band math) 서비스
+ * 저장된 COG의 타일을 ranged GET으로 읽어 연산식(예: NDVI)을 타일 단위로 병렬 평가하고,
+ * 결과를 단일 밴드 float32 COG로 만들어 TARGET_BUCKET에 업로드한 뒤 새 위성 영상으로 등록합니다.
+ * 타일 압축 해제, 연산, 결과 압축을 모두 래스터 연산 풀에서 병렬로 수행하므로 처리량이 코어 수에 비례합니다.
+ * 연산과 업로드는 트랜잭션 없이 실행하고 마지막 메타데이터/밴드 통계 저장만 ImageryCatalogService의 트랜잭션으로 처리하므로,
+ * 연산 중에는 DB 커넥션을 잡지 않습니다.
+ */
+@Slf4j // 로깅 기능을 위한 Lombok 어노테이션
+@Service // 스프링 서비스 컴포넌트로 지정
+@RequiredArgsConstructor // 필수 필드를 포함한 생성자를 자동 생성하는 Lombok 어노테이션
+public class BandMathService {
+
+    private final S3Service s3Service; // S3 관련 작업을 처리하는 서비스
+    private final SatelliteImageryRepository satelliteImageryRepository; // 위성 영상 데이터 저장소
+    private final TempSpaceManager tempSpaceManager; // 임시 디렉토리 공간 예약 및 정리
+    private final ConversionMetrics conversionMetrics; // 단계별 메트릭 및 트레이싱
+    private final ForkJoinPool rasterComputePool; // 타일 압축 해제/연산/압축을 실행할 풀
+    private final ImageryCatalogService imageryCatalogService; // 메타데이터 및 밴드 통계 저장 (트랜잭션)
+    private final CogSequenceAllocator sequenceAllocator; // 결과 COG 시퀀스 번호 예약
+
+    private final String TARGET_BUCKET = "dev1-apne2-pre-test-tester-bucket"; // 변환된 위성 영상이 저장된 S3 버킷명
+    private static final int TILE_SIZE = 512; // 결과 COG 타일 크기 (GDAL COG 기본값)
+    private static final int RESULT_BYTES_PER_PIXEL = 4; // 결과 샘플 크기 (float32)
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,40}"); // 결과 이름 허용 형식
+
+    /**
+     * 밴드 연산 수행
+     *
+     * @param imageryId 원본 위성 영상 ID
+     * @param request 연산식과 결과 이름
+     * @return 새로 등록된 위성 영상 (원본이 없으면 빈 Optional)
+     * @throws IllegalArgumentException 연산식/이름이 잘못되었거나 지원하지 않는 샘플 형식인 경우
+     * @throws IOException 타일 읽기, 임시 파일 기록, 업로드 실패 시
+     */
+    public Optional<SatelliteImagery> computeBandMath(Long imageryId, BandMathRequestDto request) throws IOException {
+        // 로그 출력 - 연산 요청
+        log.info("밴드 연산 처리 중: id={}, 요청={}", imageryId, request);
+
+        Optional<SatelliteImagery> found = satelliteImageryRepository.findById(imageryId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        SatelliteImagery source = found.get();
+        String label = resolveName(request.getName());
+
+        // 1. COG 헤더 읽기 및 연산식 컴파일
+        AsyncRangeSource rangeSource = (offset, length) ->
+                s3Service.readRangeAsync(TARGET_BUCKET, source.getS3Path(), offset, length);
+        TiffStructure structure = TiffReader.read((offset, length) -> S3Service.await(rangeSource.read(offset, length)));
+        TiffIfd primary = structure.primary();
+        BandExpression expression = BandExpression.compile(request.getExpression(), primary.getSamplesPerPixel());
+        SampleType sampleType = SampleType.of(primary.getSampleFormat(), primary.getBitsPerSample());
+        int width = primary.getWidth();
+        int height = primary.getHeight();
+
+        // 2. 결과 파일명 결정 (원본COG명_이름_시퀀스번호.tiff 형식)
+        // 같은 이름의 연산이 동시에 실행되어도 겹치지 않도록 DB에 저장할 때까지 번호를 예약
+        String namePrefix = source.getCogName().replaceFirst("\\.tiff?$", "") + "_" + label + "_";
+        long rasterBytes = (long) width * height * RESULT_BYTES_PER_PIXEL;
+        try (CogSequenceAllocator.Lease lease = conversionMetrics.observeStage(
+                ConversionMetrics.STAGE_S3_SEQUENCE_PROBE,
+                () -> sequenceAllocator.reserve(TARGET_BUCKET, namePrefix, null));
+             // 3. 임시 공간 예약 (단계별 타일 파일 + 조립한 COG, 압축 전 크기 기준 상한)
+             TempSpaceManager.Reservation reservation = tempSpaceManager.reserve(rasterBytes * 3)) {
+            int sequence = lease.getSequence();
+            String cogFileName = lease.getFileName();
+            Path cogFilePath = reservation.resolve(cogFileName);
+
+            // 4. 타일 단위 병렬 연산 및 COG 작성
+            TileStatistics statistics;
+            long fileSize;
+            try (Float32CogWriter writer = new Float32CogWriter(name -> reservation.resolve(cogFileName + "." + name),
+                    width, height, TILE_SIZE, rasterComputePool)) {
+                TileWindowReader reader = new TileWindowReader(rangeSource, primary, structure.byteOrder(),
+                        rasterComputePool);
+                statistics = conversionMetrics.observeStage(ConversionMetrics.STAGE_BAND_MATH, () -> evaluate(
+                        reader, expression, sampleType, structure.byteOrder(), parseNoData(primary), width, height, writer));
+                fileSize = writer.finish(buildTemplate(primary), cogFilePath);
+                log.info("밴드 연산 완료 - id={}: 식={}, {}x{}, 오버뷰 {}개, 크기 {} 바이트",
+                        imageryId, expression, width, height, writer.getOverviewCount(), fileSize);
+            }
+
+            // 5. S3에 업로드
+            String s3Path = conversionMetrics.observeStage(ConversionMetrics.STAGE_S3_UPLOAD,
+                    () -> S3Service.await(s3Service.uploadFileAsync(TARGET_BUCKET, cogFilePath, cogFileName)));
+            conversionMetrics.recordTransferBytes("upload", fileSize);
+
+            // 6. 메타데이터 및 밴드 통계 저장 (짧은 트랜잭션)
+            SatelliteImagery result = SatelliteImagery.builder()
+                    .originalName(source.getCogName()) // 연산 원본 COG 파일명
+                    .cogName(cogFileName) // 결과 COG 파일명
+                    .width(width) // 이미지 너비
+                    .height(height) // 이미지 높이
+                    .bandCount(1) // 결과는 단일 밴드
+                    .projection(source.getProjection()) // 원본과 같은 좌표계
+                    .s3Path(s3Path) // S3에 저장된 경로
+                    .sequence(sequence) // 시퀀스 번호
+                    .fileSize(fileSize) // 파일 크기 (바이트)
+                    .build();
+
+            SatelliteImagery saved = conversionMetrics.observeStage(ConversionMetrics.STAGE_DB_SAVE, () ->
+                    imageryCatalogService.catalogueDerived(result,
+                            savedImagery -> statistics.toEntity(savedImagery, (long) width * height)));
+            log.info("밴드 연산 결과 저장 완료 - 원본 id={}: id={}, 파일={}", imageryId, saved.getId(), cogFileName);
+            return Optional.of(saved);
+        }
+    }
+
+    /**
+     * 원본을 타일 높이 단위로 읽으면서 타일 열마다 병렬로 연산하고 결과 스트립을 COG 작성기에 넘김
+     * 다음 타일 행은 TileWindowReader가 미리 요청해 두므로 S3 읽기와 연산이 겹쳐서 진행됩니다.
+     *
+     * @return 결과 밴드 통계
+     */
+    private TileStatistics evaluate(TileWindowReader reader, BandExpression expression, SampleType sampleType,
+                                    ByteOrder byteOrder, double noData, int width, int height,
+                                    Float32CogWriter writer) throws IOException {
+        int[] bands = expression.getBands();
+        int tileColumns = (width + TILE_SIZE - 1) / TILE_SIZE;
+        float[] strip = new float[width * TILE_SIZE];
+        // 타일 열별 통계 (한 타일 열은 한 번에 하나의 작업만 처리하므로 잠금 불필요)
+        TileStatistics[] columnStatistics = new TileStatistics[tileColumns];
+        for (int i = 0; i < tileColumns; i++) {
+            columnStatistics[i] = new TileStatistics();
+        }
+        // 작업 스레드가 빌려 쓰는 작업 공간 (동시 작업 수만큼만 생성되어 재사용)
+        ConcurrentLinkedQueue<Workspace> workspaces = new ConcurrentLinkedQueue<>();
+
+        reader.read(0, 0, width, height, bands, TILE_SIZE, (block, rows) -> {
+            ByteBuffer samples = ByteBuffer.wrap(block).order(byteOrder);
+            RasterParallel.forEach(rasterComputePool, tileColumns, tileColumn -> {
+                Workspace workspace = workspaces.poll();
+                if (workspace == null) {
+                    workspace = new Workspace(expression, bands.length);
+                }
+                try {
+                    evaluateTile(samples, sampleType, noData, expression, workspace, bands.length, width, rows,
+                            tileColumn, strip, columnStatistics[tileColumn]);
+                } finally {
+                    workspaces.offer(workspace);
+                }
+            });
+            writer.writeStrip(strip, rows);
+        });
+
+        TileStatistics total = new TileStatistics();
+        for (TileStatistics statistics : columnStatistics) {
+            total.merge(statistics);
+        }
+        return total;
+    }
+
+    /**
+     * 타일 하나 연산
+     * 픽셀 인터리브 블록에서 밴드별 float 배열로 풀고, 연산식을 평가해 결과 스트립에 복사하면서 통계를 누적합니다.
+     */
+    private static void evaluateTile(ByteBuffer samples, SampleType sampleType, double noData,
+                                     BandExpression expression, Workspace workspace, int bandCount, int width,
+                                     int rows, int tileColumn, float[] strip, TileStatistics statistics) {
+        int columnStart = tileColumn * TILE_SIZE;
+        int columns = Math.min(TILE_SIZE, width - columnStart);
+        for (int band = 0; band < bandCount; band++) {
+            sampleType.unpack(samples, bandCount, band, width, columnStart, columns, rows, noData,
+                    workspace.bandValues[band]);
+        }
+
+        expression.evaluate(workspace.bandValues, workspace.stack, rows * columns);
+
+        float[] result = workspace.stack[0];
+        for (int y = 0; y < rows; y++) {
+            int resultStart = y * columns;
+            int stripStart = y * width + columnStart;
+            for (int x = 0; x < columns; x++) {
+                float value = result[resultStart + x];
+                // 0으로 나누기 등으로 생긴 무한대는 nodata(NaN)로 처리
+                if (Float.isFinite(value)) {
+                    statistics.add(value);
+                } else {
+                    value = Float.NaN;
+                    statistics.noDataCount++;
+                }
+                strip[stripStart + x] = value;
+            }
+        }
+    }
+
+    /**
+     * 결과 COG 원본 해상도 IFD에 넣을 태그 (좌표계/지리 변환은 원본에서 복사, nodata는 NaN)
+     */
+    private TiffIfd buildTemplate(TiffIfd primary) {
+        TiffIfd template = new TiffIfd();
+        for (int tag : new int[]{TiffTag.MODEL_PIXEL_SCALE, TiffTag.MODEL_TIEPOINT, TiffTag.MODEL_TRANSFORMATION,
+                TiffTag.GEO_KEY_DIRECTORY, TiffTag.GEO_DOUBLE_PARAMS, TiffTag.GEO_ASCII_PARAMS}) {
+            if (primary.has(tag)) {
+                template.put(primary.get(tag));
+            }
+        }
+        template.put(TiffEntry.ofAscii(TiffTag.GDAL_NODATA, "nan"));
+        return template;
+    }
+
+    /**
+     * 원본 nodata 값 (없거나 해석할 수 없으면 NaN, NaN과의 비교는 항상 거짓이므로 nodata 처리 없음)
+     */
+    private double parseNoData(TiffIfd primary) {
+        String noData = primary.getAscii(TiffTag.GDAL_NODATA);
+        if (noData == null || noData.isBlank()) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(noData.trim());
+        } catch (NumberFormatException e) {
+            log.warn("nodata 값을 해석할 수 없어 무시합니다: {}", noData);
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * 결과 이름 확인 (없으면 bandmath)
+     */
+    private String resolveName(String name) {
+        if (name == null || name.isBlank()) {
+            return "bandmath";
+        }
+        if (!NAME_PATTERN.matcher(name).matches()) {
+            throw new IllegalArgumentException("결과 이름은 영문/숫자/-/_ 1~40자여야 합니다: " + name);
+        }
+        return name;
+    }
+
+    /**
+     * 작업 스레드별 연산 공간 (밴드 값 배열과 연산 스택)
+     */
+    private static final class Workspace {
+
+        private final float[][] bandValues;
+        private final float[][] stack;
+
+        private Workspace(BandExpression expression, int bandCount) {
+            this.bandValues = new float[bandCount][TILE_SIZE * TILE_SIZE];
+            this.stack = expression.newStack(TILE_SIZE * TILE_SIZE);
+        }
+    }
+
+    /**
+     * 결과 밴드 통계 누적값
+     */
+    private static final class TileStatistics {
+
+        private long count;
+        private long noDataCount;
+        private double sum;
+        private double sumOfSquares;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        private void add(float value) {
+            count++;
+            sum += value;
+            sumOfSquares += (double) value * value;
+            if (value < min) {
+                min = value;
+            }
+            if (value > max) {
+                max = value;
+            }
+        }
+
+        private void merge(TileStatistics other) {
+            count += other.count;
+            noDataCount += other.noDataCount;
+            sum += other.sum;
+            sumOfSquares += other.sumOfSquares;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        private SatelliteImageryBandStatistics toEntity(SatelliteImagery imagery, long pixelCount) {
+            boolean empty = count == 0;
+            double mean = empty ? 0 : sum / count;
+            return SatelliteImageryBandStatistics.builder()
+                    .satelliteImagery(imagery) // 소속 위성 영상
+                    .bandIndex(1) // 결과는 단일 밴드
+                    .minValue(empty ? null : min) // 최소값
+                    .maxValue(empty ? null : max) // 최대값
+                    .mean(empty ? null : mean) // 평균
+                    .stdDev(empty ? null : Math.sqrt(Math.max(0, sumOfSquares / count - mean * mean))) // 표준편차
+                    .nodataPercent(pixelCount == 0 ? 0.0 : noDataCount * 100.0 / pixelCount) // nodata(NaN) 비율
+                    .build();
+        }
+    }
+
+    /**
+     * 원본 샘플 형식
+     * 형식별로 분리된 루프로 픽셀 인터리브 바이트를 밴드 하나의 float 배열로 풉니다.
+     */
+    private enum SampleType {
+        UINT8, INT8, UINT16, INT16, UINT32, INT32, FLOAT32, FLOAT64;
+
+        private static SampleType of(int sampleFormat, int bitsPerSample) {
+            SampleType type = switch (sampleFormat * 100 + bitsPerSample) {
+                case TiffTag.SAMPLE_FORMAT_UINT * 100 + 8 -> UINT8;
+                case TiffTag.SAMPLE_FORMAT_INT * 100 + 8 -> INT8;
+                case TiffTag.SAMPLE_FORMAT_UINT * 100 + 16 -> UINT16;
+                case TiffTag.SAMPLE_FORMAT_INT * 100 + 16 -> INT16;
+                case TiffTag.SAMPLE_FORMAT_UINT * 100 + 32 -> UINT32;
+                case TiffTag.SAMPLE_FORMAT_INT * 100 + 32 -> INT32;
+                case TiffTag.SAMPLE_FORMAT_FLOAT * 100 + 32 -> FLOAT32;
+                case TiffTag.SAMPLE_FORMAT_FLOAT * 100 + 64 -> FLOAT64;
+                default -> null;
+            };
+            if (type == null) {
+                throw new IllegalArgumentException(String.format(
+                        "밴드 연산에서 지원하지 않는 샘플 형식입니다: format=%d, bits=%d", sampleFormat, bitsPerSample));
+            }
+            return type;
+        }
+
+        /**
+         * 블록에서 밴드 하나의 타일 영역을 풀어 target에 행 우선으로 기록 (nodata 값은 NaN)
+         */
+        private void unpack(ByteBuffer samples, int bandCount, int band, int width, int columnStart, int columns,
+                            int rows, double noData, float[] target) {
+            int i = 0;
+            for (int y = 0; y < rows; y++) {
+                int sample = (y * width + columnStart) * bandCount + band;
+                switch (this) {
+                    case UINT8 -> {
+                        for (int x = 0; x < columns; x++, sample += bandCount) {
+                            target[i++] = toFloat(samples.get(sample) & 0xFF, noData);
+                        }
+                    }
+                    case INT8 -> {
+                        for (int x = 0; x < columns; x++, sample += bandCount) {
+                            target[i++] = toFloat(samples.get(sample), noData);
+                        }
+                    }
+                    case UINT16 -> {
+                        for (int x = 0; x < columns; x++, sample += bandCount) {
+                            target[i++] = toFloat(samples.getShort(sample * 2) & 0xFFFF, noData);
+                        }
+                    }
+                    case INT16 -> {
+                        for (int x = 0; x < columns; x++, sample += bandCount) {
+                            target[i++] = toFloat(samples.getShort(sample * 2), noData);
+                        }
+                    }
+                    case UINT32 -> {
+                        for (int x = 0; x < columns; x++, sample += bandCount) {
+                            target[i++] = toFloat(samples.getInt(sample * 4) & 0xFFFFFFFFL, noData);
+                        }
+                    }
+                    case INT32 -> {
+                        for (int x = 0; x < columns; x++, sample += bandCount) {
+                            target[i++] = toFloat(samples.getInt(sample * 4), noData);
+                        }
+                    }
+                    case FLOAT32 -> {
+                        for (int x = 0; x < columns; x++, sample += bandCount) {
+                            target[i++] = toFloat(samples.getFloat(sample * 4), noData);
+                        }
+                    }
+                    case FLOAT64 -> {
+                        for (int x = 0; x < columns; x++, sample += bandCount) {
+                            target[i++] = toFloat(samples.getDouble(sample * 8), noData);
+                        }
+                    }
+                }
+            }
+        }
+
+        private static float toFloat(double value, double noData) {
+            return value == noData ? Float.NaN : (float) value;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.geotiff.back.domain.sateliteImagery.service;
+
+import com.geotiff.back.domain.sateliteImagery.entity.ConversionCheckpoint;
+import com.geotiff.back.domain.sateliteImagery.repository.ConversionCheckpointRepository;
+import com.geotiff.back.domain.sateliteImagery.repository.SatelliteImageryRepository;
+import com.geotiff.back.global.service.S3Service;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * 결과 COG 시퀀스 번호 할당 서비스
+ * 결과 파일명(이름 접두사 + 시퀀스 번호 + .tiff)이 겹치지 않도록 시퀀스 번호를 예약합니다.
+ * 같은 접두사의 할당은 잠금 안에서 순서대로 처리하고, 할당한 번호는 호출한 쪽이 기록(체크포인트 또는 DB 저장)을 마칠 때까지
+ * 사용 중으로 표시하므로, 병렬로 변환되는 같은 이름의 영상이 같은 S3 키에 업로드하지 않습니다.
+ *
+ * <p>사용 중인 번호는 다음을 모두 피해서 고릅니다: DB에 저장된 결과, 업로드를 시작했지만 카탈로그 저장 전인 체크포인트,
+ * 이 프로세스에서 예약 중인 번호, S3에 이미 있는 객체.</p>
+ */
+@Slf4j
+@Service
+public class CogSequenceAllocator {
+
+    private static final int PROBE_WINDOW = 8; // 한 번에 병렬로 확인할 시퀀스 후보 수
+    private static final int LOCK_STRIPES = 64; // 접두사별 잠금 수 (접두사 해시로 선택)
+
+    private final S3Service s3Service;
+    private final SatelliteImageryRepository satelliteImageryRepository;
+    private final ConversionCheckpointRepository checkpointRepository;
+    private final String username;
+
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    // 예약 중인 번호 (접두사 → 번호), 접두사의 잠금으로 보호
+    private final Map<String, Set<Integer>> leased = new HashMap<>();
+
+    public CogSequenceAllocator(S3Service s3Service,
+                                SatelliteImageryRepository satelliteImageryRepository,
+                                ConversionCheckpointRepository checkpointRepository,
+                                String username) {
+        this.s3Service = s3Service;
+        this.satelliteImageryRepository = satelliteImageryRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.username = username;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * 예약한 시퀀스 번호
+     * 번호를 체크포인트나 DB에 기록한 뒤(또는 실패한 뒤) 닫아야 합니다.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final String namePrefix;
+        private final int sequence;
+        private boolean closed;
+
+        private Lease(String namePrefix, int sequence) {
+            this.namePrefix = namePrefix;
+            this.sequence = sequence;
+        }
+
+        public int getSequence() {
+            return sequence;
+        }
+
+        /**
+         * 결과 파일명 (접두사 + 시퀀스 번호 + .tiff)
+         */
+        public String getFileName() {
+            return namePrefix + sequence + ".tiff";
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            ReentrantLock lock = lockFor(namePrefix);
+            lock.lock();
+            try {
+                Set<Integer> sequences = leased.get(namePrefix);
+                if (sequences != null) {
+                    sequences.remove(sequence);
+                    if (sequences.isEmpty()) {
+                        leased.remove(namePrefix);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 다음 시퀀스 번호 후보 확인 (비동기, 예약하지 않음)
+     * 다운로드/변환과 겹쳐서 S3 확인을 미리 해 두고, reserve에서 아직 비어 있으면 그대로 사용합니다.
+     *
+     * @param bucketName 결과를 저장할 버킷
+     * @param namePrefix 결과 파일명 접두사 (예: scene_to_cog_)
+     * @return 후보 번호를 완료 값으로 갖는 CompletableFuture
+     */
+    public CompletableFuture<Integer> suggest(String bucketName, String namePrefix) {
+        return probe(bucketName, namePrefix, nextAfterCatalogue(namePrefix), Set.of());
+    }
+
+    /**
+     * 시퀀스 번호 예약
+     *
+     * @param bucketName 결과를 저장할 버킷
+     * @param namePrefix 결과 파일명 접두사 (예: scene_to_cog_)
+     * @param suggestion suggest로 미리 확인한 후보 (없으면 null)
+     * @return 예약한 번호 (기록을 마친 뒤 닫아야 함)
+     * @throws IOException S3 확인 실패 시
+     */
+    public Lease reserve(String bucketName, String namePrefix, CompletableFuture<Integer> suggestion)
+            throws IOException {
+        ReentrantLock lock = lockFor(namePrefix);
+        lock.lock();
+        try {
+            int start = nextAfterCatalogue(namePrefix);
+            Set<Integer> inUse = new HashSet<>(checkpointRepository.findSequencesInUse(
+                    likePattern(namePrefix), ConversionCheckpoint.Stage.CATALOGUED));
+            inUse.addAll(leased.getOrDefault(namePrefix, Set.of()));
+
+            // 후보 확인 이후 생긴 이 프로세스의 결과는 DB나 체크포인트에 남으므로, 그 범위 밖이면 S3를 다시 확인하지 않음
+            Integer suggested = null;
+            if (suggestion != null) {
+                try {
+                    suggested = S3Service.await(suggestion);
+                } catch (IOException e) {
+                    // 미리 확인하지 못했으면 잠금 안에서 다시 확인
+                    log.debug("시퀀스 후보 확인 실패, 다시 확인합니다 - {}: {}", namePrefix, e.getMessage());
+                }
+            }
+            int sequence = suggested != null && suggested >= start && !inUse.contains(suggested)
+                    ? suggested
+                    : S3Service.await(probe(bucketName, namePrefix, start, inUse));
+
+            leased.computeIfAbsent(namePrefix, ignored -> new HashSet<>()).add(sequence);
+            log.debug("시퀀스 예약: {}{}", namePrefix, sequence);
+            return new Lease(namePrefix, sequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * DB에 저장된 결과의 최대 번호 다음 번호
+     */
+    private int nextAfterCatalogue(String namePrefix) {
+        Integer maxSequence = satelliteImageryRepository.findMaxSequenceByCogNameLike(likePattern(namePrefix));
+        return maxSequence != null ? maxSequence + 1 : 1;
+    }
+
+    /**
+     * S3에 존재하지 않고 사용 중이지 않은 첫 번째 번호 찾기
+     * 후보 PROBE_WINDOW개를 병렬로 HEAD 요청하고, 모두 사용할 수 없으면 다음 구간을 확인합니다.
+     */
+    private CompletableFuture<Integer> probe(String bucketName, String namePrefix, int startSequence,
+                                             Set<Integer> inUse) {
+        List<Integer> candidates = IntStream.range(startSequence, startSequence + PROBE_WINDOW)
+                .filter(sequence -> !inUse.contains(sequence))
+                .boxed()
+                .toList();
+        // username이 경로에 포함되어 있으므로 이를 고려하여 S3 키 생성
+        List<CompletableFuture<Boolean>> probes = candidates.stream()
+                .map(sequence -> s3Service.isFileExistsAsync(bucketName,
+                        String.format("%s/%s%d.tiff", username, namePrefix, sequence)))
+                .toList();
+
+        return CompletableFuture.allOf(probes.toArray(CompletableFuture[]::new))
+                .thenCompose(ignored -> {
+                    // 존재하지 않는 첫 번째 후보를 선택 (순차 확인과 같은 결과)
+                    for (int i = 0; i < probes.size(); i++) {
+                        if (!probes.get(i).join()) {
+                            return CompletableFuture.completedFuture(candidates.get(i));
+                        }
+                    }
+                    // 모든 후보가 이미 존재하면 다음 구간 확인
+                    log.info("파일이 이미 S3 버킷에 존재합니다, 시퀀스 증가: {}{}", namePrefix, startSequence + PROBE_WINDOW);
+                    return probe(bucketName, namePrefix, startSequence + PROBE_WINDOW, inUse);
+                });
+    }
+
+    private ReentrantLock lockFor(String namePrefix) {
+        return locks[Math.floorMod(namePrefix.hashCode(), LOCK_STRIPES)];
+    }
+
+    /**
+     * 접두사로 시작하는 파일명의 LIKE 패턴 ('\'로 와일드카드 문자 이스케이프)
+     */
+    private static String likePattern(String namePrefix) {
+        return namePrefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
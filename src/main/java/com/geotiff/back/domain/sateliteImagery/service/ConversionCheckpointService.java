@@ -0,0 +1,317 @@
+package com.geotiff.back.domain.sateliteImagery.service;
+
+import com.geotiff.back.domain.sateliteImagery.entity.ConversionCheckpoint;
+import com.geotiff.back.domain.sateliteImagery.repository.ConversionCheckpointRepository;
+import com.geotiff.back.global.service.TempSpaceManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 변환 체크포인트 관리 서비스
+ * 체크포인트는 호출한 쪽의 트랜잭션과 별도의 트랜잭션(REQUIRES_NEW)으로 즉시 커밋하여,
+ * 변환 도중 프로세스가 종료되어도 완료된 단계가 DB에 남도록 합니다.
+ * 단계 사이의 파일은 임시 디렉토리 아래 checkpoints/{id} 디렉토리에 두어 재시작 후에도 재사용합니다.
+ * 실행 중이 아닌 체크포인트 디렉토리는 TempSpaceManager의 보존 공간으로 등록되어 임시 디렉토리 예산을 차지하고,
+ * 재개 대상이 아니게 되거나 오래 재개되지 않은 디렉토리는 주기적으로 삭제합니다.
+ */
+@Slf4j
+@Service
+public class ConversionCheckpointService {
+
+    private static final String CHECKPOINT_DIRECTORY = "checkpoints";
+
+    private final ConversionCheckpointRepository checkpointRepository;
+    private final TempSpaceManager tempSpaceManager;
+    private final Path checkpointRoot;
+
+    /**
+     * 시작 시 자동 재개할 최대 시도 횟수 (이 횟수만큼 실패한 체크포인트는 자동 재개하지 않음)
+     */
+    private final int maxAttempts;
+
+    /**
+     * 이 시간 동안 재개되지 않은 체크포인트의 파일은 삭제 (체크포인트는 남아 있어 재개하면 필요한 단계부터 다시 실행)
+     */
+    private final Duration retainFor;
+
+    // 이 프로세스에서 실행 중인 체크포인트 ID (같은 체크포인트를 두 작업이 동시에 이어받지 않도록 함)
+    private final Set<Long> activeCheckpoints = ConcurrentHashMap.newKeySet();
+
+    public ConversionCheckpointService(ConversionCheckpointRepository checkpointRepository,
+                                       TempSpaceManager tempSpaceManager,
+                                       Path tempDirectory,
+                                       @Value("${app.checkpoint.max-attempts:3}") int maxAttempts,
+                                       @Value("${app.checkpoint.retain-for:PT24H}") Duration retainFor) {
+        this.checkpointRepository = checkpointRepository;
+        this.tempSpaceManager = tempSpaceManager;
+        // 임시 파일 정리(TempSpaceManager)는 임시 디렉토리 바로 아래의 파일만 대상으로 하므로
+        // 하위 디렉토리는 이 서비스가 체크포인트 상태를 보고 정리함
+        this.checkpointRoot = tempDirectory.resolve(CHECKPOINT_DIRECTORY);
+        this.maxAttempts = maxAttempts;
+        this.retainFor = retainFor;
+    }
+
+    /**
+     * 변환 시작
+     * 같은 영상의 완료되지 않은 체크포인트가 있으면 이어받고, 없으면 새로 만듭니다.
+     * 작업이 끝나면 성공/실패와 관계없이 release를 호출해야 합니다.
+     *
+     * @param imageryKey 위성 영상의 S3 키
+     * @return 실행할 체크포인트
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public ConversionCheckpoint begin(String imageryKey) {
+        // 다른 작업이 이미 이어받은 체크포인트는 건너뜀
+        ConversionCheckpoint checkpoint = checkpointRepository
+                .findByImageryKeyAndStageNotOrderByIdDesc(imageryKey, ConversionCheckpoint.Stage.CATALOGUED).stream()
+                .filter(candidate -> !activeCheckpoints.contains(candidate.getId()))
+                .findFirst()
+                .orElseGet(() -> ConversionCheckpoint.builder()
+                        .imageryKey(imageryKey)
+                        .stage(ConversionCheckpoint.Stage.STARTED)
+                        .build());
+
+        if (checkpoint.getId() != null) {
+            log.info("변환 체크포인트 이어받기 - {}: id={}, 단계={}, 시도={}",
+                    imageryKey, checkpoint.getId(), checkpoint.getStage(), checkpoint.getAttempts());
+        }
+        checkpoint.startAttempt();
+        ConversionCheckpoint saved = checkpointRepository.save(checkpoint);
+        // 조회와 등록 사이에 다른 작업이 같은 체크포인트를 가져간 경우 새 체크포인트로 다시 시작
+        if (!activeCheckpoints.add(saved.getId())) {
+            return begin(imageryKey);
+        }
+        return saved;
+    }
+
+    /**
+     * 변환 종료 (실행 중 표시 해제)
+     * 체크포인트 디렉토리에 남은 파일은 다음 재개 때까지 보존 공간으로 등록합니다 (완료된 변환은 이미 삭제되어 0바이트).
+     */
+    public void release(ConversionCheckpoint checkpoint) {
+        retainDirectory(checkpoint.getId());
+        activeCheckpoints.remove(checkpoint.getId());
+    }
+
+    /**
+     * 변환에 필요한 임시 공간 예약
+     * 이 체크포인트가 남겨 둔 파일의 보존 공간은 새 예약이 이어받습니다.
+     *
+     * @param sourceSize 원본 크기
+     * @param sourceOnDisk 원본을 체크포인트 디렉토리에 두는지 여부 (IN_MEMORY 경로로 새로 받으면 false)
+     * @return 작업 종료 시 닫아야 하는 예약 객체
+     * @throws IOException 대기 시간 초과 또는 인터럽트 발생 시
+     */
+    public TempSpaceManager.Reservation reserve(ConversionCheckpoint checkpoint, long sourceSize, boolean sourceOnDisk)
+            throws IOException {
+        return tempSpaceManager.reserveForSource(sourceSize, sourceOnDisk, retainedOwner(checkpoint.getId()));
+    }
+
+    /**
+     * 체크포인트 저장 (즉시 커밋)
+     *
+     * @return 저장된 체크포인트 (이후 변경은 반환된 객체에 적용)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public ConversionCheckpoint save(ConversionCheckpoint checkpoint) {
+        return checkpointRepository.save(checkpoint);
+    }
+
+    /**
+     * 실패 원인 기록 (완료한 단계는 유지)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordFailure(Long checkpointId, Throwable e) {
+        checkpointRepository.findById(checkpointId).ifPresent(checkpoint -> {
+            checkpoint.recordFailure(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+            checkpointRepository.save(checkpoint);
+        });
+    }
+
+    /**
+     * 카탈로그 저장 완료 기록 및 체크포인트 파일 삭제
+     * 카탈로그 저장 트랜잭션이 커밋된 뒤에 호출해야 합니다 (롤백되면 UPLOADED 단계부터 다시 저장).
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markCatalogued(Long checkpointId, Long satelliteImageryId) {
+        checkpointRepository.findById(checkpointId).ifPresent(checkpoint -> {
+            checkpoint.markCatalogued(satelliteImageryId);
+            checkpointRepository.save(checkpoint);
+        });
+        deleteDirectory(checkpointId);
+        tempSpaceManager.releaseRetained(retainedOwner(checkpointId));
+    }
+
+    /**
+     * 시작 시 재개할 체크포인트 목록
+     */
+    @Transactional(readOnly = true)
+    public List<ConversionCheckpoint> findResumable() {
+        return checkpointRepository.findByStageNotAndAttemptsLessThanOrderByIdAsc(
+                ConversionCheckpoint.Stage.CATALOGUED, maxAttempts);
+    }
+
+    /**
+     * 체크포인트 파일 디렉토리 (없으면 생성)
+     */
+    public Path directory(ConversionCheckpoint checkpoint) throws IOException {
+        return Files.createDirectories(checkpointRoot.resolve(String.valueOf(checkpoint.getId())));
+    }
+
+    /**
+     * 기록된 원본 파일이 그대로 남아 있는지 확인
+     * 다운로드가 끝난 뒤에만 DOWNLOADED를 기록하므로, S3 원본의 크기/ETag가 그대로이고 로컬 파일 크기가 같으면 재사용합니다.
+     *
+     * @param route 현재 S3 원본 정보 (원본이 바뀌었으면 다시 다운로드)
+     */
+    public boolean hasIntactDownload(ConversionCheckpoint checkpoint, ConversionRouter.Route route) throws IOException {
+        if (checkpoint.getStage() != ConversionCheckpoint.Stage.DOWNLOADED
+                || checkpoint.getDownloadedPath() == null || !isSameSource(checkpoint, route)) {
+            return false;
+        }
+        Path path = Path.of(checkpoint.getDownloadedPath());
+        return Files.isRegularFile(path) && Files.size(path) == route.sourceBytes();
+    }
+
+    /**
+     * 기록된 COG 파일이 그대로 남아 있는지 확인 (크기 비교)
+     *
+     * @param route 현재 S3 원본 정보 (원본이 바뀌었으면 다시 변환)
+     */
+    public boolean hasIntactConversion(ConversionCheckpoint checkpoint, ConversionRouter.Route route) throws IOException {
+        if (checkpoint.getStage() != ConversionCheckpoint.Stage.CONVERTED
+                || checkpoint.getCogPath() == null || checkpoint.getCogSize() == null
+                || !isSameSource(checkpoint, route)) {
+            return false;
+        }
+        Path path = Path.of(checkpoint.getCogPath());
+        return Files.isRegularFile(path) && Files.size(path) == checkpoint.getCogSize();
+    }
+
+    private static boolean isSameSource(ConversionCheckpoint checkpoint, ConversionRouter.Route route) {
+        return checkpoint.getSourceSize() != null && checkpoint.getSourceSize() == route.sourceBytes()
+                && Objects.equals(checkpoint.getSourceETag(), route.sourceETag());
+    }
+
+    /**
+     * 체크포인트 디렉토리 정리
+     * 완료되었거나 자동 재개 대상이 아닌 체크포인트, 또는 retain-for보다 오래 재개되지 않은 체크포인트의 파일을 삭제하고,
+     * 남겨 둔 디렉토리는 실제 크기로 보존 공간을 다시 등록합니다 (재시작 직후 이전 실행이 남긴 파일도 예산에 반영).
+     * 재시작 직후 재개를 시작하기 전과 app.cog.temp-sweep-interval 주기로 실행합니다.
+     *
+     * @return 삭제한 디렉토리 수
+     */
+    @Scheduled(fixedDelayString = "${app.cog.temp-sweep-interval:PT15M}",
+            initialDelayString = "${app.cog.temp-sweep-interval:PT15M}")
+    @Transactional(readOnly = true)
+    public int deleteAbandonedDirectories() {
+        if (!Files.isDirectory(checkpointRoot)) {
+            return 0;
+        }
+        List<Path> directories;
+        try (Stream<Path> children = Files.list(checkpointRoot)) {
+            directories = children.filter(Files::isDirectory).toList();
+        } catch (IOException e) {
+            log.warn("체크포인트 디렉토리 조회 실패: {}", checkpointRoot, e);
+            return 0;
+        }
+
+        LocalDateTime retainedSince = LocalDateTime.now().minus(retainFor);
+        int deleted = 0;
+        for (Path directory : directories) {
+            Long checkpointId = parseId(directory);
+            if (checkpointId == null) {
+                deleteRecursively(directory);
+                deleted++;
+                continue;
+            }
+            // 정리하는 동안 같은 체크포인트를 다른 작업이 이어받지 않도록 실행 중으로 표시 (이미 실행 중이면 건너뜀)
+            if (!activeCheckpoints.add(checkpointId)) {
+                continue;
+            }
+            try {
+                Optional<ConversionCheckpoint> checkpoint = checkpointRepository.findById(checkpointId);
+                boolean resumable = checkpoint.isPresent()
+                        && checkpoint.get().getStage() != ConversionCheckpoint.Stage.CATALOGUED
+                        && checkpoint.get().getAttempts() < maxAttempts
+                        && checkpoint.get().getUpdatedAt().isAfter(retainedSince);
+                if (resumable) {
+                    retainDirectory(checkpointId);
+                } else {
+                    deleteRecursively(directory);
+                    tempSpaceManager.releaseRetained(retainedOwner(checkpointId));
+                    deleted++;
+                }
+            } finally {
+                activeCheckpoints.remove(checkpointId);
+            }
+        }
+        if (deleted > 0) {
+            log.info("재개 대상이 아닌 체크포인트 디렉토리 {}개 삭제 완료", deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * 체크포인트 디렉토리의 현재 크기로 보존 공간 등록 (디렉토리가 없으면 해제)
+     */
+    private void retainDirectory(Long checkpointId) {
+        Path directory = checkpointRoot.resolve(String.valueOf(checkpointId));
+        long bytes = 0;
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                bytes = paths.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+            } catch (IOException e) {
+                log.warn("체크포인트 디렉토리 크기 조회 실패: {}", directory, e);
+                return;
+            }
+        }
+        tempSpaceManager.retain(retainedOwner(checkpointId), bytes);
+    }
+
+    private static String retainedOwner(Long checkpointId) {
+        return CHECKPOINT_DIRECTORY + "/" + checkpointId;
+    }
+
+    private void deleteDirectory(Long checkpointId) {
+        deleteRecursively(checkpointRoot.resolve(String.valueOf(checkpointId)));
+    }
+
+    private void deleteRecursively(Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            log.warn("체크포인트 디렉토리 삭제 실패: {}", directory, e);
+        }
+    }
+
+    private static Long parseId(Path directory) {
+        try {
+            return Long.parseLong(directory.getFileName().toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.geotiff.back.domain.sateliteImagery.service;
+
+import com.geotiff.back.domain.sateliteImagery.entity.ConversionCheckpoint;
+import com.geotiff.back.global.service.ConversionScheduler;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 재시작 시 미완료 변환 재개
+ * 애플리케이션이 준비되면 카탈로그 저장 전에 중단된 체크포인트를 찾아 마지막으로 완료한 단계 다음부터 다시 실행합니다.
+ * 요청 처리와 시작 이벤트를 막지 않도록 별도 스레드에서 한 건씩 순서대로 처리합니다.
+ */
+@Slf4j
+@Component
+public class ConversionResumer {
+
+    private final ConversionCheckpointService checkpointService;
+    private final ScheduledConversionService scheduledConversionService;
+    private final boolean resumeOnStartup;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "conversion-resume");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ConversionResumer(ConversionCheckpointService checkpointService,
+                             ScheduledConversionService scheduledConversionService,
+                             @Value("${app.checkpoint.resume-on-startup:true}") boolean resumeOnStartup) {
+        this.checkpointService = checkpointService;
+        this.scheduledConversionService = scheduledConversionService;
+        this.resumeOnStartup = resumeOnStartup;
+    }
+
+    /**
+     * 애플리케이션 시작 시 미완료 변환 재개
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        // 재개하지 않을 체크포인트의 파일은 먼저 정리
+        checkpointService.deleteAbandonedDirectories();
+        if (!resumeOnStartup) {
+            return;
+        }
+
+        List<ConversionCheckpoint> checkpoints = checkpointService.findResumable();
+        if (checkpoints.isEmpty()) {
+            return;
+        }
+        log.info("미완료 변환 {}건 재개 시작", checkpoints.size());
+
+        // 체크포인트마다 한 번씩 실행 (같은 영상의 체크포인트가 여러 개면 실행할 때마다 남은 것을 하나씩 이어받음)
+        executor.submit(() -> {
+            for (ConversionCheckpoint checkpoint : checkpoints) {
+                resume(checkpoint.getImageryKey());
+            }
+            log.info("미완료 변환 재개 완료: {}건", checkpoints.size());
+        });
+    }
+
+    private void resume(String imageryKey) {
+        try {
+            // 일괄 등급으로 실행하여 재개 중에도 대화형 요청이 먼저 처리되도록 함
+            scheduledConversionService.convert(imageryKey, null, ConversionScheduler.Priority.BULK);
+        } catch (IOException | RuntimeException e) {
+            // 실패 원인은 체크포인트에 기록되며, 시도 횟수가 남아 있으면 다음 시작 시 다시 재개
+            log.error("변환 재개 실패: {}", imageryKey, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,226 @@
+package com.geotiff.back.domain.sateliteImagery.service;
+
+import com.geotiff.back.domain.sateliteImagery.dto.ConversionHistoryDto;
+import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImagery;
+import com.geotiff.back.domain.sateliteImagery.entity.SourceScene;
+import com.geotiff.back.domain.sateliteImagery.repository.SatelliteImageryRepository;
+import com.geotiff.back.domain.sateliteImagery.repository.SourceSceneRepository;
+import com.geotiff.back.global.service.ConversionCostModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 변환 경로 결정 서비스
+ * 지난 변환 기록으로 학습한 ConversionCostModel로 영상마다 변환 시간을 예측하고, 크기와 예상 시간에 따라 처리 경로를 고릅니다.
+ *
+ * <ul>
+ *     <li>IN_MEMORY: 작은 영상은 한 번의 GET으로 메모리에 받아, 원본을 파일로 기록하지 않고 메타데이터 추출과 COG 변환에 사용합니다.
+ *     디스크에는 변환 결과 COG만 쓰므로 임시 공간도 원본 몫을 빼고 예약합니다.</li>
+ *     <li>STANDARD: 전송 관리자로 디스크에 받아 메타데이터 추출과 변환 모두 파일에서 스트리밍합니다.</li>
+ *     <li>LARGE: STANDARD와 같이 디스크 기반으로 처리하되, 스케줄러의 큰 영상 자리(app.scheduler.max-large) 안에서만 동시에 실행하여
+ *     큰 영상이 스케줄러의 자리를 모두 차지해 작은 영상이 뒤에서 오래 기다리지 않게 합니다.</li>
+ * </ul>
+ *
+ * <p>원본 버킷 메타데이터(source_scene)가 수집되어 있으면 픽셀 수와 압축 방식까지 사용해 예측합니다.
+ * 모델은 시작 시 카탈로그에 기록된 최근 변환 시간으로 학습하고, 변환이 끝날 때마다 다시 학습합니다.</p>
+ */
+@Slf4j
+@Service
+public class ConversionRouter {
+
+    /**
+     * 변환 경로
+     */
+    public enum Lane {
+        IN_MEMORY,
+        STANDARD,
+        LARGE
+    }
+
+    /**
+     * 영상 한 건의 경로 결정 결과
+     *
+     * @param imageryKey 원본 S3 키
+     * @param sourceBytes 원본 크기 (HEAD 요청 결과)
+     * @param sourceETag 원본 ETag (HEAD 요청 결과, 체크포인트의 파일을 재사용할 수 있는지 확인하는 데 사용)
+     * @param samples 너비 × 높이 × 밴드 수 (원본 메타데이터가 없으면 null)
+     * @param compression 원본 압축 방식 (원본 메타데이터가 없으면 null)
+     * @param lane 처리 경로
+     * @param predictedMillis 예상 변환 시간
+     */
+    public record Route(String imageryKey, long sourceBytes, String sourceETag, Long samples, Integer compression,
+                        Lane lane, long predictedMillis) {
+    }
+
+    private final SatelliteImageryRepository satelliteImageryRepository;
+    private final SourceSceneRepository sourceSceneRepository;
+    private final MeterRegistry meterRegistry;
+    private final long inMemoryMaxBytes;
+    private final long largeMinBytes;
+    private final long largeMinPredictedMillis;
+    private final double defaultBytesPerSecond;
+    private final int historySize;
+    private final int minSamples;
+
+    private final DistributionSummary predictionRatio;
+    // 최근 변환 기록 (오래된 것부터 밀려남)
+    private final Deque<ConversionCostModel.Sample> history = new ArrayDeque<>();
+    private volatile ConversionCostModel model;
+
+    public ConversionRouter(SatelliteImageryRepository satelliteImageryRepository,
+                            SourceSceneRepository sourceSceneRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.routing.in-memory-max-bytes:67108864}") long inMemoryMaxBytes,
+                            @Value("${app.routing.large-min-bytes:2147483648}") long largeMinBytes,
+                            @Value("${app.routing.large-min-predicted:PT10M}") Duration largeMinPredicted,
+                            @Value("${app.routing.default-bytes-per-second:20971520}") double defaultBytesPerSecond,
+                            @Value("${app.routing.history-size:2000}") int historySize,
+                            @Value("${app.routing.min-samples:8}") int minSamples) {
+        this.satelliteImageryRepository = satelliteImageryRepository;
+        this.sourceSceneRepository = sourceSceneRepository;
+        this.meterRegistry = meterRegistry;
+        // 한 번의 GET으로 받아 배열 하나에 담을 수 있는 크기로 제한
+        this.inMemoryMaxBytes = Math.min(inMemoryMaxBytes, Integer.MAX_VALUE - 8);
+        this.largeMinBytes = largeMinBytes;
+        this.largeMinPredictedMillis = largeMinPredicted.toMillis();
+        this.defaultBytesPerSecond = defaultBytesPerSecond;
+        this.historySize = Math.max(1, historySize);
+        this.minSamples = Math.max(1, minSamples);
+        this.model = ConversionCostModel.fit(List.of(), this.minSamples, defaultBytesPerSecond);
+
+        this.predictionRatio = DistributionSummary.builder("imagery.conversion.prediction.ratio")
+                .description("실제 변환 시간 / 예상 변환 시간")
+                .publishPercentiles(0.5, 0.9)
+                .register(meterRegistry);
+        Gauge.builder("imagery.conversion.cost.samples", this, router -> router.model.getSampleCount())
+                .description("변환 시간 예측 모델 학습 기록 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 시작 시 카탈로그에 기록된 최근 변환 시간으로 모델 학습
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadHistory() {
+        List<ConversionHistoryDto> recent =
+                satelliteImageryRepository.findRecentConversionHistory(PageRequest.of(0, historySize));
+        synchronized (this) {
+            history.clear();
+            // 오래된 것부터 넣어 새 기록이 추가될 때 오래된 것이 먼저 밀려나도록 함
+            for (int i = recent.size() - 1; i >= 0; i--) {
+                ConversionHistoryDto row = recent.get(i);
+                toSample(row.getSourceFileSize(), row.getWidth(), row.getHeight(), row.getBandCount(),
+                        row.getSourceCompression(), row.getConversionMillis()).ifPresent(history::addLast);
+            }
+            refit();
+        }
+        log.info("변환 시간 예측 모델 학습: 기록 {}건, 압축 방식별 모델 {}개, {} ms/MB",
+                model.getSampleCount(), model.getCompressionModelCount(),
+                String.format("%.1f", model.getMillisPerMegabyte()));
+    }
+
+    /**
+     * 변환 경로 결정
+     *
+     * @param imageryKey 원본 S3 키
+     * @param sourceBytes 원본 크기
+     * @param sourceETag 원본 ETag
+     * @return 경로와 예상 변환 시간
+     */
+    public Route route(String imageryKey, long sourceBytes, String sourceETag) {
+        Long samples = null;
+        Integer compression = null;
+        // 같은 크기의 원본 메타데이터가 있으면 픽셀 수와 압축 방식도 예측에 사용 (객체가 바뀌었으면 무시)
+        Optional<SourceScene> scene = sourceSceneRepository.findBySourceKey(imageryKey);
+        if (scene.isPresent() && scene.get().getFileSize() == sourceBytes) {
+            SourceScene sourceScene = scene.get();
+            if (sourceScene.getWidth() != null && sourceScene.getHeight() != null
+                    && sourceScene.getBandCount() != null) {
+                samples = (long) sourceScene.getWidth() * sourceScene.getHeight() * sourceScene.getBandCount();
+                compression = sourceScene.getCompression();
+            }
+        }
+
+        long predictedMillis = model.predictMillis(sourceBytes, samples, compression);
+        Lane lane;
+        if (sourceBytes > 0 && sourceBytes <= inMemoryMaxBytes) {
+            lane = Lane.IN_MEMORY;
+        } else if (sourceBytes >= largeMinBytes || predictedMillis >= largeMinPredictedMillis) {
+            lane = Lane.LARGE;
+        } else {
+            lane = Lane.STANDARD;
+        }
+        Counter.builder("imagery.conversion.route")
+                .description("경로별 변환 수")
+                .tag("lane", lane.name())
+                .register(meterRegistry)
+                .increment();
+        log.debug("변환 경로 - {}: {} 바이트, 예상 {}ms, 경로={}", imageryKey, sourceBytes, predictedMillis, lane);
+        return new Route(imageryKey, sourceBytes, sourceETag, samples, compression, lane, predictedMillis);
+    }
+
+    /**
+     * 변환 기록을 추가하고 모델 다시 학습
+     * 체크포인트에서 재개한 변환처럼 변환 시간이 기록되지 않은 경우는 무시합니다.
+     *
+     * @param route 변환 전에 결정한 경로 (없으면 null)
+     * @param imagery 저장된 변환 결과
+     */
+    public void record(Route route, SatelliteImagery imagery) {
+        Optional<ConversionCostModel.Sample> sample = toSample(imagery.getSourceFileSize(), imagery.getWidth(),
+                imagery.getHeight(), imagery.getBandCount(), imagery.getSourceCompression(), imagery.getConversionMillis());
+        if (sample.isEmpty()) {
+            return;
+        }
+        if (route != null && route.predictedMillis() > 0) {
+            predictionRatio.record((double) imagery.getConversionMillis() / route.predictedMillis());
+        }
+        synchronized (this) {
+            history.addLast(sample.get());
+            while (history.size() > historySize) {
+                history.removeFirst();
+            }
+            refit();
+        }
+    }
+
+    /**
+     * 현재 예측 모델
+     */
+    public ConversionCostModel getModel() {
+        return model;
+    }
+
+    private void refit() {
+        // 기록 수(history-size)가 작아 학습 비용은 변환 시간에 비해 무시할 수 있음
+        model = ConversionCostModel.fit(new ArrayList<>(history), minSamples, defaultBytesPerSecond);
+    }
+
+    private static Optional<ConversionCostModel.Sample> toSample(Long sourceFileSize, Integer width, Integer height,
+                                                                 Integer bandCount, Integer compression,
+                                                                 Long conversionMillis) {
+        if (conversionMillis == null || sourceFileSize == null) {
+            return Optional.empty();
+        }
+        // 크기 정보가 없으면 원본 크기만 사용하는 모델로 학습
+        Long samples = width != null && height != null && bandCount != null
+                ? (long) width * height * bandCount
+                : null;
+        return Optional.of(new ConversionCostModel.Sample(sourceFileSize, samples, compression, conversionMillis));
+    }
+}
@@ -0,0 +1,171 @@
+package com.geotiff.back.domain.sateliteImagery.service;
+
+import com.geotiff.back.domain.sateliteImagery.entity.ConversionCheckpoint;
+import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImagery;
+import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImageryBandStatistics;
+import com.geotiff.back.domain.sateliteImagery.repository.SatelliteImageryBandStatisticsRepository;
+import com.geotiff.back.domain.sateliteImagery.repository.SatelliteImageryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 위성 영상 카탈로그 저장 서비스
+ * 변환이 끝난 영상의 메타데이터와 밴드별 통계를 한 트랜잭션으로 저장합니다.
+ * 다운로드/변환/업로드는 트랜잭션 바깥에서 실행하고 이 저장만 트랜잭션으로 감싸므로, 변환 중에는 DB 커넥션을 잡지 않습니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageryCatalogService {
+
+    private final SatelliteImageryRepository satelliteImageryRepository; // 위성 영상 데이터 저장소
+    private final SatelliteImageryBandStatisticsRepository bandStatisticsRepository; // 밴드별 통계 저장소
+    private final ConversionCheckpointService checkpointService; // 카탈로그 저장 완료 기록
+    private final ImageryCatalogVersion catalogVersion; // 검색 캐시 무효화 및 ETag용 카탈로그 버전
+
+    /**
+     * 업로드까지 끝난 체크포인트의 변환 결과 저장
+     * 이전 실행에서 같은 S3 경로로 이미 저장했다면 새로 만들지 않고 그대로 반환합니다.
+     * 체크포인트 완료 기록은 이 트랜잭션이 커밋된 뒤에 수행합니다 (롤백되면 다음 실행에서 저장 단계부터 재시도).
+     *
+     * @param imageryKey 원본 S3 키
+     * @param checkpoint UPLOADED 단계의 체크포인트
+     * @param route 변환 경로 (업로드까지 끝난 체크포인트에서 재개하면 null)
+     * @param conversionMillis 변환 소요 시간 (재개한 변환이면 null)
+     * @return 저장된 SatelliteImagery 객체
+     */
+    @Transactional
+    public SatelliteImagery catalogue(String imageryKey, ConversionCheckpoint checkpoint,
+                                      ConversionRouter.Route route, Long conversionMillis) {
+        SatelliteImagery savedImagery = save(imageryKey, checkpoint, route, conversionMillis);
+
+        Long checkpointId = checkpoint.getId();
+        Long imageryId = savedImagery.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                checkpointService.markCatalogued(checkpointId, imageryId);
+            }
+        });
+        return savedImagery;
+    }
+
+    /**
+     * 밴드 연산 등으로 만든 결과 저장
+     * 위성 영상과 밴드 통계를 한 트랜잭션으로 저장하고, 커밋되면 카탈로그 버전을 올립니다.
+     *
+     * @param imagery 저장할 결과 위성 영상
+     * @param statistics 저장된 위성 영상으로 밴드 통계를 만드는 함수
+     * @return 저장된 SatelliteImagery 객체
+     */
+    @Transactional
+    public SatelliteImagery catalogueDerived(SatelliteImagery imagery,
+                                             Function<SatelliteImagery, SatelliteImageryBandStatistics> statistics) {
+        SatelliteImagery saved = satelliteImageryRepository.save(imagery);
+        bandStatisticsRepository.save(statistics.apply(saved));
+        // 커밋되면 카탈로그 버전을 올려 검색 캐시와 ETag를 무효화
+        catalogVersion.markChanged();
+        return saved;
+    }
+
+    private SatelliteImagery save(String imageryKey, ConversionCheckpoint checkpoint,
+                                  ConversionRouter.Route route, Long conversionMillis) {
+        Optional<SatelliteImagery> existing = satelliteImageryRepository.findFirstByS3Path(checkpoint.getS3Path());
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        // 변환 단계에서 기록한 메타데이터 사용 (재개 시 GDAL API를 다시 호출하지 않음)
+        JSONObject metadata = new JSONObject(checkpoint.getMetadata());
+
+        // 변환 결과 정보를 담을 SatelliteImagery 객체 생성
+        SatelliteImagery satelliteImagery = SatelliteImagery.builder()
+                .originalName(imageryKey) // 원본 파일명
+                .cogName(checkpoint.getCogName()) // COG 파일명
+                .width(metadata.getInt("width")) // 이미지 너비
+                .height(metadata.getInt("height")) // 이미지 높이
+                .bandCount(metadata.getInt("bandCount")) // 밴드 수
+                .projection(metadata.optString("projection", "")) // 투영법 (없으면 빈 문자열)
+                .s3Path(checkpoint.getS3Path()) // S3에 저장된 경로
+                .sequence(checkpoint.getSequence()) // 시퀀스 번호
+                .fileSize(checkpoint.getCogSize()) // 파일 크기 (바이트)
+                .sourceFileSize(checkpoint.getSourceSize()) // 원본 크기 (바이트)
+                .sourceCompression(route != null ? route.compression() : null) // 원본 압축 방식
+                .conversionMillis(conversionMillis) // 변환 소요 시간
+                .conversionLane(route != null ? route.lane().name() : null) // 변환 경로
+                .build();
+
+        // 메타데이터 객체와 밴드별 통계를 DB에 저장
+        SatelliteImagery saved = satelliteImageryRepository.save(satelliteImagery);
+        // 메타데이터 추출 시 함께 계산된 밴드 통계를 자식 테이블에 저장
+        saveBandStatistics(saved, metadata.optJSONArray("bands"));
+        // 커밋되면 카탈로그 버전을 올려 검색 캐시와 ETag를 무효화
+        catalogVersion.markChanged();
+        return saved;
+    }
+
+    /**
+     * 밴드별 통계 저장
+     * GDAL API 메타데이터 응답의 bands 배열을 SatelliteImageryBandStatistics 엔티티로 변환하여 저장합니다.
+     *
+     * @param imagery 통계가 속한 위성 영상
+     * @param bands 메타데이터 응답의 밴드 통계 배열 (없으면 저장하지 않음)
+     */
+    private void saveBandStatistics(SatelliteImagery imagery, JSONArray bands) {
+        // 통계 정보가 없는 응답(구버전 GDAL API 등)은 건너뜀
+        if (bands == null || bands.isEmpty()) {
+            return;
+        }
+
+        List<SatelliteImageryBandStatistics> statistics = new ArrayList<>();
+        for (int i = 0; i < bands.length(); i++) {
+            JSONObject band = bands.getJSONObject(i);
+            // 히스토그램 정보 (구간 범위와 빈도)
+            JSONObject histogram = band.optJSONObject("histogram");
+            JSONArray buckets = histogram != null ? histogram.optJSONArray("buckets") : null;
+
+            statistics.add(SatelliteImageryBandStatistics.builder()
+                    .satelliteImagery(imagery) // 소속 위성 영상
+                    .bandIndex(band.optInt("band", i + 1)) // 밴드 번호
+                    .minValue(optDouble(band, "min")) // 최소값
+                    .maxValue(optDouble(band, "max")) // 최대값
+                    .mean(optDouble(band, "mean")) // 평균
+                    .stdDev(optDouble(band, "stdDev")) // 표준편차
+                    .noDataValue(optDouble(band, "noDataValue")) // nodata 값
+                    .nodataPercent(band.optDouble("nodataPercent", 0.0)) // nodata 비율
+                    .histogramMin(histogram != null ? optDouble(histogram, "min") : null) // 히스토그램 하한
+                    .histogramMax(histogram != null ? optDouble(histogram, "max") : null) // 히스토그램 상한
+                    .histogram(buckets != null // 구간별 빈도를 쉼표로 연결
+                            ? IntStream.range(0, buckets.length())
+                                    .mapToObj(j -> String.valueOf(buckets.getLong(j)))
+                                    .collect(Collectors.joining(","))
+                            : null)
+                    .build());
+        }
+
+        // 밴드 통계를 일괄 저장
+        bandStatisticsRepository.saveAll(statistics);
+        log.info("밴드 통계 저장 완료 - id={}: 밴드 {}개", imagery.getId(), statistics.size());
+    }
+
+    /**
+     * JSON 값을 Double로 읽기
+     * 값이 없거나 null이면 null을 반환합니다.
+     */
+    private Double optDouble(JSONObject json, String key) {
+        return json.isNull(key) ? null : json.getDouble(key);
+    }
+}
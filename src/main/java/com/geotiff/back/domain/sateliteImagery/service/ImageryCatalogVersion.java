@@ -0,0 +1,126 @@
+package com.geotiff.back.domain.sateliteImagery.service;
+
+import com.geotiff.back.global.config.CacheConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 위성 영상 카탈로그 버전
+ * 새 위성 영상이 커밋될 때마다 증가하는 값(마지막 변경 시각, epoch 밀리초)으로,
+ * 검색 결과 캐시 키와 검색 응답의 ETag/Last-Modified에 사용합니다.
+ *
+ * <p>검색 캐시 키에 버전이 포함되므로, 커밋 직전에 조회되어 캐시에 들어간 이전 결과는 버전이 바뀐 뒤 다시 사용되지 않습니다.
+ * 재시작 시에는 시작 시각부터 시작하므로 이전 프로세스가 발급한 ETag와 겹치지 않습니다.</p>
+ */
+@Slf4j
+@Component
+public class ImageryCatalogVersion {
+
+    private final CacheManager cacheManager;
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public ImageryCatalogVersion(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * 현재 카탈로그 버전 (마지막 변경 시각, epoch 밀리초)
+     */
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * 검색 응답 ETag
+     * 검색 캐시 키와 같은 값(카탈로그 버전, 검색 조건, 페이지 정보)으로 만들므로, 검색 조건이나 페이지가 다른 응답은 ETag도 다릅니다.
+     *
+     * @param catalogVersion 응답을 만들기 전에 읽은 카탈로그 버전
+     * @param criteria 검색 조건 (SatelliteImagerySearchDto.toMap())
+     * @param pageable 페이지 정보
+     */
+    public String etag(long catalogVersion, Map<String, Object> criteria, Pageable pageable) {
+        // 조건 순서와 관계없이 같은 값이 나오도록 이름순으로 정렬
+        String query = new TreeMap<>(criteria) + "|" + pageable;
+        String queryHash = DigestUtils.md5DigestAsHex(query.getBytes(StandardCharsets.UTF_8)).substring(0, 16);
+        return "\"" + Long.toHexString(catalogVersion) + "-" + queryHash + "\"";
+    }
+
+    /**
+     * 조회용 POST 요청의 조건부 헤더 확인
+     * WebRequest.checkNotModified는 GET/HEAD가 아닌 요청에서 ETag가 일치하면 412를 응답하므로,
+     * 본문으로 조건을 보내는 POST 검색은 If-None-Match(없으면 If-Modified-Since)를 직접 비교합니다.
+     *
+     * @param webRequest 검색 요청
+     * @param etag 이 요청의 응답 ETag
+     * @param catalogVersion 응답을 만들기 전에 읽은 카탈로그 버전
+     * @return 클라이언트가 가진 결과가 최신이면 true (304 응답 대상)
+     */
+    public boolean isNotModified(WebRequest webRequest, String etag, long catalogVersion) {
+        String ifNoneMatch = webRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            // 약한 비교: W/ 접두사는 무시
+            return Arrays.stream(ifNoneMatch.split(","))
+                    .map(String::trim)
+                    .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                    .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+        }
+        String ifModifiedSinceHeader = webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        if (ifModifiedSinceHeader == null) {
+            return false;
+        }
+        long ifModifiedSince;
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, ifModifiedSinceHeader);
+            ifModifiedSince = headers.getIfModifiedSince();
+        } catch (IllegalArgumentException e) {
+            // 잘못된 날짜 형식은 조건이 없는 요청으로 처리
+            return false;
+        }
+        // HTTP 날짜는 초 단위이므로 밀리초를 버리고 비교
+        return ifModifiedSince >= 0 && catalogVersion / 1000 * 1000 <= ifModifiedSince;
+    }
+
+    /**
+     * 카탈로그 변경 기록
+     * 트랜잭션 안에서 호출하면 커밋된 뒤에 버전을 올리고, 롤백되면 그대로 둡니다.
+     */
+    public void markChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    advance();
+                }
+            });
+        } else {
+            advance();
+        }
+    }
+
+    private void advance() {
+        // 같은 밀리초 안에 여러 번 바뀌어도 버전은 항상 증가
+        long next = version.updateAndGet(previous -> Math.max(previous + 1, System.currentTimeMillis()));
+
+        // 이전 버전 키의 검색 결과는 더 이상 조회되지 않으므로 메모리에서 바로 제거
+        Cache searchCache = cacheManager.getCache(CacheConfig.IMAGERY_SEARCH_CACHE);
+        if (searchCache != null) {
+            searchCache.clear();
+        }
+        log.debug("위성 영상 카탈로그 버전 변경: {}", next);
+    }
+}
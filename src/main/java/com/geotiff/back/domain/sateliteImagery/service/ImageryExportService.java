@@ -0,0 +1,165 @@
+package com.geotiff.back.domain.sateliteImagery.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geotiff.back.domain.sateliteImagery.dto.SatelliteImagerySearchDto;
+import com.geotiff.back.domain.sateliteImagery.dto.SatelliteImagerySummaryDto;
+import com.geotiff.back.domain.sateliteImagery.repository.SatelliteImageryRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.ScrollableResults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 위성 영상 카탈로그 내보내기 서비스
+ * 검색 조건에 맞는 전체 영상을 한 방향 커서로 fetch-size 단위씩 읽으면서 바로 NDJSON 또는 CSV로 기록합니다.
+ * 결과를 목록으로 모으지 않으므로 내보내는 행 수와 관계없이 메모리 사용량이 일정합니다.
+ */
+@Slf4j // 로깅 기능을 위한 Lombok 어노테이션
+@Service // 스프링 서비스 컴포넌트로 지정
+@RequiredArgsConstructor // 필수 필드를 포함한 생성자를 자동 생성하는 Lombok 어노테이션
+public class ImageryExportService {
+
+    private final SatelliteImageryRepository satelliteImageryRepository; // 위성 영상 데이터 저장소
+    private final ObjectMapper objectMapper; // 검색 API와 같은 형식으로 JSON 직렬화
+
+    @Value("${app.export.fetch-size:500}") // 커서가 DB에서 한 번에 가져오는 행 수
+    private int fetchSize;
+
+    private static final int OUTPUT_BUFFER_BYTES = 64 * 1024; // 응답 출력 버퍼 크기
+
+    /**
+     * 내보내기 형식
+     */
+    @Getter
+    public enum Format {
+        // 한 줄에 JSON 객체 하나
+        NDJSON("application/x-ndjson", "ndjson"),
+        // 헤더 행 + 영상마다 한 행
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        /**
+         * 요청 파라미터로 형식 결정 (대소문자 무시)
+         *
+         * @throws IllegalArgumentException 지원하지 않는 형식인 경우
+         */
+        public static Format from(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("지원하지 않는 내보내기 형식: " + value + " (ndjson, csv 중 하나)");
+        }
+    }
+
+    /**
+     * 검색 조건에 맞는 전체 영상을 id 순으로 기록
+     * 커서가 열려 있는 동안 읽기 전용 트랜잭션을 유지합니다.
+     *
+     * @param searchDto 검색 조건 (includeProjection이면 좌표계 WKT 포함)
+     * @param format 출력 형식
+     * @param out 응답 출력 스트림
+     * @return 기록한 영상 수
+     * @throws IOException 출력 중 오류 발생 시 (클라이언트 연결 종료 포함)
+     */
+    @Transactional(readOnly = true)
+    public long export(SatelliteImagerySearchDto searchDto, Format format, OutputStream out) throws IOException {
+        // 로그 출력 - 내보내기 시작
+        log.info("위성 영상 카탈로그 내보내기 시작: 형식={}, 조건={}", format, searchDto.toMap());
+
+        boolean includeProjection = searchDto.isProjectionIncluded();
+        OutputStream buffered = new BufferedOutputStream(out, OUTPUT_BUFFER_BYTES);
+        long count = 0;
+
+        try (ScrollableResults<SatelliteImagerySummaryDto> rows =
+                     satelliteImageryRepository.scrollByMetadata(searchDto, fetchSize)) {
+            if (format == Format.CSV) {
+                writeCsvRow(buffered, csvHeader(includeProjection));
+            }
+            while (rows.next()) {
+                SatelliteImagerySummaryDto row = rows.get();
+                if (format == Format.CSV) {
+                    writeCsvRow(buffered, csvValues(row, includeProjection));
+                } else {
+                    buffered.write(objectMapper.writeValueAsBytes(row));
+                    buffered.write('\n');
+                }
+                count++;
+            }
+        }
+        buffered.flush();
+
+        // 로그 출력 - 내보내기 완료
+        log.info("위성 영상 카탈로그 내보내기 완료: 형식={}, 건수={}", format, count);
+        return count;
+    }
+
+    private static List<String> csvHeader(boolean includeProjection) {
+        List<String> header = new ArrayList<>(List.of("id", "originalName", "cogName", "width", "height",
+                "bandCount", "s3Path", "sequence", "fileSize", "createdAt"));
+        if (includeProjection) {
+            header.add("projection");
+        }
+        return header;
+    }
+
+    private static List<String> csvValues(SatelliteImagerySummaryDto row, boolean includeProjection) {
+        List<String> values = new ArrayList<>(List.of(
+                text(row.getId()),
+                text(row.getOriginalName()),
+                text(row.getCogName()),
+                text(row.getWidth()),
+                text(row.getHeight()),
+                text(row.getBandCount()),
+                text(row.getS3Path()),
+                text(row.getSequence()),
+                text(row.getFileSize()),
+                text(row.getCreatedAt())));
+        if (includeProjection) {
+            values.add(text(row.getProjection()));
+        }
+        return values;
+    }
+
+    private static String text(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    /**
+     * CSV 한 행 기록 (RFC 4180: 쉼표, 따옴표, 줄바꿈이 있는 값은 따옴표로 감싸고 따옴표는 두 번 씀)
+     */
+    static void writeCsvRow(OutputStream out, List<String> values) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            String value = values.get(i);
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(value);
+            }
+        }
+        line.append("\r\n");
+        out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,322 @@
+package com.geotiff.back.domain.sateliteImagery.service;
+
+import com.geotiff.back.domain.sateliteImagery.dto.SubsetRequestDto;
+import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImagery;
+import com.geotiff.back.domain.sateliteImagery.repository.SatelliteImageryRepository;
+import com.geotiff.back.global.service.S3Service;
+import com.geotiff.back.global.tiff.AsyncRangeSource;
+import com.geotiff.back.global.tiff.GeoTransform;
+import com.geotiff.back.global.tiff.TiffEntry;
+import com.geotiff.back.global.tiff.TiffIfd;
+import com.geotiff.back.global.tiff.TiffReader;
+import com.geotiff.back.global.tiff.TiffStructure;
+import com.geotiff.back.global.tiff.TiffTag;
+import com.geotiff.back.global.tiff.TiffType;
+import com.geotiff.back.global.tiff.TiffWriter;
+import com.geotiff.back.global.tiff.TileWindowReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * 위성 영상 부분 영역(subset) 추출 서비스
+ * 저장된 COG의 헤더(IFD)만 읽어 요청 창과 겹치는 타일을 계산하고, 필요한 타일만 ranged GET으로 병렬로 가져와
+ * 작은 비압축 GeoTIFF로 스트리밍합니다. 비용은 원본 영상 크기가 아닌 요청 창 크기에 비례합니다.
+ */
+@Slf4j // 로깅 기능을 위한 Lombok 어노테이션
+@Service // 스프링 서비스 컴포넌트로 지정
+@RequiredArgsConstructor // 필수 필드를 포함한 생성자를 자동 생성하는 Lombok 어노테이션
+public class ImagerySubsetService {
+
+    private final S3Service s3Service; // S3 관련 작업을 처리하는 서비스
+    private final SatelliteImageryRepository satelliteImageryRepository; // 위성 영상 데이터 저장소
+    private final ForkJoinPool rasterComputePool; // 타일 압축 해제를 실행할 풀 (공용 풀과 분리)
+
+    @Value("${app.subset.max-output-bytes:536870912}") // 출력 픽셀 데이터 최대 크기 (기본 512MB)
+    private long maxOutputBytes;
+
+    private final String TARGET_BUCKET = "dev1-apne2-pre-test-tester-bucket"; // 변환된 위성 영상이 저장된 S3 버킷명
+    private static final int STRIP_TARGET_BYTES = 4 * 1024 * 1024; // 출력 스트립 하나의 목표 크기
+
+    /**
+     * 부분 영역 추출 준비
+     * COG 헤더를 읽어 창/밴드/오버뷰 레벨을 결정하고 출력 헤더를 만듭니다.
+     * 픽셀 데이터는 반환된 Subset의 writeTo 호출 시 스트리밍됩니다.
+     *
+     * @param imageryId 위성 영상 ID
+     * @param request 추출 요청
+     * @return 추출 준비 결과 (위성 영상이 없으면 빈 Optional)
+     * @throws IllegalArgumentException 창이나 밴드 지정이 잘못되었거나 출력이 너무 큰 경우
+     * @throws IOException COG 헤더 읽기 실패 시
+     */
+    public Optional<Subset> prepareSubset(Long imageryId, SubsetRequestDto request) throws IOException {
+        // 로그 출력 - 추출 요청
+        log.info("위성 영상 부분 영역 추출 준비 중: id={}, 요청={}", imageryId, request);
+
+        Optional<SatelliteImagery> found = satelliteImageryRepository.findById(imageryId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        SatelliteImagery imagery = found.get();
+
+        // 1. COG 헤더 읽기 (IFD가 파일 앞부분에 모여 있으므로 보통 한 번의 ranged GET으로 끝남)
+        AsyncRangeSource source = (offset, length) ->
+                s3Service.readRangeAsync(TARGET_BUCKET, imagery.getS3Path(), offset, length);
+        TiffStructure structure = TiffReader.read((offset, length) -> S3Service.await(source.read(offset, length)));
+        TiffIfd primary = structure.primary();
+        GeoTransform geoTransform = GeoTransform.of(primary);
+
+        // 2. 원본 해상도 기준 창과 밴드 결정
+        int[] window = resolveWindow(request, primary.getWidth(), primary.getHeight(), geoTransform);
+        int[] bands = resolveBands(request.getBands(), primary.getSamplesPerPixel());
+
+        // 3. 목표 크기를 만족하는 가장 낮은 해상도의 오버뷰 선택 후 창 좌표 변환
+        TiffIfd level = selectLevel(structure, window, request.getTargetSize());
+        double scaleX = primary.getWidth() / (double) level.getWidth();
+        double scaleY = primary.getHeight() / (double) level.getHeight();
+        int column = (int) Math.floor(window[0] / scaleX);
+        int row = (int) Math.floor(window[1] / scaleY);
+        int width = Math.max(1, Math.min(level.getWidth(), (int) Math.ceil((window[0] + window[2]) / scaleX)) - column);
+        int height = Math.max(1, Math.min(level.getHeight(), (int) Math.ceil((window[1] + window[3]) / scaleY)) - row);
+
+        // 4. 출력 크기 확인
+        TileWindowReader reader = new TileWindowReader(source, level, structure.byteOrder(), rasterComputePool);
+        long rowBytes = (long) width * bands.length * reader.getBytesPerSample();
+        long dataBytes = rowBytes * height;
+        if (dataBytes > maxOutputBytes) {
+            throw new IllegalArgumentException(String.format(
+                    "출력 크기가 너무 큽니다: %d 바이트 (최대 %d 바이트), 창을 줄이거나 targetSize를 지정하세요",
+                    dataBytes, maxOutputBytes));
+        }
+        int rowsPerStrip = (int) Math.max(1, Math.min(height, STRIP_TARGET_BYTES / rowBytes));
+
+        // 5. 출력 헤더 생성 (비압축 스트립이므로 모든 스트립 위치를 미리 계산할 수 있음)
+        GeoTransform outputTransform = geoTransform != null
+                ? geoTransform.scaled(scaleX, scaleY).window(column, row) : null;
+        TiffIfd classic = buildOutputIfd(primary, outputTransform, width, height, bands, rowsPerStrip,
+                reader.getBytesPerSample(), false, 0);
+        boolean bigTiff = TiffWriter.requiresBigTiff(TiffWriter.headerSize(List.of(classic), false) + dataBytes);
+        int headerSize = TiffWriter.headerSize(List.of(classic), bigTiff);
+        TiffIfd output = buildOutputIfd(primary, outputTransform, width, height, bands, rowsPerStrip,
+                reader.getBytesPerSample(), bigTiff, headerSize);
+        ByteBuffer header = TiffWriter.encode(List.of(output), structure.byteOrder(), bigTiff);
+
+        log.info("부분 영역 추출 준비 완료 - id={}: 레벨 {}x{}, 창 ({}, {}) {}x{}, 밴드 {}개, 출력 {} 바이트",
+                imageryId, level.getWidth(), level.getHeight(), column, row, width, height, bands.length,
+                header.remaining() + dataBytes);
+
+        String fileName = imagery.getCogName().replaceFirst("\\.tiff?$", "") + "_subset.tif";
+        return Optional.of(new Subset(fileName, header, header.remaining() + dataBytes,
+                reader, column, row, width, height, bands, rowsPerStrip));
+    }
+
+    /**
+     * 요청 창을 원본 해상도 픽셀 창(열, 행, 너비, 높이)으로 변환하고 영상 범위로 자르기
+     */
+    private int[] resolveWindow(SubsetRequestDto request, int imageWidth, int imageHeight, GeoTransform geoTransform) {
+        double columnStart;
+        double rowStart;
+        double columnEnd;
+        double rowEnd;
+
+        if (request.hasPixelWindow()) {
+            columnStart = request.getX();
+            rowStart = request.getY();
+            columnEnd = columnStart + request.getWidth();
+            rowEnd = rowStart + request.getHeight();
+        } else if (request.hasGeoWindow()) {
+            if (geoTransform == null || geoTransform.isRotated()) {
+                throw new IllegalArgumentException("지리 참조 정보가 없거나 회전된 영상은 지리 좌표 창을 지원하지 않습니다");
+            }
+            // 좌상단(minX, maxY)과 우하단(maxX, minY) 모서리를 픽셀 좌표로 변환
+            double[] upperLeft = geoTransform.toPixel(request.getMinX(), request.getMaxY());
+            double[] lowerRight = geoTransform.toPixel(request.getMaxX(), request.getMinY());
+            columnStart = Math.floor(Math.min(upperLeft[0], lowerRight[0]));
+            rowStart = Math.floor(Math.min(upperLeft[1], lowerRight[1]));
+            columnEnd = Math.ceil(Math.max(upperLeft[0], lowerRight[0]));
+            rowEnd = Math.ceil(Math.max(upperLeft[1], lowerRight[1]));
+        } else {
+            throw new IllegalArgumentException("픽셀 창(x, y, width, height) 또는 지리 좌표 창(minX, minY, maxX, maxY)을 지정해야 합니다");
+        }
+
+        int column = (int) Math.max(0, columnStart);
+        int row = (int) Math.max(0, rowStart);
+        int width = (int) Math.min(imageWidth, columnEnd) - column;
+        int height = (int) Math.min(imageHeight, rowEnd) - row;
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("요청한 창이 영상 범위와 겹치지 않습니다");
+        }
+        return new int[]{column, row, width, height};
+    }
+
+    /**
+     * 요청 밴드 번호(1부터 시작)를 0부터 시작하는 번호로 변환
+     */
+    private int[] resolveBands(List<Integer> requested, int bandCount) {
+        if (requested == null || requested.isEmpty()) {
+            return IntStream.range(0, bandCount).toArray();
+        }
+        int[] bands = new int[requested.size()];
+        for (int i = 0; i < bands.length; i++) {
+            Integer band = requested.get(i);
+            if (band == null || band < 1 || band > bandCount) {
+                throw new IllegalArgumentException("잘못된 밴드 번호입니다: " + band + " (1~" + bandCount + ")");
+            }
+            bands[i] = band - 1;
+        }
+        return bands;
+    }
+
+    /**
+     * 창의 긴 변이 목표 크기 이상이 되는 가장 낮은 해상도의 이미지 선택
+     */
+    private TiffIfd selectLevel(TiffStructure structure, int[] window, Integer targetSize) throws IOException {
+        TiffIfd primary = structure.primary();
+        if (targetSize == null || targetSize <= 0) {
+            return primary;
+        }
+
+        List<TiffIfd> levels = new ArrayList<>();
+        levels.add(primary);
+        levels.addAll(structure.overviews());
+        levels.sort(Comparator.comparingLong(ifd -> -ifd.getLong(TiffTag.IMAGE_WIDTH, 0)));
+
+        TiffIfd selected = primary;
+        for (TiffIfd level : levels) {
+            double scaleX = primary.getWidth() / (double) level.getWidth();
+            double scaleY = primary.getHeight() / (double) level.getHeight();
+            double longestSide = Math.max(window[2] / scaleX, window[3] / scaleY);
+            if (longestSide < targetSize) {
+                break;
+            }
+            selected = level;
+        }
+        return selected;
+    }
+
+    /**
+     * 출력 GeoTIFF의 IFD 생성 (비압축, 픽셀 인터리브, 스트립 구조)
+     *
+     * @param dataOffset 첫 스트립 위치 (헤더 크기 계산용 IFD는 0)
+     */
+    private TiffIfd buildOutputIfd(TiffIfd primary, GeoTransform transform, int width, int height, int[] bands,
+                                   int rowsPerStrip, int bytesPerSample, boolean bigTiff, long dataOffset)
+            throws IOException {
+        int stripCount = (height + rowsPerStrip - 1) / rowsPerStrip;
+        long stripBytes = (long) rowsPerStrip * width * bands.length * bytesPerSample;
+        long[] offsets = new long[stripCount];
+        long[] byteCounts = new long[stripCount];
+        for (int i = 0; i < stripCount; i++) {
+            offsets[i] = dataOffset + i * stripBytes;
+            byteCounts[i] = (long) Math.min(rowsPerStrip, height - i * rowsPerStrip) * width * bands.length * bytesPerSample;
+        }
+
+        long[] sourceBits = primary.getLongs(TiffTag.BITS_PER_SAMPLE);
+        TiffEntry sampleFormatEntry = primary.get(TiffTag.SAMPLE_FORMAT);
+        long[] bits = new long[bands.length];
+        long[] sampleFormats = new long[bands.length];
+        for (int i = 0; i < bands.length; i++) {
+            bits[i] = sourceBits[Math.min(bands[i], sourceBits.length - 1)];
+            sampleFormats[i] = sampleFormatEntry != null
+                    ? sampleFormatEntry.longAt((int) Math.min(bands[i], sampleFormatEntry.count() - 1))
+                    : TiffTag.SAMPLE_FORMAT_UINT;
+        }
+
+        // 원본이 RGB이고 1~3 밴드를 그대로 추출할 때만 RGB, 그 외에는 흑백 + 추가 샘플
+        boolean rgb = primary.getLong(TiffTag.PHOTOMETRIC_INTERPRETATION, 1) == 2
+                && bands.length == 3 && bands[0] == 0 && bands[1] == 1 && bands[2] == 2;
+        int offsetType = bigTiff ? TiffType.LONG8 : TiffType.LONG;
+
+        TiffIfd ifd = new TiffIfd();
+        ifd.put(TiffEntry.ofLongs(TiffTag.IMAGE_WIDTH, TiffType.LONG, width));
+        ifd.put(TiffEntry.ofLongs(TiffTag.IMAGE_LENGTH, TiffType.LONG, height));
+        ifd.put(TiffEntry.ofLongs(TiffTag.BITS_PER_SAMPLE, TiffType.SHORT, bits));
+        ifd.put(TiffEntry.ofLongs(TiffTag.COMPRESSION, TiffType.SHORT, TiffTag.COMPRESSION_NONE));
+        ifd.put(TiffEntry.ofLongs(TiffTag.PHOTOMETRIC_INTERPRETATION, TiffType.SHORT, rgb ? 2 : 1));
+        ifd.put(TiffEntry.ofLongs(TiffTag.STRIP_OFFSETS, offsetType, offsets));
+        ifd.put(TiffEntry.ofLongs(TiffTag.SAMPLES_PER_PIXEL, TiffType.SHORT, bands.length));
+        ifd.put(TiffEntry.ofLongs(TiffTag.ROWS_PER_STRIP, TiffType.LONG, rowsPerStrip));
+        ifd.put(TiffEntry.ofLongs(TiffTag.STRIP_BYTE_COUNTS, offsetType, byteCounts));
+        ifd.put(TiffEntry.ofLongs(TiffTag.PLANAR_CONFIGURATION, TiffType.SHORT, 1));
+        if (!rgb && bands.length > 1) {
+            // 흑백 이미지의 나머지 밴드는 용도 미지정 추가 샘플로 표시
+            ifd.put(TiffEntry.ofLongs(TiffTag.EXTRA_SAMPLES, TiffType.SHORT, new long[bands.length - 1]));
+        }
+        ifd.put(TiffEntry.ofLongs(TiffTag.SAMPLE_FORMAT, TiffType.SHORT, sampleFormats));
+
+        // 좌표계 정보와 nodata 값은 원본에서 그대로 복사
+        for (int tag : new int[]{TiffTag.GEO_KEY_DIRECTORY, TiffTag.GEO_DOUBLE_PARAMS,
+                TiffTag.GEO_ASCII_PARAMS, TiffTag.GDAL_NODATA}) {
+            if (primary.has(tag)) {
+                ifd.put(primary.get(tag));
+            }
+        }
+        if (transform != null) {
+            transform.applyTo(ifd);
+        }
+        return ifd;
+    }
+
+    /**
+     * 추출 준비가 끝난 부분 영역
+     * writeTo 호출 시 헤더를 쓰고, 필요한 타일을 읽어 스트립 단위로 이어서 기록합니다.
+     */
+    public static final class Subset {
+
+        private final String fileName;
+        private final ByteBuffer header;
+        private final long contentLength;
+        private final TileWindowReader reader;
+        private final int column;
+        private final int row;
+        private final int width;
+        private final int height;
+        private final int[] bands;
+        private final int rowsPerStrip;
+
+        private Subset(String fileName, ByteBuffer header, long contentLength, TileWindowReader reader,
+                       int column, int row, int width, int height, int[] bands, int rowsPerStrip) {
+            this.fileName = fileName;
+            this.header = header;
+            this.contentLength = contentLength;
+            this.reader = reader;
+            this.column = column;
+            this.row = row;
+            this.width = width;
+            this.height = height;
+            this.bands = bands;
+            this.rowsPerStrip = rowsPerStrip;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public long getContentLength() {
+            return contentLength;
+        }
+
+        /**
+         * GeoTIFF 기록
+         *
+         * @param out 출력 스트림 (HTTP 응답 본문 등)
+         * @throws IOException 타일 읽기 또는 출력 실패 시
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(header.array(), header.arrayOffset(), header.remaining());
+            reader.read(column, row, width, height, bands, rowsPerStrip, (block, rows) -> out.write(block));
+            out.flush();
+        }
+    }
+}
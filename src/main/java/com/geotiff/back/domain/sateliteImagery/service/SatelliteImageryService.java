@@ -1,27 +1,50 @@
 package com.geotiff.back.domain.sateliteImagery.service;
 
 import com.geotiff.back.domain.sateliteImagery.dto.SatelliteImagerySearchDto;
+import com.geotiff.back.domain.sateliteImagery.dto.SatelliteImagerySummaryDto;
+import com.geotiff.back.domain.sateliteImagery.entity.ConversionCheckpoint;
 import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImagery;
+import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImageryBandStatistics;
+import com.geotiff.back.domain.sateliteImagery.repository.SatelliteImageryBandStatisticsRepository;
 import com.geotiff.back.domain.sateliteImagery.repository.SatelliteImageryRepository;
+import com.geotiff.back.global.config.CacheConfig;
+import com.geotiff.back.global.metrics.ConversionMetrics;
 import com.geotiff.back.global.service.S3Service;
+import com.geotiff.back.global.service.TempSpaceManager;
+import com.geotiff.back.global.tiff.CogRelayout;
+import com.geotiff.back.global.tiff.RangeSource;
+import com.geotiff.back.global.tiff.TiffFormatException;
+import com.geotiff.back.global.tiff.TiffReader;
+import com.geotiff.back.global.tiff.TiffStructure;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.Part;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 위성 영상 처리 서비스
@@ -35,12 +58,20 @@ public class SatelliteImageryService {
     private final S3Service s3Service; // S3 관련 작업을 처리하는 서비스
     private final RestTemplate restTemplate; // HTTP 요청을 보내기 위한 RestTemplate
     private final SatelliteImageryRepository satelliteImageryRepository; // 위성 영상 데이터 저장소
-    private final Path tempDirectory; // 임시 파일 저장 디렉토리 경로
+    private final SatelliteImageryBandStatisticsRepository bandStatisticsRepository; // 밴드별 통계 저장소
+    private final ConversionMetrics conversionMetrics; // 변환 단계별 메트릭 및 트레이싱
+    private final ConversionCheckpointService checkpointService; // 변환 단계별 체크포인트 기록 및 재개
+    private final ImageryCatalogService imageryCatalogService; // 메타데이터 및 밴드별 통계 저장 (트랜잭션)
+    private final ConversionRouter conversionRouter; // 예상 변환 시간에 따른 변환 경로 결정
+    private final CogSequenceAllocator sequenceAllocator; // 결과 COG 시퀀스 번호 예약
     private final String username; // 사용자 이름 (S3 경로에 사용)
 
     @Value("${app.gdal-api.url}") // application.yml에서 GDAL API URL 값 주입
     private String gdalApiUrl; // GDAL API 서버 URL
 
+    @Value("${app.cog.relayout-enabled:true}") // 이미 타일/압축된 영상의 Java 재배치 사용 여부
+    private boolean relayoutEnabled;
+
     private final String SOURCE_BUCKET = "dev1-apne2-pre-test-scene-bucket"; // 원본 위성 영상이 저장된 S3 버킷명
     private final String TARGET_BUCKET = "dev1-apne2-pre-test-tester-bucket"; // 변환된 위성 영상을 저장할 S3 버킷명
 
@@ -55,6 +86,19 @@ public class SatelliteImageryService {
         return s3Service.listFiles(SOURCE_BUCKET, "");
     }
 
+    /**
+     * 변환 경로 결정
+     * HEAD 요청으로 원본 크기와 ETag를 확인하고 예상 변환 시간과 처리 경로를 계산합니다.
+     *
+     * @param imageryKey 변환할 위성 영상의 S3 키
+     * @return 경로와 예상 변환 시간
+     * @throws IOException 원본 정보 조회 실패 시
+     */
+    public ConversionRouter.Route routeImagery(String imageryKey) throws IOException {
+        HeadObjectResponse source = s3Service.headObject(SOURCE_BUCKET, imageryKey);
+        return conversionRouter.route(imageryKey, source.contentLength(), source.eTag());
+    }
+
     /**
      * 단일 위성 영상 변환 처리
      * 지정된 위성 영상을 다운로드하고, 메타데이터를 추출하며, COG 형식으로 변환한 후 저장합니다.
@@ -63,149 +107,365 @@ public class SatelliteImageryService {
      * @return 변환 결과 메타데이터가 포함된 SatelliteImagery 객체
      * @throws IOException 파일 처리 중 오류 발생 시
      */
-    @Transactional // 트랜잭션으로 처리 (모든 DB 작업이 성공하거나 모두 실패)
     public SatelliteImagery processSingleImagery(String imageryKey) throws IOException {
+        return processSingleImagery(imageryKey, null);
+    }
+
+    /**
+     * 단일 위성 영상 변환 처리 (경로 지정)
+     * 다운로드/변환/업로드는 트랜잭션 없이 실행하고(단계 기록은 체크포인트가 즉시 커밋),
+     * 마지막 카탈로그 저장만 ImageryCatalogService의 트랜잭션으로 처리하여 변환 중에는 DB 커넥션을 잡지 않습니다.
+     *
+     * @param imageryKey 변환할 위성 영상의 S3 키
+     * @param route 미리 결정한 변환 경로 (null이면 변환할 때 결정)
+     * @return 변환 결과 메타데이터가 포함된 SatelliteImagery 객체
+     * @throws IOException 파일 처리 중 오류 발생 시
+     */
+    public SatelliteImagery processSingleImagery(String imageryKey, ConversionRouter.Route route) throws IOException {
         // 로그 출력 - 처리 시작
         log.info("단일 위성 영상 처리 중: {}", imageryKey);
 
-        // 1. S3에서 위성 영상 다운로드
-        // 파일명만 추출하여 임시 디렉토리에 저장할 경로 생성
-        Path downloadedPath = tempDirectory.resolve(getFileName(imageryKey));
-        // S3에서 파일 다운로드
-        s3Service.downloadFile(SOURCE_BUCKET, imageryKey, downloadedPath);
+        // 씬 단위 스팬과 진행 중 작업 수 게이지로 감싸서 변환 수행
+        return conversionMetrics.observeConversion(imageryKey, () -> convertImagery(imageryKey, route));
+    }
 
+    /**
+     * 위성 영상 한 건의 변환 단계 수행
+     * 단계가 끝날 때마다 체크포인트를 기록하고, 이전 실행이 남긴 체크포인트가 있으면 완료된 단계를 건너뜁니다.
+     * 각 단계는 ConversionMetrics로 감싸 단계별 소요 시간과 하위 스팬을 기록합니다.
+     *
+     * @param imageryKey 변환할 위성 영상의 S3 키
+     * @param route 미리 결정한 변환 경로 (없으면 null)
+     * @return 저장된 SatelliteImagery 객체
+     * @throws IOException 파일 처리 중 오류 발생 시
+     */
+    private SatelliteImagery convertImagery(String imageryKey, ConversionRouter.Route route) throws IOException {
+        // 0. 체크포인트 조회 (이전 실행에서 완료하지 못한 변환이 있으면 이어받음)
+        ConversionCheckpoint checkpoint = checkpointService.begin(imageryKey);
         try {
-            // 2. 메타데이터 추출
-            // GDAL API를 호출하여 파일의 메타데이터 추출
-            JSONObject metadata = extractMetadata(downloadedPath);
-            // 로그 출력 - 메타데이터 추출 완료
-            log.info("메타데이터 추출 완료 - {}: {}", imageryKey, metadata.toString());
-
-            // 3. 위성 영상을 COG로 변환
-            // GDAL API를 호출하여 파일을 COG 형식으로 변환
-            byte[] cogData = convertToCog(downloadedPath);
-            // 로그 출력 - 변환 완료
-            log.info("COG 형식으로 변환 완료 - {}: 크기 {} 바이트", imageryKey, cogData.length);
-
-            // 4. 결과 파일 저장 (시퀀스 관리)
-            // 원본 파일명에서 확장자를 제외한 기본 이름 추출
-            String baseName = getBaseFileName(imageryKey);
-            // 다음 사용할 시퀀스 번호 가져오기
-            int sequence = getNextSequence(baseName);
-            // COG 파일명 생성 (원본파일명_to_cog_시퀀스번호.tiff 형식)
-            String cogFileName = String.format("%s_to_cog_%d.tiff", baseName, sequence);
-
-            // 변환된 COG 파일을 임시 디렉토리에 저장할 경로 생성
-            Path cogFilePath = tempDirectory.resolve(cogFileName);
-            // 바이트 데이터를 파일로 저장
-            Files.write(cogFilePath, cogData);
-
-            // 5. S3에 업로드
-            // 변환된 COG 파일을 대상 버킷에 업로드
-            String s3Path = s3Service.uploadFile(TARGET_BUCKET, cogFilePath, cogFileName);
-
-            // 6. 메타데이터 저장
-            // 변환 결과 정보를 담을 SatelliteImagery 객체 생성
-            SatelliteImagery satelliteImagery = SatelliteImagery.builder()
-                    .originalName(imageryKey) // 원본 파일명
-                    .cogName(cogFileName) // COG 파일명
-                    .width(metadata.getInt("width")) // 이미지 너비
-                    .height(metadata.getInt("height")) // 이미지 높이
-                    .bandCount(metadata.getInt("bandCount")) // 밴드 수
-                    .projection(metadata.optString("projection", "")) // 투영법 (없으면 빈 문자열)
-                    .s3Path(s3Path) // S3에 저장된 경로
-                    .sequence(sequence) // 시퀀스 번호
-                    .fileSize(Files.size(cogFilePath)) // 파일 크기 (바이트)
-                    .build();
-
-            // 메타데이터 객체를 DB에 저장
-            SatelliteImagery savedImagery = satelliteImageryRepository.save(satelliteImagery);
-            // 로그 출력 - 저장 완료
-            log.info("메타데이터 저장 완료 - {}: id={}, 시퀀스={}", imageryKey, savedImagery.getId(), sequence);
-
-            // 임시 파일 삭제 (변환된 COG 파일)
-            Files.deleteIfExists(cogFilePath);
-
-            // 저장된 메타데이터 반환
-            return savedImagery;
-
+            return convertFromCheckpoint(imageryKey, checkpoint, route);
+        } catch (IOException | RuntimeException e) {
+            // 완료한 단계는 유지하고 실패 원인만 기록 (다음 실행에서 같은 단계부터 재시도)
+            checkpointService.recordFailure(checkpoint.getId(), e);
+            throw e;
         } finally {
-            // 임시 파일 삭제 (다운로드된 원본 파일)
-            // finally 블록에서 처리하여 예외 발생 시에도 삭제 보장
-            Files.deleteIfExists(downloadedPath);
+            checkpointService.release(checkpoint);
         }
     }
 
     /**
-     * 다중 위성 영상 변환 처리
-     * 여러 위성 영상을 순차적으로 처리합니다.
+     * 체크포인트의 다음 단계부터 변환 수행
      *
-     * @param imageryKeys 처리할 위성 영상 키 목록
-     * @return 변환된 위성 영상 메타데이터 목록
+     * @param imageryKey 변환할 위성 영상의 S3 키
+     * @param checkpoint 이어받은 (또는 새로 만든) 체크포인트
+     * @param route 미리 결정한 변환 경로 (없으면 null)
+     * @return 저장된 SatelliteImagery 객체
      * @throws IOException 파일 처리 중 오류 발생 시
      */
-    @Transactional // 트랜잭션으로 처리
-    public List<SatelliteImagery> processMultipleImagery(List<String> imageryKeys) throws IOException {
-        // 로그 출력 - 처리 시작
-        log.info("다중 위성 영상 처리 중: 개수={}", imageryKeys.size());
-
-        // Stream을 사용하여 각 이미지를 순차적으로 처리
-        return imageryKeys.stream() // 위성 영상 키 목록을 스트림으로 변환
-                .map(key -> { // 각 키에 대해 매핑 작업 수행
-                    try {
-                        // 단일 위성 영상 처리 메서드 호출
-                        return processSingleImagery(key);
-                    } catch (IOException e) {
-                        // 오류 발생 시 로그 기록 후 null 반환 (해당 항목 건너뜀)
-                        log.error("위성 영상 처리 실패: {}", key, e);
-                        return null;
-                    }
-                })
-                .filter(img -> img != null) // null이 아닌 결과만 필터링 (처리 실패한 항목 제외)
-                .toList(); // 결과를 리스트로 수집
+    private SatelliteImagery convertFromCheckpoint(String imageryKey, ConversionCheckpoint checkpoint,
+                                                   ConversionRouter.Route route) throws IOException {
+        // 원본 파일명에서 확장자를 제외한 기본 이름 추출
+        String baseName = getBaseFileName(imageryKey);
+
+        if (checkpoint.getStage() == ConversionCheckpoint.Stage.UPLOADED) {
+            // 업로드까지 끝난 체크포인트는 DB 저장만 수행
+            log.info("체크포인트에서 재개 - {}: 업로드 완료, 메타데이터 저장부터 진행", imageryKey);
+            return catalogueImagery(imageryKey, checkpoint, route, null);
+        }
+
+        // 처음부터 실행하는 변환만 소요 시간을 기록 (재개한 변환은 일부 단계를 건너뛰어 예측 모델 학습에 쓸 수 없음)
+        boolean fresh = checkpoint.getStage() == ConversionCheckpoint.Stage.STARTED;
+
+        // 다음 시퀀스 번호 후보 확인을 미리 시작 (S3 존재 여부 확인이 다운로드/변환과 겹쳐서 진행됨)
+        // 업로드를 이미 시작한 체크포인트는 기록된 시퀀스를 그대로 사용하고, 새로 시작할 때만 후보를 예약
+        CompletableFuture<Integer> sequenceFuture = checkpoint.getSequence() != null
+                ? CompletableFuture.completedFuture(checkpoint.getSequence())
+                : sequenceAllocator.suggest(TARGET_BUCKET, cogNamePrefix(baseName));
+
+        // 1. 임시 공간 예약
+        // HEAD 요청으로 원본 크기를 확인하고(경로를 미리 결정했으면 그때 확인한 크기 사용),
+        // 다운로드/변환에 필요한 공간을 예산에서 예약 (부족하면 대기, 이전 실행이 남긴 파일의 보존 공간은 이 예약이 이어받음)
+        // IN_MEMORY 경로는 원본을 디스크에 쓰지 않으므로 원본 몫을 빼고 예약 (이전 실행이 받아 둔 원본 파일이 있으면 제외)
+        ConversionRouter.Route resolvedRoute = route != null ? route : routeImagery(imageryKey);
+        long sourceSize = resolvedRoute.sourceBytes();
+        boolean sourceOnDisk = resolvedRoute.lane() != ConversionRouter.Lane.IN_MEMORY
+                || checkpoint.getStage() == ConversionCheckpoint.Stage.DOWNLOADED;
+        Long conversionMillis;
+        try (TempSpaceManager.Reservation reservation =
+                     checkpointService.reserve(checkpoint, sourceSize, sourceOnDisk)) {
+            // 변환 시간은 공간 예약 대기를 제외하고 측정
+            long conversionStarted = System.nanoTime();
+            // 단계 사이의 파일은 재시작 후에도 재사용할 수 있도록 체크포인트 디렉토리에 저장
+            Path directory = checkpointService.directory(checkpoint);
+
+            // 2~4. 다운로드, 메타데이터 추출, COG 변환 (변환 결과가 남아 있으면 건너뜀)
+            if (checkpointService.hasIntactConversion(checkpoint, resolvedRoute)) {
+                log.info("체크포인트에서 재개 - {}: 변환된 COG 재사용", imageryKey);
+            } else {
+                checkpoint = downloadAndConvert(imageryKey, checkpoint, directory, resolvedRoute);
+            }
+
+            // 5~6. 시퀀스 결정 및 S3 업로드 (이전 실행이 올린 파트는 다시 보내지 않음)
+            checkpoint = uploadCog(imageryKey, checkpoint, sequenceFuture);
+            conversionMillis = fresh ? (System.nanoTime() - conversionStarted) / 1_000_000 : null;
+        }
+
+        // 7~8. 메타데이터 및 밴드별 통계 저장
+        return catalogueImagery(imageryKey, checkpoint, resolvedRoute, conversionMillis);
+    }
+
+    /**
+     * 원본 다운로드, 메타데이터 추출, COG 변환
+     * S3 원본과 크기/ETag가 같은 원본이 체크포인트 디렉토리에 남아 있으면 다운로드를 건너뜁니다.
+     * IN_MEMORY 경로는 원본을 한 번의 GET으로 메모리에 받아 파일로 기록하지 않고 메타데이터 추출과 COG 변환(재배치 또는 GDAL 요청)에 사용하며,
+     * 다운로드 단계를 체크포인트에 남기지 않으므로 변환 전에 중단되면 다시 받습니다.
+     * 나머지 경로는 전송 관리자로 디스크에 받아 파일에서 스트리밍합니다.
+     *
+     * @return 변환 완료가 기록된 체크포인트
+     * @throws IOException 다운로드, 메타데이터 추출 또는 변환 실패 시
+     */
+    private ConversionCheckpoint downloadAndConvert(String imageryKey, ConversionCheckpoint checkpoint,
+                                                    Path directory, ConversionRouter.Route route)
+            throws IOException {
+        long sourceSize = route.sourceBytes();
+        // 변환을 다시 하면 COG 내용이 달라지므로 이전 실행에서 시작한 업로드는 중단
+        abortUpload(checkpoint);
+
+        // 2. S3에서 위성 영상 다운로드
+        // 파일명만 추출하여 체크포인트 디렉토리에 저장할 경로 생성 (IN_MEMORY 경로는 요청에 붙일 파일명으로만 사용)
+        Path downloadedPath = directory.resolve(getFileName(imageryKey));
+        byte[] sourceData = null; // IN_MEMORY 경로에서 받은 원본 (파일로 기록하지 않음)
+        if (checkpointService.hasIntactDownload(checkpoint, route)) {
+            log.info("체크포인트에서 재개 - {}: 다운로드한 원본 재사용", imageryKey);
+            downloadedPath = Path.of(checkpoint.getDownloadedPath());
+        } else if (route.lane() == ConversionRouter.Lane.IN_MEMORY) {
+            // 작은 영상은 파트 분할 없이 한 번의 GET으로 메모리에 받음 (이전 실행이 받아 둔 다른 원본 파일은 삭제)
+            Files.deleteIfExists(downloadedPath);
+            sourceData = conversionMetrics.observeStage(ConversionMetrics.STAGE_S3_DOWNLOAD,
+                    () -> S3Service.await(s3Service.readRangeAsync(SOURCE_BUCKET, imageryKey, 0, (int) sourceSize)));
+            conversionMetrics.recordTransferBytes("download", sourceSize);
+            // 변환 결과를 재사용할 때 원본이 바뀌지 않았는지 확인할 수 있도록 HEAD 요청의 ETag 기록 (변환 완료와 함께 저장)
+            checkpoint.recordInMemorySource(sourceSize, route.sourceETag());
+        } else {
+            // S3에서 파일 다운로드 (CRT 전송 관리자가 파트 단위로 병렬 다운로드)
+            Path target = downloadedPath;
+            conversionMetrics.observeStage(ConversionMetrics.STAGE_S3_DOWNLOAD,
+                    () -> S3Service.await(s3Service.downloadFileAsync(SOURCE_BUCKET, imageryKey, target)));
+            conversionMetrics.recordTransferBytes("download", sourceSize);
+            // 재시작 후 원본이 바뀌지 않았는지 확인할 수 있도록 HEAD 요청의 ETag와 함께 기록
+            // (다운로드가 끝난 뒤에만 기록하므로 파일을 다시 읽어 체크섬을 계산하지 않음)
+            checkpoint.markDownloaded(downloadedPath.toString(), sourceSize, route.sourceETag());
+            checkpoint = checkpointService.save(checkpoint);
+        }
+        Path sourcePath = downloadedPath;
+        byte[] inMemorySource = sourceData;
+
+        // 3. 메타데이터 추출
+        // GDAL API를 호출하여 파일(또는 메모리에 받은 원본)의 메타데이터 추출
+        JSONObject metadata = conversionMetrics.observeStage(ConversionMetrics.STAGE_GDAL_METADATA,
+                () -> extractMetadata(sourcePath, inMemorySource));
+        // 로그 출력 - 메타데이터 추출 완료
+        log.info("메타데이터 추출 완료 - {}: {}", imageryKey, metadata.toString());
+
+        // 4. 위성 영상을 COG로 변환
+        // 이미 타일/압축되어 있고 오버뷰도 갖춘 영상은 타일을 그대로 복사해 재배치하고, 그 외에는 GDAL API로 변환
+        Path cogFilePath = directory.resolve(getBaseFileName(imageryKey) + "_cog.tiff");
+        long cogSize = writeCog(imageryKey, sourcePath, inMemorySource, cogFilePath);
+        // 로그 출력 - 변환 완료
+        log.info("COG 형식으로 변환 완료 - {}: 크기 {} 바이트", imageryKey, cogSize);
+
+        // 변환 결과와 메타데이터를 기록하고, 더 이상 필요 없는 원본은 삭제하여 공간 확보
+        checkpoint.markConverted(cogFilePath.toString(), cogSize, metadata.toString());
+        checkpoint = checkpointService.save(checkpoint);
+        Files.deleteIfExists(sourcePath);
+        return checkpoint;
+    }
+
+    /**
+     * 변환된 COG를 S3에 업로드
+     * 업로드 시작 전에 uploadId를 체크포인트에 기록하고, 재개 시에는 이미 올라간 파트를 조회해 남은 파트만 전송합니다.
+     *
+     * @param sequenceFuture 미리 확인한 다음 시퀀스 번호 후보 (업로드를 새로 시작할 때만 사용)
+     * @return 업로드 완료가 기록된 체크포인트
+     * @throws IOException 업로드 실패 시
+     */
+    private ConversionCheckpoint uploadCog(String imageryKey, ConversionCheckpoint checkpoint,
+                                           CompletableFuture<Integer> sequenceFuture) throws IOException {
+        Path cogFilePath = Path.of(checkpoint.getCogPath());
+
+        // 이전 실행에서 시작한 업로드가 있으면 이미 올라간 파트 조회
+        Optional<List<Part>> uploadedParts = Optional.empty();
+        if (checkpoint.getUploadId() != null) {
+            uploadedParts = S3Service.await(s3Service.listPartsAsync(
+                    TARGET_BUCKET, checkpoint.getS3Path(), checkpoint.getUploadId()));
+            if (uploadedParts.isEmpty() && isUploadedObject(checkpoint)) {
+                // 완료 요청까지 마친 뒤 체크포인트를 기록하기 전에 종료된 경우
+                log.info("체크포인트에서 재개 - {}: 업로드가 이미 완료되어 있습니다", imageryKey);
+                checkpoint.markUploaded(null);
+                checkpoint = checkpointService.save(checkpoint);
+                Files.deleteIfExists(cogFilePath);
+                return checkpoint;
+            }
+            if (uploadedParts.isPresent()) {
+                log.info("체크포인트에서 재개 - {}: 업로드된 파트 {}개", imageryKey, uploadedParts.get().size());
+            } else {
+                log.info("이전 멀티파트 업로드를 찾을 수 없어 새로 시작합니다 - {}", imageryKey);
+            }
+        }
+
+        if (uploadedParts.isEmpty()) {
+            // 5. 결과 파일 저장 (시퀀스 관리)
+            // 시퀀스 번호 예약 (미리 확인한 후보가 아직 비어 있으면 그대로 사용)
+            // 같은 이름의 영상이 병렬로 변환되어도 체크포인트에 기록할 때까지 번호를 예약해 두므로 같은 S3 키에 업로드하지 않음
+            try (CogSequenceAllocator.Lease lease = conversionMetrics.observeStage(
+                    ConversionMetrics.STAGE_S3_SEQUENCE_PROBE,
+                    () -> sequenceAllocator.reserve(TARGET_BUCKET, cogNamePrefix(getBaseFileName(imageryKey)),
+                            sequenceFuture))) {
+                // COG 파일명 생성 (원본파일명_to_cog_시퀀스번호.tiff 형식)
+                String cogFileName = lease.getFileName();
+                String s3Path = s3Service.userKey(cogFileName);
+                // 멀티파트 업로드를 시작하고 uploadId를 먼저 기록 (재시작 시 같은 업로드를 이어서 진행)
+                String uploadId = S3Service.await(s3Service.createMultipartUploadAsync(TARGET_BUCKET, s3Path));
+                checkpoint.startUpload(lease.getSequence(), cogFileName, s3Path, uploadId);
+                checkpoint = checkpointService.save(checkpoint);
+            }
+            uploadedParts = Optional.of(List.of());
+        }
+
+        // 6. S3에 업로드
+        // 남은 파트를 병렬로 전송하고 업로드 완료
+        ConversionCheckpoint uploading = checkpoint;
+        List<Part> parts = uploadedParts.get();
+        String eTag = conversionMetrics.observeStage(ConversionMetrics.STAGE_S3_UPLOAD,
+                () -> S3Service.await(s3Service.completeMultipartUploadAsync(TARGET_BUCKET, uploading.getS3Path(),
+                        uploading.getUploadId(), cogFilePath, parts)));
+        conversionMetrics.recordTransferBytes("upload", checkpoint.getCogSize());
+
+        // 업로드 완료를 기록하고, 더 이상 필요 없는 로컬 COG는 삭제
+        checkpoint.markUploaded(eTag);
+        checkpoint = checkpointService.save(checkpoint);
+        Files.deleteIfExists(cogFilePath);
+        return checkpoint;
+    }
+
+    /**
+     * 변환 결과 메타데이터 저장
+     * 메타데이터와 밴드별 통계는 ImageryCatalogService가 한 트랜잭션으로 저장하고, 커밋된 뒤 체크포인트 완료를 기록합니다.
+     *
+     * @param route 변환 경로 (업로드까지 끝난 체크포인트에서 재개하면 null)
+     * @param conversionMillis 변환 소요 시간 (재개한 변환이면 null)
+     * @return 저장된 SatelliteImagery 객체
+     * @throws IOException 저장 실패 시
+     */
+    private SatelliteImagery catalogueImagery(String imageryKey, ConversionCheckpoint checkpoint,
+                                              ConversionRouter.Route route, Long conversionMillis) throws IOException {
+        // 7~8. 메타데이터 및 밴드별 통계 저장
+        SatelliteImagery savedImagery = conversionMetrics.observeStage(ConversionMetrics.STAGE_DB_SAVE,
+                () -> imageryCatalogService.catalogue(imageryKey, checkpoint, route, conversionMillis));
+
+        // 로그 출력 - 저장 완료
+        log.info("메타데이터 저장 완료 - {}: id={}, 시퀀스={}", imageryKey, savedImagery.getId(), savedImagery.getSequence());
+
+        // 저장된 메타데이터 반환
+        return savedImagery;
+    }
+
+    /**
+     * 체크포인트에 기록된 업로드 대상이 이미 완성된 객체로 존재하는지 확인
+     */
+    private boolean isUploadedObject(ConversionCheckpoint checkpoint) throws IOException {
+        return s3Service.isFileExists(TARGET_BUCKET, checkpoint.getS3Path())
+                && s3Service.getFileSize(TARGET_BUCKET, checkpoint.getS3Path()) == checkpoint.getCogSize();
+    }
+
+    /**
+     * 이전 실행에서 시작한 멀티파트 업로드 중단 (업로드된 파트 삭제)
+     * 실패해도 버킷의 미완료 업로드 정리 규칙에 맡기고 변환은 계속 진행합니다.
+     */
+    private void abortUpload(ConversionCheckpoint checkpoint) {
+        if (checkpoint.getUploadId() == null) {
+            return;
+        }
+        try {
+            S3Service.await(s3Service.abortMultipartUploadAsync(
+                    TARGET_BUCKET, checkpoint.getS3Path(), checkpoint.getUploadId()));
+        } catch (IOException e) {
+            log.warn("이전 멀티파트 업로드 중단 실패: {}", checkpoint.getUploadId(), e);
+        }
     }
 
     /**
      * 메타데이터 기반 위성 영상 검색
      * 검색 조건에 맞는 위성 영상을 페이지네이션하여 반환합니다.
+     * 좌표계 WKT는 includeProjection 조건을 지정한 경우에만 포함됩니다.
+     * 같은 검색 조건/페이지 요청은 카탈로그 버전이 바뀔 때까지 캐시된 결과를 반환합니다 (count + 페이지 쿼리 생략).
      *
      * @param searchDto 검색 조건
      * @param pageable 페이지네이션 정보
-     * @return 검색된 위성 영상 페이지
+     * @return 검색된 위성 영상 요약 페이지
      */
-    public Page<SatelliteImagery> searchImagery(SatelliteImagerySearchDto searchDto, Pageable pageable) {
+    @Cacheable(cacheNames = CacheConfig.IMAGERY_SEARCH_CACHE,
+            key = "{@imageryCatalogVersion.current(), #searchDto.toMap(), #pageable}")
+    public Page<SatelliteImagerySummaryDto> searchImagery(SatelliteImagerySearchDto searchDto, Pageable pageable) {
         // 로그 출력 - 검색 시작
         log.info("검색 조건으로 위성 영상 검색 중: {}", searchDto);
         // 리포지토리를 통해 메타데이터 기반 검색 수행
         return satelliteImageryRepository.searchByMetadata(searchDto, pageable);
     }
 
+    /**
+     * 위성 영상 단건 조회
+     * Hibernate 2차 캐시에 있으면 DB를 조회하지 않습니다.
+     *
+     * @param imageryId 위성 영상 ID
+     * @return 위성 영상 (없으면 빈 Optional)
+     */
+    public Optional<SatelliteImagery> findImagery(Long imageryId) {
+        return satelliteImageryRepository.findById(imageryId);
+    }
+
+    /**
+     * 위성 영상의 밴드별 통계 조회
+     *
+     * @param imageryId 위성 영상 ID
+     * @return 밴드 번호 순으로 정렬된 밴드별 통계 목록
+     */
+    public List<SatelliteImageryBandStatistics> getBandStatistics(Long imageryId) {
+        // 리포지토리를 통해 밴드 번호 순으로 통계 조회
+        return bandStatisticsRepository.findBySatelliteImageryIdOrderByBandIndexAsc(imageryId);
+    }
+
     /**
      * 메타데이터 추출
      * GDAL API를 호출하여 위성 영상의 메타데이터를 추출합니다.
+     * 원본을 메모리에 받아 둔 경우(IN_MEMORY 경로)에는 그 바이트를 보내고,
+     * 그 외에는 파일에서 바로 스트리밍하여 큰 영상 전체를 힙에 올리지 않습니다.
      *
      * @param filePath 메타데이터를 추출할 파일 경로
+     * @param fileData 메모리에 받아 둔 원본 (없으면 null)
      * @return 추출된 메타데이터를 담은 JSONObject
      * @throws IOException API 호출 중 오류 발생 시
      */
-    private JSONObject extractMetadata(Path filePath) throws IOException {
+    private JSONObject extractMetadata(Path filePath, byte[] fileData) throws IOException {
         // 로그 출력 - 메타데이터 추출 시작
         log.info("파일에서 메타데이터 추출 중: {}", filePath);
 
         // GDAL API 서비스에 요청
-        // 파일을 바이트 배열로 읽기
-        byte[] fileData = Files.readAllBytes(filePath);
-
         // MultiValueMap 생성 (여러 값을 가질 수 있는 맵, 멀티파트 폼 데이터 구성에 사용)
         MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-        // 'file'이라는 키로 파일 데이터 추가 (ByteArrayResource로 감싸서 추가)
-        body.add("file", new ByteArrayResource(fileData) {
-            @Override
-            public String getFilename() {
-                // API 요청에 파일명 포함 (원본 파일명 유지)
-                return filePath.getFileName().toString();
-            }
-        });
+        if (fileData != null) {
+            // 'file'이라는 키로 파일 데이터 추가 (ByteArrayResource로 감싸서 추가)
+            body.add("file", new ByteArrayResource(fileData) {
+                @Override
+                public String getFilename() {
+                    // API 요청에 파일명 포함 (원본 파일명 유지)
+                    return filePath.getFileName().toString();
+                }
+            });
+        } else {
+            // 'file'이라는 키로 파일 추가 (FileSystemResource는 파일명을 포함하며, 전송 시 파일에서 바로 읽음)
+            body.add("file", new FileSystemResource(filePath));
+        }
 
         // HTTP 헤더 설정
         HttpHeaders headers = new HttpHeaders();
@@ -234,32 +494,96 @@ public class SatelliteImageryService {
         }
     }
 
+    /**
+     * COG 파일 작성
+     * 원본이 이미 타일/압축되어 있고 필요한 오버뷰를 갖추고 있으면 픽셀을 복원하지 않고 타일을 그대로 복사해 COG 배치로 재배치하고,
+     * 타일 구조가 아니거나 오버뷰를 새로 만들어야 하는 경우에만 GDAL API로 변환합니다.
+     *
+     * @param imageryKey 위성 영상의 S3 키 (로그용)
+     * @param sourcePath 원본 파일 경로 (메모리에 받은 원본이면 파일명으로만 사용)
+     * @param sourceData 메모리에 받아 둔 원본 (없으면 null)
+     * @param cogPath 결과 COG 파일 경로
+     * @return 결과 파일 크기
+     * @throws IOException 재배치 또는 GDAL 변환 실패 시
+     */
+    private long writeCog(String imageryKey, Path sourcePath, byte[] sourceData, Path cogPath) throws IOException {
+        if (relayoutEnabled && sourceData != null) {
+            // 메모리에 받은 원본은 배열에서 구조를 읽고 타일을 바로 복사
+            TiffStructure structure = readTiffStructure(RangeSource.of(sourceData));
+            Optional<String> rejection = structure != null
+                    ? CogRelayout.findRejection(structure) : Optional.of("TIFF 파일이 아닙니다");
+            if (rejection.isEmpty()) {
+                return conversionMetrics.observeStage(ConversionMetrics.STAGE_COG_RELAYOUT,
+                        () -> CogRelayout.relayout(structure, sourceData, cogPath));
+            }
+            log.info("GDAL 변환 사용 - {}: {}", imageryKey, rejection.get());
+        } else if (relayoutEnabled) {
+            try (FileChannel channel = FileChannel.open(sourcePath, StandardOpenOption.READ)) {
+                // 원본 TIFF 구조(IFD)만 읽어 재배치 가능 여부 확인
+                TiffStructure structure = readTiffStructure(RangeSource.of(channel));
+                Optional<String> rejection = structure != null
+                        ? CogRelayout.findRejection(structure) : Optional.of("TIFF 파일이 아닙니다");
+                if (rejection.isEmpty()) {
+                    // 압축된 타일을 그대로 복사 (디코딩/재인코딩 없이 I/O만 수행)
+                    return conversionMetrics.observeStage(ConversionMetrics.STAGE_COG_RELAYOUT,
+                            () -> CogRelayout.relayout(structure, channel, cogPath));
+                }
+                // 로그 출력 - GDAL 변환으로 처리하는 이유
+                log.info("GDAL 변환 사용 - {}: {}", imageryKey, rejection.get());
+            }
+        }
+
+        // GDAL API를 호출하여 파일을 COG 형식으로 변환
+        return conversionMetrics.observeStage(ConversionMetrics.STAGE_GDAL_CONVERT,
+                () -> convertToCog(sourcePath, sourceData, cogPath));
+    }
+
+    /**
+     * TIFF 구조 읽기
+     *
+     * @param source 원본 파일 채널 또는 메모리 배열
+     * @return TIFF 구조 (TIFF 형식이 아니면 null)
+     * @throws IOException 파일 읽기 실패 시
+     */
+    private TiffStructure readTiffStructure(RangeSource source) throws IOException {
+        try {
+            return TiffReader.read(source);
+        } catch (TiffFormatException e) {
+            log.debug("TIFF 구조를 읽을 수 없습니다: {}", e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * COG 변환
      * GDAL API를 호출하여 위성 영상을 COG 형식으로 변환합니다.
+     * 요청 본문은 파일에서(IN_MEMORY 경로는 메모리에 받은 원본에서), 응답 본문은 파일로 바로 스트리밍하여
+     * 디스크 기반 경로에서는 영상 전체를 메모리에 올리지 않습니다.
      *
-     * @param filePath 변환할 파일 경로
-     * @return 변환된 COG 데이터 (바이트 배열)
+     * @param filePath 변환할 파일 경로 (메모리에 받은 원본이면 파일명으로만 사용)
+     * @param fileData 메모리에 받아 둔 원본 (없으면 null)
+     * @param cogPath 변환된 COG를 저장할 파일 경로
+     * @return 변환된 COG 파일 크기
      * @throws IOException API 호출 중 오류 발생 시
      */
-    private byte[] convertToCog(Path filePath) throws IOException {
+    private long convertToCog(Path filePath, byte[] fileData, Path cogPath) throws IOException {
         // 로그 출력 - COG 변환 시작
         log.info("파일을 COG로 변환 중: {}", filePath);
 
-        // GDAL API 서비스에 요청
-        // 파일을 바이트 배열로 읽기
-        byte[] fileData = Files.readAllBytes(filePath);
-
         // MultiValueMap 생성 (멀티파트 폼 데이터 구성용)
         MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-        // 'file'이라는 키로 파일 데이터 추가
-        body.add("file", new ByteArrayResource(fileData) {
-            @Override
-            public String getFilename() {
-                // API 요청에 파일명 포함
-                return filePath.getFileName().toString();
-            }
-        });
+        if (fileData != null) {
+            // 메모리에 받은 원본을 그대로 전송 (원본 파일명 유지)
+            body.add("file", new ByteArrayResource(fileData) {
+                @Override
+                public String getFilename() {
+                    return filePath.getFileName().toString();
+                }
+            });
+        } else {
+            // 'file'이라는 키로 파일 추가 (FileSystemResource는 파일명을 포함하며, 전송 시 파일에서 바로 읽음)
+            body.add("file", new FileSystemResource(filePath));
+        }
 
         // HTTP 헤더 설정
         HttpHeaders headers = new HttpHeaders();
@@ -268,25 +592,30 @@ public class SatelliteImageryService {
 
         // HTTP 요청 엔티티 생성
         HttpEntity<MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(body, headers);
+        // 요청 본문을 멀티파트로 기록하는 콜백
+        RequestCallback requestCallback = restTemplate.httpEntityCallback(requestEntity);
+
+        // 응답 본문(변환된 파일 데이터)을 결과 파일로 복사하는 추출기
+        ResponseExtractor<Long> responseExtractor = response -> {
+            // 응답 상태 코드 확인
+            if (response.getStatusCode() != HttpStatus.OK) {
+                // 오류 응답인 경우 로그 출력 후 예외 발생
+                log.error("COG 변환 실패: 상태={}", response.getStatusCode());
+                throw new IOException("COG 변환 실패");
+            }
+            try (InputStream in = response.getBody()) {
+                return Files.copy(in, cogPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        };
 
         // RestTemplate을 사용하여 HTTP POST 요청 전송
-        // 응답으로 바이트 배열(변환된 파일 데이터) 수신
-        ResponseEntity<byte[]> response = restTemplate.exchange(
+        Long size = restTemplate.execute(
                 gdalApiUrl + "/convertToCog", // API 엔드포인트 URL
                 HttpMethod.POST, // HTTP 메서드
-                requestEntity, // 요청 엔티티
-                byte[].class // 응답 바디 타입 (바이트 배열)
+                requestCallback, // 요청 본문 기록
+                responseExtractor // 응답 본문을 파일로 저장
         );
-
-        // 응답 상태 코드 확인
-        if (response.getStatusCode() == HttpStatus.OK) {
-            // 정상 응답인 경우 변환된 데이터 반환
-            return response.getBody();
-        } else {
-            // 오류 응답인 경우 로그 출력 후 예외 발생
-            log.error("COG 변환 실패: 상태={}", response.getStatusCode());
-            throw new IOException("COG 변환 실패");
-        }
+        return size != null ? size : Files.size(cogPath);
     }
 
     /**
@@ -320,38 +649,9 @@ public class SatelliteImageryService {
     }
 
     /**
-     * 다음 시퀀스 번호 가져오기
-     * 특정 이름을 가진 파일의 다음 시퀀스 번호를 결정합니다.
-     *
-     * @param baseName 기본 파일명
-     * @return 다음 시퀀스 번호
+     * 변환 결과 COG 파일명 접두사 (원본파일명_to_cog_)
      */
-    private int getNextSequence(String baseName) {
-        // 1. DB에서 최대 시퀀스 확인
-        // 리포지토리를 통해 해당 이름의 파일에 대한 최대 시퀀스 번호 조회
-        Integer maxSequence = satelliteImageryRepository.findMaxSequenceByOriginalName(baseName);
-        // 최대 시퀀스가 있으면 +1, 없으면 1부터 시작
-        int nextSequence = maxSequence != null ? maxSequence + 1 : 1;
-
-        // 2. S3 버킷에서 파일 존재 여부 확인 및 시퀀스 조정
-        boolean fileExists = true;
-        // 파일이 존재하지 않을 때까지 시퀀스 증가
-        while (fileExists) {
-            // 현재 시퀀스로 COG 파일명 생성
-            String cogFileName = String.format("%s_to_cog_%d.tiff", baseName, nextSequence);
-            // username이 경로에 포함되어 있으므로 이를 고려하여 S3 키 생성
-            String s3Key = String.format("%s/%s", username, cogFileName);
-            // S3에 해당 키의 파일 존재 여부 확인
-            fileExists = s3Service.isFileExists(TARGET_BUCKET, s3Key);
-            // 파일이 존재하면 시퀀스 증가
-            if (fileExists) {
-                nextSequence++;
-                // 로그 출력 - 시퀀스 증가
-                log.info("파일이 이미 S3 버킷에 존재합니다, 시퀀스 증가: {}", nextSequence);
-            }
-        }
-
-        // 최종 결정된 시퀀스 번호 반환
-        return nextSequence;
+    private static String cogNamePrefix(String baseName) {
+        return baseName + "_to_cog_";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,283 @@
+package com.geotiff.back.domain.sateliteImagery.service;
+
+import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImagery;
+import com.geotiff.back.global.metrics.ConversionMetrics;
+import com.geotiff.back.global.service.ConversionScheduler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 스케줄러를 거치는 위성 영상 변환 서비스
+ * 변환마다 ConversionScheduler에서 실행 허가를 받은 뒤 SatelliteImageryService로 변환합니다.
+ * 변환은 마지막 카탈로그 저장만 트랜잭션으로 실행하므로, 허가를 기다리거나 변환하는 동안에는 DB 커넥션을 잡지 않습니다.
+ * 변환 전에 ConversionRouter로 경로를 정하고, 큰 영상은 스케줄러의 큰 영상 자리 안에서 실행 허가를 받습니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScheduledConversionService {
+
+    private final SatelliteImageryService satelliteImageryService;
+    private final ConversionScheduler conversionScheduler;
+    private final ConversionRouter conversionRouter;
+    private final ConversionMetrics conversionMetrics;
+    private final ThreadPoolExecutor conversionBatchExecutor; // 모든 다중 변환 요청이 함께 사용하는 실행 풀
+    private final String username; // 사용자를 지정하지 않은 요청의 기본 사용자
+
+    @Value("${app.routing.batch-parallelism:4}") // 다중 변환 한 건이 실행 풀에 동시에 넣는 일반 영상 수
+    private int batchParallelism;
+
+    @Value("${app.scheduler.tenants:}") // 요청 헤더로 지정할 수 있는 사용자 (가중치를 설정한 사용자도 포함)
+    private Set<String> tenants;
+
+    /**
+     * 다중 변환의 실행 계획 항목
+     *
+     * @param index 요청 목록에서의 위치 (결과를 요청 순서대로 돌려주기 위함)
+     * @param route 경로 결정 결과 (원본 크기를 확인하지 못했으면 null)
+     */
+    private record PlannedConversion(int index, String imageryKey, ConversionRouter.Route route) {
+
+        long predictedMillis() {
+            // 경로를 정하지 못한 영상은 마지막에 실행
+            return route != null ? route.predictedMillis() : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * 실행 풀에서 실행할 작업
+     */
+    @FunctionalInterface
+    private interface BatchTask<T, R> {
+        R run(T item) throws Exception;
+    }
+
+    /**
+     * 단일 위성 영상 변환 (대화형 등급)
+     *
+     * @param imageryKey 변환할 위성 영상의 S3 키
+     * @param tenant 요청한 사용자 (없으면 기본 사용자)
+     * @return 변환 결과 메타데이터
+     * @throws IOException 대기 시간 초과 또는 변환 중 오류 발생 시
+     */
+    public SatelliteImagery convert(String imageryKey, String tenant) throws IOException {
+        return convert(imageryKey, tenant, ConversionScheduler.Priority.INTERACTIVE);
+    }
+
+    /**
+     * 위성 영상 변환
+     * 실행 허가를 받은 뒤 변환하며, 변환이 끝나면 다음 대기 작업에 자리를 넘깁니다.
+     *
+     * @param imageryKey 변환할 위성 영상의 S3 키
+     * @param tenant 요청한 사용자 (없으면 기본 사용자)
+     * @param priority 우선순위 등급
+     * @return 변환 결과 메타데이터
+     * @throws IOException 대기 시간 초과 또는 변환 중 오류 발생 시
+     */
+    public SatelliteImagery convert(String imageryKey, String tenant, ConversionScheduler.Priority priority)
+            throws IOException {
+        return convert(imageryKey, tenant, priority, routeOrNull(imageryKey));
+    }
+
+    private SatelliteImagery convert(String imageryKey, String tenant, ConversionScheduler.Priority priority,
+                                     ConversionRouter.Route route) throws IOException {
+        // 큰 영상은 스케줄러의 큰 영상 자리 안에서만 실행되어, 큰 영상끼리 스케줄러의 자리를 모두 차지하지 않도록 함
+        // (자리를 기다리는 동안에도 우선순위 등급과 사용자별 공정 큐 순서를 따름)
+        boolean large = route != null && route.lane() == ConversionRouter.Lane.LARGE;
+        try (ConversionScheduler.Permit permit = conversionScheduler.acquire(resolveTenant(tenant), priority, large)) {
+            // 영상마다 변환하고 카탈로그 저장은 영상별 트랜잭션으로 커밋
+            SatelliteImagery imagery = satelliteImageryService.processSingleImagery(imageryKey, route);
+            // 커밋된 변환 시간으로 예측 모델 갱신
+            conversionRouter.record(route, imagery);
+            return imagery;
+        }
+    }
+
+    /**
+     * 다중 위성 영상 변환 (일괄 등급)
+     * 영상마다 실행 허가를 따로 받으므로, 일괄 변환 중에도 다른 사용자와 대화형 요청이 사이사이 실행됩니다.
+     * 예상 변환 시간으로 실행 순서를 정해, 큰 영상은 먼저 시작하고 나머지는 짧은 것부터 병렬로 실행합니다.
+     * 변환은 공용 실행 풀(conversionBatchExecutor)에서 실행하며, 요청 한 건은 풀에 일정 수의 작업만 넣고
+     * 하나가 끝날 때마다 다음 작업을 넣으므로 큰 요청 하나가 풀의 대기열을 모두 차지하지 않습니다.
+     * 실패한 영상은 로그를 남기고 건너뜁니다.
+     *
+     * @param imageryKeys 변환할 위성 영상 키 목록
+     * @param tenant 요청한 사용자 (없으면 기본 사용자)
+     * @return 변환에 성공한 위성 영상 메타데이터 목록 (요청 순서)
+     */
+    public List<SatelliteImagery> convertBatch(List<String> imageryKeys, String tenant) {
+        // 로그 출력 - 처리 시작
+        log.info("다중 위성 영상 처리 중: 개수={}, 사용자={}", imageryKeys.size(), resolveTenant(tenant));
+        if (imageryKeys.isEmpty()) {
+            return List.of();
+        }
+        long batchStarted = System.nanoTime();
+
+        int workers = Math.max(1, Math.min(batchParallelism, imageryKeys.size()));
+        // 요청 스레드가 중단되면 아직 시작하지 않은 작업은 실행하지 않음
+        AtomicBoolean cancelled = new AtomicBoolean();
+        List<CompletableFuture<SatelliteImagery>> futures =
+                new ArrayList<>(Collections.nCopies(imageryKeys.size(), null));
+        long[] completedNanos = new long[imageryKeys.size()];
+        try {
+            // 1. 경로 결정 (원본 크기 확인 HEAD 요청을 병렬로 보내고 예상 변환 시간 계산)
+            List<CompletableFuture<ConversionRouter.Route>> routing =
+                    submitWindowed(imageryKeys, workers, this::routeOrNull, cancelled);
+            List<PlannedConversion> large = new ArrayList<>();
+            List<PlannedConversion> standard = new ArrayList<>();
+            for (int i = 0; i < imageryKeys.size(); i++) {
+                PlannedConversion planned = new PlannedConversion(i, imageryKeys.get(i), routing.get(i).get());
+                if (planned.route() != null && planned.route().lane() == ConversionRouter.Lane.LARGE) {
+                    large.add(planned);
+                } else {
+                    standard.add(planned);
+                }
+            }
+
+            // 2. 실행 순서 결정
+            // 큰 영상은 예상 시간이 긴 것부터 먼저 시작해 전체 소요 시간(makespan)을 줄이고,
+            // 나머지는 예상 시간이 짧은 것부터(SJF) 실행해 영상별 평균 완료 시간을 줄임
+            large.sort(Comparator.comparingLong(PlannedConversion::predictedMillis).reversed());
+            standard.sort(Comparator.comparingLong(PlannedConversion::predictedMillis));
+
+            // 3. 실행
+            // 큰 영상은 스케줄러의 큰 영상 자리 수만큼만 넣어, 자리를 기다리는 큰 영상이 일반 영상 몫의 작업 수를 차지하지 않도록 함
+            BatchTask<PlannedConversion, SatelliteImagery> conversion = planned -> {
+                SatelliteImagery imagery = convert(planned.imageryKey(), tenant,
+                        ConversionScheduler.Priority.BULK, planned.route());
+                completedNanos[planned.index()] = System.nanoTime() - batchStarted;
+                return imagery;
+            };
+            collect(large, submitWindowed(large, conversionScheduler.getMaxLarge(), conversion, cancelled), futures);
+            collect(standard, submitWindowed(standard, workers, conversion, cancelled), futures);
+
+            // 4. 요청 순서대로 결과 수집
+            List<SatelliteImagery> results = new ArrayList<>();
+            List<Long> completions = new ArrayList<>();
+            for (int i = 0; i < imageryKeys.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                    completions.add(completedNanos[i]);
+                } catch (ExecutionException e) {
+                    // 오류 발생 시 로그 기록 후 해당 항목 건너뜀
+                    log.error("위성 영상 처리 실패: {}", imageryKeys.get(i), e.getCause());
+                }
+            }
+
+            long makespanNanos = System.nanoTime() - batchStarted;
+            conversionMetrics.recordBatch(makespanNanos, completions);
+            // 로그 출력 - 처리 완료 (전체 소요 시간과 영상별 평균 완료 시간)
+            log.info("다중 위성 영상 처리 완료: 성공 {}/{}건, 큰 영상 {}건, 전체 {}ms, 평균 완료 {}ms",
+                    results.size(), imageryKeys.size(), large.size(), makespanNanos / 1_000_000,
+                    (long) completions.stream().mapToLong(Long::longValue).average().orElse(0) / 1_000_000);
+            return results;
+        } catch (InterruptedException e) {
+            // 요청 스레드가 중단되면 아직 시작하지 않은 변환은 취소 (실행 중인 변환은 끝까지 진행)
+            cancelled.set(true);
+            Thread.currentThread().interrupt();
+            log.warn("다중 위성 영상 처리 중단: 개수={}", imageryKeys.size());
+            return List.of();
+        } catch (ExecutionException e) {
+            // routeOrNull은 예외를 던지지 않으므로 발생하지 않음
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static <R> void collect(List<PlannedConversion> plan, List<CompletableFuture<R>> submitted,
+                                    List<CompletableFuture<R>> futures) {
+        for (int i = 0; i < plan.size(); i++) {
+            futures.set(plan.get(i).index(), submitted.get(i));
+        }
+    }
+
+    /**
+     * 목록 순서대로 공용 실행 풀에서 실행하되, 동시에 풀에 넣는 작업은 window개로 제한
+     * 작업 하나가 끝나면 그 스레드에서 다음 작업을 풀에 넣습니다.
+     *
+     * @return 목록과 같은 순서의 작업 결과
+     */
+    private <T, R> List<CompletableFuture<R>> submitWindowed(List<T> items, int window, BatchTask<T, R> task,
+                                                             AtomicBoolean cancelled) {
+        List<CompletableFuture<R>> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+        AtomicInteger next = new AtomicInteger();
+        for (int i = 0; i < Math.min(window, items.size()); i++) {
+            submitNext(items, results, next, task, cancelled);
+        }
+        return results;
+    }
+
+    private <T, R> void submitNext(List<T> items, List<CompletableFuture<R>> results, AtomicInteger next,
+                                   BatchTask<T, R> task, AtomicBoolean cancelled) {
+        int index;
+        while ((index = next.getAndIncrement()) < items.size()) {
+            CompletableFuture<R> result = results.get(index);
+            if (cancelled.get()) {
+                result.cancel(false);
+                continue;
+            }
+            T item = items.get(index);
+            try {
+                conversionBatchExecutor.execute(() -> {
+                    try {
+                        result.complete(task.run(item));
+                    } catch (Exception e) {
+                        result.completeExceptionally(e);
+                    } finally {
+                        submitNext(items, results, next, task, cancelled);
+                    }
+                });
+                return;
+            } catch (RejectedExecutionException e) {
+                // 종료 중인 풀은 작업을 받지 않으므로 실패로 기록하고 다음 항목으로 진행
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * 변환 경로 결정 (원본 크기를 확인하지 못하면 null을 반환하고 변환할 때 다시 시도)
+     */
+    private ConversionRouter.Route routeOrNull(String imageryKey) {
+        try {
+            return satelliteImageryService.routeImagery(imageryKey);
+        } catch (IOException | RuntimeException e) {
+            log.warn("변환 경로를 결정하지 못했습니다 - {}: {}", imageryKey, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 공정 큐 단위 사용자 결정
+     * 요청 헤더의 사용자는 인증된 값이 아니므로, 설정에 등록된 사용자만 인정하고 나머지는 기본 사용자로 처리합니다.
+     * (임의의 값을 보내 공정 큐 몫을 여러 개 받거나 대기열 상태를 늘리는 것을 막음)
+     */
+    private String resolveTenant(String tenant) {
+        if (tenant == null || tenant.isBlank()) {
+            return username;
+        }
+        String trimmed = tenant.trim();
+        if (tenants.contains(trimmed) || conversionScheduler.hasWeight(trimmed)) {
+            return trimmed;
+        }
+        log.debug("등록되지 않은 사용자는 기본 사용자로 처리: {}", trimmed);
+        return username;
+    }
+}
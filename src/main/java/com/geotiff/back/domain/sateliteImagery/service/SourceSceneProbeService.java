@@ -0,0 +1,480 @@
+package com.geotiff.back.domain.sateliteImagery.service;
+
+import com.geotiff.back.domain.sateliteImagery.entity.SourceScene;
+import com.geotiff.back.domain.sateliteImagery.repository.SourceSceneRepository;
+import com.geotiff.back.global.service.RequestRateLimiter;
+import com.geotiff.back.global.service.S3Service;
+import com.geotiff.back.global.tiff.GeoKeyDirectory;
+import com.geotiff.back.global.tiff.GeoTransform;
+import com.geotiff.back.global.tiff.RangeSource;
+import com.geotiff.back.global.tiff.TiffIfd;
+import com.geotiff.back.global.tiff.TiffReader;
+import com.geotiff.back.global.tiff.TiffStructure;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 원본 버킷 메타데이터 일괄 수집 서비스
+ * 원본 버킷 전체를 목록 페이지 단위로 순회하면서 GeoTIFF마다 헤더(IFD)만 ranged GET으로 읽어
+ * 크기/밴드/좌표계/범위를 source_scene 테이블에 JDBC 배치로 upsert합니다. 다운로드와 GDAL 변환은 하지 않습니다.
+ *
+ * <p>헤더 읽기는 concurrency개까지 동시에 실행하고, 목록/범위 읽기를 합친 S3 요청은 requests-per-second 이하로 제한합니다.
+ * ETag와 크기가 이전 수집 결과와 같은 객체는 다시 읽지 않으므로, 다시 실행하면 새로 추가되거나 바뀐 객체만 읽습니다.</p>
+ */
+@Slf4j
+@Service
+public class SourceSceneProbeService {
+
+    /**
+     * 수집 작업 상태
+     */
+    public enum State {
+        // 실행한 적 없음
+        IDLE,
+        RUNNING,
+        COMPLETED,
+        // 목록 조회 실패 등으로 중단됨 (그때까지 읽은 결과는 저장됨)
+        FAILED
+    }
+
+    /**
+     * 수집 작업 진행 상황
+     *
+     * @param state 상태
+     * @param prefix 대상 키 접두사
+     * @param startedAt 시작 시각
+     * @param finishedAt 종료 시각 (실행 중이면 null)
+     * @param listed 목록에서 찾은 GeoTIFF 수
+     * @param probed 헤더를 읽은 영상 수
+     * @param skipped 바뀌지 않아 건너뛴 영상 수
+     * @param failed 헤더 읽기에 실패한 영상 수 (실패 원인은 probeError 컬럼에 기록)
+     * @param saved DB에 기록한 행 수
+     * @param scenesPerSecond 헤더를 읽은(실패 포함) 초당 영상 수
+     * @param targetScenesPerSecond 목표 초당 영상 수
+     * @param message 실패 원인
+     */
+    public record ProbeStatus(State state, String prefix, LocalDateTime startedAt, LocalDateTime finishedAt,
+                              long listed, long probed, long skipped, long failed, long saved,
+                              double scenesPerSecond, double targetScenesPerSecond, String message) {
+    }
+
+    private final S3Service s3Service; // S3 관련 작업을 처리하는 서비스
+    private final SourceSceneRepository sourceSceneRepository; // 원본 영상 메타데이터 저장소
+    private final JdbcTemplate jdbcTemplate; // 배치 upsert용
+    private final TransactionTemplate transactionTemplate; // 배치 하나를 한 트랜잭션으로 기록
+
+    private final int concurrency;
+    private final int batchSize;
+    private final int prefetchBytes;
+    private final double targetScenesPerSecond;
+    private final RequestRateLimiter rateLimiter;
+
+    private final Counter probedCounter;
+    private final Counter skippedCounter;
+    private final Counter failedCounter;
+    private final Timer probeTimer;
+
+    private final String SOURCE_BUCKET = "dev1-apne2-pre-test-scene-bucket"; // 원본 위성 영상이 저장된 S3 버킷명
+    private static final int LIST_PAGE_SIZE = 1000; // 목록 한 페이지의 최대 객체 수 (S3 최대값)
+    private static final int MAX_ERROR_LENGTH = 1000; // probeError 컬럼 길이
+
+    /**
+     * 원본 키 기준 upsert (H2 MERGE, id는 처음 추가될 때만 생성)
+     */
+    private static final String UPSERT_SQL = "MERGE INTO source_scene (source_key, file_size, etag, width, height, "
+            + "band_count, bits_per_sample, sample_format, compression, tiled, overview_count, epsg, "
+            + "min_x, min_y, max_x, max_y, probe_error, probed_at) KEY (source_key) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] UPSERT_TYPES = {Types.VARCHAR, Types.BIGINT, Types.VARCHAR, Types.INTEGER,
+            Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.BOOLEAN, Types.INTEGER,
+            Types.INTEGER, Types.DOUBLE, Types.DOUBLE, Types.DOUBLE, Types.DOUBLE, Types.VARCHAR, Types.TIMESTAMP};
+
+    // 목록 순회와 DB 기록은 작업 스레드 하나에서, 헤더 읽기는 concurrency개 스레드에서 실행
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "source-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService probeExecutor;
+    // 진행 중인 헤더 읽기 수 (목록 순회가 헤더 읽기보다 너무 앞서지 않도록 제한)
+    private final Semaphore inFlight;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Job job;
+
+    public SourceSceneProbeService(S3Service s3Service,
+                                   SourceSceneRepository sourceSceneRepository,
+                                   JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.source-probe.concurrency:64}") int concurrency,
+                                   @Value("${app.source-probe.requests-per-second:500}") double requestsPerSecond,
+                                   @Value("${app.source-probe.batch-size:500}") int batchSize,
+                                   @Value("${app.source-probe.prefetch-bytes:65536}") int prefetchBytes,
+                                   @Value("${app.source-probe.target-scenes-per-second:200}") double targetScenesPerSecond) {
+        this.s3Service = s3Service;
+        this.sourceSceneRepository = sourceSceneRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.concurrency = Math.max(1, concurrency);
+        this.batchSize = Math.max(1, batchSize);
+        this.prefetchBytes = Math.max(16, prefetchBytes);
+        this.targetScenesPerSecond = targetScenesPerSecond;
+        // 쉬고 있다가 시작해도 동시 요청 수 이상 한꺼번에 보내지 않음
+        this.rateLimiter = new RequestRateLimiter(requestsPerSecond, this.concurrency);
+        this.inFlight = new Semaphore(this.concurrency);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.probeExecutor = Executors.newFixedThreadPool(this.concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "source-probe-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.probedCounter = probeCounter(meterRegistry, "probed");
+        this.skippedCounter = probeCounter(meterRegistry, "skipped");
+        this.failedCounter = probeCounter(meterRegistry, "failed");
+        this.probeTimer = Timer.builder("imagery.source.probe.duration")
+                .description("원본 영상 헤더 읽기 시간 (S3 범위 읽기 포함)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        if (requestsPerSecond > 0 && requestsPerSecond < targetScenesPerSecond) {
+            log.warn("원본 메타데이터 수집 요청 속도 제한({}/s)이 목표 처리량({}/s)보다 낮습니다",
+                    requestsPerSecond, targetScenesPerSecond);
+        }
+    }
+
+    /**
+     * 수집 작업 시작
+     * 작업은 별도 스레드에서 실행되며, 진행 상황은 getStatus로 확인합니다.
+     *
+     * @param prefix 대상 키 접두사 (전체는 빈 문자열)
+     * @param force true이면 바뀌지 않은 객체도 다시 읽음
+     * @return 시작한 작업의 상태 (이미 실행 중이면 빈 Optional)
+     */
+    public Optional<ProbeStatus> start(String prefix, boolean force) {
+        if (!running.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        Job started = new Job(prefix != null ? prefix : "", force);
+        job = started;
+        // 로그 출력 - 수집 시작
+        log.info("원본 메타데이터 수집 시작: 버킷={}, 접두사={}, 강제={}, 동시 요청={}, 배치={}",
+                SOURCE_BUCKET, started.prefix, force, concurrency, batchSize);
+        jobExecutor.submit(() -> run(started));
+        return Optional.of(started.status());
+    }
+
+    /**
+     * 현재 또는 마지막 수집 작업 상태
+     */
+    public ProbeStatus getStatus() {
+        Job current = job;
+        if (current == null) {
+            return new ProbeStatus(State.IDLE, null, null, null, 0, 0, 0, 0, 0, 0, targetScenesPerSecond, null);
+        }
+        return current.status();
+    }
+
+    /**
+     * 수집된 원본 영상 메타데이터 페이지 조회
+     */
+    public Page<SourceScene> findScenes(Pageable pageable) {
+        return sourceSceneRepository.findAll(pageable);
+    }
+
+    private void run(Job job) {
+        String error = null;
+        try {
+            String continuationToken = null;
+            do {
+                acquirePermit();
+                ListObjectsV2Response page = s3Service.listObjectsPage(SOURCE_BUCKET, job.prefix,
+                        continuationToken, LIST_PAGE_SIZE);
+                submitPage(job, page.contents());
+                // 다 채워진 배치만 기록하고 나머지는 다음 페이지 결과와 합침
+                flush(job, batchSize);
+                continuationToken = Boolean.TRUE.equals(page.isTruncated()) ? page.nextContinuationToken() : null;
+            } while (continuationToken != null);
+        } catch (IOException | RuntimeException e) {
+            log.error("원본 메타데이터 수집 중단: {}", e.getMessage(), e);
+            error = e.getMessage();
+        }
+
+        try {
+            // 이미 시작한 헤더 읽기가 끝나기를 기다린 뒤 남은 결과 기록
+            inFlight.acquire(concurrency);
+            inFlight.release(concurrency);
+            flush(job, 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "수집 작업이 중단되었습니다";
+        } catch (RuntimeException e) {
+            log.error("원본 메타데이터 저장 실패: {}", e.getMessage(), e);
+            error = e.getMessage();
+        }
+
+        job.finish(error == null ? State.COMPLETED : State.FAILED, error);
+        running.set(false);
+
+        // 로그 출력 - 수집 완료 (평균 지연 기준으로 목표 처리량에 필요한 동시 요청 수도 함께 기록)
+        ProbeStatus status = job.status();
+        double meanSeconds = probeTimer.mean(TimeUnit.SECONDS);
+        log.info(String.format(Locale.ROOT,
+                "원본 메타데이터 수집 %s: 목록 %d, 읽음 %d, 건너뜀 %d, 실패 %d, 저장 %d, %.1f건/s (목표 %.1f건/s, "
+                        + "평균 읽기 %.0fms 기준 필요 동시 요청 %d)",
+                status.state(), status.listed(), status.probed(), status.skipped(), status.failed(), status.saved(),
+                status.scenesPerSecond(), targetScenesPerSecond, meanSeconds * 1000,
+                (long) Math.ceil(targetScenesPerSecond * meanSeconds)));
+    }
+
+    /**
+     * 목록 한 페이지의 GeoTIFF 중 바뀐 것만 헤더 읽기 작업으로 제출
+     */
+    private void submitPage(Job job, List<S3Object> objects) throws IOException {
+        List<S3Object> scenes = objects.stream()
+                .filter(object -> object.size() != null && object.size() > 0)
+                .filter(object -> isGeoTiff(object.key()))
+                .toList();
+        job.listed.addAndGet(scenes.size());
+        if (scenes.isEmpty()) {
+            return;
+        }
+
+        // 페이지 단위로 한 번에 조회하여 이전 수집 결과와 비교
+        Map<String, SourceScene> existing = job.force ? Map.of()
+                : sourceSceneRepository.findBySourceKeyIn(scenes.stream().map(S3Object::key).toList()).stream()
+                .collect(Collectors.toMap(SourceScene::getSourceKey, Function.identity()));
+
+        for (S3Object object : scenes) {
+            SourceScene previous = existing.get(object.key());
+            if (previous != null && previous.getProbeError() == null
+                    && previous.getFileSize().equals(object.size())
+                    && object.eTag() != null && object.eTag().equals(previous.getEtag())) {
+                job.skipped.incrementAndGet();
+                skippedCounter.increment();
+                continue;
+            }
+
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("수집 작업이 중단되었습니다", e);
+            }
+            probeExecutor.execute(() -> {
+                try {
+                    job.results.add(probe(job, object));
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * 영상 한 건의 헤더를 읽어 메타데이터 행 생성
+     * 실패해도 예외를 던지지 않고 실패 원인을 담은 행을 반환합니다.
+     */
+    private SourceScene probe(Job job, S3Object object) {
+        String key = object.key();
+        long size = object.size();
+        SourceScene.SourceSceneBuilder row = SourceScene.builder()
+                .sourceKey(key)
+                .fileSize(size)
+                .etag(object.eTag())
+                .probedAt(LocalDateTime.now());
+
+        long started = System.nanoTime();
+        try {
+            // 1. 파일 앞부분을 한 번에 읽음 (GDAL이 만든 GeoTIFF와 COG는 보통 IFD가 모두 이 안에 있음)
+            acquirePermit();
+            byte[] head = S3Service.await(s3Service.readRangeAsync(SOURCE_BUCKET, key, 0,
+                    (int) Math.min(prefetchBytes, size)));
+
+            // 2. 앞부분을 벗어나는 IFD나 태그 값만 추가로 읽음 (같은 요청 속도 제한 적용)
+            RangeSource headSource = RangeSource.of(head);
+            RangeSource source = (offset, length) -> {
+                if (offset + length <= head.length || head.length >= size) {
+                    return headSource.read(offset, length);
+                }
+                if (offset >= size) {
+                    return new byte[0];
+                }
+                acquirePermit();
+                return S3Service.await(s3Service.readRangeAsync(SOURCE_BUCKET, key, offset,
+                        (int) Math.min(length, size - offset)));
+            };
+            TiffStructure structure = TiffReader.read(source, head.length);
+
+            // 3. 원본 해상도 이미지 정보와 좌표계/범위
+            TiffIfd primary = structure.primary();
+            int width = primary.getWidth();
+            int height = primary.getHeight();
+            row.width(width)
+                    .height(height)
+                    .bandCount(primary.getSamplesPerPixel())
+                    .bitsPerSample(primary.getBitsPerSample())
+                    .sampleFormat(primary.getSampleFormat())
+                    .compression(primary.getCompression())
+                    .tiled(primary.isTiled())
+                    .overviewCount(structure.overviews().size())
+                    .epsg(GeoKeyDirectory.epsg(primary));
+
+            GeoTransform geoTransform = GeoTransform.of(primary);
+            if (geoTransform != null) {
+                double[] bounds = geoTransform.bounds(width, height);
+                row.minX(bounds[0]).minY(bounds[1]).maxX(bounds[2]).maxY(bounds[3]);
+            }
+
+            job.probed.incrementAndGet();
+            probedCounter.increment();
+        } catch (IOException | RuntimeException e) {
+            log.debug("원본 영상 헤더 읽기 실패: {}", key, e);
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            row.probeError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+            job.failed.incrementAndGet();
+            failedCounter.increment();
+        } finally {
+            probeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        return row.build();
+    }
+
+    /**
+     * 모인 결과를 batchSize개씩 기록 (minimum개 이상 모였을 때만)
+     */
+    private void flush(Job job, int minimum) {
+        while (job.results.size() >= minimum && !job.results.isEmpty()) {
+            List<SourceScene> batch = new ArrayList<>(batchSize);
+            SourceScene row;
+            while (batch.size() < batchSize && (row = job.results.poll()) != null) {
+                batch.add(row);
+            }
+            upsert(batch);
+            job.saved.addAndGet(batch.size());
+        }
+    }
+
+    /**
+     * 배치 하나를 한 트랜잭션에서 JDBC 배치로 upsert
+     */
+    private void upsert(List<SourceScene> batch) {
+        List<Object[]> arguments = batch.stream()
+                .map(scene -> new Object[]{scene.getSourceKey(), scene.getFileSize(), scene.getEtag(),
+                        scene.getWidth(), scene.getHeight(), scene.getBandCount(), scene.getBitsPerSample(),
+                        scene.getSampleFormat(), scene.getCompression(), scene.getTiled(), scene.getOverviewCount(),
+                        scene.getEpsg(), scene.getMinX(), scene.getMinY(), scene.getMaxX(), scene.getMaxY(),
+                        scene.getProbeError(), Timestamp.valueOf(scene.getProbedAt())})
+                .toList();
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(UPSERT_SQL, arguments, UPSERT_TYPES));
+    }
+
+    /**
+     * S3 요청 하나의 허가를 받을 때까지 대기
+     */
+    private void acquirePermit() throws IOException {
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("S3 요청 대기 중 인터럽트 발생", e);
+        }
+    }
+
+    private static boolean isGeoTiff(String key) {
+        String lower = key.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".tif") || lower.endsWith(".tiff");
+    }
+
+    private static Counter probeCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("imagery.source.probe")
+                .description("원본 메타데이터 수집 결과별 영상 수")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        probeExecutor.shutdownNow();
+    }
+
+    /**
+     * 실행 중인 수집 작업 하나의 진행 상황
+     */
+    private final class Job {
+
+        private final String prefix;
+        private final boolean force;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedNanos = System.nanoTime();
+        private final AtomicLong listed = new AtomicLong();
+        private final AtomicLong probed = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong saved = new AtomicLong();
+        // 헤더 읽기가 끝나고 아직 기록하지 않은 행
+        private final Queue<SourceScene> results = new ConcurrentLinkedQueue<>();
+
+        private volatile State state = State.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile long finishedNanos;
+        private volatile String message;
+
+        private Job(String prefix, boolean force) {
+            this.prefix = prefix;
+            this.force = force;
+        }
+
+        private void finish(State state, String message) {
+            this.finishedNanos = System.nanoTime();
+            this.finishedAt = LocalDateTime.now();
+            this.message = message;
+            this.state = state;
+        }
+
+        private ProbeStatus status() {
+            State current = state;
+            long endNanos = current == State.RUNNING ? System.nanoTime() : finishedNanos;
+            double seconds = Math.max(1e-9, (endNanos - startedNanos) / 1e9);
+            long read = probed.get() + failed.get();
+            return new ProbeStatus(current, prefix, startedAt, finishedAt, listed.get(), probed.get(),
+                    skipped.get(), failed.get(), saved.get(), read / seconds, targetScenesPerSecond, message);
+        }
+    }
+}
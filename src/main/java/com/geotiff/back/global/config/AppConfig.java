@@ -3,16 +3,24 @@ package com.geotiff.back.global.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 애플리케이션 기본 설정을 위한 Configuration 클래스
+ * 임시 파일 정리 등 주기 작업을 위해 스케줄링을 활성화합니다.
  */
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
     /**
@@ -21,6 +29,18 @@ public class AppConfig {
     @Value("${app.cog.temp-dir:/tmp/cogConverter}")
     private String tempDir;
 
+    /**
+     * 래스터 연산 풀의 병렬 수준 (0 이하이면 사용 가능한 코어 수)
+     */
+    @Value("${app.raster.parallelism:0}")
+    private int rasterParallelism;
+
+    /**
+     * 다중 변환 실행 스레드 수 (모든 다중 변환 요청이 함께 사용)
+     */
+    @Value("${app.routing.batch-threads:16}")
+    private int batchThreads;
+
     /**
      * 임시 디렉토리 경로 빈 생성
      * 경로가 존재하지 않으면 생성합니다.
@@ -51,4 +71,36 @@ public class AppConfig {
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
-}
\ No newline at end of file
+
+    /**
+     * 래스터 연산 풀 빈 생성
+     * 밴드 연산의 타일 압축 해제, 연산, 결과 압축과 부분 영역 추출의 타일 압축 해제를 실행합니다.
+     * 공용 풀과 분리하여 요청 처리 스레드나 다른 병렬 작업과 코어를 나눠 쓰지 않도록 합니다.
+     *
+     * @return 래스터 연산용 ForkJoinPool
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool rasterComputePool() {
+        int parallelism = rasterParallelism > 0 ? rasterParallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * 다중 변환 실행 풀 빈 생성
+     * 모든 다중 변환 요청이 함께 사용하는 고정 크기 풀로, 요청마다 스레드를 만들지 않습니다.
+     * 실제 동시 변환 수는 ConversionScheduler가 제한하고, 요청 한 건이 풀에 넣는 작업 수는 batch-parallelism으로 제한됩니다.
+     *
+     * @return 다중 변환용 ThreadPoolExecutor
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor conversionBatchExecutor() {
+        int threads = Math.max(1, batchThreads);
+        AtomicInteger sequence = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "conversion-batch-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+}
@@ -0,0 +1,55 @@
+package com.geotiff.back.global.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 애플리케이션 캐시 설정
+ * 검색 결과 캐시는 크기가 제한된 Caffeine 캐시를 사용하며, 적중/누락 통계는 cache.gets 메트릭으로 노출됩니다.
+ * (영상 단건 조회는 Hibernate 2차 캐시가 담당하며 application.conf에서 설정합니다.)
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * 메타데이터 검색 결과(페이지) 캐시 이름
+     */
+    public static final String IMAGERY_SEARCH_CACHE = "imagerySearch";
+
+    /**
+     * 검색 결과 캐시 최대 항목 수 (자주 쓰이는 검색 조건/페이지 조합이 남음)
+     */
+    @Value("${app.cache.search.maximum-size:1000}")
+    private long searchMaximumSize;
+
+    /**
+     * 검색 결과 캐시 항목 유지 시간
+     */
+    @Value("${app.cache.search.expire-after-write:PT10M}")
+    private Duration searchExpireAfterWrite;
+
+    /**
+     * 캐시 관리자 빈 생성
+     * 캐시 이름을 미리 지정하여 시작 시 캐시 메트릭이 등록되도록 합니다.
+     *
+     * @return Caffeine 기반 캐시 관리자
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(IMAGERY_SEARCH_CACHE);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(searchMaximumSize)
+                .expireAfterWrite(searchExpireAfterWrite)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+}
@@ -0,0 +1,56 @@
+package com.geotiff.back.global.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * 빠른 시작 프로필의 스키마 확인
+ * fast-startup 프로필은 스키마를 만들거나 비교하지 않으므로(ddl-auto: none), 스키마가 없는 DB(처음 만들어지는 H2 파일 DB 등)로 기동하면
+ * 첫 요청에서야 테이블이 없다는 오류가 납니다. 준비 완료(readiness) 전에 엔티티마다 빈 조회를 한 번 실행하여 테이블/컬럼이 없으면 기동을 중단합니다.
+ *
+ * <p>컨텍스트 초기화가 끝난 뒤, 준비 완료 이벤트 처리(체크포인트 재개, 변환 이력 적재)보다 먼저 실행됩니다.
+ * 컨텍스트 초기화 직후 종료하는 CDS 학습 실행(-Dspring.context.exit=onRefresh)에서는 실행되지 않습니다.</p>
+ */
+@Slf4j
+@Component
+@Profile("fast-startup")
+public class FastStartupSchemaCheck implements ApplicationRunner {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final String datasourceUrl;
+
+    public FastStartupSchemaCheck(EntityManagerFactory entityManagerFactory,
+                                  @Value("${spring.datasource.url:}") String datasourceUrl) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.datasourceUrl = datasourceUrl;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+                // 매핑된 모든 컬럼을 조회하되 행은 읽지 않음 (테이블이나 컬럼이 없으면 실패)
+                try {
+                    entityManager.createQuery("select e from " + entity.getName() + " e where 1 = 0")
+                            .getResultList();
+                } catch (PersistenceException e) {
+                    throw new IllegalStateException("fast-startup 프로필은 스키마가 준비된 DB가 필요합니다. "
+                            + entity.getName() + " 엔티티의 테이블을 조회할 수 없습니다 (spring.datasource.url=" + datasourceUrl + "). "
+                            + "기본 프로필로 한 번 기동해 스키마를 만든 DB를 지정하세요.", e);
+                }
+            }
+        } finally {
+            entityManager.close();
+        }
+        log.info("빠른 시작 스키마 확인 완료: 엔티티 {}개", entityManagerFactory.getMetamodel().getEntities().size());
+    }
+}
@@ -4,18 +4,25 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.core.io.Resource;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3CrtAsyncClientBuilder;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
 
 import java.io.IOException;
+import java.net.URI;
 import java.util.Map;
 
 /**
  * S3 연결 설정을 위한 Configuration 클래스
- * AWS 인증 정보를 로드하여 S3Client 빈을 생성합니다.
+ * AWS 인증 정보를 로드하여 S3Client(동기)와 S3AsyncClient(CRT 기반 비동기), S3TransferManager 빈을 생성합니다.
+ * 인증 정보 파일은 한 번만 읽고, 클라이언트는 처음 사용할 때 생성하여(@Lazy) 애플리케이션 시작 시간을 줄입니다.
  */
 @Configuration
 public class S3Config {
@@ -26,30 +33,99 @@ public class S3Config {
     @Value("${aws.credentials.path}")
     private Resource credentialsResource;
 
+    /**
+     * S3 엔드포인트 재정의 (로컬 S3 대체 서버 사용 시 설정, 비어 있으면 AWS 기본 엔드포인트)
+     */
+    @Value("${aws.s3.endpoint:}")
+    private String endpoint;
+
+    /**
+     * 비동기 클라이언트의 최대 동시 연결 수
+     */
+    @Value("${aws.s3.async.max-concurrency:64}")
+    private int maxConcurrency;
+
+    /**
+     * 비동기 클라이언트의 목표 처리량 (Gbps, CRT가 연결 수를 조절하는 기준)
+     */
+    @Value("${aws.s3.async.target-throughput-gbps:10.0}")
+    private double targetThroughputInGbps;
+
+    /**
+     * 멀티파트 전송 시 파트 크기 (바이트)
+     */
+    @Value("${aws.s3.async.minimum-part-size-bytes:8388608}")
+    private long minimumPartSizeInBytes;
+
+    /**
+     * 한 번 읽은 인증 정보 (키 이름 -> 값)
+     */
+    private Map<String, String> credentials;
+
     /**
      * S3Client 빈 생성
      * 인증 정보 파일에서 액세스 키, 시크릿 키, 리전 정보를 읽어와 S3Client를 구성합니다.
+     * 처음 사용할 때 생성됩니다.
      *
      * @return 구성된 S3Client 객체
      * @throws IOException 인증 정보 파일 읽기 실패 시 발생
      */
     @Bean
+    @Lazy
     public S3Client s3Client() throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
-        Map<String, String> credentials = mapper.readValue(credentialsResource.getInputStream(), Map.class);
+        S3ClientBuilder builder = S3Client.builder()
+                .credentialsProvider(credentialsProvider())
+                .region(region());
 
-        String accessKeyId = credentials.get("access_key_id");
-        String secretAccessKey = credentials.get("secret_access_key");
-        String regionName = credentials.get("region");
+        // 엔드포인트 재정의 시 버킷을 경로로 지정 (path-style)
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint))
+                    .forcePathStyle(true);
+        }
 
-        if (accessKeyId == null || secretAccessKey == null || regionName == null) {
-            throw new IllegalArgumentException("인증 정보 파일에 AWS 액세스 키, 시크릿 키 또는 리전 정보가 없습니다");
+        return builder.build();
+    }
+
+    /**
+     * S3AsyncClient 빈 생성
+     * AWS CRT 기반 비동기 클라이언트로, 소수의 이벤트 루프 스레드가 많은 동시 전송을 처리하며
+     * 큰 객체는 파트 단위로 나누어 병렬 업로드/다운로드합니다.
+     * CRT 네이티브 라이브러리 로드 비용이 크므로 처음 사용할 때 생성됩니다.
+     *
+     * @return 구성된 S3AsyncClient 객체
+     * @throws IOException 인증 정보 파일 읽기 실패 시 발생
+     */
+    @Bean
+    @Lazy
+    public S3AsyncClient s3AsyncClient() throws IOException {
+        S3CrtAsyncClientBuilder builder = S3AsyncClient.crtBuilder()
+                .credentialsProvider(credentialsProvider())
+                .region(region())
+                .maxConcurrency(maxConcurrency)
+                .targetThroughputInGbps(targetThroughputInGbps)
+                .minimumPartSizeInBytes(minimumPartSizeInBytes);
+
+        // 엔드포인트 재정의 시 버킷을 경로로 지정 (path-style)
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint))
+                    .forcePathStyle(true);
         }
 
-        return S3Client.builder()
-                .credentialsProvider(StaticCredentialsProvider.create(
-                        AwsBasicCredentials.create(accessKeyId, secretAccessKey)))
-                .region(Region.of(regionName))
+        return builder.build();
+    }
+
+    /**
+     * S3TransferManager 빈 생성
+     * 파일 단위 업로드/다운로드를 CRT 클라이언트의 멀티파트 전송으로 처리합니다.
+     *
+     * @param s3AsyncClient CRT 기반 비동기 클라이언트
+     * @return 구성된 S3TransferManager 객체
+     */
+    @Bean
+    @Lazy
+    public S3TransferManager s3TransferManager(S3AsyncClient s3AsyncClient) {
+        return S3TransferManager.builder()
+                .s3Client(s3AsyncClient)
                 .build();
     }
 
@@ -62,9 +138,7 @@ public class S3Config {
      */
     @Bean
     public String bucketName() throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
-        Map<String, String> credentials = mapper.readValue(credentialsResource.getInputStream(), Map.class);
-        return credentials.get("bucket_name");
+        return readCredentials().get("bucket_name");
     }
 
     /**
@@ -76,8 +150,42 @@ public class S3Config {
      */
     @Bean
     public String username() throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
-        Map<String, String> credentials = mapper.readValue(credentialsResource.getInputStream(), Map.class);
-        return credentials.get("username");
+        return readCredentials().get("username");
+    }
+
+    /**
+     * 인증 정보 파일에서 액세스 키와 시크릿 키를 읽어 자격 증명 공급자 생성
+     */
+    private StaticCredentialsProvider credentialsProvider() throws IOException {
+        Map<String, String> credentials = readCredentials();
+        String accessKeyId = credentials.get("access_key_id");
+        String secretAccessKey = credentials.get("secret_access_key");
+
+        if (accessKeyId == null || secretAccessKey == null) {
+            throw new IllegalArgumentException("인증 정보 파일에 AWS 액세스 키, 시크릿 키 또는 리전 정보가 없습니다");
+        }
+        return StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKeyId, secretAccessKey));
+    }
+
+    /**
+     * 인증 정보 파일에서 리전 읽기
+     */
+    private Region region() throws IOException {
+        String regionName = readCredentials().get("region");
+        if (regionName == null) {
+            throw new IllegalArgumentException("인증 정보 파일에 AWS 액세스 키, 시크릿 키 또는 리전 정보가 없습니다");
+        }
+        return Region.of(regionName);
+    }
+
+    /**
+     * 인증 정보 파일 읽기 (처음 호출 시 한 번만 파싱하고 이후에는 같은 값을 사용)
+     */
+    private synchronized Map<String, String> readCredentials() throws IOException {
+        if (credentials == null) {
+            ObjectMapper mapper = new ObjectMapper();
+            credentials = mapper.readValue(credentialsResource.getInputStream(), Map.class);
+        }
+        return credentials;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,194 @@
+package com.geotiff.back.global.metrics;
+
+import com.geotiff.back.global.service.TempSpaceManager;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * 변환 단계별 메트릭 및 트레이싱 컴포넌트
+ * Observation API로 각 단계를 감싸 타이머(히스토그램 포함)와 트레이스 스팬을 함께 기록하고,
+ * 진행 중인 변환 작업 수와 임시 디렉토리 사용량을 게이지로 노출합니다.
+ */
+@Slf4j
+@Component
+public class ConversionMetrics {
+
+    /**
+     * 위성 영상 한 건의 전체 변환 관측 이름 (씬 단위 스팬)
+     */
+    public static final String CONVERSION = "imagery.conversion";
+
+    /**
+     * 변환 단계별 관측 이름 (stage 태그로 구분)
+     */
+    public static final String CONVERSION_STAGE = "imagery.conversion.stage";
+
+    /**
+     * 변환 단계 이름
+     */
+    public static final String STAGE_S3_DOWNLOAD = "s3-download";
+    public static final String STAGE_S3_UPLOAD = "s3-upload";
+    public static final String STAGE_S3_SEQUENCE_PROBE = "s3-sequence-probe";
+    public static final String STAGE_GDAL_METADATA = "gdal-metadata";
+    public static final String STAGE_GDAL_CONVERT = "gdal-convert";
+    public static final String STAGE_COG_RELAYOUT = "cog-relayout";
+    public static final String STAGE_DB_SAVE = "db-save";
+    public static final String STAGE_BAND_MATH = "band-math";
+
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ConversionMetrics(MeterRegistry meterRegistry,
+                             ObservationRegistry observationRegistry,
+                             TempSpaceManager tempSpaceManager,
+                             Path tempDirectory) {
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+
+        Gauge.builder("imagery.conversion.in.flight", inFlight, AtomicInteger::get)
+                .description("진행 중인 위성 영상 변환 작업 수")
+                .register(meterRegistry);
+        Gauge.builder("imagery.temp.reserved", tempSpaceManager, TempSpaceManager::getReservedBytes)
+                .description("임시 디렉토리 예약 용량")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("imagery.temp.retained", tempSpaceManager, TempSpaceManager::getRetainedBytes)
+                .description("재개를 위해 남겨 둔 체크포인트 파일 용량 (예산에 포함)")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("imagery.temp.quota", tempSpaceManager, TempSpaceManager::getQuotaBytes)
+                .description("임시 디렉토리 예산")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("imagery.temp.used", tempDirectory, ConversionMetrics::directorySize)
+                .description("임시 디렉토리 실제 사용량 (GDAL API 측 파일, 체크포인트 디렉토리 포함)")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 위성 영상 한 건의 변환 전체를 관측
+     * 진행 중 작업 수 게이지를 갱신하고, 하위 단계 스팬의 부모가 되는 씬 단위 스팬을 엽니다.
+     *
+     * @param imageryKey 변환할 위성 영상 키 (스팬에만 기록되는 고카디널리티 값)
+     * @param work 변환 작업
+     * @return 변환 작업 결과
+     * @throws IOException 변환 작업에서 발생한 예외
+     */
+    public <T> T observeConversion(String imageryKey, IoCallable<T> work) throws IOException {
+        Observation observation = Observation.createNotStarted(CONVERSION, observationRegistry)
+                .contextualName("convert-imagery")
+                .highCardinalityKeyValue("imagery.key", imageryKey);
+        inFlight.incrementAndGet();
+        try {
+            return observe(observation, work);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * 변환 단계 하나를 관측
+     * stage 태그가 붙은 타이머와 현재 씬 스팬의 하위 스팬을 기록합니다.
+     *
+     * @param stage 단계 이름 (STAGE_* 상수)
+     * @param work 단계 작업
+     * @return 단계 작업 결과
+     * @throws IOException 단계 작업에서 발생한 예외
+     */
+    public <T> T observeStage(String stage, IoCallable<T> work) throws IOException {
+        Observation observation = Observation.createNotStarted(CONVERSION_STAGE, observationRegistry)
+                .contextualName(stage)
+                .lowCardinalityKeyValue("stage", stage);
+        return observe(observation, work);
+    }
+
+    /**
+     * S3 전송 바이트 수 기록
+     *
+     * @param direction 전송 방향 (download, upload)
+     * @param bytes 전송 바이트 수
+     */
+    public void recordTransferBytes(String direction, long bytes) {
+        DistributionSummary.builder("imagery.s3.transfer")
+                .description("S3 전송 크기")
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    /**
+     * 다중 변환 한 건의 전체 소요 시간과 영상별 완료 시간 기록
+     *
+     * @param makespanNanos 첫 영상 시작부터 마지막 영상 완료까지 걸린 시간
+     * @param completionNanos 영상마다 일괄 변환 시작부터 완료까지 걸린 시간
+     */
+    public void recordBatch(long makespanNanos, List<Long> completionNanos) {
+        Timer.builder("imagery.conversion.batch.makespan")
+                .description("다중 변환 전체 소요 시간")
+                .register(meterRegistry)
+                .record(makespanNanos, TimeUnit.NANOSECONDS);
+        Timer completion = Timer.builder("imagery.conversion.batch.completion")
+                .description("다중 변환 시작부터 영상별 완료까지 걸린 시간")
+                .register(meterRegistry);
+        completionNanos.forEach(nanos -> completion.record(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    private <T> T observe(Observation observation, IoCallable<T> work) throws IOException {
+        observation.start();
+        try (Observation.Scope scope = observation.openScope()) {
+            return work.call();
+        } catch (IOException | RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private static double directorySize(Path directory) {
+        // 체크포인트 디렉토리(checkpoints/{id})까지 포함하도록 하위 디렉토리를 모두 순회
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .mapToLong(path -> {
+                        try {
+                            return Files.size(path);
+                        } catch (IOException e) {
+                            // 조회 중 삭제된 파일
+                            return 0L;
+                        }
+                    })
+                    .sum();
+        } catch (IOException | UncheckedIOException e) {
+            // 순회 중 하위 디렉토리가 삭제되면 UncheckedIOException 발생 (다음 조회에서 다시 계산)
+            log.debug("임시 디렉토리 사용량 조회 실패: {}", directory, e);
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * IOException을 던질 수 있는 작업
+     */
+    @FunctionalInterface
+    public interface IoCallable<T> {
+        T call() throws IOException;
+    }
+}
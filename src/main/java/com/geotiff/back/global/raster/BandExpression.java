@@ -0,0 +1,365 @@
+package com.geotiff.back.global.raster;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 밴드 연산식 (예: (b4-b3)/(b4+b3))
+ * 식을 한 번 파싱해 후위 표기 명령열로 컴파일하고, 픽셀 배열 단위로 명령을 하나씩 적용하는 방식으로 평가합니다.
+ * 명령마다 배열 전체를 도는 단순 루프이므로 평가 중에는 객체를 만들지 않으며, JIT의 자동 벡터화 대상이 됩니다.
+ *
+ * <p>지원 문법: 숫자, 밴드 참조(b1, b2, ... 1부터 시작), 사칙연산, 단항 마이너스, 괄호.
+ * nodata 픽셀은 호출하는 쪽에서 NaN으로 바꿔 넣으면 연산 결과에 그대로 전파됩니다.</p>
+ */
+public final class BandExpression {
+
+    // 명령 코드
+    private static final int PUSH = 0;
+    private static final int ADD = 1;
+    private static final int SUB = 2;
+    private static final int MUL = 3;
+    private static final int DIV = 4;
+    private static final int NEG = 5;
+
+    // 피연산자 종류 (이항 연산의 오른쪽 값, PUSH의 값)
+    private static final int STACK = 0;
+    private static final int BAND = 1;
+    private static final int CONSTANT = 2;
+
+    private final String source;
+    private final int[] opcodes;
+    private final int[] operandKinds;
+    private final int[] operands;
+    private final float[] constants;
+    private final int[] bands;
+    private final int stackDepth;
+
+    private BandExpression(String source, List<int[]> program, List<Float> constants, int[] bands, int stackDepth) {
+        this.source = source;
+        this.opcodes = new int[program.size()];
+        this.operandKinds = new int[program.size()];
+        this.operands = new int[program.size()];
+        for (int i = 0; i < program.size(); i++) {
+            opcodes[i] = program.get(i)[0];
+            operandKinds[i] = program.get(i)[1];
+            operands[i] = program.get(i)[2];
+        }
+        this.constants = new float[constants.size()];
+        for (int i = 0; i < constants.size(); i++) {
+            this.constants[i] = constants.get(i);
+        }
+        this.bands = bands;
+        this.stackDepth = stackDepth;
+    }
+
+    /**
+     * 연산식 컴파일
+     *
+     * @param expression 연산식
+     * @param bandCount 영상의 밴드 수 (밴드 참조 범위 확인용)
+     * @return 컴파일된 연산식
+     * @throws IllegalArgumentException 문법 오류 또는 존재하지 않는 밴드를 참조한 경우
+     */
+    public static BandExpression compile(String expression, int bandCount) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("연산식이 비어 있습니다");
+        }
+        Parser parser = new Parser(expression, bandCount);
+        parser.parseExpression();
+        parser.skipSpaces();
+        if (parser.position < expression.length()) {
+            throw parser.error("해석할 수 없는 문자");
+        }
+        if (parser.referencedBands.isEmpty()) {
+            throw new IllegalArgumentException("연산식에 밴드 참조(b1, b2, ...)가 없습니다: " + expression);
+        }
+
+        // 밴드 번호를 참조 순서(오름차순) 인덱스로 변환
+        int[] bands = parser.referencedBands.stream().mapToInt(Integer::intValue).toArray();
+        List<int[]> program = new ArrayList<>();
+        for (int[] instruction : parser.program) {
+            if (instruction[1] == BAND) {
+                instruction[2] = indexOf(bands, instruction[2]);
+            }
+            program.add(instruction);
+        }
+        List<int[]> fused = fuse(program);
+        return new BandExpression(expression, fused, parser.constants, bands, maxDepth(fused));
+    }
+
+    /**
+     * 연산식이 참조하는 밴드 번호 (0부터 시작, 오름차순)
+     * evaluate에 넘기는 밴드 배열은 이 순서를 따릅니다.
+     */
+    public int[] getBands() {
+        return bands.clone();
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * 평가용 작업 배열 생성 (스레드마다 하나씩 만들어 재사용)
+     *
+     * @param length 한 번에 평가할 최대 픽셀 수
+     * @return 결과는 [0]번 배열에 기록됨
+     */
+    public float[][] newStack(int length) {
+        return new float[stackDepth][length];
+    }
+
+    /**
+     * 픽셀 배열 평가
+     *
+     * @param bandValues getBands() 순서의 밴드별 픽셀 값
+     * @param stack newStack으로 만든 작업 배열 (결과는 stack[0])
+     * @param length 평가할 픽셀 수
+     */
+    public void evaluate(float[][] bandValues, float[][] stack, int length) {
+        int top = -1;
+        for (int pc = 0; pc < opcodes.length; pc++) {
+            int opcode = opcodes[pc];
+            if (opcode == PUSH) {
+                top++;
+                if (operandKinds[pc] == BAND) {
+                    System.arraycopy(bandValues[operands[pc]], 0, stack[top], 0, length);
+                } else {
+                    Arrays.fill(stack[top], 0, length, constants[operands[pc]]);
+                }
+                continue;
+            }
+            if (opcode == NEG) {
+                float[] target = stack[top];
+                for (int i = 0; i < length; i++) {
+                    target[i] = -target[i];
+                }
+                continue;
+            }
+
+            float[] left = stack[operandKinds[pc] == STACK ? top - 1 : top];
+            switch (operandKinds[pc]) {
+                case STACK -> {
+                    applyArray(opcode, left, stack[top], length);
+                    top--;
+                }
+                case BAND -> applyArray(opcode, left, bandValues[operands[pc]], length);
+                default -> applyConstant(opcode, left, constants[operands[pc]], length);
+            }
+        }
+    }
+
+    private static void applyArray(int opcode, float[] left, float[] right, int length) {
+        switch (opcode) {
+            case ADD -> {
+                for (int i = 0; i < length; i++) {
+                    left[i] += right[i];
+                }
+            }
+            case SUB -> {
+                for (int i = 0; i < length; i++) {
+                    left[i] -= right[i];
+                }
+            }
+            case MUL -> {
+                for (int i = 0; i < length; i++) {
+                    left[i] *= right[i];
+                }
+            }
+            default -> {
+                for (int i = 0; i < length; i++) {
+                    left[i] /= right[i];
+                }
+            }
+        }
+    }
+
+    private static void applyConstant(int opcode, float[] left, float right, int length) {
+        switch (opcode) {
+            case ADD -> {
+                for (int i = 0; i < length; i++) {
+                    left[i] += right;
+                }
+            }
+            case SUB -> {
+                for (int i = 0; i < length; i++) {
+                    left[i] -= right;
+                }
+            }
+            case MUL -> {
+                for (int i = 0; i < length; i++) {
+                    left[i] *= right;
+                }
+            }
+            default -> {
+                for (int i = 0; i < length; i++) {
+                    left[i] /= right;
+                }
+            }
+        }
+    }
+
+    /**
+     * 값을 넣은 직후 이항 연산이 오는 경우 하나의 명령으로 합침
+     * 예: PUSH b3, SUB -> SUB(b3) 로 바꿔 배열 복사 한 번을 줄임
+     */
+    private static List<int[]> fuse(List<int[]> program) {
+        List<int[]> fused = new ArrayList<>();
+        for (int[] instruction : program) {
+            int[] previous = fused.isEmpty() ? null : fused.get(fused.size() - 1);
+            boolean binary = instruction[0] >= ADD && instruction[0] <= DIV;
+            // 앞의 PUSH가 스택 바닥이 아닐 때만 합칠 수 있음 (왼쪽 피연산자가 스택에 남아 있어야 함)
+            if (binary && previous != null && previous[0] == PUSH && fused.size() > 1) {
+                fused.set(fused.size() - 1, new int[]{instruction[0], previous[1], previous[2]});
+            } else {
+                fused.add(instruction.clone());
+            }
+        }
+        return fused;
+    }
+
+    private static int maxDepth(List<int[]> program) {
+        int depth = 0;
+        int max = 0;
+        for (int[] instruction : program) {
+            if (instruction[0] == PUSH) {
+                max = Math.max(max, ++depth);
+            } else if (instruction[0] != NEG && instruction[1] == STACK) {
+                depth--;
+            }
+        }
+        return Math.max(1, max);
+    }
+
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("참조하지 않은 밴드입니다: " + value);
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    /**
+     * 재귀 하강 파서 (결과는 후위 표기 명령열)
+     */
+    private static final class Parser {
+
+        private final String text;
+        private final int bandCount;
+        private final List<int[]> program = new ArrayList<>();
+        private final List<Float> constants = new ArrayList<>();
+        private final TreeSet<Integer> referencedBands = new TreeSet<>();
+        private int position;
+
+        private Parser(String text, int bandCount) {
+            this.text = text;
+            this.bandCount = bandCount;
+        }
+
+        // expression := term (('+' | '-') term)*
+        private void parseExpression() {
+            parseTerm();
+            while (true) {
+                char next = peek();
+                if (next != '+' && next != '-') {
+                    return;
+                }
+                position++;
+                parseTerm();
+                program.add(new int[]{next == '+' ? ADD : SUB, STACK, 0});
+            }
+        }
+
+        // term := unary (('*' | '/') unary)*
+        private void parseTerm() {
+            parseUnary();
+            while (true) {
+                char next = peek();
+                if (next != '*' && next != '/') {
+                    return;
+                }
+                position++;
+                parseUnary();
+                program.add(new int[]{next == '*' ? MUL : DIV, STACK, 0});
+            }
+        }
+
+        // unary := '-' unary | '+' unary | primary
+        private void parseUnary() {
+            char next = peek();
+            if (next == '-' || next == '+') {
+                position++;
+                parseUnary();
+                if (next == '-') {
+                    program.add(new int[]{NEG, STACK, 0});
+                }
+                return;
+            }
+            parsePrimary();
+        }
+
+        // primary := number | 'b' digits | '(' expression ')'
+        private void parsePrimary() {
+            char next = peek();
+            if (next == '(') {
+                position++;
+                parseExpression();
+                if (peek() != ')') {
+                    throw error("닫는 괄호가 필요합니다");
+                }
+                position++;
+            } else if (next == 'b' || next == 'B') {
+                int start = ++position;
+                while (position < text.length() && Character.isDigit(text.charAt(position))) {
+                    position++;
+                }
+                if (start == position) {
+                    throw error("밴드 번호가 필요합니다");
+                }
+                int band = Integer.parseInt(text.substring(start, position));
+                if (band < 1 || band > bandCount) {
+                    throw new IllegalArgumentException("존재하지 않는 밴드입니다: b" + band + " (1~" + bandCount + ")");
+                }
+                referencedBands.add(band - 1);
+                program.add(new int[]{PUSH, BAND, band - 1});
+            } else if (Character.isDigit(next) || next == '.') {
+                int start = position;
+                while (position < text.length()
+                        && (Character.isDigit(text.charAt(position)) || text.charAt(position) == '.')) {
+                    position++;
+                }
+                try {
+                    constants.add(Float.parseFloat(text.substring(start, position)));
+                } catch (NumberFormatException e) {
+                    throw error("잘못된 숫자");
+                }
+                program.add(new int[]{PUSH, CONSTANT, constants.size() - 1});
+            } else {
+                throw error(next == 0 ? "식이 끝나기 전에 값이 필요합니다" : "예상하지 못한 문자 '" + next + "'");
+            }
+        }
+
+        private char peek() {
+            skipSpaces();
+            return position < text.length() ? text.charAt(position) : 0;
+        }
+
+        private void skipSpaces() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + ": 위치 " + position + ", 식=" + text);
+        }
+    }
+}
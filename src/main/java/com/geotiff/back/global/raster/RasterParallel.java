@@ -0,0 +1,41 @@
+package com.geotiff.back.global.raster;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+
+/**
+ * 타일 단위 병렬 실행 도우미
+ * 작업을 지정한 ForkJoinPool에서 실행하여, 공용 풀(commonPool)이나 요청 스레드 수와 관계없이
+ * 래스터 연산에 쓸 코어 수를 설정 하나로 조절할 수 있게 합니다.
+ */
+public final class RasterParallel {
+
+    private RasterParallel() {
+    }
+
+    /**
+     * 0부터 count - 1까지의 인덱스마다 body를 병렬로 실행하고 모두 끝날 때까지 대기
+     *
+     * @param pool 실행할 풀
+     * @param count 작업 수 (타일 수 등)
+     * @param body 인덱스별 작업
+     * @throws RuntimeException 작업 중 하나라도 실패한 경우 해당 예외
+     */
+    public static void forEach(ForkJoinPool pool, int count, IntConsumer body) {
+        if (count == 1) {
+            body.accept(0);
+            return;
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                tasks.add(ForkJoinTask.adapt(() -> body.accept(index)));
+            }
+            ForkJoinTask.invokeAll(tasks);
+        }));
+    }
+}
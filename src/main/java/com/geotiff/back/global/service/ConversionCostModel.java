@@ -0,0 +1,188 @@
+package com.geotiff.back.global.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 변환 소요 시간 예측 모델
+ * 지난 변환 기록으로 최소제곱 선형 회귀를 학습해 원본 크기와 픽셀 수로 변환 시간을 예측합니다.
+ *
+ * <p>원본 압축 방식별로 시간 = a + b × 원본 MB + c × 백만 샘플(너비 × 높이 × 밴드 수)을 학습합니다.
+ * 압축된 원본은 같은 크기라도 풀어야 할 샘플이 많아 느리므로 압축 방식마다 계수를 따로 둡니다.
+ * 픽셀 수나 압축 방식을 모르는 영상은 전체 기록으로 학습한 시간 = a + b × 원본 MB를 사용하고,
+ * 기록이 부족하면 기본 처리량(바이트/초)으로 계산합니다.</p>
+ */
+public final class ConversionCostModel {
+
+    private static final double MEGA = 1_000_000.0;
+    // 정규 방정식이 거의 특이한 경우(예: 모든 기록의 크기가 같음)를 판단하는 기준
+    private static final double SINGULAR_EPSILON = 1e-9;
+
+    /**
+     * 변환 기록 하나
+     *
+     * @param sourceBytes 원본 크기
+     * @param samples 너비 × 높이 × 밴드 수 (모르면 null)
+     * @param compression 원본 TIFF 압축 방식 (모르면 null)
+     * @param millis 변환 소요 시간 (임시 공간 예약 후 업로드 완료까지)
+     */
+    public record Sample(long sourceBytes, Long samples, Integer compression, long millis) {
+    }
+
+    private final double defaultMillisPerByte;
+    private final int sampleCount;
+    // [a, b] (원본 MB)
+    private final double[] bytesModel;
+    // 압축 방식 → [a, b, c] (원본 MB, 백만 샘플)
+    private final Map<Integer, double[]> compressionModels;
+
+    private ConversionCostModel(double defaultMillisPerByte, int sampleCount, double[] bytesModel,
+                                Map<Integer, double[]> compressionModels) {
+        this.defaultMillisPerByte = defaultMillisPerByte;
+        this.sampleCount = sampleCount;
+        this.bytesModel = bytesModel;
+        this.compressionModels = compressionModels;
+    }
+
+    /**
+     * 변환 기록으로 모델 학습
+     *
+     * @param samples 변환 기록
+     * @param minSamples 계수 하나를 학습하는 데 필요한 최소 기록 수
+     * @param defaultBytesPerSecond 기록이 부족할 때 사용할 처리량
+     */
+    public static ConversionCostModel fit(List<Sample> samples, int minSamples, double defaultBytesPerSecond) {
+        double defaultMillisPerByte = 1000.0 / Math.max(1, defaultBytesPerSecond);
+
+        List<double[]> bytesRows = new ArrayList<>();
+        List<Double> bytesTargets = new ArrayList<>();
+        Map<Integer, List<double[]>> rowsByCompression = new HashMap<>();
+        Map<Integer, List<Double>> targetsByCompression = new HashMap<>();
+        for (Sample sample : samples) {
+            double megabytes = sample.sourceBytes() / MEGA;
+            bytesRows.add(new double[]{1, megabytes});
+            bytesTargets.add((double) sample.millis());
+            if (sample.samples() != null && sample.compression() != null) {
+                rowsByCompression.computeIfAbsent(sample.compression(), key -> new ArrayList<>())
+                        .add(new double[]{1, megabytes, sample.samples() / MEGA});
+                targetsByCompression.computeIfAbsent(sample.compression(), key -> new ArrayList<>())
+                        .add((double) sample.millis());
+            }
+        }
+
+        // 기록 수가 계수 수보다 충분히 많을 때만 학습 (최소 minSamples개)
+        double[] bytesModel = bytesRows.size() >= Math.max(minSamples, 2)
+                ? leastSquares(bytesRows, bytesTargets) : null;
+        Map<Integer, double[]> compressionModels = new HashMap<>();
+        rowsByCompression.forEach((compression, rows) -> {
+            if (rows.size() >= Math.max(minSamples, 3)) {
+                double[] coefficients = leastSquares(rows, targetsByCompression.get(compression));
+                if (coefficients != null) {
+                    compressionModels.put(compression, coefficients);
+                }
+            }
+        });
+        return new ConversionCostModel(defaultMillisPerByte, samples.size(), bytesModel, Map.copyOf(compressionModels));
+    }
+
+    /**
+     * 변환 시간 예측 (밀리초)
+     * 학습한 모델이 음수나 0 이하를 내면 다음 단계 모델(크기만 사용, 기본 처리량)로 넘어갑니다.
+     *
+     * @param sourceBytes 원본 크기
+     * @param samples 너비 × 높이 × 밴드 수 (모르면 null)
+     * @param compression 원본 압축 방식 (모르면 null)
+     */
+    public long predictMillis(long sourceBytes, Long samples, Integer compression) {
+        double megabytes = sourceBytes / MEGA;
+        if (samples != null && compression != null) {
+            double[] coefficients = compressionModels.get(compression);
+            if (coefficients != null) {
+                double predicted = coefficients[0] + coefficients[1] * megabytes + coefficients[2] * samples / MEGA;
+                if (predicted > 0) {
+                    return Math.round(predicted);
+                }
+            }
+        }
+        if (bytesModel != null) {
+            double predicted = bytesModel[0] + bytesModel[1] * megabytes;
+            if (predicted > 0) {
+                return Math.round(predicted);
+            }
+        }
+        return Math.round(sourceBytes * defaultMillisPerByte);
+    }
+
+    /**
+     * 학습에 사용한 기록 수
+     */
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * 크기만 사용하는 모델의 MB당 시간 (학습하지 못했으면 기본 처리량 기준)
+     */
+    public double getMillisPerMegabyte() {
+        return bytesModel != null ? bytesModel[1] : defaultMillisPerByte * MEGA;
+    }
+
+    /**
+     * 압축 방식별 모델을 학습한 압축 방식 수
+     */
+    public int getCompressionModelCount() {
+        return compressionModels.size();
+    }
+
+    /**
+     * 정규 방정식 (XᵀX)β = Xᵀy를 부분 피벗 가우스 소거로 풀기
+     *
+     * @return 계수 (특이 행렬이면 null)
+     */
+    static double[] leastSquares(List<double[]> rows, List<Double> targets) {
+        int n = rows.get(0).length;
+        double[][] matrix = new double[n][n + 1];
+        for (int r = 0; r < rows.size(); r++) {
+            double[] row = rows.get(r);
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    matrix[i][j] += row[i] * row[j];
+                }
+                matrix[i][n] += row[i] * targets.get(r);
+            }
+        }
+
+        for (int column = 0; column < n; column++) {
+            int pivot = column;
+            for (int i = column + 1; i < n; i++) {
+                if (Math.abs(matrix[i][column]) > Math.abs(matrix[pivot][column])) {
+                    pivot = i;
+                }
+            }
+            double scale = Math.max(1, Math.abs(matrix[0][0]));
+            if (Math.abs(matrix[pivot][column]) < SINGULAR_EPSILON * scale) {
+                return null;
+            }
+            double[] swap = matrix[column];
+            matrix[column] = matrix[pivot];
+            matrix[pivot] = swap;
+
+            for (int i = 0; i < n; i++) {
+                if (i != column) {
+                    double factor = matrix[i][column] / matrix[column][column];
+                    for (int j = column; j <= n; j++) {
+                        matrix[i][j] -= factor * matrix[column][j];
+                    }
+                }
+            }
+        }
+
+        double[] coefficients = new double[n];
+        for (int i = 0; i < n; i++) {
+            coefficients[i] = matrix[i][n] / matrix[i][i];
+        }
+        return coefficients;
+    }
+}
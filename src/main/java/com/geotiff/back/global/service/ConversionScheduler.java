@@ -0,0 +1,395 @@
+package com.geotiff.back.global.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 변환 작업 스케줄러
+ * 변환을 시작하기 전에 실행 허가(Permit)를 받도록 하여 동시에 실행되는 변환 수를 제한하고,
+ * 대기 중인 작업은 우선순위 등급과 사용자(테넌트)별 가중 공정 큐(WFQ) 순서로 실행합니다.
+ *
+ * <p>대화형(INTERACTIVE) 작업은 일괄(BULK) 작업보다 항상 먼저 실행되고, 일괄 작업은 max-bulk개까지만 동시에
+ * 실행되므로 나머지 자리는 대화형 작업 몫으로 남습니다. 같은 등급 안에서는 시작 시각 공정 큐(SFQ) 방식으로
+ * 사용자마다 가중치에 비례한 몫을 받으므로, 한 사용자의 대량 요청이 다른 사용자의 작업을 굶기지 않습니다.</p>
+ *
+ * <p>큰 영상(LARGE 경로) 작업은 max-large개까지만 동시에 실행됩니다. 큰 영상 자리도 같은 대기열에서 나누므로,
+ * 자리가 나면 대화형 큰 영상이 일괄 큰 영상보다 먼저, 같은 등급 안에서는 공정 큐 순서로 실행됩니다.
+ * 자리를 기다리는 큰 영상은 건너뛰고 뒤의 일반 영상을 실행하므로 큰 영상이 작은 영상을 막지 않습니다.</p>
+ */
+@Slf4j
+@Service
+public class ConversionScheduler {
+
+    /**
+     * 작업 우선순위 등급 (선언 순서가 실행 우선순위)
+     */
+    public enum Priority {
+        // 단일 변환 요청 등 사용자가 응답을 기다리는 작업
+        INTERACTIVE,
+        // 일괄 변환, 재시작 후 재개 등 처리량이 중요한 작업
+        BULK
+    }
+
+    /**
+     * 동시에 실행할 수 있는 최대 변환 수
+     */
+    private final int maxConcurrent;
+
+    /**
+     * 동시에 실행할 수 있는 최대 일괄 변환 수 (나머지는 대화형 작업용)
+     */
+    private final int maxBulk;
+
+    /**
+     * 사용자 한 명이 동시에 실행할 수 있는 최대 변환 수 (0 이하이면 제한 없음)
+     */
+    private final int maxPerTenant;
+
+    /**
+     * 동시에 실행할 수 있는 최대 큰 영상 변환 수
+     */
+    private final int maxLarge;
+
+    /**
+     * 실행 허가 대기 최대 시간
+     */
+    private final Duration queueTimeout;
+
+    /**
+     * 사용자별 가중치 (지정하지 않은 사용자는 1)
+     */
+    private final Map<String, Double> tenantWeights;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<Priority, ClassQueue> queues = new EnumMap<>(Priority.class);
+    // 사용자별 실행 중인 변환 수
+    private final Map<String, Integer> runningByTenant = new HashMap<>();
+    private final Map<Priority, Timer> waitTimers = new EnumMap<>(Priority.class);
+    private int running;
+    private int runningLarge;
+    private long sequence;
+
+    public ConversionScheduler(MeterRegistry meterRegistry,
+                               @Value("${app.scheduler.max-concurrent:8}") int maxConcurrent,
+                               @Value("${app.scheduler.max-bulk:6}") int maxBulk,
+                               @Value("${app.scheduler.max-per-tenant:0}") int maxPerTenant,
+                               @Value("${app.scheduler.max-large:1}") int maxLarge,
+                               @Value("${app.scheduler.queue-timeout:PT1H}") Duration queueTimeout,
+                               @Value("${app.scheduler.tenant-weights:}") String tenantWeights) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxBulk = Math.max(1, Math.min(maxBulk, this.maxConcurrent));
+        this.maxPerTenant = maxPerTenant;
+        this.maxLarge = Math.max(1, Math.min(maxLarge, this.maxConcurrent));
+        this.queueTimeout = queueTimeout;
+        this.tenantWeights = parseWeights(tenantWeights);
+
+        for (Priority priority : Priority.values()) {
+            ClassQueue queue = new ClassQueue(priority);
+            queues.put(priority, queue);
+            String tag = priority.name().toLowerCase();
+            waitTimers.put(priority, Timer.builder("imagery.conversion.queue.wait")
+                    .description("변환 실행 허가 대기 시간")
+                    .tag("priority", tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            Gauge.builder("imagery.conversion.queued", this, scheduler -> scheduler.getQueued(priority))
+                    .description("실행 허가를 기다리는 변환 작업 수")
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+            Gauge.builder("imagery.conversion.running", this, scheduler -> scheduler.getRunning(priority))
+                    .description("실행 허가를 받은 변환 작업 수")
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+        }
+        Gauge.builder("imagery.conversion.large.waiting", this, ConversionScheduler::getQueuedLarge)
+                .description("큰 영상 자리를 기다리는 변환 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 실행 허가 받기 (큰 영상이 아닌 작업)
+     *
+     * @see #acquire(String, Priority, boolean)
+     */
+    public Permit acquire(String tenant, Priority priority) throws IOException {
+        return acquire(tenant, priority, false);
+    }
+
+    /**
+     * 실행 허가 받기
+     * 실행할 차례가 될 때까지 대기합니다.
+     *
+     * @param tenant 요청한 사용자 (공정 큐 단위)
+     * @param priority 우선순위 등급
+     * @param large 큰 영상 작업 여부 (max-large개까지만 동시에 실행)
+     * @return 작업 종료 시 닫아야 하는 실행 허가
+     * @throws IOException 대기 시간 초과 또는 인터럽트 발생 시
+     */
+    public Permit acquire(String tenant, Priority priority, boolean large) throws IOException {
+        long enqueuedAt = System.nanoTime();
+        Ticket ticket = null;
+
+        lock.lock();
+        try {
+            ticket = queues.get(priority).enqueue(tenant, weight(tenant), large, sequence++);
+            dispatch();
+            long remainingNanos = queueTimeout.toNanos();
+            while (!ticket.admitted) {
+                if (remainingNanos <= 0) {
+                    queues.get(priority).waiting.remove(ticket);
+                    throw new IOException(String.format(
+                            "변환 실행 대기 시간 초과: 사용자=%s, 등급=%s, 큰 영상=%s, 실행중=%d/%d, 큰 영상 실행중=%d/%d",
+                            tenant, priority, large, running, maxConcurrent, runningLarge, maxLarge));
+                }
+                remainingNanos = changed.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException e) {
+            // 인터럽트와 허가가 겹친 경우 받은 자리를 반환
+            if (ticket.admitted) {
+                release(ticket);
+            } else {
+                queues.get(priority).waiting.remove(ticket);
+            }
+            Thread.currentThread().interrupt();
+            throw new IOException("변환 실행 대기 중 인터럽트 발생", e);
+        } finally {
+            lock.unlock();
+        }
+
+        long waitNanos = System.nanoTime() - enqueuedAt;
+        waitTimers.get(priority).record(waitNanos, TimeUnit.NANOSECONDS);
+        log.debug("변환 실행 허가: 사용자={}, 등급={}, 큰 영상={}, 대기={}ms", tenant, priority, large,
+                waitNanos / 1_000_000);
+        return new Permit(ticket);
+    }
+
+    /**
+     * 대기 중인 작업 수
+     */
+    public int getQueued(Priority priority) {
+        lock.lock();
+        try {
+            return queues.get(priority).waiting.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 큰 영상 자리를 기다리는 작업 수 (모든 등급)
+     */
+    public int getQueuedLarge() {
+        lock.lock();
+        try {
+            int queued = 0;
+            for (ClassQueue queue : queues.values()) {
+                queued += (int) queue.waiting.stream().filter(ticket -> ticket.large).count();
+            }
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 동시에 실행할 수 있는 최대 큰 영상 변환 수
+     */
+    public int getMaxLarge() {
+        return maxLarge;
+    }
+
+    /**
+     * 실행 중인 작업 수
+     */
+    public int getRunning(Priority priority) {
+        lock.lock();
+        try {
+            return queues.get(priority).running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 실행할 수 있는 만큼 대기 작업에 허가를 줌 (lock을 잡은 상태에서 호출)
+     * 대화형 등급부터, 각 등급 안에서는 시작 태그가 작은 순서로 확인합니다.
+     */
+    private void dispatch() {
+        boolean admitted = false;
+        for (Priority priority : Priority.values()) {
+            ClassQueue queue = queues.get(priority);
+            Iterator<Ticket> iterator = queue.waiting.iterator();
+            while (iterator.hasNext() && running < maxConcurrent) {
+                if (priority == Priority.BULK && queue.running >= maxBulk) {
+                    break;
+                }
+                Ticket ticket = iterator.next();
+                // 동시 실행 한도에 걸린 사용자는 건너뛰고 다음 사용자의 작업을 실행
+                if (maxPerTenant > 0 && runningByTenant.getOrDefault(ticket.tenant, 0) >= maxPerTenant) {
+                    continue;
+                }
+                // 큰 영상 자리가 없으면 건너뛰고 뒤의 일반 작업을 실행
+                if (ticket.large && runningLarge >= maxLarge) {
+                    continue;
+                }
+                iterator.remove();
+                ticket.admitted = true;
+                running++;
+                queue.running++;
+                if (ticket.large) {
+                    runningLarge++;
+                }
+                queue.virtualTime = Math.max(queue.virtualTime, ticket.startTag);
+                runningByTenant.merge(ticket.tenant, 1, Integer::sum);
+                admitted = true;
+            }
+        }
+        if (admitted) {
+            changed.signalAll();
+        }
+    }
+
+    private void release(Ticket ticket) {
+        lock.lock();
+        try {
+            running--;
+            queues.get(ticket.priority).running--;
+            if (ticket.large) {
+                runningLarge--;
+            }
+            runningByTenant.computeIfPresent(ticket.tenant, (tenant, count) -> count > 1 ? count - 1 : null);
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 가중치가 설정된 사용자인지 확인
+     */
+    public boolean hasWeight(String tenant) {
+        return tenantWeights.containsKey(tenant);
+    }
+
+    private double weight(String tenant) {
+        return tenantWeights.getOrDefault(tenant, 1.0);
+    }
+
+    /**
+     * "사용자=가중치" 목록 파싱 (예: "alice=2,batch-user=0.5")
+     */
+    private static Map<String, Double> parseWeights(String value) {
+        Map<String, Double> weights = new HashMap<>();
+        if (value == null || value.isBlank()) {
+            return weights;
+        }
+        for (String entry : value.split(",")) {
+            String[] pair = entry.split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("잘못된 사용자 가중치 설정: " + entry);
+            }
+            double weight = Double.parseDouble(pair[1].trim());
+            if (!(weight > 0)) {
+                throw new IllegalArgumentException("사용자 가중치는 0보다 커야 합니다: " + entry);
+            }
+            weights.put(pair[0].trim(), weight);
+        }
+        return weights;
+    }
+
+    /**
+     * 등급별 대기열 (시작 시각 공정 큐)
+     */
+    private static final class ClassQueue {
+
+        private final Priority priority;
+        private final TreeSet<Ticket> waiting = new TreeSet<>(Comparator
+                .comparingDouble((Ticket ticket) -> ticket.startTag)
+                .thenComparingLong(ticket -> ticket.sequence));
+        // 사용자별 마지막 작업의 종료 태그
+        private final Map<String, Double> finishTags = new HashMap<>();
+        // 가장 최근에 실행을 시작한 작업의 시작 태그
+        private double virtualTime;
+        private int running;
+
+        private ClassQueue(Priority priority) {
+            this.priority = priority;
+        }
+
+        /**
+         * 작업 추가
+         * 시작 태그 = max(현재 가상 시각, 같은 사용자의 이전 작업 종료 태그), 종료 태그 = 시작 태그 + 1 / 가중치
+         */
+        private Ticket enqueue(String tenant, double weight, boolean large, long sequence) {
+            // 더 이상 앞선 작업이 없는 사용자의 태그는 정리 (오래 쉬던 사용자가 몰아서 몫을 받지 않도록 가상 시각부터 시작)
+            finishTags.values().removeIf(finishTag -> finishTag <= virtualTime);
+            double startTag = Math.max(virtualTime, finishTags.getOrDefault(tenant, 0.0));
+            finishTags.put(tenant, startTag + 1.0 / weight);
+
+            Ticket ticket = new Ticket(tenant, priority, large, startTag, sequence);
+            waiting.add(ticket);
+            return ticket;
+        }
+    }
+
+    /**
+     * 대기 중인 작업
+     */
+    private static final class Ticket {
+
+        private final String tenant;
+        private final Priority priority;
+        private final boolean large;
+        private final double startTag;
+        private final long sequence;
+        private boolean admitted;
+
+        private Ticket(String tenant, Priority priority, boolean large, double startTag, long sequence) {
+            this.tenant = tenant;
+            this.priority = priority;
+            this.large = large;
+            this.startTag = startTag;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * 실행 허가
+     * try-with-resources로 사용하며, 닫으면 다음 대기 작업이 실행됩니다.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final Ticket ticket;
+        private boolean closed;
+
+        private Permit(Ticket ticket) {
+            this.ticket = ticket;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            release(ticket);
+        }
+    }
+}
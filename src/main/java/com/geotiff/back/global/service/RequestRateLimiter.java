@@ -0,0 +1,66 @@
+package com.geotiff.back.global.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 토큰 버킷 방식의 요청 속도 제한기
+ * 초당 permitsPerSecond개씩 허가가 채워지고 최대 burst개까지 쌓입니다.
+ * 허가가 모자라면 먼저 예약한 순서대로 필요한 시간만큼 기다리므로, 동시에 호출해도 평균 속도가 설정값을 넘지 않습니다.
+ */
+public class RequestRateLimiter {
+
+    // 허가 하나가 채워지는 데 걸리는 시간 (0이면 제한 없음)
+    private final double nanosPerPermit;
+    private final double burst;
+    private final LongSupplier nanoClock;
+
+    // 사용 가능한 허가 수 (음수이면 이미 예약된 대기분)
+    private double permits;
+    private long refilledAt;
+
+    /**
+     * @param permitsPerSecond 초당 허가 수 (0 이하이면 제한 없음)
+     * @param burst 한 번에 쌓아 둘 수 있는 최대 허가 수
+     */
+    public RequestRateLimiter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    RequestRateLimiter(double permitsPerSecond, int burst, LongSupplier nanoClock) {
+        this.nanosPerPermit = permitsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / permitsPerSecond : 0;
+        this.burst = Math.max(1, burst);
+        this.nanoClock = nanoClock;
+        this.permits = this.burst;
+        this.refilledAt = nanoClock.getAsLong();
+    }
+
+    /**
+     * 허가 하나를 받을 때까지 대기
+     *
+     * @throws InterruptedException 대기 중 인터럽트 발생 시
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * 허가 하나를 예약
+     *
+     * @return 예약한 허가를 사용할 수 있을 때까지 기다려야 하는 시간 (나노초)
+     */
+    synchronized long reserve() {
+        if (nanosPerPermit <= 0) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        permits = Math.min(burst, permits + (now - refilledAt) / nanosPerPermit);
+        refilledAt = now;
+
+        permits -= 1;
+        return permits >= 0 ? 0 : (long) Math.ceil(-permits * nanosPerPermit);
+    }
+}
@@ -1,28 +1,83 @@
 package com.geotiff.back.global.service;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.FileRequestBodyConfiguration;
 import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+import software.amazon.awssdk.transfer.s3.model.DownloadFileRequest;
+import software.amazon.awssdk.transfer.s3.model.UploadFileRequest;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class S3Service {
 
     private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
+    private final S3TransferManager s3TransferManager;
     private final String username;
 
+    /**
+     * 재개 가능한 멀티파트 업로드의 파트 크기 (바이트)
+     */
+    @Value("${aws.s3.async.minimum-part-size-bytes:8388608}")
+    private long multipartPartSize = 8L * 1024 * 1024;
+
+    /**
+     * S3 멀티파트 업로드의 최대 파트 수
+     */
+    private static final int MAX_PART_COUNT = 10_000;
+
+    /**
+     * 업로드 하나에서 동시에 전송할 파트 수
+     */
+    private static final int PART_UPLOAD_CONCURRENCY = 8;
+
+    /**
+     * S3 클라이언트는 지연 프록시로 주입받아 첫 S3 요청 시점에 생성 (애플리케이션 시작 시간 단축)
+     */
+    public S3Service(@Lazy S3Client s3Client,
+                     @Lazy S3AsyncClient s3AsyncClient,
+                     @Lazy S3TransferManager s3TransferManager,
+                     String username) {
+        this.s3Client = s3Client;
+        this.s3AsyncClient = s3AsyncClient;
+        this.s3TransferManager = s3TransferManager;
+        this.username = username;
+    }
+
+    /**
+     * 사용자 경로가 붙은 실제 S3 키
+     * 업로드 메서드는 모두 이 키로 저장합니다.
+     */
+    public String userKey(String key) {
+        return String.format("%s/%s", username, key);
+    }
+
     /**
      * S3 버킷에서 파일 목록 조회
      */
@@ -44,6 +99,32 @@ public class S3Service {
         return files;
     }
 
+    /**
+     * S3 버킷의 객체 목록 한 페이지 조회
+     * 버킷 전체를 순회할 때 페이지마다 키와 함께 크기, ETag를 받아 바로 처리하기 위해 사용합니다.
+     *
+     * @param continuationToken 이전 페이지의 nextContinuationToken (첫 페이지는 null)
+     * @param maxKeys 페이지 최대 객체 수 (S3 최대값 1000)
+     * @return 목록 응답 (isTruncated이면 nextContinuationToken으로 다음 페이지 조회)
+     * @throws IOException 조회 실패 시
+     */
+    public ListObjectsV2Response listObjectsPage(String bucketName, String prefix, String continuationToken,
+                                                 int maxKeys) throws IOException {
+        try {
+            ListObjectsV2Request request = ListObjectsV2Request.builder()
+                    .bucket(bucketName)
+                    .prefix(prefix)
+                    .continuationToken(continuationToken)
+                    .maxKeys(maxKeys)
+                    .build();
+
+            return s3Client.listObjectsV2(request);
+        } catch (Exception e) {
+            log.error("S3 객체 목록 조회 중 오류 발생: {}", e.getMessage(), e);
+            throw new IOException("S3 객체 목록 조회 실패: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * S3에서 파일 다운로드
      */
@@ -71,7 +152,7 @@ public class S3Service {
     public String uploadFile(String bucketName, Path filePath, String key) throws IOException {
         log.info("S3에 파일 업로드 중: 버킷명={}, 파일 경로={}, 키={}", bucketName, filePath, key);
 
-        String finalKey = String.format("%s/%s", username, key);
+        String finalKey = userKey(key);
 
         try {
             PutObjectRequest putObjectRequest = PutObjectRequest.builder()
@@ -89,6 +170,32 @@ public class S3Service {
         }
     }
 
+    /**
+     * 파일 크기 조회
+     * HEAD 요청의 content-length를 반환합니다.
+     */
+    public long getFileSize(String bucketName, String key) throws IOException {
+        return headObject(bucketName, key).contentLength();
+    }
+
+    /**
+     * 객체 정보 조회 (HEAD 요청)
+     * 크기(content-length)와 ETag로 객체가 바뀌었는지 확인할 때 사용합니다.
+     */
+    public HeadObjectResponse headObject(String bucketName, String key) throws IOException {
+        try {
+            HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .build();
+
+            return s3Client.headObject(headObjectRequest);
+        } catch (Exception e) {
+            log.error("S3 파일 정보 조회 중 오류 발생: {}", e.getMessage(), e);
+            throw new IOException("S3 파일 정보 조회 실패: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * 파일 존재 여부 확인
      */
@@ -105,4 +212,338 @@ public class S3Service {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * S3 버킷에서 파일 목록 조회 (비동기)
+     * 동기 버전과 달리 모든 페이지를 순서대로 조회하여 합칩니다.
+     */
+    public CompletableFuture<List<String>> listFilesAsync(String bucketName, String prefix) {
+        log.info("버킷에서 파일 목록 비동기 조회 중: 버킷명={}, 접두사={}", bucketName, prefix);
+
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .build();
+
+        // 페이지 구독은 순차적으로 호출되므로 별도 동기화 없이 수집
+        List<String> files = new ArrayList<>();
+        return s3AsyncClient.listObjectsV2Paginator(request).contents()
+                .subscribe(object -> files.add(object.key()))
+                .handle((ignored, e) -> {
+                    if (e != null) {
+                        log.error("S3 파일 목록 조회 중 오류 발생: {}", e.getMessage(), e);
+                        throw failure("S3 파일 목록 조회 실패", e);
+                    }
+                    log.info("버킷에서 {}개의 파일을 찾았습니다", files.size());
+                    return files;
+                });
+    }
+
+    /**
+     * S3에서 파일 다운로드 (비동기)
+     * 전송 관리자가 큰 객체를 파트 단위 ranged GET으로 나누어 병렬로 받습니다.
+     */
+    public CompletableFuture<Path> downloadFileAsync(String bucketName, String key, Path targetPath) {
+        log.info("S3에서 파일 비동기 다운로드 중: 버킷명={}, 키={}, 대상 경로={}", bucketName, key, targetPath);
+
+        DownloadFileRequest request = DownloadFileRequest.builder()
+                .getObjectRequest(builder -> builder.bucket(bucketName).key(key))
+                .destination(targetPath)
+                .build();
+
+        return s3TransferManager.downloadFile(request).completionFuture()
+                .handle((completed, e) -> {
+                    if (e != null) {
+                        log.error("S3에서 파일 다운로드 중 오류 발생: {}", e.getMessage(), e);
+                        throw failure("S3에서 파일 다운로드 실패", e);
+                    }
+                    log.info("파일 다운로드 성공: {}", targetPath);
+                    return targetPath;
+                });
+    }
+
+    /**
+     * S3에 파일 업로드 (비동기)
+     * 전송 관리자가 큰 파일을 멀티파트 업로드로 나누어 병렬로 보냅니다.
+     */
+    public CompletableFuture<String> uploadFileAsync(String bucketName, Path filePath, String key) {
+        log.info("S3에 파일 비동기 업로드 중: 버킷명={}, 파일 경로={}, 키={}", bucketName, filePath, key);
+
+        String finalKey = userKey(key);
+
+        UploadFileRequest request = UploadFileRequest.builder()
+                .putObjectRequest(builder -> builder.bucket(bucketName).key(finalKey))
+                .source(filePath)
+                .build();
+
+        return s3TransferManager.uploadFile(request).completionFuture()
+                .handle((completed, e) -> {
+                    if (e != null) {
+                        log.error("S3에 파일 업로드 중 오류 발생: {}", e.getMessage(), e);
+                        throw failure("S3에 파일 업로드 실패", e);
+                    }
+                    log.info("파일 업로드 성공: s3://{}/{}", bucketName, finalKey);
+                    return finalKey;
+                });
+    }
+
+    /**
+     * 파일 존재 여부 확인 (비동기)
+     * HEAD 요청이 404로 끝나면 false를 반환합니다.
+     */
+    public CompletableFuture<Boolean> isFileExistsAsync(String bucketName, String key) {
+        HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
+
+        return s3AsyncClient.headObject(headObjectRequest)
+                .handle((response, e) -> {
+                    if (e == null) {
+                        return true;
+                    }
+                    // HEAD 응답에는 본문이 없어 NoSuchKeyException 대신 상태 코드 404로 전달될 수 있음
+                    Throwable cause = unwrap(e);
+                    if (cause instanceof NoSuchKeyException
+                            || (cause instanceof S3Exception s3Exception && s3Exception.statusCode() == 404)) {
+                        return false;
+                    }
+                    throw failure("S3 파일 존재 여부 확인 실패", e);
+                });
+    }
+
+    /**
+     * 객체의 바이트 범위 읽기 (비동기)
+     * COG 헤더나 필요한 타일만 ranged GET으로 가져올 때 사용합니다.
+     *
+     * @param offset 시작 위치
+     * @param length 읽을 바이트 수 (객체 끝을 넘으면 읽을 수 있는 만큼만 반환)
+     */
+    public CompletableFuture<byte[]> readRangeAsync(String bucketName, String key, long offset, int length) {
+        GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .range("bytes=" + offset + "-" + (offset + length - 1))
+                .build();
+
+        return s3AsyncClient.getObject(request, AsyncResponseTransformer.toBytes())
+                .handle((response, e) -> {
+                    if (e != null) {
+                        throw failure("S3 범위 읽기 실패", e);
+                    }
+                    return response.asByteArray();
+                });
+    }
+
+    /**
+     * 멀티파트 업로드 시작 (비동기)
+     * 반환된 uploadId를 저장해 두면 프로세스가 재시작되어도 같은 업로드를 이어서 진행할 수 있습니다.
+     *
+     * @param key 사용자 경로가 포함된 최종 키 (userKey)
+     * @return uploadId
+     */
+    public CompletableFuture<String> createMultipartUploadAsync(String bucketName, String key) {
+        log.info("멀티파트 업로드 시작: s3://{}/{}", bucketName, key);
+
+        return s3AsyncClient.createMultipartUpload(builder -> builder.bucket(bucketName).key(key))
+                .handle((response, e) -> {
+                    if (e != null) {
+                        throw failure("멀티파트 업로드 시작 실패", e);
+                    }
+                    return response.uploadId();
+                });
+    }
+
+    /**
+     * 이미 업로드된 파트 조회 (비동기)
+     *
+     * @return 업로드된 파트 목록, 업로드가 완료/중단되어 더 이상 없으면 빈 Optional
+     */
+    public CompletableFuture<Optional<List<Part>>> listPartsAsync(String bucketName, String key, String uploadId) {
+        ListPartsRequest request = ListPartsRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .build();
+
+        // 페이지 구독은 순차적으로 호출되므로 별도 동기화 없이 수집
+        List<Part> parts = new ArrayList<>();
+        return s3AsyncClient.listPartsPaginator(request).parts()
+                .subscribe(parts::add)
+                .handle((ignored, e) -> {
+                    if (e == null) {
+                        return Optional.of(parts);
+                    }
+                    Throwable cause = unwrap(e);
+                    if (cause instanceof NoSuchUploadException
+                            || (cause instanceof S3Exception s3Exception && s3Exception.statusCode() == 404)) {
+                        return Optional.empty();
+                    }
+                    throw failure("멀티파트 업로드 파트 조회 실패", e);
+                });
+    }
+
+    /**
+     * 멀티파트 업로드의 남은 파트를 전송하고 완료 (비동기)
+     * 파트 번호와 크기는 파일 크기로만 정해지므로, 이전 실행에서 같은 크기로 올라간 파트는 다시 보내지 않습니다.
+     *
+     * @param key 사용자 경로가 포함된 최종 키 (userKey)
+     * @param uploadId createMultipartUploadAsync로 받은 uploadId
+     * @param filePath 업로드할 파일
+     * @param uploadedParts listPartsAsync로 조회한 이미 업로드된 파트
+     * @return 완료된 객체의 ETag
+     */
+    public CompletableFuture<String> completeMultipartUploadAsync(String bucketName, String key, String uploadId,
+                                                                  Path filePath, List<Part> uploadedParts) {
+        long fileSize;
+        try {
+            fileSize = Files.size(filePath);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        // 파트 수 제한을 넘지 않도록 큰 파일은 파트 크기를 키움
+        long partSize = Math.max(multipartPartSize, (fileSize + MAX_PART_COUNT - 1) / MAX_PART_COUNT);
+        int partCount = (int) Math.max(1, (fileSize + partSize - 1) / partSize);
+
+        // 크기가 맞는 파트만 재사용 (파트 크기 설정이 바뀐 경우 해당 파트는 다시 전송)
+        Map<Integer, String> eTags = new ConcurrentHashMap<>();
+        for (Part part : uploadedParts) {
+            int partNumber = part.partNumber();
+            if (partNumber <= partCount && part.size() != null
+                    && part.size() == partLength(partNumber, partSize, fileSize)) {
+                eTags.put(partNumber, part.eTag());
+            }
+        }
+        Queue<Integer> pending = new ConcurrentLinkedQueue<>();
+        for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+            if (!eTags.containsKey(partNumber)) {
+                pending.add(partNumber);
+            }
+        }
+        log.info("멀티파트 업로드 진행: s3://{}/{}, 파트 {}개 중 {}개 전송 필요",
+                bucketName, key, partCount, pending.size());
+
+        // 동시에 PART_UPLOAD_CONCURRENCY개의 파트를 전송하고, 하나가 끝나면 다음 파트를 이어서 전송
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(PART_UPLOAD_CONCURRENCY, pending.size()); i++) {
+            workers.add(uploadNextPart(bucketName, key, uploadId, filePath, partSize, fileSize, pending, eTags));
+        }
+
+        return CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new))
+                .thenCompose(ignored -> {
+                    List<CompletedPart> parts = eTags.entrySet().stream()
+                            .sorted(Map.Entry.comparingByKey())
+                            .map(entry -> CompletedPart.builder()
+                                    .partNumber(entry.getKey())
+                                    .eTag(entry.getValue())
+                                    .build())
+                            .toList();
+                    return s3AsyncClient.completeMultipartUpload(builder -> builder
+                            .bucket(bucketName)
+                            .key(key)
+                            .uploadId(uploadId)
+                            .multipartUpload(upload -> upload.parts(parts)));
+                })
+                .handle((response, e) -> {
+                    if (e != null) {
+                        log.error("멀티파트 업로드 중 오류 발생: {}", e.getMessage(), e);
+                        throw failure("멀티파트 업로드 실패", e);
+                    }
+                    log.info("파일 업로드 성공: s3://{}/{}", bucketName, key);
+                    return response.eTag();
+                });
+    }
+
+    /**
+     * 멀티파트 업로드 중단 (비동기)
+     * 업로드된 파트를 삭제합니다. 이미 없는 업로드는 성공으로 처리합니다.
+     */
+    public CompletableFuture<Void> abortMultipartUploadAsync(String bucketName, String key, String uploadId) {
+        return s3AsyncClient.abortMultipartUpload(builder -> builder.bucket(bucketName).key(key).uploadId(uploadId))
+                .handle((response, e) -> {
+                    if (e != null && !(unwrap(e) instanceof NoSuchUploadException)) {
+                        throw failure("멀티파트 업로드 중단 실패", e);
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * 대기 중인 파트를 하나씩 꺼내 전송 (대기열이 빌 때까지 반복)
+     */
+    private CompletableFuture<Void> uploadNextPart(String bucketName, String key, String uploadId, Path filePath,
+                                                   long partSize, long fileSize, Queue<Integer> pending,
+                                                   Map<Integer, String> eTags) {
+        Integer partNumber = pending.poll();
+        if (partNumber == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long position = (partNumber - 1L) * partSize;
+        long length = partLength(partNumber, partSize, fileSize);
+
+        UploadPartRequest request = UploadPartRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength(length)
+                .build();
+        // 파일의 해당 구간만 읽어서 전송 (파트 전체를 메모리에 올리지 않음)
+        AsyncRequestBody body = AsyncRequestBody.fromFile(FileRequestBodyConfiguration.builder()
+                .path(filePath)
+                .position(position)
+                .numBytesToRead(length)
+                .build());
+
+        return s3AsyncClient.uploadPart(request, body)
+                .thenCompose(response -> {
+                    eTags.put(partNumber, response.eTag());
+                    return uploadNextPart(bucketName, key, uploadId, filePath, partSize, fileSize, pending, eTags);
+                });
+    }
+
+    private static long partLength(int partNumber, long partSize, long fileSize) {
+        return Math.max(0, Math.min(partSize, fileSize - (partNumber - 1L) * partSize));
+    }
+
+    /**
+     * 비동기 작업 완료 대기
+     * 실패 원인이 IOException이면 그대로, 그 외에는 IOException으로 감싸서 던집니다.
+     *
+     * @param future 대기할 작업
+     * @return 작업 결과
+     * @throws IOException 작업 실패 또는 대기 중 인터럽트 발생 시
+     */
+    public static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IOException("S3 작업 대기 중 인터럽트 발생", e);
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * 비동기 실패 원인을 IOException으로 감싼 CompletionException 생성
+     */
+    private static CompletionException failure(String message, Throwable e) {
+        Throwable cause = unwrap(e);
+        return new CompletionException(new IOException(message + ": " + cause.getMessage(), cause));
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
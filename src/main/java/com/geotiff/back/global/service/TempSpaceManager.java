@@ -0,0 +1,350 @@
+package com.geotiff.back.global.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 임시 디렉토리 공간 관리 서비스
+ * 변환 작업이 임시 파일을 쓰기 전에 필요한 용량을 예산(quota)에서 예약하도록 하고,
+ * 예산이 부족하면 먼저 들어온 요청 순서대로 대기시킵니다.
+ * 작업이 끝나면 예약한 파일을 삭제하고, 비정상 종료로 남은 오래된 파일은 시작 시와 주기적으로 정리합니다.
+ * 실패한 변환이 재개를 위해 남겨 둔 파일(체크포인트 디렉토리)은 보존 공간으로 등록되어, 삭제되거나 재개될 때까지 예산을 차지합니다.
+ */
+@Slf4j
+@Service
+public class TempSpaceManager {
+
+    private final Path tempDirectory;
+
+    /**
+     * 임시 디렉토리에서 동시에 사용할 수 있는 최대 바이트 수
+     */
+    private final long quotaBytes;
+
+    /**
+     * 원본 크기 대비 예약 배수 (다운로드 원본 + GDAL 측 사본 + 변환 결과, 메모리로 받은 원본은 1배를 뺌)
+     */
+    private final double reservationFactor;
+
+    /**
+     * 예약 대기 최대 시간
+     */
+    private final Duration reservationTimeout;
+
+    /**
+     * 이 시간보다 오래 수정되지 않은 파일은 고아 파일로 간주
+     */
+    private final Duration staleAfter;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition released = lock.newCondition();
+    // 예약 대기 순서 (FIFO) - 큰 예약이 작은 예약들에 계속 밀리지 않도록 보장
+    private final Deque<Object> waiters = new ArrayDeque<>();
+    private long reservedBytes;
+    // 보존 공간 (소유자 → 바이트), 예약과 같은 잠금으로 보호
+    private final Map<String, Long> retained = new HashMap<>();
+    private long retainedBytes;
+
+    // 진행 중인 예약이 사용하는 파일 (정리 대상에서 제외)
+    private final Set<Path> liveFiles = ConcurrentHashMap.newKeySet();
+
+    public TempSpaceManager(Path tempDirectory,
+                            @Value("${app.cog.temp-quota-bytes:21474836480}") long quotaBytes,
+                            @Value("${app.cog.temp-reservation-factor:3}") double reservationFactor,
+                            @Value("${app.cog.timeout-millis:900000}") long timeoutMillis,
+                            @Value("${app.cog.temp-stale-after:PT2H}") Duration staleAfter) {
+        this.tempDirectory = tempDirectory;
+        this.quotaBytes = quotaBytes;
+        this.reservationFactor = reservationFactor;
+        this.reservationTimeout = Duration.ofMillis(timeoutMillis);
+        this.staleAfter = staleAfter;
+    }
+
+    /**
+     * 원본 파일 크기를 기준으로 변환 작업에 필요한 공간 예약
+     *
+     * @param sourceBytes 원본 파일 크기 (S3 HEAD content-length)
+     * @return 작업 종료 시 닫아야 하는 예약 객체
+     * @throws IOException 대기 시간 초과 또는 인터럽트 발생 시
+     */
+    public Reservation reserveForSource(long sourceBytes) throws IOException {
+        return reserve((long) Math.ceil(sourceBytes * reservationFactor));
+    }
+
+    /**
+     * 보존 공간을 이어받아 변환 작업에 필요한 공간 예약
+     * 재개하는 변환은 남아 있던 파일을 새 예약 범위에서 다시 사용하므로, 대기 전에 해당 보존 공간을 해제합니다.
+     *
+     * @param sourceBytes 원본 파일 크기 (S3 HEAD content-length)
+     * @param retainedOwner 이어받을 보존 공간의 소유자
+     * @return 작업 종료 시 닫아야 하는 예약 객체
+     * @throws IOException 대기 시간 초과 또는 인터럽트 발생 시
+     */
+    public Reservation reserveForSource(long sourceBytes, String retainedOwner) throws IOException {
+        return reserveForSource(sourceBytes, true, retainedOwner);
+    }
+
+    /**
+     * 보존 공간을 이어받아 변환 작업에 필요한 공간 예약
+     * 원본을 디스크에 쓰지 않는 작업(메모리로 받은 원본)은 예약 배수에서 다운로드 원본 몫(원본 크기 1배)을 뺍니다.
+     *
+     * @param sourceBytes 원본 파일 크기 (S3 HEAD content-length)
+     * @param sourceOnDisk 원본을 임시 디렉토리에 기록하는지 여부
+     * @param retainedOwner 이어받을 보존 공간의 소유자
+     * @return 작업 종료 시 닫아야 하는 예약 객체
+     * @throws IOException 대기 시간 초과 또는 인터럽트 발생 시
+     */
+    public Reservation reserveForSource(long sourceBytes, boolean sourceOnDisk, String retainedOwner)
+            throws IOException {
+        releaseRetained(retainedOwner);
+        double factor = sourceOnDisk ? reservationFactor : Math.max(0, reservationFactor - 1);
+        return reserve((long) Math.ceil(sourceBytes * factor));
+    }
+
+    /**
+     * 임시 공간 예약
+     * 예산이 부족하면 앞선 예약이 해제될 때까지 대기합니다.
+     * 예산보다 큰 단일 요청은 다른 예약이 모두 해제된 뒤 단독으로 실행되도록 예산 크기로 제한합니다.
+     *
+     * @param bytes 예약할 바이트 수
+     * @return 작업 종료 시 닫아야 하는 예약 객체
+     * @throws IOException 대기 시간 초과 또는 인터럽트 발생 시
+     */
+    public Reservation reserve(long bytes) throws IOException {
+        long requested = Math.max(0, Math.min(bytes, quotaBytes));
+        Object ticket = new Object();
+
+        lock.lock();
+        try {
+            waiters.addLast(ticket);
+            long remainingNanos = reservationTimeout.toNanos();
+            // 대기열의 맨 앞이면서 예산이 남아 있을 때만 예약
+            while (waiters.peekFirst() != ticket || reservedBytes + retainedBytes + requested > quotaBytes) {
+                if (remainingNanos <= 0) {
+                    throw new IOException(String.format(
+                            "임시 디렉토리 공간 예약 대기 시간 초과: 요청=%d, 예약중=%d, 보존=%d, 예산=%d",
+                            requested, reservedBytes, retainedBytes, quotaBytes));
+                }
+                remainingNanos = released.awaitNanos(remainingNanos);
+            }
+            reservedBytes += requested;
+            log.debug("임시 공간 예약: {} 바이트 (예약중={}/{})", requested, reservedBytes, quotaBytes);
+            return new Reservation(requested);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("임시 디렉토리 공간 예약 중 인터럽트 발생", e);
+        } finally {
+            waiters.remove(ticket);
+            // 다음 대기자가 맨 앞이 되었을 수 있으므로 깨움
+            released.signalAll();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 현재 예약된 바이트 수
+     */
+    public long getReservedBytes() {
+        lock.lock();
+        try {
+            return reservedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 보존 공간 등록
+     * 작업이 끝난 뒤에도 남겨 두는 파일의 크기를 예산에 반영합니다. 같은 소유자로 다시 등록하면 크기를 바꿉니다.
+     * 이미 디스크에 있는 파일이므로 예산을 넘더라도 대기하지 않고, 이후 예약이 그만큼 기다립니다.
+     *
+     * @param owner 보존 공간 소유자 (예: 체크포인트)
+     * @param bytes 남겨 둔 파일 크기
+     */
+    public void retain(String owner, long bytes) {
+        lock.lock();
+        try {
+            Long previous = bytes > 0 ? retained.put(owner, bytes) : retained.remove(owner);
+            retainedBytes += Math.max(0, bytes) - (previous != null ? previous : 0);
+            released.signalAll();
+            log.debug("임시 공간 보존: {} {} 바이트 (보존={})", owner, bytes, retainedBytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 보존 공간 해제 (파일을 삭제했거나 새 예약이 이어받은 경우)
+     *
+     * @param owner 보존 공간 소유자
+     */
+    public void releaseRetained(String owner) {
+        retain(owner, 0);
+    }
+
+    /**
+     * 현재 보존 중인 바이트 수
+     */
+    public long getRetainedBytes() {
+        lock.lock();
+        try {
+            return retainedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 임시 디렉토리 예산 (바이트)
+     */
+    public long getQuotaBytes() {
+        return quotaBytes;
+    }
+
+    /**
+     * 애플리케이션 시작 시 이전 실행에서 남은 고아 파일 정리
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void sweepOnStartup() {
+        sweepStaleFiles();
+    }
+
+    /**
+     * 주기적으로 오래된 임시 파일 정리
+     * 진행 중인 예약이 사용하는 파일은 제외합니다.
+     *
+     * @return 삭제된 파일 수
+     */
+    @Scheduled(fixedDelayString = "${app.cog.temp-sweep-interval:PT15M}",
+            initialDelayString = "${app.cog.temp-sweep-interval:PT15M}")
+    public int sweepStaleFiles() {
+        Instant threshold = Instant.now().minus(staleAfter);
+        List<Path> stale = new ArrayList<>();
+
+        try (Stream<Path> files = Files.list(tempDirectory)) {
+            files.filter(Files::isRegularFile)
+                    .filter(path -> !liveFiles.contains(path))
+                    .filter(path -> isModifiedBefore(path, threshold))
+                    .forEach(stale::add);
+        } catch (IOException e) {
+            log.warn("임시 디렉토리 조회 실패: {}", tempDirectory, e);
+            return 0;
+        }
+
+        int deleted = 0;
+        for (Path path : stale) {
+            try {
+                if (Files.deleteIfExists(path)) {
+                    deleted++;
+                }
+            } catch (IOException e) {
+                log.warn("고아 임시 파일 삭제 실패: {}", path, e);
+            }
+        }
+
+        if (deleted > 0) {
+            log.info("고아 임시 파일 {}개 삭제 완료: {}", deleted, tempDirectory);
+        }
+        return deleted;
+    }
+
+    private boolean isModifiedBefore(Path path, Instant threshold) {
+        try {
+            return Files.getLastModifiedTime(path).toInstant().isBefore(threshold);
+        } catch (IOException e) {
+            // 조회 중 이미 삭제된 파일
+            return false;
+        }
+    }
+
+    private void release(long bytes) {
+        lock.lock();
+        try {
+            reservedBytes -= bytes;
+            released.signalAll();
+            log.debug("임시 공간 해제: {} 바이트 (예약중={}/{})", bytes, reservedBytes, quotaBytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 임시 공간 예약
+     * 예약 범위에서 만든 파일은 close() 시 삭제되고 예약한 바이트가 반환됩니다.
+     */
+    public final class Reservation implements AutoCloseable {
+
+        private final long bytes;
+        // 다른 작업과 파일명이 겹치지 않도록 예약마다 고유 접두사 사용
+        private final String prefix = UUID.randomUUID().toString().substring(0, 8);
+        private final List<Path> files = new ArrayList<>();
+        private boolean closed;
+
+        private Reservation(long bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * 예약 범위에서 사용할 임시 파일 경로 생성
+         *
+         * @param fileName 파일명
+         * @return 임시 디렉토리 내 고유 경로 (작업 종료 시 삭제됨)
+         */
+        public Path resolve(String fileName) {
+            Path path = tempDirectory.resolve(prefix + "_" + fileName);
+            files.add(path);
+            liveFiles.add(path);
+            return path;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * 예약 해제
+         * 예약 범위에서 만든 파일을 모두 삭제하고 예약한 공간을 반환합니다.
+         */
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            for (Path path : files) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    // 삭제 실패 파일은 주기적 정리 작업에서 다시 시도
+                    log.warn("임시 파일 삭제 실패: {}", path, e);
+                } finally {
+                    liveFiles.remove(path);
+                }
+            }
+            release(bytes);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.geotiff.back.global.tiff;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 바이트 범위 단위로 비동기로 읽을 수 있는 데이터 원본
+ * 여러 타일 범위를 동시에 요청하여 S3 ranged GET 지연을 겹치기 위해 사용합니다.
+ */
+@FunctionalInterface
+public interface AsyncRangeSource {
+
+    /**
+     * offset부터 length 바이트 읽기
+     *
+     * @param offset 시작 위치
+     * @param length 읽을 바이트 수
+     * @return 읽은 바이트를 완료 값으로 갖는 CompletableFuture
+     */
+    CompletableFuture<byte[]> read(long offset, int length);
+
+    /**
+     * 동기 원본을 감싼 비동기 원본 (호출 스레드에서 바로 읽음)
+     */
+    static AsyncRangeSource of(RangeSource source) {
+        return (offset, length) -> {
+            try {
+                return CompletableFuture.completedFuture(source.read(offset, length));
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        };
+    }
+}
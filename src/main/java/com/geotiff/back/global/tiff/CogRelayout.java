@@ -0,0 +1,255 @@
+package com.geotiff.back.global.tiff;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 이미 타일/압축된 GeoTIFF를 픽셀 복원 없이 COG 배치로 다시 쓰는 도구
+ * IFD 체인과 타일 위치만 새로 계산하고, 압축된 타일은 FileChannel.transferTo로 그대로 복사합니다.
+ *
+ * <p>결과 배치는 GDAL COG 드라이버와 같습니다: 헤더, 고스트 영역(LAYOUT=IFDS_BEFORE_DATA),
+ * 원본 해상도와 오버뷰(큰 순) IFD, 그리고 가장 작은 오버뷰부터 원본 해상도 순의 타일 데이터.
+ * 오버뷰를 새로 만들어야 하는 영상은 대상이 아니며 GDAL 변환을 사용해야 합니다.</p>
+ */
+public final class CogRelayout {
+
+    /**
+     * 그대로 복사할 수 있는 압축 방식 (비압축은 GDAL 변환으로 압축하도록 제외)
+     */
+    private static final Set<Integer> COPYABLE_COMPRESSIONS = Set.of(
+            TiffTag.COMPRESSION_DEFLATE, TiffTag.COMPRESSION_ADOBE_DEFLATE, TiffTag.COMPRESSION_LZW,
+            TiffTag.COMPRESSION_JPEG, TiffTag.COMPRESSION_LERC, TiffTag.COMPRESSION_ZSTD, TiffTag.COMPRESSION_WEBP);
+
+    /**
+     * 파일 내 다른 위치를 가리키는 태그 (재배치 후 잘못된 위치가 되므로 제거)
+     * FreeOffsets, FreeByteCounts, SubIFDs, Exif IFD, GPS IFD
+     */
+    private static final Set<Integer> POINTER_TAGS = Set.of(288, 289, 330, 34665, 34853);
+
+    private CogRelayout() {
+    }
+
+    /**
+     * 재배치할 수 없는 이유 확인
+     *
+     * @param structure 원본 TIFF 구조
+     * @return 재배치할 수 없으면 그 이유, 가능하면 빈 Optional
+     * @throws TiffFormatException 필수 태그가 없는 경우
+     */
+    public static Optional<String> findRejection(TiffStructure structure) throws TiffFormatException {
+        TiffIfd primary = structure.primary();
+        if (primary.isOverview() || primary.isMask()) {
+            return Optional.of("첫 번째 IFD가 원본 해상도 이미지가 아닙니다");
+        }
+        if (structure.ifds().stream().anyMatch(TiffIfd::isMask)) {
+            return Optional.of("마스크 IFD가 있는 영상은 지원하지 않습니다");
+        }
+        if (structure.ifds().size() != 1 + structure.overviews().size()) {
+            return Optional.of("원본 해상도와 오버뷰 외의 IFD가 있습니다");
+        }
+
+        for (TiffIfd ifd : structure.ifds()) {
+            if (!ifd.isTiled()) {
+                return Optional.of("타일 구조가 아닙니다");
+            }
+            if (!COPYABLE_COMPRESSIONS.contains(ifd.getCompression())) {
+                return Optional.of("복사할 수 없는 압축 방식입니다: " + ifd.getCompression());
+            }
+            if (ifd.getTileOffsets().length != ifd.getTileByteCounts().length) {
+                return Optional.of("타일 위치와 크기 개수가 다릅니다");
+            }
+        }
+
+        // 오버뷰가 영상 전체가 타일 하나에 들어가는 크기까지 내려가야 함 (GDAL COG 기본 오버뷰 구성과 동일)
+        int tileSize = Math.max(primary.getTileWidth(), primary.getTileLength());
+        int smallestSide = Math.max(primary.getWidth(), primary.getHeight());
+        for (TiffIfd overview : structure.overviews()) {
+            smallestSide = Math.min(smallestSide, Math.max(overview.getWidth(), overview.getHeight()));
+        }
+        if (smallestSide > tileSize) {
+            return Optional.of(String.format("오버뷰 생성이 필요합니다 (가장 작은 단계 %dpx > 타일 %dpx)",
+                    smallestSide, tileSize));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * COG 배치로 재배치
+     *
+     * @param structure 원본 TIFF 구조 (findRejection으로 확인한 것)
+     * @param source 원본 파일 채널
+     * @param output 결과 파일 경로
+     * @return 결과 파일 크기
+     * @throws IOException 원본 타일 범위가 파일을 벗어나거나 읽기/쓰기 실패 시
+     */
+    public static long relayout(TiffStructure structure, FileChannel source, Path output) throws IOException {
+        return relayout(structure, source.size(),
+                (start, length, target) -> transfer(source, start, length, target), output);
+    }
+
+    /**
+     * 메모리에 받아 둔 원본을 COG 배치로 재배치
+     * 원본을 파일로 기록하지 않고 배열에서 타일을 바로 복사합니다.
+     *
+     * @param structure 원본 TIFF 구조 (findRejection으로 확인한 것)
+     * @param source 원본 전체 바이트
+     * @param output 결과 파일 경로
+     * @return 결과 파일 크기
+     * @throws IOException 원본 타일 범위가 배열을 벗어나거나 쓰기 실패 시
+     */
+    public static long relayout(TiffStructure structure, byte[] source, Path output) throws IOException {
+        return relayout(structure, source.length,
+                (start, length, target) -> write(ByteBuffer.wrap(source, (int) start, (int) length), target), output);
+    }
+
+    /**
+     * 원본의 연속된 범위를 결과 파일에 복사하는 방법 (파일 채널 또는 메모리 배열)
+     */
+    @FunctionalInterface
+    private interface TileCopier {
+        void copy(long start, long length, FileChannel target) throws IOException;
+    }
+
+    private static long relayout(TiffStructure structure, long sourceSize, TileCopier copier, Path output)
+            throws IOException {
+        // 원본 해상도, 오버뷰(큰 순) 순서로 IFD 정렬
+        List<TiffIfd> images = new ArrayList<>();
+        images.add(structure.primary());
+        structure.overviews().stream()
+                .sorted(Comparator.comparingLong((TiffIfd ifd) -> ifd.getLong(TiffTag.IMAGE_WIDTH, 0)).reversed())
+                .forEach(images::add);
+
+        long dataBytes = 0;
+        for (TiffIfd image : images) {
+            long[] offsets = image.getTileOffsets();
+            long[] byteCounts = image.getTileByteCounts();
+            for (int i = 0; i < offsets.length; i++) {
+                if (byteCounts[i] > 0 && (offsets[i] < 0 || offsets[i] + byteCounts[i] > sourceSize)) {
+                    throw new TiffFormatException("타일이 파일 범위를 벗어납니다: 위치=" + offsets[i] + ", 크기=" + byteCounts[i]);
+                }
+                dataBytes += byteCounts[i];
+            }
+        }
+
+        // 헤더 크기는 타일 위치 값과 무관하므로 0 기준 IFD로 먼저 계산
+        byte[] ghostArea = ghostArea();
+        boolean bigTiff = TiffWriter.requiresBigTiff(
+                TiffWriter.headerSize(buildIfds(images, false, 0), false, ghostArea) + dataBytes);
+        int headerSize = TiffWriter.headerSize(buildIfds(images, bigTiff, 0), bigTiff, ghostArea);
+        ByteBuffer header = TiffWriter.encode(buildIfds(images, bigTiff, headerSize), structure.byteOrder(),
+                bigTiff, ghostArea);
+
+        try (FileChannel target = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            write(header, target);
+
+            // 가장 작은 오버뷰부터 타일 복사, 원본에서 연속된 타일은 한 번의 transferTo로 묶음
+            long runStart = -1;
+            long runLength = 0;
+            for (int level = images.size() - 1; level >= 0; level--) {
+                long[] offsets = images.get(level).getTileOffsets();
+                long[] byteCounts = images.get(level).getTileByteCounts();
+                for (int i = 0; i < offsets.length; i++) {
+                    if (byteCounts[i] == 0) {
+                        continue;
+                    }
+                    if (runStart >= 0 && offsets[i] == runStart + runLength) {
+                        runLength += byteCounts[i];
+                        continue;
+                    }
+                    copyRun(copier, runStart, runLength, target);
+                    runStart = offsets[i];
+                    runLength = byteCounts[i];
+                }
+            }
+            copyRun(copier, runStart, runLength, target);
+            return target.size();
+        }
+    }
+
+    /**
+     * 결과 IFD 목록 생성
+     * 타일 위치는 가장 작은 오버뷰부터 이어 붙인다고 가정해 계산합니다.
+     *
+     * @param dataStart 첫 타일 데이터 위치 (헤더 크기 계산용 IFD는 0)
+     */
+    private static List<TiffIfd> buildIfds(List<TiffIfd> images, boolean bigTiff, long dataStart)
+            throws TiffFormatException {
+        long[][] newOffsets = new long[images.size()][];
+        long position = dataStart;
+        for (int level = images.size() - 1; level >= 0; level--) {
+            long[] byteCounts = images.get(level).getTileByteCounts();
+            newOffsets[level] = new long[byteCounts.length];
+            for (int i = 0; i < byteCounts.length; i++) {
+                // 빈(sparse) 타일은 위치/크기 모두 0으로 유지
+                newOffsets[level][i] = byteCounts[i] > 0 ? position : 0;
+                position += byteCounts[i];
+            }
+        }
+
+        int offsetType = bigTiff ? TiffType.LONG8 : TiffType.LONG;
+        List<TiffIfd> ifds = new ArrayList<>();
+        for (int level = 0; level < images.size(); level++) {
+            TiffIfd image = images.get(level);
+            TiffIfd ifd = new TiffIfd();
+            for (TiffEntry entry : image.getEntries()) {
+                if (!POINTER_TAGS.contains(entry.tag())) {
+                    ifd.put(entry);
+                }
+            }
+            if (level == 0) {
+                ifd.remove(TiffTag.NEW_SUBFILE_TYPE);
+            } else {
+                ifd.put(TiffEntry.ofLongs(TiffTag.NEW_SUBFILE_TYPE, TiffType.LONG, TiffTag.SUBFILE_REDUCED_RESOLUTION));
+            }
+            ifd.put(TiffEntry.ofLongs(TiffTag.TILE_OFFSETS, offsetType, newOffsets[level]));
+            ifd.put(TiffEntry.ofLongs(TiffTag.TILE_BYTE_COUNTS, offsetType, image.getTileByteCounts()));
+            ifds.add(ifd);
+        }
+        return ifds;
+    }
+
+    /**
+     * GDAL COG 드라이버가 헤더 뒤에 기록하는 구조 메타데이터 (고스트 영역)
+     * 리더가 파일 앞부분만 보고 IFD가 데이터보다 앞에 있음을 알 수 있게 합니다.
+     */
+    private static byte[] ghostArea() {
+        String content = "LAYOUT=IFDS_BEFORE_DATA\n"
+                + "BLOCK_ORDER=ROW_MAJOR\n"
+                + "KNOWN_INCOMPATIBLE_EDITION=NO\n";
+        return (String.format("GDAL_STRUCTURAL_METADATA_SIZE=%06d bytes\n", content.length()) + content)
+                .getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static void copyRun(TileCopier copier, long start, long length, FileChannel target) throws IOException {
+        if (length > 0) {
+            copier.copy(start, length, target);
+        }
+    }
+
+    private static void write(ByteBuffer buffer, FileChannel target) throws IOException {
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+
+    private static void transfer(FileChannel source, long start, long length, FileChannel target) throws IOException {
+        long transferred = 0;
+        while (transferred < length) {
+            long count = source.transferTo(start + transferred, length - transferred, target);
+            if (count <= 0) {
+                throw new IOException("타일 복사가 중단되었습니다: 위치=" + (start + transferred));
+            }
+            transferred += count;
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package com.geotiff.back.global.tiff;
+
+import com.geotiff.back.global.raster.RasterParallel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+
+/**
+ * 단일 밴드 float32 COG(Cloud Optimized GeoTIFF) 작성기
+ * 원본 해상도 행을 타일 높이 단위(스트립)로 위에서부터 받아, 타일별 부동소수점 예측기 + Deflate 압축을 병렬로 수행합니다.
+ * 받은 행은 바로 2배씩 축소해 오버뷰 단계로 넘기므로 전체 래스터를 메모리에 올리지 않고 오버뷰까지 함께 만듭니다.
+ *
+ * <p>압축된 타일은 해상도 단계별 임시 파일에 이어서 기록하고, finish에서 IFD를 모두 파일 앞에 둔 뒤
+ * 가장 작은 오버뷰부터 원본 해상도 순으로 타일 데이터를 붙여 COG 배치로 조립합니다.
+ * nodata는 NaN이며 오버뷰는 NaN을 제외한 평균으로 계산합니다.</p>
+ */
+public class Float32CogWriter implements Closeable {
+
+    private static final int BYTES_PER_SAMPLE = 4;
+
+    private final ForkJoinPool pool;
+    private final int tileSize;
+    private final List<Level> levels = new ArrayList<>();
+    // 스레드마다 하나씩 빌려 쓰는 압축 작업 공간 (압축기와 버퍼 재사용)
+    private final ConcurrentLinkedQueue<TileEncoder> encoders = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param fileResolver 임시 파일명을 경로로 바꾸는 함수 (임시 공간 예약 범위의 resolve 등)
+     * @param width 원본 해상도 너비
+     * @param height 원본 해상도 높이
+     * @param tileSize 타일 한 변의 픽셀 수 (짝수)
+     * @param pool 타일 압축을 실행할 풀
+     * @throws IOException 임시 파일 생성 실패 시
+     */
+    public Float32CogWriter(Function<String, Path> fileResolver, int width, int height, int tileSize,
+                            ForkJoinPool pool) throws IOException {
+        if (tileSize <= 0 || tileSize % 2 != 0) {
+            throw new IllegalArgumentException("타일 크기는 양의 짝수여야 합니다: " + tileSize);
+        }
+        this.pool = pool;
+        this.tileSize = tileSize;
+
+        // 영상 전체가 타일 하나에 들어갈 때까지 절반씩 줄인 오버뷰 단계 생성
+        int levelWidth = width;
+        int levelHeight = height;
+        try {
+            while (true) {
+                levels.add(new Level(levels.size(), levelWidth, levelHeight, fileResolver));
+                if (levelWidth <= tileSize && levelHeight <= tileSize) {
+                    break;
+                }
+                levelWidth = (levelWidth + 1) / 2;
+                levelHeight = (levelHeight + 1) / 2;
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * 오버뷰 단계 수 (원본 해상도 제외)
+     */
+    public int getOverviewCount() {
+        return levels.size() - 1;
+    }
+
+    /**
+     * 원본 해상도 스트립 기록
+     * 스트립은 영상 너비 × rows 크기의 행 우선 배열이며, 마지막 스트립을 제외하면 rows는 타일 크기와 같아야 합니다.
+     *
+     * @param strip 픽셀 값 (nodata는 NaN)
+     * @param rows 스트립의 행 수
+     * @throws IOException 임시 파일 기록 실패 시
+     */
+    public void writeStrip(float[] strip, int rows) throws IOException {
+        writeStrip(levels.get(0), strip, rows);
+    }
+
+    private void writeStrip(Level level, float[] strip, int rows) throws IOException {
+        if (rows != tileSize && level.rowsWritten + rows != level.height) {
+            throw new IllegalStateException("마지막 스트립이 아니면 행 수가 타일 크기와 같아야 합니다: " + rows);
+        }
+
+        // 1. 타일 행의 타일들을 병렬로 압축한 뒤 순서대로 기록
+        byte[][] tiles = new byte[level.tilesAcross][];
+        RasterParallel.forEach(pool, level.tilesAcross, tileColumn ->
+                tiles[tileColumn] = encodeTile(strip, level.width, rows, tileColumn));
+        for (byte[] tile : tiles) {
+            level.append(tile);
+        }
+        level.rowsWritten += rows;
+
+        // 2. 다음 오버뷰 단계로 2배 축소 (타일 높이가 짝수이므로 두 스트립마다 다음 단계 스트립 하나가 참)
+        if (level.index + 1 < levels.size()) {
+            Level next = levels.get(level.index + 1);
+            int outputRows = (rows + 1) / 2;
+            RasterParallel.forEach(pool, outputRows, y ->
+                    downsampleRow(strip, level.width, rows, y, next.buffer, next.width, next.bufferedRows + y));
+            next.bufferedRows += outputRows;
+            if (next.bufferedRows == tileSize || next.rowsWritten + next.bufferedRows == next.height) {
+                int bufferedRows = next.bufferedRows;
+                next.bufferedRows = 0;
+                writeStrip(next, next.buffer, bufferedRows);
+            }
+        }
+    }
+
+    /**
+     * 2×2 픽셀 평균 (NaN 제외, 모두 NaN이면 NaN)
+     */
+    private static void downsampleRow(float[] source, int sourceWidth, int sourceRows, int outputRow,
+                                      float[] target, int targetWidth, int targetRow) {
+        int top = outputRow * 2 * sourceWidth;
+        int bottom = outputRow * 2 + 1 < sourceRows ? top + sourceWidth : -1;
+        int targetStart = targetRow * targetWidth;
+        for (int x = 0; x < targetWidth; x++) {
+            int left = x * 2;
+            boolean hasRight = left + 1 < sourceWidth;
+            float sum = 0;
+            int count = 0;
+
+            float value = source[top + left];
+            if (value == value) {
+                sum += value;
+                count++;
+            }
+            if (hasRight) {
+                value = source[top + left + 1];
+                if (value == value) {
+                    sum += value;
+                    count++;
+                }
+            }
+            if (bottom >= 0) {
+                value = source[bottom + left];
+                if (value == value) {
+                    sum += value;
+                    count++;
+                }
+                if (hasRight) {
+                    value = source[bottom + left + 1];
+                    if (value == value) {
+                        sum += value;
+                        count++;
+                    }
+                }
+            }
+            target[targetStart + x] = count > 0 ? sum / count : Float.NaN;
+        }
+    }
+
+    /**
+     * 스트립에서 타일 하나를 잘라 부동소수점 예측기 적용 후 Deflate 압축
+     * 영상 경계를 넘는 부분은 NaN으로 채웁니다.
+     */
+    private byte[] encodeTile(float[] strip, int stripWidth, int rows, int tileColumn) {
+        TileEncoder encoder = encoders.poll();
+        if (encoder == null) {
+            encoder = new TileEncoder(tileSize);
+        }
+        try {
+            byte[] raw = encoder.raw;
+            int rowBytes = tileSize * BYTES_PER_SAMPLE;
+            int columnStart = tileColumn * tileSize;
+            int columns = Math.min(tileSize, stripWidth - columnStart);
+            int nanBits = Float.floatToRawIntBits(Float.NaN);
+
+            for (int y = 0; y < tileSize; y++) {
+                int rowStart = y * rowBytes;
+                int sourceStart = y * stripWidth + columnStart;
+                // 상위 바이트부터 바이트 평면으로 나누어 배치 (TIFF 부동소수점 예측기, 파일 바이트 순서와 무관)
+                for (int x = 0; x < tileSize; x++) {
+                    int bits = y < rows && x < columns ? Float.floatToRawIntBits(strip[sourceStart + x]) : nanBits;
+                    raw[rowStart + x] = (byte) (bits >>> 24);
+                    raw[rowStart + tileSize + x] = (byte) (bits >>> 16);
+                    raw[rowStart + 2 * tileSize + x] = (byte) (bits >>> 8);
+                    raw[rowStart + 3 * tileSize + x] = (byte) bits;
+                }
+                // 행 안에서 바이트 단위 수평 차분
+                for (int i = rowStart + rowBytes - 1; i > rowStart; i--) {
+                    raw[i] -= raw[i - 1];
+                }
+            }
+            return encoder.deflate();
+        } finally {
+            encoders.offer(encoder);
+        }
+    }
+
+    /**
+     * COG 조립
+     * IFD(원본 해상도, 오버뷰 순)를 파일 앞에 모으고, 가장 작은 오버뷰부터 타일 데이터를 붙입니다.
+     *
+     * @param template 원본 해상도 IFD에 추가할 태그 (좌표계, 지리 변환 등)
+     * @param output 결과 파일 경로
+     * @return 결과 파일 크기
+     * @throws IOException 파일 기록 실패 또는 모든 행을 받기 전에 호출한 경우
+     */
+    public long finish(TiffIfd template, Path output) throws IOException {
+        Level primary = levels.get(0);
+        if (primary.rowsWritten != primary.height) {
+            throw new IOException("모든 행을 기록하기 전에 COG를 조립할 수 없습니다: "
+                    + primary.rowsWritten + "/" + primary.height);
+        }
+        for (Level level : levels) {
+            level.channel.force(false);
+        }
+
+        // 타일 위치 개수만 맞춘 IFD로 헤더 크기를 먼저 계산 (값 개수가 같으면 크기도 같음)
+        long dataBytes = levels.stream().mapToLong(level -> level.dataBytes).sum();
+        boolean bigTiff = TiffWriter.requiresBigTiff(
+                TiffWriter.headerSize(buildIfds(template, false, 0), false) + dataBytes);
+        int headerSize = TiffWriter.headerSize(buildIfds(template, bigTiff, 0), bigTiff);
+        ByteBuffer header = TiffWriter.encode(buildIfds(template, bigTiff, headerSize), ByteOrder.LITTLE_ENDIAN, bigTiff);
+
+        try (FileChannel target = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) {
+                target.write(header);
+            }
+            for (int i = levels.size() - 1; i >= 0; i--) {
+                FileChannel source = levels.get(i).channel;
+                long position = 0;
+                while (position < source.size()) {
+                    position += source.transferTo(position, source.size() - position, target);
+                }
+            }
+            return target.size();
+        }
+    }
+
+    /**
+     * 단계별 IFD 생성
+     *
+     * @param dataStart 첫 타일 데이터 위치 (헤더 크기 계산용 IFD는 0)
+     */
+    private List<TiffIfd> buildIfds(TiffIfd template, boolean bigTiff, long dataStart) {
+        // 타일 데이터는 가장 작은 오버뷰부터 배치되므로, 각 단계의 시작 위치는 더 작은 단계들의 크기를 더해 계산
+        long[] levelStarts = new long[levels.size()];
+        long position = dataStart;
+        for (int i = levels.size() - 1; i >= 0; i--) {
+            levelStarts[i] = position;
+            position += levels.get(i).dataBytes;
+        }
+
+        int offsetType = bigTiff ? TiffType.LONG8 : TiffType.LONG;
+        List<TiffIfd> ifds = new ArrayList<>();
+        for (Level level : levels) {
+            long[] offsets = new long[level.tileCount];
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = levelStarts[level.index] + level.offsets[i];
+            }
+
+            TiffIfd ifd = new TiffIfd();
+            if (level.index > 0) {
+                ifd.put(TiffEntry.ofLongs(TiffTag.NEW_SUBFILE_TYPE, TiffType.LONG, TiffTag.SUBFILE_REDUCED_RESOLUTION));
+            } else {
+                template.getEntries().forEach(ifd::put);
+            }
+            ifd.put(TiffEntry.ofLongs(TiffTag.IMAGE_WIDTH, TiffType.LONG, level.width));
+            ifd.put(TiffEntry.ofLongs(TiffTag.IMAGE_LENGTH, TiffType.LONG, level.height));
+            ifd.put(TiffEntry.ofLongs(TiffTag.BITS_PER_SAMPLE, TiffType.SHORT, BYTES_PER_SAMPLE * 8));
+            ifd.put(TiffEntry.ofLongs(TiffTag.COMPRESSION, TiffType.SHORT, TiffTag.COMPRESSION_DEFLATE));
+            ifd.put(TiffEntry.ofLongs(TiffTag.PHOTOMETRIC_INTERPRETATION, TiffType.SHORT, 1));
+            ifd.put(TiffEntry.ofLongs(TiffTag.SAMPLES_PER_PIXEL, TiffType.SHORT, 1));
+            ifd.put(TiffEntry.ofLongs(TiffTag.PLANAR_CONFIGURATION, TiffType.SHORT, 1));
+            ifd.put(TiffEntry.ofLongs(TiffTag.PREDICTOR, TiffType.SHORT, 3));
+            ifd.put(TiffEntry.ofLongs(TiffTag.TILE_WIDTH, TiffType.SHORT, tileSize));
+            ifd.put(TiffEntry.ofLongs(TiffTag.TILE_LENGTH, TiffType.SHORT, tileSize));
+            ifd.put(TiffEntry.ofLongs(TiffTag.TILE_OFFSETS, offsetType, offsets));
+            ifd.put(TiffEntry.ofLongs(TiffTag.TILE_BYTE_COUNTS, TiffType.LONG, level.byteCounts));
+            ifd.put(TiffEntry.ofLongs(TiffTag.SAMPLE_FORMAT, TiffType.SHORT, TiffTag.SAMPLE_FORMAT_FLOAT));
+            ifds.add(ifd);
+        }
+        return ifds;
+    }
+
+    /**
+     * 임시 파일과 압축기 해제 (임시 파일 삭제는 fileResolver를 제공한 쪽에서 처리)
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Level level : levels) {
+            try {
+                level.channel.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        TileEncoder encoder;
+        while ((encoder = encoders.poll()) != null) {
+            encoder.deflater.end();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * 해상도 단계 하나 (원본 해상도 또는 오버뷰)
+     */
+    private final class Level {
+
+        private final int index;
+        private final int width;
+        private final int height;
+        private final int tilesAcross;
+        private final int tileCount;
+        // 단계 임시 파일 안에서의 타일 위치와 크기
+        private final long[] offsets;
+        private final long[] byteCounts;
+        private final FileChannel channel;
+        // 이전 단계에서 축소해 넘겨받은 행 (원본 해상도는 사용하지 않음)
+        private final float[] buffer;
+        private int bufferedRows;
+        private int rowsWritten;
+        private int tilesWritten;
+        private long dataBytes;
+
+        private Level(int index, int width, int height, Function<String, Path> fileResolver) throws IOException {
+            this.index = index;
+            this.width = width;
+            this.height = height;
+            this.tilesAcross = (width + tileSize - 1) / tileSize;
+            this.tileCount = tilesAcross * ((height + tileSize - 1) / tileSize);
+            this.offsets = new long[tileCount];
+            this.byteCounts = new long[tileCount];
+            this.buffer = index > 0 ? new float[width * tileSize] : null;
+            this.channel = FileChannel.open(fileResolver.apply("level" + index + ".tiles"),
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        private void append(byte[] tile) throws IOException {
+            offsets[tilesWritten] = dataBytes;
+            byteCounts[tilesWritten] = tile.length;
+            ByteBuffer data = ByteBuffer.wrap(tile);
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            tilesWritten++;
+            dataBytes += tile.length;
+        }
+    }
+
+    /**
+     * 타일 압축 작업 공간
+     */
+    private static final class TileEncoder {
+
+        private final Deflater deflater = new Deflater(6);
+        private final byte[] raw;
+        private byte[] compressed;
+
+        private TileEncoder(int tileSize) {
+            this.raw = new byte[tileSize * tileSize * BYTES_PER_SAMPLE];
+            this.compressed = new byte[raw.length + raw.length / 100 + 64];
+        }
+
+        private byte[] deflate() {
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                length += deflater.deflate(compressed, length, compressed.length - length);
+            }
+            return Arrays.copyOf(compressed, length);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.geotiff.back.global.tiff;
+
+/**
+ * GeoTIFF 키 디렉토리(GeoKeyDirectory 태그) 해석
+ * 태그 값은 [버전, 리비전, 부 리비전, 키 수] 헤더 뒤에 키마다 [키 번호, 값 위치 태그, 개수, 값]이 이어지는 SHORT 배열입니다.
+ * 값 위치 태그가 0이면 값이 바로 들어 있고, 그 외에는 GeoDoubleParams/GeoAsciiParams 등 다른 태그를 가리킵니다.
+ */
+public final class GeoKeyDirectory {
+
+    /**
+     * 투영 좌표계 코드 키 (ProjectedCSTypeGeoKey)
+     */
+    public static final int PROJECTED_CS_TYPE = 3072;
+
+    /**
+     * 지리 좌표계 코드 키 (GeographicTypeGeoKey)
+     */
+    public static final int GEOGRAPHIC_TYPE = 2048;
+
+    /**
+     * 사용자 정의 좌표계 (EPSG 코드 없음)
+     */
+    private static final int USER_DEFINED = 32767;
+
+    private GeoKeyDirectory() {
+    }
+
+    /**
+     * 좌표계의 EPSG 코드
+     * 투영 좌표계 코드를 먼저, 없으면 지리 좌표계 코드를 사용합니다.
+     *
+     * @return EPSG 코드 (키 디렉토리가 없거나 사용자 정의 좌표계이면 null)
+     */
+    public static Integer epsg(TiffIfd ifd) throws TiffFormatException {
+        if (!ifd.has(TiffTag.GEO_KEY_DIRECTORY)) {
+            return null;
+        }
+        long[] directory = ifd.getLongs(TiffTag.GEO_KEY_DIRECTORY);
+        Integer projected = shortValue(directory, PROJECTED_CS_TYPE);
+        if (projected != null) {
+            return projected;
+        }
+        return shortValue(directory, GEOGRAPHIC_TYPE);
+    }
+
+    /**
+     * 키 디렉토리에 바로 들어 있는 SHORT 키 값
+     *
+     * @return 값 (키가 없거나, 다른 태그를 가리키거나, 사용자 정의 값이면 null)
+     */
+    static Integer shortValue(long[] directory, int key) {
+        if (directory.length < 4) {
+            return null;
+        }
+        int keyCount = (int) directory[3];
+        for (int i = 0; i < keyCount && 4 + i * 4 + 3 < directory.length; i++) {
+            int offset = 4 + i * 4;
+            if (directory[offset] == key) {
+                long value = directory[offset + 3];
+                boolean inline = directory[offset + 1] == 0;
+                return inline && value > 0 && value != USER_DEFINED ? (int) value : null;
+            }
+        }
+        return null;
+    }
+}
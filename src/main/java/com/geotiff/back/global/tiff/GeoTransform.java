@@ -0,0 +1,112 @@
+package com.geotiff.back.global.tiff;
+
+/**
+ * 픽셀 좌표와 지도 좌표 사이의 아핀 변환 (GDAL GeoTransform과 같은 구성)
+ * 지도 X = originX + 열 * pixelWidth + 행 * rotationX
+ * 지도 Y = originY + 열 * rotationY + 행 * pixelHeight
+ *
+ * @param originX 좌상단 X
+ * @param pixelWidth 픽셀 너비
+ * @param rotationX 행에 따른 X 변화 (회전 없으면 0)
+ * @param originY 좌상단 Y
+ * @param rotationY 열에 따른 Y 변화 (회전 없으면 0)
+ * @param pixelHeight 픽셀 높이 (북쪽이 위인 영상은 음수)
+ */
+public record GeoTransform(double originX, double pixelWidth, double rotationX,
+                           double originY, double rotationY, double pixelHeight) {
+
+    /**
+     * IFD의 GeoTIFF 태그(ModelTransformation 또는 ModelPixelScale + ModelTiepoint)에서 변환 생성
+     *
+     * @return 지리 참조 정보가 없으면 null
+     */
+    public static GeoTransform of(TiffIfd ifd) {
+        double[] matrix = ifd.getDoubles(TiffTag.MODEL_TRANSFORMATION);
+        if (matrix != null && matrix.length >= 8) {
+            return new GeoTransform(matrix[3], matrix[0], matrix[1], matrix[7], matrix[4], matrix[5]);
+        }
+
+        double[] scale = ifd.getDoubles(TiffTag.MODEL_PIXEL_SCALE);
+        double[] tiepoint = ifd.getDoubles(TiffTag.MODEL_TIEPOINT);
+        if (scale == null || tiepoint == null || scale.length < 2 || tiepoint.length < 6) {
+            return null;
+        }
+        // 기준점(tiepoint)의 픽셀 좌표를 (0, 0)으로 옮김
+        return new GeoTransform(tiepoint[3] - tiepoint[0] * scale[0], scale[0], 0,
+                tiepoint[4] + tiepoint[1] * scale[1], 0, -scale[1]);
+    }
+
+    public boolean isRotated() {
+        return rotationX != 0 || rotationY != 0;
+    }
+
+    /**
+     * 지도 좌표를 픽셀 좌표(열, 행)로 변환 (회전 없는 변환만 지원)
+     */
+    public double[] toPixel(double x, double y) {
+        if (isRotated()) {
+            throw new IllegalStateException("회전된 지리 참조는 지원하지 않습니다");
+        }
+        return new double[]{(x - originX) / pixelWidth, (y - originY) / pixelHeight};
+    }
+
+    /**
+     * 축소 해상도 이미지(오버뷰)의 변환
+     *
+     * @param scaleX 가로 축소 배율 (원본 너비 / 오버뷰 너비)
+     * @param scaleY 세로 축소 배율 (원본 높이 / 오버뷰 높이)
+     */
+    public GeoTransform scaled(double scaleX, double scaleY) {
+        return new GeoTransform(originX, pixelWidth * scaleX, rotationX * scaleY,
+                originY, rotationY * scaleX, pixelHeight * scaleY);
+    }
+
+    /**
+     * (column, row) 픽셀을 원점으로 하는 부분 영역의 변환
+     */
+    public GeoTransform window(int column, int row) {
+        return new GeoTransform(originX + column * pixelWidth + row * rotationX, pixelWidth, rotationX,
+                originY + column * rotationY + row * pixelHeight, rotationY, pixelHeight);
+    }
+
+    /**
+     * width x height 픽셀 영상의 지도 좌표 범위 (네 모서리를 모두 변환하므로 회전된 변환도 지원)
+     *
+     * @return [minX, minY, maxX, maxY]
+     */
+    public double[] bounds(int width, int height) {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int corner = 0; corner < 4; corner++) {
+            int column = (corner & 1) == 0 ? 0 : width;
+            int row = (corner & 2) == 0 ? 0 : height;
+            double x = originX + column * pixelWidth + row * rotationX;
+            double y = originY + column * rotationY + row * pixelHeight;
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+        return new double[]{minX, minY, maxX, maxY};
+    }
+
+    /**
+     * IFD에 변환 태그 기록
+     * 회전이 없으면 ModelPixelScale + ModelTiepoint, 있으면 ModelTransformation을 사용합니다.
+     */
+    public void applyTo(TiffIfd ifd) {
+        ifd.remove(TiffTag.MODEL_TRANSFORMATION).remove(TiffTag.MODEL_PIXEL_SCALE).remove(TiffTag.MODEL_TIEPOINT);
+        if (isRotated()) {
+            ifd.put(TiffEntry.ofDoubles(TiffTag.MODEL_TRANSFORMATION, TiffType.DOUBLE,
+                    pixelWidth, rotationX, 0, originX,
+                    rotationY, pixelHeight, 0, originY,
+                    0, 0, 0, 0,
+                    0, 0, 0, 1));
+        } else {
+            ifd.put(TiffEntry.ofDoubles(TiffTag.MODEL_PIXEL_SCALE, TiffType.DOUBLE, pixelWidth, -pixelHeight, 0));
+            ifd.put(TiffEntry.ofDoubles(TiffTag.MODEL_TIEPOINT, TiffType.DOUBLE, 0, 0, 0, originX, originY, 0));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.geotiff.back.global.tiff;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * 바이트 범위 단위로 읽을 수 있는 데이터 원본
+ * 로컬 파일과 S3 객체(ranged GET)를 같은 방식으로 파싱하기 위한 추상화입니다.
+ */
+@FunctionalInterface
+public interface RangeSource {
+
+    /**
+     * offset부터 length 바이트 읽기
+     * 데이터 끝을 넘는 범위는 읽을 수 있는 만큼만 반환합니다.
+     *
+     * @param offset 시작 위치
+     * @param length 읽을 바이트 수
+     * @return 읽은 바이트
+     * @throws IOException 읽기 실패 시
+     */
+    byte[] read(long offset, int length) throws IOException;
+
+    /**
+     * 메모리 배열 원본
+     */
+    static RangeSource of(byte[] data) {
+        return (offset, length) -> {
+            int from = (int) Math.min(offset, data.length);
+            return Arrays.copyOfRange(data, from, (int) Math.min((long) from + length, data.length));
+        };
+    }
+
+    /**
+     * 로컬 파일 채널 원본
+     */
+    static RangeSource of(FileChannel channel) {
+        return (offset, length) -> {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(0, Math.min(length, channel.size() - offset)));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            return Arrays.copyOf(buffer.array(), buffer.position());
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.geotiff.back.global.tiff;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * TIFF IFD 엔트리 (태그 하나)
+ * 정수형 타입은 longs, 실수형 타입은 doubles, ASCII 타입은 ascii에 값을 담습니다.
+ * 파일에서 읽은 분수형(RATIONAL/SRATIONAL) 값은 실수로 바꾼 값과 함께 원래의 분자/분모를 fractions에 보관하여,
+ * 다시 기록할 때 원래 값을 그대로 기록합니다.
+ *
+ * @param tag 태그 번호
+ * @param type 필드 타입 (TiffType)
+ * @param count 값 개수 (ASCII는 NUL 포함 바이트 수)
+ * @param longs 정수형 값
+ * @param doubles 실수형 값
+ * @param ascii 문자열 값
+ * @param fractions 분수형 값의 분자/분모 쌍 (값마다 2개, RATIONAL은 부호 없는 값, 없으면 null)
+ */
+public record TiffEntry(int tag, int type, long count, long[] longs, double[] doubles, String ascii,
+                        long[] fractions) {
+
+    public static TiffEntry ofLongs(int tag, int type, long... values) {
+        return new TiffEntry(tag, type, values.length, values, null, null, null);
+    }
+
+    public static TiffEntry ofDoubles(int tag, int type, double... values) {
+        return new TiffEntry(tag, type, values.length, null, values, null, null);
+    }
+
+    public static TiffEntry ofAscii(int tag, String value) {
+        return new TiffEntry(tag, TiffType.ASCII, value.getBytes(StandardCharsets.ISO_8859_1).length + 1L,
+                null, null, value, null);
+    }
+
+    /**
+     * 분수형 엔트리 생성
+     *
+     * @param type RATIONAL 또는 SRATIONAL
+     * @param fractions 분자/분모 쌍 (값마다 2개)
+     */
+    public static TiffEntry ofFractions(int tag, int type, long... fractions) {
+        double[] values = new double[fractions.length / 2];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = fractions[i * 2] / (double) fractions[i * 2 + 1];
+        }
+        return new TiffEntry(tag, type, values.length, null, values, null, fractions);
+    }
+
+    /**
+     * 인덱스 위치의 값을 정수로 반환
+     */
+    public long longAt(int index) {
+        return longs != null ? longs[index] : (long) doubles[index];
+    }
+
+    /**
+     * 모든 값을 실수 배열로 반환
+     */
+    public double[] asDoubles() {
+        if (doubles != null) {
+            return doubles;
+        }
+        double[] values = new double[longs.length];
+        for (int i = 0; i < longs.length; i++) {
+            values[i] = longs[i];
+        }
+        return values;
+    }
+}
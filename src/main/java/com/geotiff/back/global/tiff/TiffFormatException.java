@@ -0,0 +1,13 @@
+package com.geotiff.back.global.tiff;
+
+import java.io.IOException;
+
+/**
+ * TIFF 구조가 올바르지 않거나 지원하지 않는 형식일 때 발생하는 예외
+ */
+public class TiffFormatException extends IOException {
+
+    public TiffFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,186 @@
+package com.geotiff.back.global.tiff;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * TIFF IFD (Image File Directory)
+ * 하나의 이미지(원본 해상도, 오버뷰, 마스크 등)를 설명하는 태그 모음입니다.
+ * 태그는 번호 순으로 유지되어 그대로 다시 기록할 수 있습니다.
+ */
+public class TiffIfd {
+
+    private final long offset;
+    private final Map<Integer, TiffEntry> entries = new TreeMap<>();
+
+    /**
+     * 새로 기록할 IFD 생성
+     */
+    public TiffIfd() {
+        this(0);
+    }
+
+    /**
+     * 파일에서 읽은 IFD 생성
+     *
+     * @param offset 파일 내 IFD 시작 위치
+     */
+    public TiffIfd(long offset) {
+        this.offset = offset;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public Collection<TiffEntry> getEntries() {
+        return entries.values();
+    }
+
+    public TiffEntry get(int tag) {
+        return entries.get(tag);
+    }
+
+    public boolean has(int tag) {
+        return entries.containsKey(tag);
+    }
+
+    public TiffIfd put(TiffEntry entry) {
+        entries.put(entry.tag(), entry);
+        return this;
+    }
+
+    public TiffIfd remove(int tag) {
+        entries.remove(tag);
+        return this;
+    }
+
+    /**
+     * 태그의 첫 번째 값을 정수로 반환 (없으면 기본값)
+     */
+    public long getLong(int tag, long defaultValue) {
+        TiffEntry entry = entries.get(tag);
+        return entry != null && entry.count() > 0 && entry.ascii() == null ? entry.longAt(0) : defaultValue;
+    }
+
+    /**
+     * 필수 태그의 값 배열 반환
+     *
+     * @throws TiffFormatException 태그가 없는 경우
+     */
+    public long[] getLongs(int tag) throws TiffFormatException {
+        TiffEntry entry = require(tag);
+        if (entry.longs() == null) {
+            throw new TiffFormatException("정수형 태그가 아닙니다: " + tag);
+        }
+        return entry.longs();
+    }
+
+    /**
+     * 태그의 값을 실수 배열로 반환 (없으면 null)
+     */
+    public double[] getDoubles(int tag) {
+        TiffEntry entry = entries.get(tag);
+        return entry != null && entry.ascii() == null ? entry.asDoubles() : null;
+    }
+
+    /**
+     * ASCII 태그 값 반환 (없으면 null)
+     */
+    public String getAscii(int tag) {
+        TiffEntry entry = entries.get(tag);
+        return entry != null ? entry.ascii() : null;
+    }
+
+    public int getWidth() throws TiffFormatException {
+        return (int) require(TiffTag.IMAGE_WIDTH).longAt(0);
+    }
+
+    public int getHeight() throws TiffFormatException {
+        return (int) require(TiffTag.IMAGE_LENGTH).longAt(0);
+    }
+
+    public int getSamplesPerPixel() {
+        return (int) getLong(TiffTag.SAMPLES_PER_PIXEL, 1);
+    }
+
+    public int getBitsPerSample() {
+        return (int) getLong(TiffTag.BITS_PER_SAMPLE, 1);
+    }
+
+    public int getSampleFormat() {
+        return (int) getLong(TiffTag.SAMPLE_FORMAT, TiffTag.SAMPLE_FORMAT_UINT);
+    }
+
+    public int getCompression() {
+        return (int) getLong(TiffTag.COMPRESSION, TiffTag.COMPRESSION_NONE);
+    }
+
+    public int getPredictor() {
+        return (int) getLong(TiffTag.PREDICTOR, 1);
+    }
+
+    /**
+     * 밴드 저장 방식 (1: 픽셀 단위 인터리브, 2: 밴드별 분리)
+     */
+    public int getPlanarConfiguration() {
+        return (int) getLong(TiffTag.PLANAR_CONFIGURATION, 1);
+    }
+
+    public boolean isTiled() {
+        return has(TiffTag.TILE_WIDTH) && has(TiffTag.TILE_OFFSETS);
+    }
+
+    /**
+     * 축소 해상도(오버뷰) 이미지 여부
+     */
+    public boolean isOverview() {
+        return (getLong(TiffTag.NEW_SUBFILE_TYPE, 0) & TiffTag.SUBFILE_REDUCED_RESOLUTION) != 0;
+    }
+
+    /**
+     * 투명도 마스크 이미지 여부
+     */
+    public boolean isMask() {
+        return (getLong(TiffTag.NEW_SUBFILE_TYPE, 0) & TiffTag.SUBFILE_MASK) != 0;
+    }
+
+    public int getTileWidth() throws TiffFormatException {
+        return (int) require(TiffTag.TILE_WIDTH).longAt(0);
+    }
+
+    public int getTileLength() throws TiffFormatException {
+        return (int) require(TiffTag.TILE_LENGTH).longAt(0);
+    }
+
+    /**
+     * 가로 방향 타일 수
+     */
+    public int getTilesAcross() throws TiffFormatException {
+        return (getWidth() + getTileWidth() - 1) / getTileWidth();
+    }
+
+    /**
+     * 세로 방향 타일 수
+     */
+    public int getTilesDown() throws TiffFormatException {
+        return (getHeight() + getTileLength() - 1) / getTileLength();
+    }
+
+    public long[] getTileOffsets() throws TiffFormatException {
+        return getLongs(TiffTag.TILE_OFFSETS);
+    }
+
+    public long[] getTileByteCounts() throws TiffFormatException {
+        return getLongs(TiffTag.TILE_BYTE_COUNTS);
+    }
+
+    private TiffEntry require(int tag) throws TiffFormatException {
+        TiffEntry entry = entries.get(tag);
+        if (entry == null) {
+            throw new TiffFormatException("필수 TIFF 태그가 없습니다: " + tag);
+        }
+        return entry;
+    }
+}
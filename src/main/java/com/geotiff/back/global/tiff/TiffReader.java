@@ -0,0 +1,210 @@
+package com.geotiff.back.global.tiff;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * TIFF/BigTIFF 헤더 및 IFD 체인 파서
+ * 픽셀 데이터는 읽지 않고 구조 정보만 파싱합니다.
+ * COG는 모든 IFD가 파일 앞부분에 모여 있으므로, 앞부분을 한 번에 읽어 두고(prefetch)
+ * 그 범위를 벗어나는 값만 추가로 읽어 S3 ranged GET 요청 수를 최소화합니다.
+ */
+public final class TiffReader {
+
+    /**
+     * 기본 선행 읽기 크기 (일반적인 COG 헤더 전체를 포함)
+     */
+    public static final int DEFAULT_PREFETCH_BYTES = 64 * 1024;
+
+    private static final int CLASSIC_MAGIC = 42;
+    private static final int BIG_TIFF_MAGIC = 43;
+
+    private TiffReader() {
+    }
+
+    public static TiffStructure read(RangeSource source) throws IOException {
+        return read(source, DEFAULT_PREFETCH_BYTES);
+    }
+
+    /**
+     * TIFF 구조 파싱
+     *
+     * @param source 데이터 원본
+     * @param prefetchBytes 처음에 한 번에 읽어 둘 바이트 수
+     * @return 헤더와 IFD 체인 정보
+     * @throws IOException 읽기 실패 또는 TIFF 형식이 아닌 경우
+     */
+    public static TiffStructure read(RangeSource source, int prefetchBytes) throws IOException {
+        PrefetchedSource prefetched = new PrefetchedSource(source, Math.max(prefetchBytes, 16));
+        ByteBuffer header = prefetched.buffer(0, 16, ByteOrder.LITTLE_ENDIAN);
+
+        ByteOrder byteOrder = switch (header.getShort(0)) {
+            case 0x4949 -> ByteOrder.LITTLE_ENDIAN; // "II"
+            case 0x4D4D -> ByteOrder.BIG_ENDIAN; // "MM"
+            default -> throw new TiffFormatException("TIFF 파일이 아닙니다 (바이트 순서 표시 없음)");
+        };
+        header.order(byteOrder);
+
+        int magic = header.getShort(2) & 0xFFFF;
+        boolean bigTiff;
+        long ifdOffset;
+        if (magic == CLASSIC_MAGIC) {
+            bigTiff = false;
+            ifdOffset = header.getInt(4) & 0xFFFFFFFFL;
+        } else if (magic == BIG_TIFF_MAGIC) {
+            bigTiff = true;
+            ifdOffset = header.getLong(8);
+        } else {
+            throw new TiffFormatException("TIFF 파일이 아닙니다 (매직 넘버: " + magic + ")");
+        }
+
+        List<TiffIfd> ifds = new ArrayList<>();
+        // 순환 참조된 IFD 체인 방지
+        Set<Long> visited = new HashSet<>();
+        while (ifdOffset != 0) {
+            if (!visited.add(ifdOffset)) {
+                throw new TiffFormatException("IFD 체인에 순환이 있습니다: " + ifdOffset);
+            }
+            TiffIfd ifd = new TiffIfd(ifdOffset);
+            ifdOffset = readIfd(prefetched, byteOrder, bigTiff, ifd);
+            ifds.add(ifd);
+        }
+
+        if (ifds.isEmpty()) {
+            throw new TiffFormatException("IFD가 없는 TIFF 파일입니다");
+        }
+        return new TiffStructure(byteOrder, bigTiff, List.copyOf(ifds));
+    }
+
+    /**
+     * IFD 하나를 읽어 엔트리를 채우고 다음 IFD 위치를 반환
+     */
+    private static long readIfd(PrefetchedSource source, ByteOrder byteOrder, boolean bigTiff, TiffIfd ifd)
+            throws IOException {
+        int countSize = bigTiff ? 8 : 2;
+        int entrySize = bigTiff ? 20 : 12;
+        int valueFieldSize = bigTiff ? 8 : 4;
+
+        ByteBuffer countBuffer = source.buffer(ifd.getOffset(), countSize, byteOrder);
+        long entryCount = bigTiff ? countBuffer.getLong(0) : countBuffer.getShort(0) & 0xFFFF;
+        if (entryCount <= 0 || entryCount > 4096) {
+            throw new TiffFormatException("잘못된 IFD 엔트리 수: " + entryCount);
+        }
+
+        int tableSize = (int) entryCount * entrySize + valueFieldSize;
+        ByteBuffer table = source.buffer(ifd.getOffset() + countSize, tableSize, byteOrder);
+
+        for (int i = 0; i < entryCount; i++) {
+            int position = i * entrySize;
+            int tag = table.getShort(position) & 0xFFFF;
+            int type = table.getShort(position + 2) & 0xFFFF;
+            long count = bigTiff ? table.getLong(position + 4) : table.getInt(position + 4) & 0xFFFFFFFFL;
+            int valuePosition = position + (bigTiff ? 12 : 8);
+
+            int typeSize;
+            try {
+                typeSize = TiffType.sizeOf(type);
+            } catch (TiffFormatException e) {
+                // 알 수 없는 타입의 태그는 건너뜀 (TIFF 명세 권고)
+                continue;
+            }
+
+            long byteLength = count * typeSize;
+            if (byteLength > Integer.MAX_VALUE) {
+                throw new TiffFormatException("태그 값이 너무 큽니다: 태그=" + tag + ", 크기=" + byteLength);
+            }
+
+            ByteBuffer values;
+            if (byteLength <= valueFieldSize) {
+                // 값이 엔트리 안에 직접 기록된 경우
+                values = table.slice(valuePosition, valueFieldSize).order(byteOrder);
+            } else {
+                long valueOffset = bigTiff ? table.getLong(valuePosition) : table.getInt(valuePosition) & 0xFFFFFFFFL;
+                values = source.buffer(valueOffset, (int) byteLength, byteOrder);
+            }
+            ifd.put(decode(tag, type, (int) count, values));
+        }
+
+        return bigTiff ? table.getLong((int) entryCount * entrySize)
+                : table.getInt((int) entryCount * entrySize) & 0xFFFFFFFFL;
+    }
+
+    private static TiffEntry decode(int tag, int type, int count, ByteBuffer values) {
+        if (type == TiffType.ASCII) {
+            byte[] bytes = new byte[count];
+            values.get(0, bytes);
+            // NUL 종료 문자 제거
+            int length = 0;
+            while (length < bytes.length && bytes[length] != 0) {
+                length++;
+            }
+            return new TiffEntry(tag, type, count, null, null, new String(bytes, 0, length, StandardCharsets.ISO_8859_1),
+                    null);
+        }
+
+        if (type == TiffType.RATIONAL || type == TiffType.SRATIONAL) {
+            // 분자/분모를 그대로 보관 (다시 기록할 때 실수로 바꿨다 되돌리며 생기는 오차가 없도록)
+            long[] fractions = new long[count * 2];
+            for (int i = 0; i < fractions.length; i++) {
+                fractions[i] = type == TiffType.RATIONAL ? values.getInt(i * 4) & 0xFFFFFFFFL : values.getInt(i * 4);
+            }
+            return TiffEntry.ofFractions(tag, type, fractions);
+        }
+
+        if (TiffType.isFloating(type)) {
+            double[] doubles = new double[count];
+            for (int i = 0; i < count; i++) {
+                doubles[i] = switch (type) {
+                    case TiffType.FLOAT -> values.getFloat(i * 4);
+                    default -> values.getDouble(i * 8);
+                };
+            }
+            return new TiffEntry(tag, type, count, null, doubles, null, null);
+        }
+
+        long[] longs = new long[count];
+        for (int i = 0; i < count; i++) {
+            longs[i] = switch (type) {
+                case TiffType.BYTE, TiffType.UNDEFINED -> values.get(i) & 0xFFL;
+                case TiffType.SBYTE -> values.get(i);
+                case TiffType.SHORT -> values.getShort(i * 2) & 0xFFFFL;
+                case TiffType.SSHORT -> values.getShort(i * 2);
+                case TiffType.LONG, TiffType.IFD -> values.getInt(i * 4) & 0xFFFFFFFFL;
+                case TiffType.SLONG -> values.getInt(i * 4);
+                default -> values.getLong(i * 8);
+            };
+        }
+        return new TiffEntry(tag, type, count, longs, null, null, null);
+    }
+
+    /**
+     * 앞부분을 한 번에 읽어 두고, 그 범위 밖의 요청만 원본에서 읽는 래퍼
+     */
+    private static final class PrefetchedSource {
+
+        private final RangeSource source;
+        private final byte[] prefix;
+
+        private PrefetchedSource(RangeSource source, int prefetchBytes) throws IOException {
+            this.source = source;
+            this.prefix = source.read(0, prefetchBytes);
+        }
+
+        private ByteBuffer buffer(long offset, int length, ByteOrder byteOrder) throws IOException {
+            if (offset + length <= prefix.length) {
+                return ByteBuffer.wrap(prefix, (int) offset, length).slice().order(byteOrder);
+            }
+            byte[] bytes = source.read(offset, length);
+            if (bytes.length < length) {
+                throw new TiffFormatException("TIFF 데이터가 예상보다 짧습니다: 위치=" + offset + ", 길이=" + length);
+            }
+            return ByteBuffer.wrap(bytes).order(byteOrder);
+        }
+    }
+}
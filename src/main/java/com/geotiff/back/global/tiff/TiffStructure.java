@@ -0,0 +1,31 @@
+package com.geotiff.back.global.tiff;
+
+import java.nio.ByteOrder;
+import java.util.List;
+
+/**
+ * TIFF 파일 구조 (헤더와 IFD 체인)
+ *
+ * @param byteOrder 바이트 순서
+ * @param bigTiff BigTIFF 여부
+ * @param ifds 파일에 기록된 순서대로의 IFD 목록
+ */
+public record TiffStructure(ByteOrder byteOrder, boolean bigTiff, List<TiffIfd> ifds) {
+
+    /**
+     * 원본 해상도 이미지 IFD
+     */
+    public TiffIfd primary() {
+        return ifds.get(0);
+    }
+
+    /**
+     * 오버뷰 IFD 목록 (마스크 제외, 파일에 기록된 순서)
+     */
+    public List<TiffIfd> overviews() {
+        return ifds.stream()
+                .filter(TiffIfd::isOverview)
+                .filter(ifd -> !ifd.isMask())
+                .toList();
+    }
+}
@@ -0,0 +1,62 @@
+package com.geotiff.back.global.tiff;
+
+/**
+ * TIFF/GeoTIFF 태그 번호 상수
+ */
+public final class TiffTag {
+
+    public static final int NEW_SUBFILE_TYPE = 254;
+    public static final int IMAGE_WIDTH = 256;
+    public static final int IMAGE_LENGTH = 257;
+    public static final int BITS_PER_SAMPLE = 258;
+    public static final int COMPRESSION = 259;
+    public static final int PHOTOMETRIC_INTERPRETATION = 262;
+    public static final int STRIP_OFFSETS = 273;
+    public static final int SAMPLES_PER_PIXEL = 277;
+    public static final int ROWS_PER_STRIP = 278;
+    public static final int STRIP_BYTE_COUNTS = 279;
+    public static final int X_RESOLUTION = 282;
+    public static final int Y_RESOLUTION = 283;
+    public static final int PLANAR_CONFIGURATION = 284;
+    public static final int PREDICTOR = 317;
+    public static final int TILE_WIDTH = 322;
+    public static final int TILE_LENGTH = 323;
+    public static final int TILE_OFFSETS = 324;
+    public static final int TILE_BYTE_COUNTS = 325;
+    public static final int EXTRA_SAMPLES = 338;
+    public static final int SAMPLE_FORMAT = 339;
+
+    // GeoTIFF
+    public static final int MODEL_PIXEL_SCALE = 33550;
+    public static final int MODEL_TIEPOINT = 33922;
+    public static final int MODEL_TRANSFORMATION = 34264;
+    public static final int GEO_KEY_DIRECTORY = 34735;
+    public static final int GEO_DOUBLE_PARAMS = 34736;
+    public static final int GEO_ASCII_PARAMS = 34737;
+
+    // GDAL
+    public static final int GDAL_METADATA = 42112;
+    public static final int GDAL_NODATA = 42113;
+
+    // 압축 방식 (Compression 태그 값)
+    public static final int COMPRESSION_NONE = 1;
+    public static final int COMPRESSION_LZW = 5;
+    public static final int COMPRESSION_JPEG = 7;
+    public static final int COMPRESSION_DEFLATE = 8;
+    public static final int COMPRESSION_ADOBE_DEFLATE = 32946;
+    public static final int COMPRESSION_LERC = 34887;
+    public static final int COMPRESSION_ZSTD = 50000;
+    public static final int COMPRESSION_WEBP = 50001;
+
+    // NewSubfileType 비트
+    public static final int SUBFILE_REDUCED_RESOLUTION = 1;
+    public static final int SUBFILE_MASK = 4;
+
+    // SampleFormat 태그 값
+    public static final int SAMPLE_FORMAT_UINT = 1;
+    public static final int SAMPLE_FORMAT_INT = 2;
+    public static final int SAMPLE_FORMAT_FLOAT = 3;
+
+    private TiffTag() {
+    }
+}
@@ -0,0 +1,51 @@
+package com.geotiff.back.global.tiff;
+
+/**
+ * TIFF 필드 타입 상수
+ */
+public final class TiffType {
+
+    public static final int BYTE = 1;
+    public static final int ASCII = 2;
+    public static final int SHORT = 3;
+    public static final int LONG = 4;
+    public static final int RATIONAL = 5;
+    public static final int SBYTE = 6;
+    public static final int UNDEFINED = 7;
+    public static final int SSHORT = 8;
+    public static final int SLONG = 9;
+    public static final int SRATIONAL = 10;
+    public static final int FLOAT = 11;
+    public static final int DOUBLE = 12;
+    public static final int IFD = 13;
+    public static final int LONG8 = 16;
+    public static final int SLONG8 = 17;
+    public static final int IFD8 = 18;
+
+    private TiffType() {
+    }
+
+    /**
+     * 타입 하나의 값이 차지하는 바이트 수
+     *
+     * @param type 필드 타입
+     * @return 바이트 수
+     * @throws TiffFormatException 알 수 없는 타입인 경우
+     */
+    public static int sizeOf(int type) throws TiffFormatException {
+        return switch (type) {
+            case BYTE, ASCII, SBYTE, UNDEFINED -> 1;
+            case SHORT, SSHORT -> 2;
+            case LONG, SLONG, FLOAT, IFD -> 4;
+            case RATIONAL, SRATIONAL, DOUBLE, LONG8, SLONG8, IFD8 -> 8;
+            default -> throw new TiffFormatException("지원하지 않는 TIFF 필드 타입: " + type);
+        };
+    }
+
+    /**
+     * 실수형(분수 포함) 타입 여부
+     */
+    public static boolean isFloating(int type) {
+        return type == RATIONAL || type == SRATIONAL || type == FLOAT || type == DOUBLE;
+    }
+}
@@ -0,0 +1,296 @@
+package com.geotiff.back.global.tiff;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * TIFF/BigTIFF 헤더 및 IFD 체인 인코더
+ * 헤더 뒤에 IFD와 각 IFD의 태그 값 영역을 순서대로 배치하여, 모든 구조 정보가 파일 앞부분에 모이도록 기록합니다.
+ * 픽셀 데이터는 호출하는 쪽에서 헤더 뒤에 직접 이어서 기록합니다.
+ *
+ * <p>타일/스트립 위치 태그의 값은 헤더 크기에 따라 달라지므로, 먼저 값 개수만 맞춘 IFD로
+ * {@link #headerSize}를 계산한 뒤 실제 위치를 채워 {@link #encode}를 호출합니다.
+ * 값 개수가 같으면 헤더 크기도 같습니다.</p>
+ */
+public final class TiffWriter {
+
+    /**
+     * 클래식 TIFF로 표현할 수 있는 최대 파일 크기
+     */
+    public static final long MAX_CLASSIC_TIFF_BYTES = 0xFFFFFFFFL;
+
+    private TiffWriter() {
+    }
+
+    /**
+     * 파일 크기에 따라 BigTIFF가 필요한지 판단
+     *
+     * @param totalBytes 헤더와 픽셀 데이터를 합친 예상 파일 크기
+     */
+    public static boolean requiresBigTiff(long totalBytes) {
+        return totalBytes > MAX_CLASSIC_TIFF_BYTES;
+    }
+
+    /**
+     * 헤더와 IFD 체인(값 영역 포함)이 차지하는 바이트 수
+     *
+     * @param ifds 기록할 IFD 목록 (기록 순서)
+     * @param bigTiff BigTIFF 여부
+     * @return 픽셀 데이터가 시작될 수 있는 첫 위치
+     * @throws TiffFormatException 알 수 없는 필드 타입이 있는 경우
+     */
+    public static int headerSize(List<TiffIfd> ifds, boolean bigTiff) throws TiffFormatException {
+        return headerSize(ifds, bigTiff, new byte[0]);
+    }
+
+    /**
+     * 헤더, 고스트 영역, IFD 체인(값 영역 포함)이 차지하는 바이트 수
+     *
+     * @param ifds 기록할 IFD 목록 (기록 순서)
+     * @param bigTiff BigTIFF 여부
+     * @param ghostArea 헤더 바로 뒤에 기록할 GDAL 구조 메타데이터 (없으면 빈 배열)
+     * @return 픽셀 데이터가 시작될 수 있는 첫 위치
+     * @throws TiffFormatException 알 수 없는 필드 타입이 있는 경우
+     */
+    public static int headerSize(List<TiffIfd> ifds, boolean bigTiff, byte[] ghostArea) throws TiffFormatException {
+        long size = (bigTiff ? 16 : 8) + ghostArea.length + (ghostArea.length & 1);
+        for (TiffIfd ifd : ifds) {
+            size += ifdSize(ifd, bigTiff);
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new TiffFormatException("TIFF 헤더가 너무 큽니다: " + size);
+        }
+        return (int) size;
+    }
+
+    /**
+     * 헤더와 IFD 체인 인코딩
+     *
+     * @param ifds 기록할 IFD 목록 (기록 순서, 서로 다음 IFD로 연결됨)
+     * @param byteOrder 바이트 순서
+     * @param bigTiff BigTIFF 여부
+     * @return 읽기 위치가 0이고 limit가 헤더 크기인 버퍼
+     * @throws TiffFormatException 값이 타입 범위를 벗어나는 경우
+     */
+    public static ByteBuffer encode(List<TiffIfd> ifds, ByteOrder byteOrder, boolean bigTiff)
+            throws TiffFormatException {
+        return encode(ifds, byteOrder, bigTiff, new byte[0]);
+    }
+
+    /**
+     * 헤더, 고스트 영역, IFD 체인 인코딩
+     * 고스트 영역은 GDAL이 COG 배치 정보를 기록하는 헤더 바로 뒤의 텍스트 블록으로, 첫 IFD는 그 뒤에 옵니다.
+     *
+     * @param ifds 기록할 IFD 목록 (기록 순서, 서로 다음 IFD로 연결됨)
+     * @param byteOrder 바이트 순서
+     * @param bigTiff BigTIFF 여부
+     * @param ghostArea 헤더 바로 뒤에 기록할 GDAL 구조 메타데이터 (없으면 빈 배열)
+     * @return 읽기 위치가 0이고 limit가 헤더 크기인 버퍼
+     * @throws TiffFormatException 값이 타입 범위를 벗어나는 경우
+     */
+    public static ByteBuffer encode(List<TiffIfd> ifds, ByteOrder byteOrder, boolean bigTiff, byte[] ghostArea)
+            throws TiffFormatException {
+        ByteBuffer buffer = ByteBuffer.allocate(headerSize(ifds, bigTiff, ghostArea)).order(byteOrder);
+        int firstIfd = (bigTiff ? 16 : 8) + ghostArea.length + (ghostArea.length & 1);
+
+        // 헤더
+        buffer.put(byteOrder == ByteOrder.LITTLE_ENDIAN ? (byte) 'I' : (byte) 'M');
+        buffer.put(byteOrder == ByteOrder.LITTLE_ENDIAN ? (byte) 'I' : (byte) 'M');
+        if (bigTiff) {
+            buffer.putShort((short) 43).putShort((short) 8).putShort((short) 0).putLong(firstIfd);
+        } else {
+            buffer.putShort((short) 42).putInt(firstIfd);
+        }
+        buffer.put(ghostArea);
+        buffer.position(firstIfd);
+
+        for (int i = 0; i < ifds.size(); i++) {
+            TiffIfd ifd = ifds.get(i);
+            long ifdStart = buffer.position();
+            long nextIfd = i + 1 < ifds.size() ? ifdStart + ifdSize(ifd, bigTiff) : 0;
+            writeIfd(buffer, ifd, bigTiff, ifdStart, nextIfd);
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+
+    private static long ifdSize(TiffIfd ifd, boolean bigTiff) throws TiffFormatException {
+        int entrySize = bigTiff ? 20 : 12;
+        int valueFieldSize = bigTiff ? 8 : 4;
+        long size = (bigTiff ? 8 : 2) + (long) ifd.getEntries().size() * entrySize + valueFieldSize;
+        for (TiffEntry entry : ifd.getEntries()) {
+            long byteLength = byteLength(entry, bigTiff);
+            if (byteLength > valueFieldSize) {
+                // 값 영역은 워드(2바이트) 경계에 맞춤
+                size += byteLength + (byteLength & 1);
+            }
+        }
+        return size;
+    }
+
+    private static void writeIfd(ByteBuffer buffer, TiffIfd ifd, boolean bigTiff, long ifdStart, long nextIfd)
+            throws TiffFormatException {
+        int entrySize = bigTiff ? 20 : 12;
+        int valueFieldSize = bigTiff ? 8 : 4;
+        int entryCount = ifd.getEntries().size();
+        long valuesStart = ifdStart + (bigTiff ? 8 : 2) + (long) entryCount * entrySize + valueFieldSize;
+
+        if (bigTiff) {
+            buffer.putLong(entryCount);
+        } else {
+            buffer.putShort((short) entryCount);
+        }
+
+        // 엔트리 테이블 (태그 번호 순), 값 영역에 기록할 위치를 함께 계산
+        long valuePosition = valuesStart;
+        for (TiffEntry entry : ifd.getEntries()) {
+            int type = storedType(entry.type(), bigTiff);
+            long byteLength = byteLength(entry, bigTiff);
+
+            buffer.putShort((short) entry.tag()).putShort((short) type);
+            if (bigTiff) {
+                buffer.putLong(entry.count());
+            } else {
+                buffer.putInt((int) entry.count());
+            }
+
+            int fieldStart = buffer.position();
+            if (byteLength <= valueFieldSize) {
+                // 값이 엔트리 안에 직접 들어가는 경우
+                putValues(buffer, entry, type, bigTiff);
+            } else {
+                if (bigTiff) {
+                    buffer.putLong(valuePosition);
+                } else {
+                    buffer.putInt((int) valuePosition);
+                }
+                valuePosition += byteLength + (byteLength & 1);
+            }
+            buffer.position(fieldStart + valueFieldSize);
+        }
+
+        if (bigTiff) {
+            buffer.putLong(nextIfd);
+        } else {
+            buffer.putInt((int) nextIfd);
+        }
+
+        // 값 영역
+        buffer.position((int) valuesStart);
+        for (TiffEntry entry : ifd.getEntries()) {
+            long byteLength = byteLength(entry, bigTiff);
+            if (byteLength > valueFieldSize) {
+                putValues(buffer, entry, storedType(entry.type(), bigTiff), bigTiff);
+                if ((byteLength & 1) != 0) {
+                    buffer.put((byte) 0);
+                }
+            }
+        }
+    }
+
+    private static void putValues(ByteBuffer buffer, TiffEntry entry, int type, boolean bigTiff)
+            throws TiffFormatException {
+        if (type == TiffType.ASCII) {
+            byte[] bytes = entry.ascii().getBytes(StandardCharsets.ISO_8859_1);
+            for (int i = 0; i < entry.count(); i++) {
+                buffer.put(i < bytes.length ? bytes[i] : 0);
+            }
+            return;
+        }
+
+        for (int i = 0; i < entry.count(); i++) {
+            switch (type) {
+                case TiffType.BYTE, TiffType.SBYTE, TiffType.UNDEFINED -> buffer.put((byte) entry.longAt(i));
+                case TiffType.SHORT, TiffType.SSHORT -> buffer.putShort((short) entry.longAt(i));
+                case TiffType.LONG, TiffType.SLONG, TiffType.IFD -> {
+                    long value = entry.longAt(i);
+                    if (!bigTiff && type != TiffType.SLONG && (value < 0 || value > MAX_CLASSIC_TIFF_BYTES)) {
+                        throw new TiffFormatException("클래식 TIFF 범위를 벗어난 값입니다: 태그=" + entry.tag() + ", 값=" + value);
+                    }
+                    buffer.putInt((int) value);
+                }
+                case TiffType.LONG8, TiffType.SLONG8, TiffType.IFD8 -> buffer.putLong(entry.longAt(i));
+                case TiffType.FLOAT -> buffer.putFloat((float) entry.asDoubles()[i]);
+                case TiffType.DOUBLE -> buffer.putDouble(entry.asDoubles()[i]);
+                case TiffType.RATIONAL, TiffType.SRATIONAL -> {
+                    // 읽은 분수는 분자/분모를 그대로 기록하고, 실수로만 주어진 값은 32비트 안에서 가장 가까운 분수로 기록
+                    // (RATIONAL의 분자/분모는 부호 없는 32비트이므로 int로 바꿔도 비트는 그대로)
+                    long[] fraction = entry.fractions() != null
+                            ? new long[]{entry.fractions()[i * 2], entry.fractions()[i * 2 + 1]}
+                            : toFraction(entry.asDoubles()[i], type == TiffType.SRATIONAL, entry.tag());
+                    buffer.putInt((int) fraction[0]);
+                    buffer.putInt((int) fraction[1]);
+                }
+                default -> throw new TiffFormatException("지원하지 않는 TIFF 필드 타입: " + type);
+            }
+        }
+    }
+
+    /**
+     * 실수를 32비트 분자/분모로 표현할 수 있는 가장 가까운 분수로 변환 (연분수 전개)
+     * RATIONAL은 분자/분모가 부호 없는 32비트, SRATIONAL은 부호 있는 32비트입니다.
+     *
+     * @return 분자, 분모
+     * @throws TiffFormatException 범위를 벗어나거나 음수를 RATIONAL로 기록하려는 경우
+     */
+    static long[] toFraction(double value, boolean signed, int tag) throws TiffFormatException {
+        long limit = signed ? Integer.MAX_VALUE : 0xFFFFFFFFL;
+        double magnitude = Math.abs(value);
+        if (!Double.isFinite(value) || (!signed && value < 0) || magnitude > limit) {
+            throw new TiffFormatException("분수형 태그로 기록할 수 없는 값입니다: 태그=" + tag + ", 값=" + value);
+        }
+
+        // 연분수의 수렴값을 분자/분모가 범위를 넘기 직전까지 계산
+        long previousNumerator = 0;
+        long previousDenominator = 1;
+        long numerator = 1;
+        long denominator = 0;
+        double remainder = magnitude;
+        while (true) {
+            long term = (long) Math.floor(remainder);
+            long nextNumerator;
+            long nextDenominator;
+            try {
+                nextNumerator = Math.addExact(Math.multiplyExact(term, numerator), previousNumerator);
+                nextDenominator = Math.addExact(Math.multiplyExact(term, denominator), previousDenominator);
+            } catch (ArithmeticException e) {
+                break;
+            }
+            if (nextNumerator > limit || nextDenominator > limit) {
+                break;
+            }
+            previousNumerator = numerator;
+            previousDenominator = denominator;
+            numerator = nextNumerator;
+            denominator = nextDenominator;
+            double fractional = remainder - term;
+            if (fractional == 0 || (double) numerator / denominator == magnitude) {
+                break;
+            }
+            remainder = 1 / fractional;
+        }
+        return new long[]{value < 0 ? -numerator : numerator, denominator};
+    }
+
+    /**
+     * 클래식 TIFF에서는 64비트 정수 타입을 32비트 타입으로 바꿔 기록
+     */
+    private static int storedType(int type, boolean bigTiff) {
+        if (bigTiff) {
+            return type;
+        }
+        return switch (type) {
+            case TiffType.LONG8 -> TiffType.LONG;
+            case TiffType.SLONG8 -> TiffType.SLONG;
+            case TiffType.IFD8 -> TiffType.IFD;
+            default -> type;
+        };
+    }
+
+    private static long byteLength(TiffEntry entry, boolean bigTiff) throws TiffFormatException {
+        return entry.count() * TiffType.sizeOf(storedType(entry.type(), bigTiff));
+    }
+}
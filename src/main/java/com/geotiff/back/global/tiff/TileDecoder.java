@@ -0,0 +1,223 @@
+package com.geotiff.back.global.tiff;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * 타일(또는 스트립) 압축 해제 및 예측기(predictor) 복원
+ * 지원 압축: 비압축, Deflate, LZW / 지원 예측기: 없음(1), 수평 차분(2), 부동소수점(3)
+ */
+public final class TileDecoder {
+
+    private static final int LZW_CLEAR = 256;
+    private static final int LZW_END = 257;
+    private static final int LZW_FIRST = 258;
+    private static final int LZW_MAX_CODES = 4096;
+
+    private TileDecoder() {
+    }
+
+    /**
+     * 타일 하나를 픽셀 바이트로 복원
+     *
+     * @param data 파일에 기록된 타일 데이터
+     * @param compression 압축 방식 (TiffTag.COMPRESSION_*)
+     * @param predictor 예측기 (1: 없음, 2: 수평 차분, 3: 부동소수점)
+     * @param width 타일 너비
+     * @param height 타일 높이
+     * @param samples 픽셀당 샘플 수 (밴드 분리 저장이면 1)
+     * @param bytesPerSample 샘플당 바이트 수
+     * @param byteOrder 파일 바이트 순서
+     * @return width * height * samples * bytesPerSample 크기의 픽셀 데이터
+     * @throws TiffFormatException 지원하지 않는 압축/예측기이거나 데이터가 손상된 경우
+     */
+    public static byte[] decode(byte[] data, int compression, int predictor, int width, int height,
+                                int samples, int bytesPerSample, ByteOrder byteOrder) throws TiffFormatException {
+        int expected = width * height * samples * bytesPerSample;
+        byte[] pixels = switch (compression) {
+            case TiffTag.COMPRESSION_NONE -> Arrays.copyOf(data, expected);
+            case TiffTag.COMPRESSION_DEFLATE, TiffTag.COMPRESSION_ADOBE_DEFLATE -> inflate(data, expected);
+            case TiffTag.COMPRESSION_LZW -> lzw(data, expected);
+            default -> throw new TiffFormatException("지원하지 않는 압축 방식입니다: " + compression);
+        };
+
+        switch (predictor) {
+            case 1 -> {
+            }
+            case 2 -> undoHorizontal(pixels, width, height, samples, bytesPerSample, byteOrder);
+            case 3 -> undoFloatingPoint(pixels, width, height, samples, bytesPerSample, byteOrder);
+            default -> throw new TiffFormatException("지원하지 않는 예측기입니다: " + predictor);
+        }
+        return pixels;
+    }
+
+    private static byte[] inflate(byte[] data, int expected) throws TiffFormatException {
+        byte[] pixels = new byte[expected];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            int position = 0;
+            while (position < expected && !inflater.finished()) {
+                int inflated = inflater.inflate(pixels, position, expected - position);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                position += inflated;
+            }
+            return pixels;
+        } catch (DataFormatException e) {
+            throw new TiffFormatException("Deflate 데이터가 손상되었습니다: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * TIFF LZW 해제 (MSB 우선 비트 순서, 9~12비트 가변 코드, early change)
+     */
+    private static byte[] lzw(byte[] data, int expected) throws TiffFormatException {
+        byte[] pixels = new byte[expected];
+        int[] prefix = new int[LZW_MAX_CODES];
+        byte[] suffix = new byte[LZW_MAX_CODES];
+        byte[] first = new byte[LZW_MAX_CODES];
+        int[] length = new int[LZW_MAX_CODES];
+        for (int i = 0; i < 256; i++) {
+            prefix[i] = -1;
+            suffix[i] = (byte) i;
+            first[i] = (byte) i;
+            length[i] = 1;
+        }
+
+        int next = LZW_FIRST;
+        int codeLength = 9;
+        int previous = -1;
+        int position = 0;
+        long bitBuffer = 0;
+        int bitCount = 0;
+        int input = 0;
+
+        while (position < expected) {
+            // 다음 코드 읽기
+            while (bitCount < codeLength && input < data.length) {
+                bitBuffer = (bitBuffer << 8) | (data[input++] & 0xFF);
+                bitCount += 8;
+            }
+            if (bitCount < codeLength) {
+                break;
+            }
+            int code = (int) ((bitBuffer >>> (bitCount - codeLength)) & ((1 << codeLength) - 1));
+            bitCount -= codeLength;
+
+            if (code == LZW_END) {
+                break;
+            }
+            if (code == LZW_CLEAR) {
+                next = LZW_FIRST;
+                codeLength = 9;
+                previous = -1;
+                continue;
+            }
+
+            if (previous < 0) {
+                if (code > 255) {
+                    throw new TiffFormatException("LZW 데이터가 손상되었습니다 (초기 코드: " + code + ")");
+                }
+                pixels[position++] = (byte) code;
+                previous = code;
+                continue;
+            }
+
+            if (code > next) {
+                throw new TiffFormatException("LZW 데이터가 손상되었습니다 (코드: " + code + ")");
+            }
+            if (next < LZW_MAX_CODES) {
+                // 새 항목: 이전 문자열 + (현재 문자열 또는 이전 문자열)의 첫 바이트
+                prefix[next] = previous;
+                suffix[next] = code < next ? first[code] : first[previous];
+                first[next] = first[previous];
+                length[next] = length[previous] + 1;
+                next++;
+            }
+
+            // 현재 코드의 문자열을 뒤에서부터 기록
+            int stringLength = length[code];
+            int end = Math.min(position + stringLength, expected);
+            int cursor = code;
+            for (int i = position + stringLength - 1; i >= position; i--) {
+                if (i < end) {
+                    pixels[i] = suffix[cursor];
+                }
+                cursor = prefix[cursor];
+            }
+            position = end;
+            previous = code;
+
+            // early change: 코드 표가 현재 길이의 최대값보다 하나 작아지면 길이 증가
+            if (next >= (1 << codeLength) - 1 && codeLength < 12) {
+                codeLength++;
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * 수평 차분 예측기 복원 (같은 샘플끼리 왼쪽 픽셀 값을 누적)
+     */
+    private static void undoHorizontal(byte[] pixels, int width, int height, int samples, int bytesPerSample,
+                                       ByteOrder byteOrder) throws TiffFormatException {
+        int rowValues = width * samples;
+        if (bytesPerSample == 1) {
+            for (int y = 0; y < height; y++) {
+                int rowStart = y * rowValues;
+                for (int i = samples; i < rowValues; i++) {
+                    pixels[rowStart + i] += pixels[rowStart + i - samples];
+                }
+            }
+            return;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(pixels).order(byteOrder);
+        for (int y = 0; y < height; y++) {
+            int rowStart = y * rowValues;
+            for (int i = samples; i < rowValues; i++) {
+                int index = (rowStart + i) * bytesPerSample;
+                int left = (rowStart + i - samples) * bytesPerSample;
+                switch (bytesPerSample) {
+                    case 2 -> buffer.putShort(index, (short) (buffer.getShort(index) + buffer.getShort(left)));
+                    case 4 -> buffer.putInt(index, buffer.getInt(index) + buffer.getInt(left));
+                    case 8 -> buffer.putLong(index, buffer.getLong(index) + buffer.getLong(left));
+                    default -> throw new TiffFormatException("수평 차분 예측기에서 지원하지 않는 샘플 크기: " + bytesPerSample);
+                }
+            }
+        }
+    }
+
+    /**
+     * 부동소수점 예측기 복원
+     * 행마다 바이트 단위 차분을 누적한 뒤, 상위 바이트부터 모아 둔 바이트 평면을 샘플 단위로 다시 합칩니다.
+     */
+    private static void undoFloatingPoint(byte[] pixels, int width, int height, int samples, int bytesPerSample,
+                                          ByteOrder byteOrder) {
+        int rowValues = width * samples;
+        int rowBytes = rowValues * bytesPerSample;
+        byte[] row = new byte[rowBytes];
+        boolean bigEndian = byteOrder == ByteOrder.BIG_ENDIAN;
+
+        for (int y = 0; y < height; y++) {
+            int rowStart = y * rowBytes;
+            for (int i = samples; i < rowBytes; i++) {
+                pixels[rowStart + i] += pixels[rowStart + i - samples];
+            }
+            System.arraycopy(pixels, rowStart, row, 0, rowBytes);
+            for (int i = 0; i < rowValues; i++) {
+                for (int b = 0; b < bytesPerSample; b++) {
+                    int target = rowStart + i * bytesPerSample + (bigEndian ? b : bytesPerSample - 1 - b);
+                    pixels[target] = row[b * rowValues + i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.geotiff.back.global.tiff;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * 타일 TIFF(COG)에서 픽셀 창(window)만 읽는 리더
+ * 창과 겹치는 타일만 ranged read로 가져오며, 파일에서 인접한 타일 범위는 한 번의 요청으로 합칩니다.
+ * 결과는 위에서부터 행 블록 단위로 전달하고, 다음 블록에 필요한 타일 행을 미리 요청해 두어
+ * 메모리 사용량은 창 너비 × 타일 높이 수준으로 유지하면서 요청 지연을 겹칩니다.
+ */
+public class TileWindowReader {
+
+    /**
+     * 두 타일 사이 간격이 이 값 이하이면 한 번의 요청으로 합침
+     */
+    private static final int MAX_MERGE_GAP_BYTES = 64 * 1024;
+
+    /**
+     * 합친 요청 하나의 최대 크기
+     */
+    private static final int MAX_MERGED_BYTES = 16 * 1024 * 1024;
+
+    private final AsyncRangeSource source;
+    private final Executor decodeExecutor;
+    private final ByteOrder byteOrder;
+    private final int tileWidth;
+    private final int tileLength;
+    private final int tilesAcross;
+    private final int tilesPerBand;
+    private final int samplesPerPixel;
+    private final int bytesPerSample;
+    private final boolean planar;
+    private final int compression;
+    private final int predictor;
+    private final long[] tileOffsets;
+    private final long[] tileByteCounts;
+
+    /**
+     * @param source 파일 원본
+     * @param ifd 읽을 이미지의 IFD (원본 해상도 또는 오버뷰)
+     * @param byteOrder 파일 바이트 순서
+     * @param decodeExecutor 타일 압축 해제를 실행할 스레드 풀
+     * @throws TiffFormatException 타일 구조가 아니거나 샘플 크기가 바이트 단위가 아닌 경우
+     */
+    public TileWindowReader(AsyncRangeSource source, TiffIfd ifd, ByteOrder byteOrder, Executor decodeExecutor)
+            throws TiffFormatException {
+        if (!ifd.isTiled()) {
+            throw new TiffFormatException("타일 구조가 아닌 TIFF는 지원하지 않습니다");
+        }
+        if (ifd.getBitsPerSample() % 8 != 0) {
+            throw new TiffFormatException("바이트 단위가 아닌 샘플 크기는 지원하지 않습니다: " + ifd.getBitsPerSample());
+        }
+        this.source = source;
+        this.decodeExecutor = decodeExecutor;
+        this.byteOrder = byteOrder;
+        this.tileWidth = ifd.getTileWidth();
+        this.tileLength = ifd.getTileLength();
+        this.tilesAcross = ifd.getTilesAcross();
+        this.tilesPerBand = tilesAcross * ifd.getTilesDown();
+        this.samplesPerPixel = ifd.getSamplesPerPixel();
+        this.bytesPerSample = ifd.getBitsPerSample() / 8;
+        this.planar = ifd.getPlanarConfiguration() == 2;
+        this.compression = ifd.getCompression();
+        this.predictor = ifd.getPredictor();
+        this.tileOffsets = ifd.getTileOffsets();
+        this.tileByteCounts = ifd.getTileByteCounts();
+    }
+
+    public int getBytesPerSample() {
+        return bytesPerSample;
+    }
+
+    /**
+     * 픽셀 창의 선택한 밴드를 행 블록 단위로 읽기
+     * 블록은 픽셀 인터리브(선택한 밴드 순서) 형식이며 위쪽 블록부터 순서대로 전달됩니다.
+     *
+     * @param column 창 시작 열
+     * @param row 창 시작 행
+     * @param width 창 너비
+     * @param height 창 높이
+     * @param bands 읽을 밴드 번호 (0부터 시작)
+     * @param rowsPerBlock 블록 하나의 행 수
+     * @param consumer 블록을 받을 함수
+     * @throws IOException 읽기/압축 해제 실패 또는 consumer에서 발생한 예외
+     */
+    public void read(int column, int row, int width, int height, int[] bands, int rowsPerBlock,
+                     BlockConsumer consumer) throws IOException {
+        int firstTileColumn = column / tileWidth;
+        int lastTileColumn = (column + width - 1) / tileWidth;
+        int rowBytes = width * bands.length * bytesPerSample;
+        // 요청 중이거나 받아 둔 타일 행 (타일 행 번호 -> 열 순서 타일 배열, 밴드 분리 저장이면 밴드별로 이어짐)
+        Map<Integer, CompletableFuture<byte[][]>> tileRows = new HashMap<>();
+
+        try {
+            for (int blockStart = 0; blockStart < height; blockStart += rowsPerBlock) {
+                int blockRows = Math.min(rowsPerBlock, height - blockStart);
+                int firstTileRow = (row + blockStart) / tileLength;
+
+                // 현재 블록과 다음 블록에 필요한 타일 행 요청 (다음 블록은 미리 요청)
+                int prefetchEnd = Math.min(row + height, row + blockStart + 2 * rowsPerBlock) - 1;
+                for (int tileRow = firstTileRow; tileRow <= prefetchEnd / tileLength; tileRow++) {
+                    tileRows.computeIfAbsent(tileRow,
+                            key -> fetchTileRow(key, firstTileColumn, lastTileColumn, bands));
+                }
+                // 이미 지나간 타일 행 해제
+                for (Iterator<Integer> it = tileRows.keySet().iterator(); it.hasNext(); ) {
+                    if (it.next() < firstTileRow) {
+                        it.remove();
+                    }
+                }
+
+                byte[] block = new byte[blockRows * rowBytes];
+                for (int y = 0; y < blockRows; y++) {
+                    int sourceRow = row + blockStart + y;
+                    byte[][] tiles = await(tileRows.get(sourceRow / tileLength));
+                    copyRow(tiles, sourceRow % tileLength, column, width, firstTileColumn, lastTileColumn,
+                            bands, block, y * rowBytes);
+                }
+                consumer.accept(block, blockRows);
+            }
+        } finally {
+            tileRows.values().forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * 타일 행 하나에서 창에 해당하는 픽셀 행을 블록에 복사
+     */
+    private void copyRow(byte[][] tiles, int rowInTile, int column, int width, int firstTileColumn,
+                         int lastTileColumn, int[] bands, byte[] block, int blockOffset) {
+        int columnsInRow = lastTileColumn - firstTileColumn + 1;
+        int chunkySamples = planar ? 1 : samplesPerPixel;
+        int pixelBytes = bands.length * bytesPerSample;
+        boolean allBandsInOrder = !planar && bands.length == samplesPerPixel && isIdentity(bands);
+
+        int x = 0;
+        while (x < width) {
+            int sourceColumn = column + x;
+            int tileColumn = sourceColumn / tileWidth;
+            int columnInTile = sourceColumn % tileWidth;
+            int run = Math.min(width - x, tileWidth - columnInTile);
+            int tileIndex = tileColumn - firstTileColumn;
+
+            if (allBandsInOrder) {
+                // 모든 밴드를 원래 순서대로 읽으면 연속 구간을 한 번에 복사
+                byte[] tile = tiles[tileIndex];
+                int from = (rowInTile * tileWidth + columnInTile) * chunkySamples * bytesPerSample;
+                System.arraycopy(tile, from, block, blockOffset + x * pixelBytes, run * pixelBytes);
+            } else {
+                for (int b = 0; b < bands.length; b++) {
+                    byte[] tile = planar ? tiles[bands[b] * columnsInRow + tileIndex] : tiles[tileIndex];
+                    int sampleInPixel = planar ? 0 : bands[b];
+                    int target = blockOffset + x * pixelBytes + b * bytesPerSample;
+                    int from = ((rowInTile * tileWidth + columnInTile) * chunkySamples + sampleInPixel) * bytesPerSample;
+                    for (int i = 0; i < run; i++) {
+                        System.arraycopy(tile, from, block, target, bytesPerSample);
+                        from += chunkySamples * bytesPerSample;
+                        target += pixelBytes;
+                    }
+                }
+            }
+            x += run;
+        }
+    }
+
+    /**
+     * 타일 행 하나의 필요한 타일을 요청하고 압축 해제
+     * 파일에서 가까이 붙어 있는 타일은 한 번의 범위 요청으로 합칩니다.
+     */
+    private CompletableFuture<byte[][]> fetchTileRow(int tileRow, int firstTileColumn, int lastTileColumn,
+                                                     int[] bands) {
+        int columnsInRow = lastTileColumn - firstTileColumn + 1;
+        int planes = planar ? samplesPerPixel : 1;
+        byte[][] tiles = new byte[planes * columnsInRow][];
+
+        // 요청할 타일 목록 (배열 위치, 파일 위치, 크기)
+        List<TileRange> ranges = new ArrayList<>();
+        for (int plane = 0; plane < planes; plane++) {
+            if (planar && !contains(bands, plane)) {
+                continue;
+            }
+            for (int tileColumn = firstTileColumn; tileColumn <= lastTileColumn; tileColumn++) {
+                int tileIndex = plane * tilesPerBand + tileRow * tilesAcross + tileColumn;
+                int slot = plane * columnsInRow + tileColumn - firstTileColumn;
+                if (tileIndex >= tileOffsets.length || tileByteCounts[tileIndex] == 0) {
+                    // 빈(sparse) 타일은 0으로 채움
+                    tiles[slot] = new byte[tileWidth * tileLength * (planar ? 1 : samplesPerPixel) * bytesPerSample];
+                    continue;
+                }
+                ranges.add(new TileRange(slot, tileOffsets[tileIndex], (int) tileByteCounts[tileIndex]));
+            }
+        }
+        ranges.sort(Comparator.comparingLong(TileRange::offset));
+
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        int start = 0;
+        while (start < ranges.size()) {
+            // 인접한 타일 범위를 묶음
+            int end = start + 1;
+            long mergedStart = ranges.get(start).offset();
+            long mergedEnd = mergedStart + ranges.get(start).length();
+            while (end < ranges.size()) {
+                TileRange candidate = ranges.get(end);
+                long candidateEnd = Math.max(mergedEnd, candidate.offset() + candidate.length());
+                if (candidate.offset() - mergedEnd > MAX_MERGE_GAP_BYTES || candidateEnd - mergedStart > MAX_MERGED_BYTES) {
+                    break;
+                }
+                mergedEnd = candidateEnd;
+                end++;
+            }
+
+            List<TileRange> group = ranges.subList(start, end);
+            long groupStart = mergedStart;
+            CompletableFuture<byte[]> read = source.read(groupStart, (int) (mergedEnd - mergedStart));
+            for (TileRange range : group) {
+                // 타일별 압축 해제는 스레드 풀에서 병렬로 수행
+                pending.add(read.thenAcceptAsync(bytes -> {
+                    int from = (int) (range.offset() - groupStart);
+                    byte[] compressed = Arrays.copyOfRange(bytes, from, from + range.length());
+                    try {
+                        tiles[range.slot()] = TileDecoder.decode(compressed, compression, predictor, tileWidth, tileLength,
+                                planar ? 1 : samplesPerPixel, bytesPerSample, byteOrder);
+                    } catch (TiffFormatException e) {
+                        throw new CompletionException(e);
+                    }
+                }, decodeExecutor));
+            }
+            start = end;
+        }
+
+        return CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).thenApply(ignored -> tiles);
+    }
+
+    private static boolean isIdentity(int[] bands) {
+        for (int i = 0; i < bands.length; i++) {
+            if (bands[i] != i) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(int[] bands, int band) {
+        for (int value : bands) {
+            if (value == band) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("타일 읽기 대기 중 인터럽트 발생", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("타일 읽기 실패: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * 행 블록 수신 함수
+     */
+    @FunctionalInterface
+    public interface BlockConsumer {
+
+        /**
+         * @param block 픽셀 인터리브 형식의 행 블록
+         * @param rows 블록의 행 수
+         */
+        void accept(byte[] block, int rows) throws IOException;
+    }
+
+    private record TileRange(int slot, long offset, int length) {
+    }
+}
@@ -0,0 +1,187 @@
+package com.geotiff.back.domain.sateliteImagery.controller;
+
+import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImagery;
+import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImageryBandStatistics;
+import com.geotiff.back.domain.sateliteImagery.service.ImageryCatalogService;
+import com.geotiff.back.support.FakeGdalApiServer;
+import com.geotiff.back.support.LocalS3Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 검색 응답 조건부 요청 테스트
+ * 검색 조건/페이지별 ETag, 304 응답, 새 영상 저장 후 캐시와 ETag 무효화를 확인합니다.
+ */
+@SpringBootTest(properties = {
+		"app.checkpoint.resume-on-startup=false",
+		"spring.datasource.url=jdbc:h2:mem:search;DB_CLOSE_DELAY=-1",
+		"logging.level.com.geotiff=WARN"
+})
+@AutoConfigureMockMvc
+class SatelliteImagerySearchTest {
+
+	private static final String SOURCE_BUCKET = "dev1-apne2-pre-test-scene-bucket";
+
+	private static final Path WORK_DIRECTORY;
+	private static final LocalS3Server S3;
+	private static final FakeGdalApiServer GDAL_API;
+
+	static {
+		try {
+			WORK_DIRECTORY = Files.createTempDirectory("search-test");
+			S3 = new LocalS3Server(WORK_DIRECTORY.resolve("s3"));
+			GDAL_API = new FakeGdalApiServer(WORK_DIRECTORY.resolve("tmp"), Duration.ZERO, Duration.ZERO);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ImageryCatalogService imageryCatalogService;
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) throws IOException {
+		Path credentials = WORK_DIRECTORY.resolve("credentials.json");
+		Files.writeString(credentials, String.format(
+				"{\"access_key_id\":\"%s\",\"secret_access_key\":\"%s\",\"region\":\"%s\","
+						+ "\"bucket_name\":\"%s\",\"username\":\"search\"}",
+				LocalS3Server.ACCESS_KEY, LocalS3Server.SECRET_KEY, LocalS3Server.REGION, SOURCE_BUCKET));
+		registry.add("aws.credentials.path", () -> "file:" + credentials);
+		registry.add("aws.s3.endpoint", () -> S3.endpoint().toString());
+		registry.add("app.gdal-api.url", () -> GDAL_API.endpoint().toString());
+		registry.add("app.cog.temp-dir", () -> WORK_DIRECTORY.resolve("tmp").toString());
+	}
+
+	@AfterAll
+	static void stopServers() {
+		S3.close();
+		GDAL_API.close();
+	}
+
+	@Test
+	void getSearchAnswersNotModifiedOnlyForSameQueryAndPage() throws Exception {
+		save("get-etag.tif", "get-etag_to_cog_1.tiff");
+		String etag = etag(mockMvc.perform(get("/api/imagery").param("originalName", "get-etag.tif"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalElements").value(1))
+				.andReturn());
+
+		mockMvc.perform(get("/api/imagery").param("originalName", "get-etag.tif")
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		// 같은 카탈로그 버전이라도 다른 페이지나 다른 조건의 응답은 ETag가 달라 304가 아님
+		String otherPage = etag(mockMvc.perform(get("/api/imagery").param("originalName", "get-etag.tif")
+						.param("page", "1")
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andReturn());
+		String otherQuery = etag(mockMvc.perform(get("/api/imagery").param("originalName", "other.tif")
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andReturn());
+		assertNotEquals(etag, otherPage);
+		assertNotEquals(etag, otherQuery);
+	}
+
+	@Test
+	void postSearchAnswersNotModifiedOnlyForSameBody() throws Exception {
+		save("post-etag.tif", "post-etag_to_cog_1.tiff");
+		String body = "{\"originalName\":\"post-etag.tif\"}";
+		String etag = etag(mockMvc.perform(post("/api/imagery/search")
+						.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalElements").value(1))
+				.andReturn());
+
+		MvcResult notModified = mockMvc.perform(post("/api/imagery/search")
+						.contentType(MediaType.APPLICATION_JSON).content(body)
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andReturn();
+		assertEquals(etag, etag(notModified));
+
+		mockMvc.perform(post("/api/imagery/search")
+						.contentType(MediaType.APPLICATION_JSON).content("{\"originalName\":\"other.tif\"}")
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void saveInvalidatesCachedResultAndEtag() throws Exception {
+		save("invalidate.tif", "invalidate_to_cog_1.tiff");
+		// 첫 조회 결과는 검색 캐시에 들어감
+		String etag = etag(mockMvc.perform(get("/api/imagery").param("originalName", "invalidate.tif"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalElements").value(1))
+				.andReturn());
+
+		save("invalidate.tif", "invalidate_to_cog_2.tiff");
+
+		// 커밋되면 카탈로그 버전이 바뀌므로 이전 ETag로는 304가 아니고, 캐시된 이전 결과 대신 새 결과를 반환
+		String changed = etag(mockMvc.perform(get("/api/imagery").param("originalName", "invalidate.tif")
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalElements").value(2))
+				.andReturn());
+		assertNotEquals(etag, changed);
+
+		mockMvc.perform(get("/api/imagery").param("originalName", "invalidate.tif")
+						.header(HttpHeaders.IF_NONE_MATCH, changed))
+				.andExpect(status().isNotModified());
+	}
+
+	/**
+	 * 밴드 연산 결과와 같은 경로(짧은 트랜잭션, 커밋 후 카탈로그 버전 증가)로 영상 저장
+	 */
+	private void save(String originalName, String cogName) {
+		SatelliteImagery imagery = SatelliteImagery.builder()
+				.originalName(originalName)
+				.cogName(cogName)
+				.width(512)
+				.height(512)
+				.bandCount(1)
+				.projection("EPSG:4326")
+				.s3Path("search/" + cogName)
+				.sequence(1)
+				.fileSize(1024L)
+				.build();
+		imageryCatalogService.catalogueDerived(imagery, saved -> SatelliteImageryBandStatistics.builder()
+				.satelliteImagery(saved)
+				.bandIndex(1)
+				.nodataPercent(0.0)
+				.build());
+	}
+
+	private static String etag(MvcResult result) {
+		String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotNull(etag);
+		return etag;
+	}
+}
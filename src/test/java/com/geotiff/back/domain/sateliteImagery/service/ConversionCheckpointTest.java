@@ -0,0 +1,267 @@
+package com.geotiff.back.domain.sateliteImagery.service;
+
+import com.geotiff.back.domain.sateliteImagery.entity.ConversionCheckpoint;
+import com.geotiff.back.domain.sateliteImagery.entity.SatelliteImagery;
+import com.geotiff.back.domain.sateliteImagery.repository.ConversionCheckpointRepository;
+import com.geotiff.back.domain.sateliteImagery.repository.SatelliteImageryRepository;
+import com.geotiff.back.global.service.S3Service;
+import com.geotiff.back.global.service.TempSpaceManager;
+import com.geotiff.back.support.FakeGdalApiServer;
+import com.geotiff.back.support.LocalS3Server;
+import com.geotiff.back.support.SyntheticGeoTiff;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 변환 체크포인트 단계 전이 테스트
+ * 로컬 S3 / GDAL API 대체 서버를 상대로, 각 단계에서 중단된 체크포인트가 남은 단계만 실행하는지 확인합니다.
+ */
+@SpringBootTest(properties = {
+		"app.checkpoint.resume-on-startup=false",
+		"spring.datasource.url=jdbc:h2:mem:checkpoint;DB_CLOSE_DELAY=-1",
+		"logging.level.com.geotiff=WARN"
+})
+class ConversionCheckpointTest {
+
+	private static final String SOURCE_BUCKET = "dev1-apne2-pre-test-scene-bucket";
+	private static final String TARGET_BUCKET = "dev1-apne2-pre-test-tester-bucket";
+	private static final int PART_SIZE = 8 * 1024 * 1024;
+	private static final String METADATA =
+			"{\"width\":512,\"height\":512,\"bandCount\":3,\"projection\":\"EPSG:4326\",\"bands\":[]}";
+
+	private static final Path WORK_DIRECTORY;
+	private static final LocalS3Server S3;
+	private static final FakeGdalApiServer GDAL_API;
+
+	static {
+		try {
+			WORK_DIRECTORY = Files.createTempDirectory("checkpoint-test");
+			S3 = new LocalS3Server(WORK_DIRECTORY.resolve("s3"));
+			GDAL_API = new FakeGdalApiServer(WORK_DIRECTORY.resolve("tmp"), Duration.ZERO, Duration.ZERO);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Autowired
+	private SatelliteImageryService satelliteImageryService;
+
+	@Autowired
+	private ConversionCheckpointService checkpointService;
+
+	@Autowired
+	private ConversionCheckpointRepository checkpointRepository;
+
+	@Autowired
+	private SatelliteImageryRepository satelliteImageryRepository;
+
+	@Autowired
+	private TempSpaceManager tempSpaceManager;
+
+	@Autowired
+	private S3Service s3Service;
+
+	@Autowired
+	private S3AsyncClient s3AsyncClient;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) throws IOException {
+		Path credentials = WORK_DIRECTORY.resolve("credentials.json");
+		Files.writeString(credentials, String.format(
+				"{\"access_key_id\":\"%s\",\"secret_access_key\":\"%s\",\"region\":\"%s\","
+						+ "\"bucket_name\":\"%s\",\"username\":\"checkpoint\"}",
+				LocalS3Server.ACCESS_KEY, LocalS3Server.SECRET_KEY, LocalS3Server.REGION, SOURCE_BUCKET));
+		registry.add("aws.credentials.path", () -> "file:" + credentials);
+		registry.add("aws.s3.endpoint", () -> S3.endpoint().toString());
+		registry.add("app.gdal-api.url", () -> GDAL_API.endpoint().toString());
+		registry.add("app.cog.temp-dir", () -> WORK_DIRECTORY.resolve("tmp").toString());
+	}
+
+	@AfterAll
+	static void stopServers() {
+		S3.close();
+		GDAL_API.close();
+	}
+
+	@Test
+	void freshConversionReachesCataloguedAndDeletesFiles() throws IOException {
+		String key = "checkpoint/fresh.tif";
+		S3.putObject(SOURCE_BUCKET, key, scene("fresh.tif"));
+
+		SatelliteImagery imagery = satelliteImageryService.processSingleImagery(key);
+
+		ConversionCheckpoint checkpoint = latestCheckpoint(key);
+		assertEquals(ConversionCheckpoint.Stage.CATALOGUED, checkpoint.getStage());
+		assertEquals(imagery.getId(), checkpoint.getSatelliteImageryId());
+		assertEquals(s3Service.headObject(SOURCE_BUCKET, key).eTag(), checkpoint.getSourceETag());
+		assertTrue(S3.exists(TARGET_BUCKET, imagery.getS3Path()));
+		assertFalse(Files.exists(WORK_DIRECTORY.resolve("tmp/checkpoints/" + checkpoint.getId())));
+		assertEquals(0, tempSpaceManager.getRetainedBytes());
+	}
+
+	@Test
+	void downloadedStageReusesLocalSourceWhenETagMatches() throws IOException {
+		String key = "checkpoint/downloaded.tif";
+		Path localScene = scene("downloaded.tif");
+		// S3에는 같은 크기의 잘못된 데이터를 두어, 다시 다운로드하면 메타데이터 추출이 실패하도록 함
+		S3.putObject(SOURCE_BUCKET, key, randomFile("downloaded-garbage.bin", Files.size(localScene)));
+
+		ConversionCheckpoint checkpoint = newCheckpoint(key);
+		Path downloaded = Files.copy(localScene, checkpointService.directory(checkpoint).resolve("downloaded.tif"));
+		checkpoint.markDownloaded(downloaded.toString(), Files.size(downloaded),
+				s3Service.headObject(SOURCE_BUCKET, key).eTag());
+		checkpointRepository.save(checkpoint);
+
+		satelliteImageryService.processSingleImagery(key);
+
+		assertEquals(ConversionCheckpoint.Stage.CATALOGUED, latestCheckpoint(key).getStage());
+		assertFalse(Files.exists(downloaded));
+	}
+
+	@Test
+	void downloadedStageDownloadsAgainWhenSourceChanged() throws IOException {
+		String key = "checkpoint/changed.tif";
+		Path source = scene("changed.tif");
+		S3.putObject(SOURCE_BUCKET, key, source);
+
+		// 크기는 같지만 이전 원본 ETag로 기록된 (내용이 다른) 로컬 파일
+		ConversionCheckpoint checkpoint = newCheckpoint(key);
+		Path downloaded = Files.copy(randomFile("changed-stale.bin", Files.size(source)),
+				checkpointService.directory(checkpoint).resolve("changed.tif"));
+		checkpoint.markDownloaded(downloaded.toString(), Files.size(downloaded), "\"stale\"");
+		checkpointRepository.save(checkpoint);
+
+		satelliteImageryService.processSingleImagery(key);
+
+		ConversionCheckpoint resumed = latestCheckpoint(key);
+		assertEquals(ConversionCheckpoint.Stage.CATALOGUED, resumed.getStage());
+		assertEquals(s3Service.headObject(SOURCE_BUCKET, key).eTag(), resumed.getSourceETag());
+	}
+
+	@Test
+	void convertedStageUploadsOnlyMissingParts() throws IOException {
+		String key = "checkpoint/converted.tif";
+		Path source = scene("converted.tif");
+		S3.putObject(SOURCE_BUCKET, key, source);
+		String sourceETag = s3Service.headObject(SOURCE_BUCKET, key).eTag();
+
+		// 파트 3개짜리 COG와, 첫 파트만 올라간 멀티파트 업로드
+		ConversionCheckpoint checkpoint = newCheckpoint(key);
+		Path cog = SyntheticGeoTiff.writeApproximately(
+				checkpointService.directory(checkpoint).resolve("converted_cog.tiff"), 2L * PART_SIZE + 1024, 3);
+		String s3Path = s3Service.userKey("converted_to_cog_1.tiff");
+		String uploadId = S3Service.await(s3Service.createMultipartUploadAsync(TARGET_BUCKET, s3Path));
+		// 이미 올라간 파트를 다시 보내지 않는지 확인하기 위해 첫 파트는 로컬 파일과 다른 내용(0)으로 올림
+		s3AsyncClient.uploadPart(UploadPartRequest.builder()
+						.bucket(TARGET_BUCKET).key(s3Path).uploadId(uploadId).partNumber(1)
+						.contentLength((long) PART_SIZE)
+						.build(),
+				AsyncRequestBody.fromBytes(new byte[PART_SIZE])).join();
+
+		checkpoint.markDownloaded(source.toString(), Files.size(source), sourceETag);
+		checkpoint.markConverted(cog.toString(), Files.size(cog), METADATA);
+		checkpoint.startUpload(1, "converted_to_cog_1.tiff", s3Path, uploadId);
+		checkpointRepository.save(checkpoint);
+		byte[] local = Files.readAllBytes(cog);
+
+		SatelliteImagery imagery = satelliteImageryService.processSingleImagery(key);
+
+		assertEquals(ConversionCheckpoint.Stage.CATALOGUED, latestCheckpoint(key).getStage());
+		assertEquals(s3Path, imagery.getS3Path());
+		assertEquals(local.length, s3Service.getFileSize(TARGET_BUCKET, s3Path));
+		// 첫 파트는 ListParts로 확인한 기존 파트를 그대로 사용하고, 나머지 파트만 로컬 파일에서 전송
+		byte[] uploaded = S3Service.await(s3Service.readRangeAsync(TARGET_BUCKET, s3Path, 0, PART_SIZE + 1024));
+		assertArrayEquals(new byte[PART_SIZE], Arrays.copyOf(uploaded, PART_SIZE));
+		assertArrayEquals(Arrays.copyOfRange(local, PART_SIZE, PART_SIZE + 1024),
+				Arrays.copyOfRange(uploaded, PART_SIZE, PART_SIZE + 1024));
+		assertFalse(Files.exists(cog));
+	}
+
+	@Test
+	void uploadedStageIsCataloguedAgainAfterRollback() throws IOException {
+		String key = "checkpoint/uploaded.tif";
+		Path cog = scene("uploaded_cog.tiff");
+		String s3Path = s3Service.userKey("uploaded_to_cog_1.tiff");
+		S3.putObject(TARGET_BUCKET, s3Path, cog);
+
+		ConversionCheckpoint checkpoint = newCheckpoint(key);
+		checkpoint.markDownloaded(cog.toString(), Files.size(cog), "\"source\"");
+		checkpoint.markConverted(cog.toString(), Files.size(cog), METADATA);
+		checkpoint.startUpload(1, "uploaded_to_cog_1.tiff", s3Path, "upload");
+		checkpoint.markUploaded("\"uploaded\"");
+		checkpointRepository.save(checkpoint);
+
+		// 업로드 이후 카탈로그 저장 트랜잭션이 롤백되면 체크포인트는 UPLOADED로 남음
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			try {
+				satelliteImageryService.processSingleImagery(key);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			status.setRollbackOnly();
+		});
+		assertEquals(ConversionCheckpoint.Stage.UPLOADED, latestCheckpoint(key).getStage());
+		assertTrue(satelliteImageryRepository.findFirstByS3Path(s3Path).isEmpty());
+
+		// 다시 실행하면 업로드 없이 카탈로그 저장만 수행하고 한 번만 저장
+		SatelliteImagery imagery = satelliteImageryService.processSingleImagery(key);
+
+		ConversionCheckpoint catalogued = latestCheckpoint(key);
+		assertEquals(ConversionCheckpoint.Stage.CATALOGUED, catalogued.getStage());
+		assertEquals(imagery.getId(), catalogued.getSatelliteImageryId());
+		assertEquals(1, satelliteImageryRepository.findAll().stream()
+				.filter(saved -> s3Path.equals(saved.getS3Path()))
+				.count());
+	}
+
+	private ConversionCheckpoint newCheckpoint(String key) throws IOException {
+		ConversionCheckpoint checkpoint = checkpointRepository.save(ConversionCheckpoint.builder()
+				.imageryKey(key)
+				.stage(ConversionCheckpoint.Stage.STARTED)
+				.build());
+		checkpointService.directory(checkpoint);
+		return checkpoint;
+	}
+
+	private ConversionCheckpoint latestCheckpoint(String key) {
+		return checkpointRepository.findAll().stream()
+				.filter(checkpoint -> key.equals(checkpoint.getImageryKey()))
+				.reduce((first, second) -> second)
+				.orElseThrow();
+	}
+
+	private static Path scene(String name) throws IOException {
+		return SyntheticGeoTiff.write(WORK_DIRECTORY.resolve(name), 512, 512, 3);
+	}
+
+	private static Path randomFile(String name, long size) throws IOException {
+		byte[] bytes = new byte[(int) size];
+		new Random(size).nextBytes(bytes);
+		return Files.write(WORK_DIRECTORY.resolve(name), bytes);
+	}
+}
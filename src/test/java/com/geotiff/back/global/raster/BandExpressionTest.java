@@ -0,0 +1,48 @@
+package com.geotiff.back.global.raster;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BandExpressionTest {
+
+	@Test
+	void evaluatesNormalizedDifferenceOverReferencedBands() {
+		BandExpression expression = BandExpression.compile("(b4 - b3) / (b4 + b3)", 4);
+		assertArrayEquals(new int[]{2, 3}, expression.getBands());
+
+		float[][] bands = {
+				{10, 20, 0, Float.NaN},
+				{30, 20, 0, 5}
+		};
+		float[][] stack = expression.newStack(4);
+		expression.evaluate(bands, stack, 4);
+
+		assertEquals(0.5f, stack[0][0]);
+		assertEquals(0f, stack[0][1]);
+		// 0 / 0과 nodata(NaN)는 NaN으로 전파
+		assertTrue(Float.isNaN(stack[0][2]));
+		assertTrue(Float.isNaN(stack[0][3]));
+	}
+
+	@Test
+	void respectsPrecedenceUnaryMinusAndConstants() {
+		BandExpression expression = BandExpression.compile("-b1 * 2 + 3 * (b2 - 1.5) / -b1", 2);
+		float[][] bands = {{2}, {4.5f}};
+		float[][] stack = expression.newStack(1);
+		expression.evaluate(bands, stack, 1);
+
+		assertEquals(-2 * 2 + 3 * (4.5f - 1.5f) / -2, stack[0][0], 1e-6);
+	}
+
+	@Test
+	void rejectsInvalidExpressions() {
+		assertThrows(IllegalArgumentException.class, () -> BandExpression.compile("b5 - b1", 4));
+		assertThrows(IllegalArgumentException.class, () -> BandExpression.compile("(b1 + b2", 4));
+		assertThrows(IllegalArgumentException.class, () -> BandExpression.compile("b1 +", 4));
+		assertThrows(IllegalArgumentException.class, () -> BandExpression.compile("2 * 3", 4));
+	}
+}
@@ -0,0 +1,70 @@
+package com.geotiff.back.global.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConversionCostModelTest {
+
+	private static final int DEFLATE = 8;
+	private static final int LZW = 5;
+
+	@Test
+	void usesDefaultThroughputUntilEnoughSamples() {
+		ConversionCostModel model = ConversionCostModel.fit(
+				List.of(new ConversionCostModel.Sample(1_000_000, null, null, 5_000)), 8, 1_000_000);
+
+		// 기록이 부족하면 초당 1MB 기준으로 계산
+		assertEquals(3_000, model.predictMillis(3_000_000, null, null));
+	}
+
+	@Test
+	void learnsTimePerMegabyte() {
+		List<ConversionCostModel.Sample> samples = new ArrayList<>();
+		for (int megabytes = 1; megabytes <= 10; megabytes++) {
+			samples.add(new ConversionCostModel.Sample(megabytes * 1_000_000L, null, null, 200 + 50L * megabytes));
+		}
+		ConversionCostModel model = ConversionCostModel.fit(samples, 8, 1_000_000);
+
+		assertEquals(50.0, model.getMillisPerMegabyte(), 1e-6);
+		assertEquals(200 + 50 * 100, model.predictMillis(100_000_000, null, null));
+	}
+
+	@Test
+	void learnsSeparateCoefficientsPerCompression() {
+		List<ConversionCostModel.Sample> samples = new ArrayList<>();
+		for (int megabytes = 1; megabytes <= 4; megabytes++) {
+			for (int megasamples = 1; megasamples <= 3; megasamples++) {
+				long bytes = megabytes * 1_000_000L;
+				long pixelSamples = megasamples * 1_000_000L;
+				// 압축된 원본은 풀어야 할 샘플 수에 비례해 더 오래 걸림
+				samples.add(new ConversionCostModel.Sample(bytes, pixelSamples, DEFLATE,
+						100 + 10L * megabytes + 40L * megasamples));
+				samples.add(new ConversionCostModel.Sample(bytes, pixelSamples, LZW,
+						100 + 10L * megabytes + 20L * megasamples));
+			}
+		}
+		ConversionCostModel model = ConversionCostModel.fit(samples, 8, 1_000_000);
+
+		assertEquals(2, model.getCompressionModelCount());
+		assertEquals(100 + 10 * 2 + 40 * 10, model.predictMillis(2_000_000, 10_000_000L, DEFLATE));
+		assertEquals(100 + 10 * 2 + 20 * 10, model.predictMillis(2_000_000, 10_000_000L, LZW));
+	}
+
+	@Test
+	void fallsBackToBytesModelForUnknownCompression() {
+		List<ConversionCostModel.Sample> samples = new ArrayList<>();
+		for (int megabytes = 1; megabytes <= 10; megabytes++) {
+			samples.add(new ConversionCostModel.Sample(megabytes * 1_000_000L, megabytes * 1_000_000L, DEFLATE,
+					30L * megabytes));
+		}
+		ConversionCostModel model = ConversionCostModel.fit(samples, 8, 1_000_000);
+
+		// 모든 기록에서 크기와 샘플 수가 같이 움직여 압축 방식별 모델은 학습하지 못하고, 크기만 사용한 모델로 예측
+		assertEquals(0, model.getCompressionModelCount());
+		assertEquals(600, model.predictMillis(20_000_000, 40_000_000L, LZW));
+	}
+}
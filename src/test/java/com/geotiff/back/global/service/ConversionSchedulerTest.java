@@ -0,0 +1,190 @@
+package com.geotiff.back.global.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConversionSchedulerTest {
+
+	@Test
+	void sharesBulkSlotsFairlyAcrossTenants() throws Exception {
+		ConversionScheduler scheduler = scheduler(1, 1, "");
+		List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+		ConversionScheduler.Permit running = scheduler.acquire("other", ConversionScheduler.Priority.BULK);
+		// alice가 먼저 3건을 넣어도 bob의 첫 작업은 alice의 두 번째 작업보다 먼저 실행
+		List<Thread> waiters = new ArrayList<>();
+		waiters.add(enqueue(scheduler, "alice", "a1", ConversionScheduler.Priority.BULK, order));
+		waiters.add(enqueue(scheduler, "alice", "a2", ConversionScheduler.Priority.BULK, order));
+		waiters.add(enqueue(scheduler, "alice", "a3", ConversionScheduler.Priority.BULK, order));
+		waiters.add(enqueue(scheduler, "bob", "b1", ConversionScheduler.Priority.BULK, order));
+		running.close();
+		join(waiters);
+
+		assertEquals(List.of("a1", "b1", "a2", "a3"), order);
+	}
+
+	@Test
+	void weightsGiveProportionalShare() throws Exception {
+		ConversionScheduler scheduler = scheduler(1, 1, "alice=2");
+		List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+		ConversionScheduler.Permit running = scheduler.acquire("other", ConversionScheduler.Priority.BULK);
+		List<Thread> waiters = new ArrayList<>();
+		waiters.add(enqueue(scheduler, "bob", "b1", ConversionScheduler.Priority.BULK, order));
+		waiters.add(enqueue(scheduler, "bob", "b2", ConversionScheduler.Priority.BULK, order));
+		waiters.add(enqueue(scheduler, "alice", "a1", ConversionScheduler.Priority.BULK, order));
+		waiters.add(enqueue(scheduler, "alice", "a2", ConversionScheduler.Priority.BULK, order));
+		waiters.add(enqueue(scheduler, "alice", "a3", ConversionScheduler.Priority.BULK, order));
+		running.close();
+		join(waiters);
+
+		// 가중치 2인 alice는 bob 한 건마다 두 건씩 실행
+		assertEquals(List.of("b1", "a1", "a2", "b2", "a3"), order);
+	}
+
+	@Test
+	void runsInteractiveBeforeQueuedBulk() throws Exception {
+		ConversionScheduler scheduler = scheduler(1, 1, "");
+		List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+		ConversionScheduler.Permit running = scheduler.acquire("alice", ConversionScheduler.Priority.BULK);
+		List<Thread> waiters = new ArrayList<>();
+		waiters.add(enqueue(scheduler, "alice", "bulk", ConversionScheduler.Priority.BULK, order));
+		waiters.add(enqueue(scheduler, "bob", "interactive", ConversionScheduler.Priority.INTERACTIVE, order));
+		running.close();
+		join(waiters);
+
+		assertEquals(List.of("interactive", "bulk"), order);
+	}
+
+	@Test
+	void keepsSlotsForInteractiveWhileBulkIsCapped() throws Exception {
+		ConversionScheduler scheduler = scheduler(2, 1, "");
+		List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+		ConversionScheduler.Permit bulk = scheduler.acquire("alice", ConversionScheduler.Priority.BULK);
+		Thread waiter = enqueue(scheduler, "alice", "bulk", ConversionScheduler.Priority.BULK, order);
+
+		// 일괄 작업이 대기 중이어도 남은 자리는 대화형 작업이 바로 사용
+		try (ConversionScheduler.Permit interactive = scheduler.acquire("bob", ConversionScheduler.Priority.INTERACTIVE)) {
+			assertEquals(1, scheduler.getRunning(ConversionScheduler.Priority.INTERACTIVE));
+			assertEquals(1, scheduler.getQueued(ConversionScheduler.Priority.BULK));
+		}
+		bulk.close();
+		join(List.of(waiter));
+
+		assertEquals(List.of("bulk"), order);
+		assertEquals(0, scheduler.getRunning(ConversionScheduler.Priority.BULK));
+	}
+
+	@Test
+	void runsInteractiveLargeBeforeQueuedBulkLarge() throws Exception {
+		ConversionScheduler scheduler = scheduler(4, 4, "");
+		List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+		ConversionScheduler.Permit running = scheduler.acquire("alice", ConversionScheduler.Priority.BULK, true);
+		List<Thread> waiters = new ArrayList<>();
+		waiters.add(enqueue(scheduler, "alice", "bulk-large", ConversionScheduler.Priority.BULK, true, order));
+		waiters.add(enqueue(scheduler, "bob", "interactive-large", ConversionScheduler.Priority.INTERACTIVE, true, order));
+		assertEquals(2, scheduler.getQueuedLarge());
+		running.close();
+		join(waiters);
+
+		// 큰 영상 자리도 먼저 기다린 일괄 작업보다 대화형 작업이 먼저 받음
+		assertEquals(List.of("interactive-large", "bulk-large"), order);
+	}
+
+	@Test
+	void sharesLargeSlotsFairlyAcrossTenants() throws Exception {
+		ConversionScheduler scheduler = scheduler(4, 4, "");
+		List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+		ConversionScheduler.Permit running = scheduler.acquire("other", ConversionScheduler.Priority.BULK, true);
+		List<Thread> waiters = new ArrayList<>();
+		waiters.add(enqueue(scheduler, "alice", "a1", ConversionScheduler.Priority.BULK, true, order));
+		waiters.add(enqueue(scheduler, "alice", "a2", ConversionScheduler.Priority.BULK, true, order));
+		waiters.add(enqueue(scheduler, "bob", "b1", ConversionScheduler.Priority.BULK, true, order));
+		running.close();
+		join(waiters);
+
+		assertEquals(List.of("a1", "b1", "a2"), order);
+	}
+
+	@Test
+	void runsSmallJobsWhileLargeWaits() throws Exception {
+		ConversionScheduler scheduler = scheduler(2, 2, "");
+		List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+		ConversionScheduler.Permit large = scheduler.acquire("alice", ConversionScheduler.Priority.BULK, true);
+		Thread waiter = enqueue(scheduler, "alice", "large", ConversionScheduler.Priority.BULK, true, order);
+
+		// 큰 영상 자리를 기다리는 작업이 앞에 있어도 남은 자리는 일반 작업이 바로 사용
+		try (ConversionScheduler.Permit small = scheduler.acquire("bob", ConversionScheduler.Priority.BULK)) {
+			assertEquals(2, scheduler.getRunning(ConversionScheduler.Priority.BULK));
+			assertEquals(1, scheduler.getQueuedLarge());
+		}
+		large.close();
+		join(List.of(waiter));
+
+		assertEquals(List.of("large"), order);
+		assertEquals(0, scheduler.getQueuedLarge());
+	}
+
+	@Test
+	void timesOutAndLeavesQueue() throws Exception {
+		ConversionScheduler scheduler = new ConversionScheduler(new SimpleMeterRegistry(), 1, 1, 0, 1,
+				Duration.ofMillis(50), "");
+
+		try (ConversionScheduler.Permit running = scheduler.acquire("alice", ConversionScheduler.Priority.BULK)) {
+			assertThrows(IOException.class, () -> scheduler.acquire("bob", ConversionScheduler.Priority.BULK));
+			assertEquals(0, scheduler.getQueued(ConversionScheduler.Priority.BULK));
+		}
+		assertEquals(0, scheduler.getRunning(ConversionScheduler.Priority.BULK));
+	}
+
+	private static ConversionScheduler scheduler(int maxConcurrent, int maxBulk, String weights) {
+		return new ConversionScheduler(new SimpleMeterRegistry(), maxConcurrent, maxBulk, 0, 1,
+				Duration.ofSeconds(10), weights);
+	}
+
+	private static Thread enqueue(ConversionScheduler scheduler, String tenant, String name,
+								  ConversionScheduler.Priority priority, List<String> order) throws InterruptedException {
+		return enqueue(scheduler, tenant, name, priority, false, order);
+	}
+
+	/**
+	 * 실행 허가를 받으면 이름을 기록하고 바로 반환하는 작업을 대기열에 추가 (대기열에 들어갈 때까지 대기)
+	 */
+	private static Thread enqueue(ConversionScheduler scheduler, String tenant, String name,
+								  ConversionScheduler.Priority priority, boolean large,
+								  List<String> order) throws InterruptedException {
+		int queued = scheduler.getQueued(priority);
+		Thread thread = new Thread(() -> {
+			try (ConversionScheduler.Permit permit = scheduler.acquire(tenant, priority, large)) {
+				order.add(name);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		thread.start();
+		while (scheduler.getQueued(priority) == queued) {
+			Thread.sleep(1);
+		}
+		return thread;
+	}
+
+	private static void join(List<Thread> threads) throws InterruptedException {
+		for (Thread thread : threads) {
+			thread.join(10_000);
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package com.geotiff.back.global.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestRateLimiterTest {
+
+	private long now;
+
+	@Test
+	void allowsBurstThenSpacesRequestsAtConfiguredRate() {
+		RequestRateLimiter limiter = new RequestRateLimiter(10, 2, () -> now);
+
+		assertEquals(0, limiter.reserve());
+		assertEquals(0, limiter.reserve());
+		// 쌓인 허가를 다 쓰면 예약한 순서대로 100ms씩 뒤에 사용
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.reserve());
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(200), limiter.reserve());
+
+		// 300ms 뒤에는 예약분 두 개를 갚고 허가 하나가 남음
+		now += TimeUnit.MILLISECONDS.toNanos(300);
+		assertEquals(0, limiter.reserve());
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.reserve());
+	}
+
+	@Test
+	void doesNotAccumulateMoreThanBurst() {
+		RequestRateLimiter limiter = new RequestRateLimiter(10, 3, () -> now);
+
+		now += TimeUnit.SECONDS.toNanos(60);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, limiter.reserve());
+		}
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.reserve());
+	}
+
+	@Test
+	void unlimitedWhenRateIsNotPositive() {
+		RequestRateLimiter limiter = new RequestRateLimiter(0, 1, () -> now);
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(0, limiter.reserve());
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package com.geotiff.back.global.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TempSpaceManagerTest {
+
+	@TempDir
+	Path tempDirectory;
+
+	@Test
+	void retainedBytesCountAgainstQuota() throws IOException {
+		TempSpaceManager manager = new TempSpaceManager(tempDirectory, 100, 1, 50, Duration.ofHours(2));
+
+		manager.retain("checkpoints/1", 80);
+		// 남겨 둔 파일이 예산을 차지하므로 새 예약은 대기하다 시간 초과
+		assertThrows(IOException.class, () -> manager.reserve(30));
+
+		manager.releaseRetained("checkpoints/1");
+		try (TempSpaceManager.Reservation reservation = manager.reserve(30)) {
+			assertEquals(30, manager.getReservedBytes());
+		}
+		assertEquals(0, manager.getRetainedBytes());
+	}
+
+	@Test
+	void resumedConversionTakesOverItsRetainedBytes() throws IOException {
+		TempSpaceManager manager = new TempSpaceManager(tempDirectory, 100, 1, 50, Duration.ofHours(2));
+
+		manager.retain("checkpoints/1", 80);
+		manager.retain("checkpoints/2", 10);
+		try (TempSpaceManager.Reservation reservation = manager.reserveForSource(60, "checkpoints/1")) {
+			assertEquals(10, manager.getRetainedBytes());
+			assertEquals(60, manager.getReservedBytes());
+		}
+		// 같은 소유자로 다시 등록하면 크기만 바뀜
+		manager.retain("checkpoints/2", 40);
+		assertEquals(40, manager.getRetainedBytes());
+	}
+}
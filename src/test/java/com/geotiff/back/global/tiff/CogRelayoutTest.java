@@ -0,0 +1,122 @@
+package com.geotiff.back.global.tiff;
+
+import com.geotiff.back.support.SyntheticGeoTiff;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CogRelayoutTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void copiesTilesVerbatimIntoCogOrder() throws IOException {
+		Path source = writeTiledDeflate(tempDir.resolve("source.tif"), 100, 60, 32);
+		Path output = tempDir.resolve("cog.tif");
+
+		TiffStructure original;
+		try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+			original = TiffReader.read(RangeSource.of(channel));
+			assertTrue(CogRelayout.findRejection(original).isEmpty());
+			CogRelayout.relayout(original, channel, output);
+		}
+
+		byte[] sourceBytes = Files.readAllBytes(source);
+		byte[] cogBytes = Files.readAllBytes(output);
+		TiffStructure relaid = TiffReader.read(RangeSource.of(cogBytes));
+
+		// 헤더 바로 뒤의 고스트 영역
+		assertTrue(new String(cogBytes, 8, 60, StandardCharsets.US_ASCII)
+				.startsWith("GDAL_STRUCTURAL_METADATA_SIZE="));
+
+		List<TiffIfd> before = original.ifds();
+		List<TiffIfd> after = relaid.ifds();
+		assertEquals(before.size(), after.size());
+		long previousLevelStart = Long.MAX_VALUE;
+		for (int level = 0; level < after.size(); level++) {
+			long[] offsets = after.get(level).getTileOffsets();
+			long[] byteCounts = after.get(level).getTileByteCounts();
+			assertArrayEquals(before.get(level).getTileByteCounts(), byteCounts);
+			// 모든 IFD가 타일 데이터보다 앞에 있고, 작은 오버뷰의 데이터가 먼저 옴
+			assertTrue(offsets[0] > after.get(after.size() - 1).getOffset());
+			assertTrue(offsets[0] < previousLevelStart);
+			previousLevelStart = offsets[0];
+
+			long[] sourceOffsets = before.get(level).getTileOffsets();
+			for (int i = 0; i < offsets.length; i++) {
+				int length = (int) byteCounts[i];
+				assertArrayEquals(
+						Arrays.copyOfRange(sourceBytes, (int) sourceOffsets[i], (int) sourceOffsets[i] + length),
+						Arrays.copyOfRange(cogBytes, (int) offsets[i], (int) offsets[i] + length));
+			}
+		}
+		assertEquals(before.get(0).getAscii(TiffTag.GDAL_NODATA), after.get(0).getAscii(TiffTag.GDAL_NODATA));
+	}
+
+	@Test
+	void relayoutFromMemoryMatchesFile() throws IOException {
+		Path source = writeTiledDeflate(tempDir.resolve("memory.tif"), 100, 60, 32);
+		byte[] sourceBytes = Files.readAllBytes(source);
+		TiffStructure structure = TiffReader.read(RangeSource.of(sourceBytes));
+
+		Path fromFile = tempDir.resolve("from-file.tif");
+		try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+			CogRelayout.relayout(structure, channel, fromFile);
+		}
+		Path fromMemory = tempDir.resolve("from-memory.tif");
+		long size = CogRelayout.relayout(structure, sourceBytes, fromMemory);
+
+		assertEquals(Files.size(fromFile), size);
+		assertArrayEquals(Files.readAllBytes(fromFile), Files.readAllBytes(fromMemory));
+	}
+
+	@Test
+	void rejectsUncompressedOrMissingOverviews() throws IOException {
+		// 비압축 타일
+		Path uncompressed = SyntheticGeoTiff.write(tempDir.resolve("plain.tif"), 300, 300, 1);
+		assertTrue(CogRelayout.findRejection(TiffReader.read(RangeSource.of(Files.readAllBytes(uncompressed))))
+				.isPresent());
+
+		// 오버뷰 없이 타일 하나보다 큰 영상
+		TiffStructure withOverviews = TiffReader.read(RangeSource.of(Files.readAllBytes(
+				writeTiledDeflate(tempDir.resolve("large.tif"), 100, 60, 32))));
+		TiffStructure primaryOnly = new TiffStructure(withOverviews.byteOrder(), withOverviews.bigTiff(),
+				List.of(withOverviews.primary()));
+		assertTrue(CogRelayout.findRejection(primaryOnly).isPresent());
+	}
+
+	/**
+	 * Deflate 타일 + 오버뷰를 갖춘 테스트 파일
+	 */
+	private Path writeTiledDeflate(Path path, int width, int height, int tileSize) throws IOException {
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try (Float32CogWriter writer = new Float32CogWriter(tempDir::resolve, width, height, tileSize, pool)) {
+			for (int row = 0; row < height; row += tileSize) {
+				int rows = Math.min(tileSize, height - row);
+				float[] strip = new float[width * rows];
+				for (int i = 0; i < strip.length; i++) {
+					strip[i] = (i % width) * 0.25f + row;
+				}
+				writer.writeStrip(strip, rows);
+			}
+			writer.finish(new TiffIfd().put(TiffEntry.ofAscii(TiffTag.GDAL_NODATA, "nan")), path);
+		} finally {
+			pool.shutdown();
+		}
+		return path;
+	}
+}
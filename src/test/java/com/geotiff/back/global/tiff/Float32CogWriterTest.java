@@ -0,0 +1,88 @@
+package com.geotiff.back.global.tiff;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Float32CogWriterTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void writesTiledCogWithOverviewsReadableByTileWindowReader() throws IOException {
+		int width = 70;
+		int height = 37;
+		int tileSize = 16;
+		ForkJoinPool pool = new ForkJoinPool(4);
+		Path output = tempDir.resolve("result.tif");
+
+		try (Float32CogWriter writer = new Float32CogWriter(tempDir::resolve, width, height, tileSize, pool)) {
+			for (int row = 0; row < height; row += tileSize) {
+				int rows = Math.min(tileSize, height - row);
+				float[] strip = new float[width * rows];
+				for (int y = 0; y < rows; y++) {
+					for (int x = 0; x < width; x++) {
+						strip[y * width + x] = value(x, row + y);
+					}
+				}
+				writer.writeStrip(strip, rows);
+			}
+			// 70x37 -> 35x19 -> 18x10 -> 9x5
+			assertEquals(3, writer.getOverviewCount());
+			writer.finish(new TiffIfd().put(TiffEntry.ofAscii(TiffTag.GDAL_NODATA, "nan")), output);
+		} finally {
+			pool.shutdown();
+		}
+
+		RangeSource source = RangeSource.of(Files.readAllBytes(output));
+		TiffStructure structure = TiffReader.read(source);
+		assertEquals(3, structure.overviews().size());
+		assertEquals("nan", structure.primary().getAscii(TiffTag.GDAL_NODATA));
+
+		// 원본 해상도 값 확인
+		TileWindowReader reader = new TileWindowReader(AsyncRangeSource.of(source), structure.primary(),
+				structure.byteOrder(), Runnable::run);
+		int[] rowsRead = {0};
+		reader.read(0, 0, width, height, new int[]{0}, 10, (block, rows) -> {
+			ByteBuffer values = ByteBuffer.wrap(block).order(structure.byteOrder());
+			for (int y = 0; y < rows; y++) {
+				for (int x = 0; x < width; x++) {
+					float expected = value(x, rowsRead[0] + y);
+					float actual = values.getFloat((y * width + x) * 4);
+					assertTrue(Float.isNaN(expected) ? Float.isNaN(actual) : expected == actual);
+				}
+			}
+			rowsRead[0] += rows;
+		});
+		assertEquals(height, rowsRead[0]);
+
+		// 첫 번째 오버뷰는 NaN을 제외한 2x2 평균
+		TiffIfd overview = structure.overviews().get(0);
+		assertEquals(35, overview.getWidth());
+		assertEquals(19, overview.getHeight());
+		TileWindowReader overviewReader = new TileWindowReader(AsyncRangeSource.of(source), overview,
+				structure.byteOrder(), Runnable::run);
+		overviewReader.read(1, 0, 3, 19, new int[]{0}, 19, (block, rows) -> {
+			ByteBuffer values = ByteBuffer.wrap(block).order(structure.byteOrder());
+			// (1, 2): 원본 (2..3, 4..5) 중 (3, 5)는 NaN
+			assertTrue(Float.isNaN(value(3, 5)));
+			assertEquals((value(2, 4) + value(3, 4) + value(2, 5)) / 3, values.getFloat((2 * 3) * 4));
+			// (1, 18): 원본 마지막 행(36)은 한 줄뿐
+			assertEquals((value(2, 36) + value(3, 36)) / 2, values.getFloat((18 * 3) * 4));
+		});
+	}
+
+	private static float value(int x, int y) {
+		return (x * 7 + y) % 13 == 0 && x % 2 == 1 ? Float.NaN : x * 0.5f - y;
+	}
+}
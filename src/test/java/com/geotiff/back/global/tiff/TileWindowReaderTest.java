@@ -0,0 +1,139 @@
+package com.geotiff.back.global.tiff;
+
+import com.geotiff.back.support.SyntheticGeoTiff;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TileWindowReaderTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void readsWindowAcrossTileBoundariesWithSelectedBands() throws IOException {
+		// SyntheticGeoTiff 픽셀 값: (열 + 행 * 3 + 밴드 * 50) & 0xFF
+		byte[] file = Files.readAllBytes(SyntheticGeoTiff.write(tempDir.resolve("scene.tif"), 600, 520, 3));
+		RangeSource source = RangeSource.of(file);
+		TiffIfd primary = TiffReader.read(source).primary();
+		TileWindowReader reader = new TileWindowReader(AsyncRangeSource.of(source), primary,
+				ByteOrder.LITTLE_ENDIAN, Runnable::run);
+
+		int column = 250;
+		int row = 240;
+		int width = 300;
+		int height = 40;
+		int[] bands = {2, 0};
+		int[] rowsRead = {0};
+		reader.read(column, row, width, height, bands, 16, (block, rows) -> {
+			for (int y = 0; y < rows; y++) {
+				for (int x = 0; x < width; x++) {
+					for (int b = 0; b < bands.length; b++) {
+						int expected = (column + x + (row + rowsRead[0] + y) * 3 + bands[b] * 50) & 0xFF;
+						assertEquals(expected, block[(y * width + x) * bands.length + b] & 0xFF);
+					}
+				}
+			}
+			rowsRead[0] += rows;
+		});
+		assertEquals(height, rowsRead[0]);
+	}
+
+	@Test
+	void writerOutputIsReadableAndKeepsTagValues() throws IOException {
+		TiffIfd ifd = new TiffIfd();
+		ifd.put(TiffEntry.ofLongs(TiffTag.IMAGE_WIDTH, TiffType.LONG, 70000));
+		ifd.put(TiffEntry.ofLongs(TiffTag.IMAGE_LENGTH, TiffType.LONG, 3));
+		ifd.put(TiffEntry.ofLongs(TiffTag.STRIP_OFFSETS, TiffType.LONG8, 10, 20, 30));
+		ifd.put(TiffEntry.ofDoubles(TiffTag.MODEL_PIXEL_SCALE, TiffType.DOUBLE, 0.5, 0.25, 0));
+		ifd.put(TiffEntry.ofAscii(TiffTag.GDAL_NODATA, "-9999"));
+
+		for (boolean bigTiff : new boolean[]{false, true}) {
+			ByteBuffer header = TiffWriter.encode(List.of(ifd), ByteOrder.BIG_ENDIAN, bigTiff);
+			assertEquals(TiffWriter.headerSize(List.of(ifd), bigTiff), header.remaining());
+
+			TiffStructure structure = TiffReader.read(RangeSource.of(header.array()));
+			TiffIfd read = structure.primary();
+			assertEquals(bigTiff, structure.bigTiff());
+			assertEquals(70000, read.getWidth());
+			assertArrayEquals(new long[]{10, 20, 30}, read.getLongs(TiffTag.STRIP_OFFSETS));
+			assertArrayEquals(new double[]{0.5, 0.25, 0}, read.getDoubles(TiffTag.MODEL_PIXEL_SCALE));
+			assertEquals("-9999", read.getAscii(TiffTag.GDAL_NODATA));
+		}
+	}
+
+	@Test
+	void rationalTagsSurviveReadAndRewriteExactly() throws IOException {
+		// 부호 없는 32비트 범위(2^31 이상)의 분자와 실수로는 정확히 표현되지 않는 분수
+		TiffIfd ifd = new TiffIfd();
+		ifd.put(TiffEntry.ofLongs(TiffTag.IMAGE_WIDTH, TiffType.LONG, 1));
+		ifd.put(TiffEntry.ofFractions(TiffTag.X_RESOLUTION, TiffType.RATIONAL, 3_000_000_001L, 3, 1, 3));
+		ifd.put(TiffEntry.ofFractions(TiffTag.Y_RESOLUTION, TiffType.SRATIONAL, -7, 9, 2_147_483_647, 1));
+
+		ByteBuffer first = TiffWriter.encode(List.of(ifd), ByteOrder.LITTLE_ENDIAN, false);
+		TiffIfd read = TiffReader.read(RangeSource.of(first.array())).primary();
+		assertArrayEquals(new long[]{3_000_000_001L, 3, 1, 3}, read.get(TiffTag.X_RESOLUTION).fractions());
+		assertArrayEquals(new long[]{-7, 9, 2_147_483_647, 1}, read.get(TiffTag.Y_RESOLUTION).fractions());
+
+		// 읽은 구조를 다시 기록해도 바이트가 그대로
+		ByteBuffer second = TiffWriter.encode(List.of(read), ByteOrder.LITTLE_ENDIAN, false);
+		assertArrayEquals(first.array(), second.array());
+	}
+
+	@Test
+	void rationalTagsFromDoublesUseClosestFraction() throws IOException {
+		TiffIfd ifd = new TiffIfd();
+		ifd.put(TiffEntry.ofLongs(TiffTag.IMAGE_WIDTH, TiffType.LONG, 1));
+		ifd.put(TiffEntry.ofDoubles(TiffTag.X_RESOLUTION, TiffType.RATIONAL, 3_000_000_000.0, 0.1, 1 / 3.0));
+		ifd.put(TiffEntry.ofDoubles(TiffTag.Y_RESOLUTION, TiffType.SRATIONAL, -2500.125));
+
+		TiffIfd read = TiffReader.read(RangeSource.of(
+				TiffWriter.encode(List.of(ifd), ByteOrder.BIG_ENDIAN, false).array())).primary();
+		assertArrayEquals(new long[]{3_000_000_000L, 1, 1, 10, 1, 3}, read.get(TiffTag.X_RESOLUTION).fractions());
+		assertArrayEquals(new long[]{-20001, 8}, read.get(TiffTag.Y_RESOLUTION).fractions());
+
+		// 32비트 분수로 표현할 수 없는 값은 잘못 기록하지 않고 실패
+		assertThrows(TiffFormatException.class, () -> TiffWriter.toFraction(-1, false, TiffTag.X_RESOLUTION));
+		assertThrows(TiffFormatException.class, () -> TiffWriter.toFraction(5e9, false, TiffTag.X_RESOLUTION));
+		assertThrows(TiffFormatException.class, () -> TiffWriter.toFraction(3e9, true, TiffTag.Y_RESOLUTION));
+		assertThrows(TiffFormatException.class, () -> TiffWriter.toFraction(Double.NaN, true, TiffTag.Y_RESOLUTION));
+	}
+
+	@Test
+	void decodesDeflateWithHorizontalPredictor() throws IOException {
+		int width = 5;
+		int height = 2;
+		short[] values = {100, 110, 90, 300, -5, 7, 7, 8, 1000, 999};
+
+		// 행마다 왼쪽 값과의 차이를 기록한 뒤 Deflate 압축
+		ByteBuffer differences = ByteBuffer.allocate(values.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = 0; i < values.length; i++) {
+			differences.putShort((short) (i % width == 0 ? values[i] : values[i] - values[i - 1]));
+		}
+		Deflater deflater = new Deflater();
+		deflater.setInput(differences.array());
+		deflater.finish();
+		byte[] compressed = new byte[256];
+		int length = deflater.deflate(compressed);
+		deflater.end();
+
+		byte[] pixels = TileDecoder.decode(Arrays.copyOf(compressed, length), TiffTag.COMPRESSION_DEFLATE,
+				2, width, height, 1, 2, ByteOrder.LITTLE_ENDIAN);
+		ByteBuffer decoded = ByteBuffer.wrap(pixels).order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = 0; i < values.length; i++) {
+			assertEquals(values[i], decoded.getShort(i * 2));
+		}
+	}
+}
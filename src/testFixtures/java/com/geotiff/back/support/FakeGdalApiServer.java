@@ -0,0 +1,154 @@
+package com.geotiff.back.support;
+
+import com.geotiff.back.global.tiff.RangeSource;
+import com.geotiff.back.global.tiff.TiffIfd;
+import com.geotiff.back.global.tiff.TiffReader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * GDAL API 대체 서버
+ * gdalApiServer.py와 같은 엔드포인트(/health, /extractMetadata, /convertToCog)를 제공하되,
+ * 실제 GDAL 처리 대신 TIFF 헤더만 파싱하고 설정된 지연 시간 후 입력 파일을 그대로 돌려줍니다.
+ * 벤치마크/부하 테스트에서 변환 비용을 원하는 값으로 고정하기 위해 사용합니다.
+ */
+public class FakeGdalApiServer implements AutoCloseable {
+
+    private final Path workDirectory;
+    private final Duration metadataLatency;
+    private final Duration convertLatency;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * 임의 포트로 서버 시작
+     *
+     * @param workDirectory 업로드된 파일을 임시로 저장할 디렉토리
+     * @param metadataLatency 메타데이터 추출 응답 지연
+     * @param convertLatency COG 변환 응답 지연
+     */
+    public FakeGdalApiServer(Path workDirectory, Duration metadataLatency, Duration convertLatency) throws IOException {
+        this.workDirectory = Files.createDirectories(workDirectory);
+        this.metadataLatency = metadataLatency;
+        this.convertLatency = convertLatency;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fake-gdal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext("/health", exchange -> respond(exchange, 200, "{\"status\":\"healthy\"}"));
+        server.createContext("/extractMetadata", this::extractMetadata);
+        server.createContext("/convertToCog", this::convertToCog);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public URI endpoint() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void extractMetadata(HttpExchange exchange) throws IOException {
+        Path input = receiveFile(exchange);
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            TiffIfd ifd = TiffReader.read(RangeSource.of(channel)).primary();
+            sleep(metadataLatency);
+            respond(exchange, 200, String.format(
+                    "{\"width\":%d,\"height\":%d,\"bandCount\":%d,\"projection\":\"EPSG:4326\","
+                            + "\"geotransform\":[],\"originalName\":\"%s\",\"bands\":[]}",
+                    ifd.getWidth(), ifd.getHeight(), ifd.getSamplesPerPixel(), input.getFileName()));
+        } catch (IOException e) {
+            respond(exchange, 500, "{\"error\":\"메타데이터 추출 실패\"}");
+        } finally {
+            Files.deleteIfExists(input);
+        }
+    }
+
+    private void convertToCog(HttpExchange exchange) throws IOException {
+        Path input = receiveFile(exchange);
+        try {
+            sleep(convertLatency);
+            exchange.getResponseHeaders().set("Content-Type", "image/tiff");
+            exchange.sendResponseHeaders(200, Files.size(input));
+            try (OutputStream out = exchange.getResponseBody()) {
+                Files.copy(input, out);
+            }
+        } finally {
+            Files.deleteIfExists(input);
+            exchange.close();
+        }
+    }
+
+    /**
+     * multipart/form-data 본문에서 첫 번째 파일 파트를 디스크로 스트리밍
+     * 파트 헤더는 건너뛰고, 나머지는 마지막 경계 문자열 길이만큼 잘라 저장합니다.
+     */
+    private Path receiveFile(HttpExchange exchange) throws IOException {
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        String boundary = contentType.substring(contentType.indexOf("boundary=") + 9).replace("\"", "");
+        Path target = Files.createTempFile(workDirectory, "fake-gdal", ".tif");
+
+        try (InputStream in = exchange.getRequestBody()) {
+            // 파트 헤더 끝(빈 줄)까지 건너뜀
+            int matched = 0;
+            byte[] separator = "\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+            while (matched < separator.length) {
+                int c = in.read();
+                if (c < 0) {
+                    throw new IOException("multipart 파트 헤더가 없습니다");
+                }
+                matched = c == separator[matched] ? matched + 1 : (c == separator[0] ? 1 : 0);
+            }
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        // 마지막 "\r\n--boundary--\r\n" 제거
+        int trailerLength = ("\r\n--" + boundary + "--\r\n").length();
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            channel.truncate(Math.max(0, channel.size() - trailerLength));
+        }
+        return target;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+        exchange.close();
+    }
+
+    private static void sleep(Duration latency) {
+        if (latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,564 @@
+package com.geotiff.back.support;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 로컬 S3 대체 서버
+ * 네트워크 없이 벤치마크/부하 테스트를 재현할 수 있도록 S3 REST API 중 이 서비스가 사용하는 부분
+ * (PutObject, GetObject(Range 포함), HeadObject, ListObjectsV2, DeleteObject, 멀티파트 업로드)을 path-style로 제공합니다.
+ * 객체는 디스크에 저장하므로 GB 단위 객체도 힙 사용 없이 다룰 수 있습니다.
+ */
+public class LocalS3Server implements AutoCloseable {
+
+    public static final String ACCESS_KEY = "local-access-key";
+    public static final String SECRET_KEY = "local-secret-key";
+    public static final String REGION = "ap-northeast-2";
+
+    private static final int LIST_PAGE_SIZE = 1000;
+    private static final Pattern PART_NUMBER = Pattern.compile("<PartNumber>(\\d+)</PartNumber>");
+    private static final DateTimeFormatter ISO_MILLIS =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    private final Path root;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    // 진행 중인 멀티파트 업로드 (uploadId -> 대상 버킷/키)
+    private final Map<String, MultipartUpload> uploads = new ConcurrentHashMap<>();
+
+    /**
+     * 임의 포트로 서버 시작
+     *
+     * @param root 객체를 저장할 디렉토리
+     */
+    public LocalS3Server(Path root) throws IOException {
+        this.root = Files.createDirectories(root);
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "local-s3");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public URI endpoint() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    /**
+     * 객체를 직접 저장 (시드 데이터 준비용)
+     */
+    public void putObject(String bucket, String key, Path source) throws IOException {
+        try (InputStream in = Files.newInputStream(source)) {
+            store(bucket, key, in);
+        }
+    }
+
+    public boolean exists(String bucket, String key) {
+        return Files.exists(objectPath(bucket, key));
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String rawPath = exchange.getRequestURI().getRawPath();
+            String path = URLDecoder.decode(rawPath.substring(1), StandardCharsets.UTF_8);
+            int slash = path.indexOf('/');
+            String bucket = slash < 0 ? path : path.substring(0, slash);
+            String key = slash < 0 ? "" : path.substring(slash + 1);
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String method = exchange.getRequestMethod();
+
+            if (key.isEmpty()) {
+                if ("GET".equals(method)) {
+                    listObjects(exchange, bucket, query);
+                } else {
+                    // 버킷 생성 등은 항상 성공 처리
+                    Files.createDirectories(root.resolve(bucket));
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                return;
+            }
+
+            // 멀티파트 업로드 요청 (?uploads, ?uploadId=...)
+            if (query.containsKey("uploads") && "POST".equals(method)) {
+                createMultipartUpload(exchange, bucket, key);
+                return;
+            }
+            String uploadId = query.get("uploadId");
+            if (uploadId != null) {
+                handleMultipart(exchange, method, uploadId, query);
+                return;
+            }
+
+            switch (method) {
+                case "PUT" -> putObject(exchange, bucket, key);
+                case "GET" -> getObject(exchange, bucket, key, false);
+                case "HEAD" -> getObject(exchange, bucket, key, true);
+                case "DELETE" -> {
+                    Files.deleteIfExists(objectPath(bucket, key));
+                    Files.deleteIfExists(etagPath(bucket, key));
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                default -> exchange.sendResponseHeaders(405, -1);
+            }
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, "InternalError", String.valueOf(e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void putObject(HttpExchange exchange, String bucket, String key) throws IOException {
+        String etag = store(bucket, key, requestBody(exchange));
+        exchange.getResponseHeaders().set("ETag", quote(etag));
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private void getObject(HttpExchange exchange, String bucket, String key, boolean headOnly) throws IOException {
+        Path object = objectPath(bucket, key);
+        if (!Files.exists(object)) {
+            if (headOnly) {
+                exchange.sendResponseHeaders(404, -1);
+            } else {
+                sendError(exchange, 404, "NoSuchKey", "The specified key does not exist.");
+            }
+            return;
+        }
+
+        long size = Files.size(object);
+        long start = 0;
+        long end = size - 1;
+        int status = 200;
+        Headers headers = exchange.getResponseHeaders();
+
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        if (range != null && range.startsWith("bytes=") && size > 0) {
+            String[] bounds = range.substring(6).split("-", -1);
+            if (bounds[0].isEmpty()) {
+                start = Math.max(0, size - Long.parseLong(bounds[1]));
+            } else {
+                start = Long.parseLong(bounds[0]);
+                end = bounds[1].isEmpty() ? size - 1 : Math.min(Long.parseLong(bounds[1]), size - 1);
+            }
+            if (start >= size) {
+                sendError(exchange, 416, "InvalidRange", "The requested range is not satisfiable");
+                return;
+            }
+            status = 206;
+            headers.set("Content-Range", "bytes " + start + "-" + end + "/" + size);
+        }
+
+        long length = end - start + 1;
+        headers.set("ETag", quote(Files.readString(etagPath(bucket, key))));
+        headers.set("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                Files.getLastModifiedTime(object).toInstant().atZone(ZoneOffset.UTC)));
+        headers.set("Content-Type", "application/octet-stream");
+        headers.set("Accept-Ranges", "bytes");
+        headers.set("Content-Length", String.valueOf(length));
+
+        if (headOnly) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+
+        exchange.sendResponseHeaders(status, length == 0 ? -1 : length);
+        try (FileChannel channel = FileChannel.open(object, StandardOpenOption.READ);
+             InputStream in = Channels.newInputStream(channel.position(start));
+             OutputStream out = exchange.getResponseBody()) {
+            byte[] buffer = new byte[64 * 1024];
+            long remaining = length;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    break;
+                }
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+
+    private void createMultipartUpload(HttpExchange exchange, String bucket, String key) throws IOException {
+        String uploadId = UUID.randomUUID().toString();
+        Files.createDirectories(partDirectory(uploadId));
+        uploads.put(uploadId, new MultipartUpload(bucket, key));
+        sendXml(exchange, 200, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<InitiateMultipartUploadResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">"
+                + "<Bucket>" + escape(bucket) + "</Bucket><Key>" + escape(key) + "</Key>"
+                + "<UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+    }
+
+    /**
+     * UploadPart(PUT), CompleteMultipartUpload(POST), AbortMultipartUpload(DELETE), ListParts(GET) 처리
+     */
+    private void handleMultipart(HttpExchange exchange, String method, String uploadId, Map<String, String> query)
+            throws IOException {
+        MultipartUpload upload = uploads.get(uploadId);
+        if (upload == null) {
+            sendError(exchange, 404, "NoSuchUpload", "The specified multipart upload does not exist.");
+            return;
+        }
+
+        switch (method) {
+            case "PUT" -> {
+                int partNumber = Integer.parseInt(query.get("partNumber"));
+                Path part = partDirectory(uploadId).resolve(String.valueOf(partNumber));
+                MessageDigest md5 = md5();
+                try (DigestInputStream in = new DigestInputStream(requestBody(exchange), md5)) {
+                    Files.copy(in, part, StandardCopyOption.REPLACE_EXISTING);
+                }
+                String etag = HexFormat.of().formatHex(md5.digest());
+                Files.writeString(partDirectory(uploadId).resolve(partNumber + ".etag"), etag);
+                exchange.getResponseHeaders().set("ETag", quote(etag));
+                exchange.sendResponseHeaders(200, -1);
+            }
+            case "POST" -> completeMultipartUpload(exchange, uploadId, upload);
+            case "DELETE" -> {
+                uploads.remove(uploadId);
+                deleteParts(uploadId);
+                exchange.sendResponseHeaders(204, -1);
+            }
+            case "GET" -> listParts(exchange, uploadId, upload);
+            default -> exchange.sendResponseHeaders(405, -1);
+        }
+    }
+
+    /**
+     * 요청 본문에 나열된 파트를 순서대로 이어 붙여 객체 생성
+     * ETag는 S3와 같이 파트 MD5들을 이어 붙인 값의 MD5에 "-파트 수"를 붙인 형식입니다.
+     */
+    private void completeMultipartUpload(HttpExchange exchange, String uploadId, MultipartUpload upload)
+            throws IOException {
+        String body;
+        try (InputStream in = requestBody(exchange)) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        Path object = objectPath(upload.bucket(), upload.key());
+        Files.createDirectories(object.getParent());
+        Path partial = Files.createTempFile(Files.createDirectories(root.resolve(".incoming")), "multipart", ".part");
+
+        MessageDigest etagDigest = md5();
+        int partCount = 0;
+        try (FileChannel target = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+            Matcher matcher = PART_NUMBER.matcher(body);
+            while (matcher.find()) {
+                Path part = partDirectory(uploadId).resolve(matcher.group(1));
+                if (!Files.exists(part)) {
+                    sendError(exchange, 400, "InvalidPart", "Part " + matcher.group(1) + " was not uploaded.");
+                    Files.deleteIfExists(partial);
+                    return;
+                }
+                try (FileChannel source = FileChannel.open(part, StandardOpenOption.READ)) {
+                    long position = 0;
+                    while (position < source.size()) {
+                        position += source.transferTo(position, source.size() - position, target);
+                    }
+                }
+                etagDigest.update(HexFormat.of().parseHex(
+                        Files.readString(partDirectory(uploadId).resolve(matcher.group(1) + ".etag"))));
+                partCount++;
+            }
+        }
+
+        String etag = HexFormat.of().formatHex(etagDigest.digest()) + "-" + partCount;
+        Files.writeString(etagPath(upload.bucket(), upload.key()), etag);
+        Files.move(partial, object, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        uploads.remove(uploadId);
+        deleteParts(uploadId);
+
+        sendXml(exchange, 200, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<CompleteMultipartUploadResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">"
+                + "<Location>" + escape(endpoint() + "/" + upload.bucket() + "/" + upload.key()) + "</Location>"
+                + "<Bucket>" + escape(upload.bucket()) + "</Bucket><Key>" + escape(upload.key()) + "</Key>"
+                + "<ETag>" + escape(quote(etag)) + "</ETag></CompleteMultipartUploadResult>");
+    }
+
+    private void listParts(HttpExchange exchange, String uploadId, MultipartUpload upload) throws IOException {
+        List<Integer> partNumbers;
+        try (Stream<Path> files = Files.list(partDirectory(uploadId))) {
+            partNumbers = files.map(file -> file.getFileName().toString())
+                    .filter(name -> !name.endsWith(".etag"))
+                    .map(Integer::parseInt)
+                    .sorted()
+                    .toList();
+        }
+
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+                .append("<ListPartsResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">")
+                .append("<Bucket>").append(escape(upload.bucket())).append("</Bucket>")
+                .append("<Key>").append(escape(upload.key())).append("</Key>")
+                .append("<UploadId>").append(uploadId).append("</UploadId>")
+                .append("<IsTruncated>false</IsTruncated>");
+        for (int partNumber : partNumbers) {
+            Path part = partDirectory(uploadId).resolve(String.valueOf(partNumber));
+            xml.append("<Part>")
+                    .append("<PartNumber>").append(partNumber).append("</PartNumber>")
+                    .append("<LastModified>").append(ISO_MILLIS.format(Files.getLastModifiedTime(part).toInstant()))
+                    .append("</LastModified>")
+                    .append("<ETag>").append(escape(quote(Files.readString(
+                            partDirectory(uploadId).resolve(partNumber + ".etag"))))).append("</ETag>")
+                    .append("<Size>").append(Files.size(part)).append("</Size>")
+                    .append("</Part>");
+        }
+        xml.append("</ListPartsResult>");
+        sendXml(exchange, 200, xml.toString());
+    }
+
+    private Path partDirectory(String uploadId) {
+        return root.resolve(".multipart").resolve(uploadId);
+    }
+
+    private void deleteParts(String uploadId) throws IOException {
+        Path directory = partDirectory(uploadId);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private void listObjects(HttpExchange exchange, String bucket, Map<String, String> query) throws IOException {
+        String prefix = query.getOrDefault("prefix", "");
+        int maxKeys = Math.min(LIST_PAGE_SIZE, Integer.parseInt(query.getOrDefault("max-keys", "1000")));
+        int startIndex = Integer.parseInt(query.getOrDefault("continuation-token", "0"));
+
+        Path bucketDir = root.resolve(bucket);
+        List<String> keys;
+        if (Files.isDirectory(bucketDir)) {
+            try (Stream<Path> files = Files.list(bucketDir)) {
+                keys = files.map(file -> file.getFileName().toString())
+                        .filter(name -> !name.endsWith(".etag"))
+                        .map(name -> URLDecoder.decode(name, StandardCharsets.UTF_8))
+                        .filter(name -> name.startsWith(prefix))
+                        .sorted()
+                        .toList();
+            }
+        } else {
+            keys = List.of();
+        }
+
+        int endIndex = Math.min(keys.size(), startIndex + maxKeys);
+        boolean truncated = endIndex < keys.size();
+
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+                .append("<ListBucketResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">")
+                .append("<Name>").append(escape(bucket)).append("</Name>")
+                .append("<Prefix>").append(escape(prefix)).append("</Prefix>")
+                .append("<KeyCount>").append(endIndex - startIndex).append("</KeyCount>")
+                .append("<MaxKeys>").append(maxKeys).append("</MaxKeys>")
+                .append("<IsTruncated>").append(truncated).append("</IsTruncated>");
+        if (truncated) {
+            xml.append("<NextContinuationToken>").append(endIndex).append("</NextContinuationToken>");
+        }
+        for (String key : keys.subList(startIndex, endIndex)) {
+            Path object = objectPath(bucket, key);
+            xml.append("<Contents>")
+                    .append("<Key>").append(escape(key)).append("</Key>")
+                    .append("<LastModified>").append(ISO_MILLIS.format(Files.getLastModifiedTime(object).toInstant()))
+                    .append("</LastModified>")
+                    .append("<ETag>").append(escape(quote(Files.readString(etagPath(bucket, key))))).append("</ETag>")
+                    .append("<Size>").append(Files.size(object)).append("</Size>")
+                    .append("<StorageClass>STANDARD</StorageClass>")
+                    .append("</Contents>");
+        }
+        xml.append("</ListBucketResult>");
+        sendXml(exchange, 200, xml.toString());
+    }
+
+    /**
+     * 요청 본문 스트림 반환
+     * SDK가 aws-chunked 인코딩으로 보낸 경우 청크 서명을 제거한 원본 데이터를 반환합니다.
+     */
+    protected InputStream requestBody(HttpExchange exchange) {
+        Headers headers = exchange.getRequestHeaders();
+        String contentSha = headers.getFirst("x-amz-content-sha256");
+        String contentEncoding = headers.getFirst("Content-Encoding");
+        boolean chunked = (contentSha != null && contentSha.startsWith("STREAMING-"))
+                || (contentEncoding != null && contentEncoding.contains("aws-chunked"));
+        return chunked ? new AwsChunkedInputStream(exchange.getRequestBody()) : exchange.getRequestBody();
+    }
+
+    /**
+     * 객체 저장 (임시 파일에 쓴 뒤 원자적으로 교체)
+     *
+     * @return 저장된 객체의 MD5 ETag
+     */
+    protected String store(String bucket, String key, InputStream body) throws IOException {
+        Path object = objectPath(bucket, key);
+        Files.createDirectories(object.getParent());
+        // 목록 조회에 보이지 않도록 버킷 밖의 작업 디렉토리에 먼저 기록
+        Path partial = Files.createTempFile(Files.createDirectories(root.resolve(".incoming")), "upload", ".part");
+
+        MessageDigest md5 = md5();
+        try (DigestInputStream in = new DigestInputStream(body, md5)) {
+            Files.copy(in, partial, StandardCopyOption.REPLACE_EXISTING);
+        }
+        String etag = HexFormat.of().formatHex(md5.digest());
+        Files.writeString(etagPath(bucket, key), etag);
+        Files.move(partial, object, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return etag;
+    }
+
+    protected Path objectPath(String bucket, String key) {
+        return root.resolve(bucket).resolve(URLEncoder.encode(key, StandardCharsets.UTF_8));
+    }
+
+    protected Path etagPath(String bucket, String key) {
+        return root.resolve(bucket).resolve(URLEncoder.encode(key, StandardCharsets.UTF_8) + ".etag");
+    }
+
+    protected void sendXml(HttpExchange exchange, int status, String xml) throws IOException {
+        byte[] body = xml.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    protected void sendError(HttpExchange exchange, int status, String code, String message) throws IOException {
+        sendXml(exchange, status, "<?xml version=\"1.0\" encoding=\"UTF-8\"?><Error><Code>" + code
+                + "</Code><Message>" + escape(message) + "</Message><RequestId>local</RequestId></Error>");
+    }
+
+    protected static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            query.put(name, value);
+        }
+        return query;
+    }
+
+    protected static String quote(String etag) {
+        return "\"" + etag + "\"";
+    }
+
+    protected static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    protected static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record MultipartUpload(String bucket, String key) {
+    }
+
+    /**
+     * aws-chunked 인코딩 해제 스트림
+     * "크기(16진수);chunk-signature=...\r\n데이터\r\n" 형식의 청크를 순서대로 읽고, 크기 0 청크 이후(트레일러)는 버립니다.
+     */
+    private static final class AwsChunkedInputStream extends InputStream {
+
+        private final InputStream in;
+        private long chunkRemaining;
+        private boolean finished;
+
+        private AwsChunkedInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (finished) {
+                return -1;
+            }
+            if (chunkRemaining == 0) {
+                String header = readLine();
+                if (header.isEmpty()) {
+                    // 이전 청크 데이터 뒤의 CRLF
+                    header = readLine();
+                }
+                int semicolon = header.indexOf(';');
+                chunkRemaining = Long.parseLong((semicolon < 0 ? header : header.substring(0, semicolon)).trim(), 16);
+                if (chunkRemaining == 0) {
+                    finished = true;
+                    in.transferTo(OutputStream.nullOutputStream());
+                    return -1;
+                }
+            }
+            int read = in.read(buffer, offset, (int) Math.min(length, chunkRemaining));
+            if (read < 0) {
+                throw new IOException("aws-chunked 본문이 예상보다 일찍 끝났습니다");
+            }
+            chunkRemaining -= read;
+            return read;
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = in.read()) >= 0) {
+                if (c == '\n') {
+                    break;
+                }
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+            }
+            return line.toString();
+        }
+    }
+}
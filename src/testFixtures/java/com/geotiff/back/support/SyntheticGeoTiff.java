@@ -0,0 +1,155 @@
+package com.geotiff.back.support;
+
+import com.geotiff.back.global.tiff.TiffTag;
+import com.geotiff.back.global.tiff.TiffType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 벤치마크/부하 테스트용 합성 GeoTIFF 생성기
+ * 256x256 타일, 8비트 픽셀 인터리브, 비압축, EPSG:4326 좌표계의 GeoTIFF를 IFD가 앞에 오는 순서로 기록합니다.
+ * 타일 크기가 고정이므로 IFD를 먼저 쓰고 타일을 순서대로 스트리밍하여 큰 파일도 메모리 사용 없이 만들 수 있습니다.
+ */
+public final class SyntheticGeoTiff {
+
+    public static final int TILE_SIZE = 256;
+
+    private static final int ENTRY_COUNT = 15;
+    private static final long MAX_CLASSIC_TIFF_BYTES = 0xFFFFFFFFL;
+
+    private SyntheticGeoTiff() {
+    }
+
+    /**
+     * 목표 파일 크기에 가까운 정사각형 GeoTIFF 생성
+     *
+     * @param path 생성할 파일 경로
+     * @param targetBytes 목표 파일 크기
+     * @param bands 밴드 수
+     * @return 생성된 파일 경로
+     */
+    public static Path writeApproximately(Path path, long targetBytes, int bands) throws IOException {
+        int side = (int) Math.max(TILE_SIZE, Math.sqrt((double) targetBytes / bands));
+        return write(path, side, side, bands);
+    }
+
+    /**
+     * 합성 GeoTIFF 생성
+     *
+     * @param path 생성할 파일 경로
+     * @param width 너비 (픽셀)
+     * @param height 높이 (픽셀)
+     * @param bands 밴드 수
+     * @return 생성된 파일 경로
+     */
+    public static Path write(Path path, int width, int height, int bands) throws IOException {
+        int tilesAcross = (width + TILE_SIZE - 1) / TILE_SIZE;
+        int tilesDown = (height + TILE_SIZE - 1) / TILE_SIZE;
+        int tileCount = tilesAcross * tilesDown;
+        int tileBytes = TILE_SIZE * TILE_SIZE * bands;
+
+        // 헤더, IFD, 태그 값 영역 크기 계산
+        int ifdOffset = 8;
+        int ifdSize = 2 + ENTRY_COUNT * 12 + 4;
+        int valuesOffset = ifdOffset + ifdSize;
+        int bitsOffset = valuesOffset;
+        int tileOffsetsOffset = bitsOffset + bands * 2;
+        int tileCountsOffset = tileOffsetsOffset + tileCount * 4;
+        int scaleOffset = tileCountsOffset + tileCount * 4;
+        int tiepointOffset = scaleOffset + 3 * 8;
+        int geoKeysOffset = tiepointOffset + 6 * 8;
+        short[] geoKeys = {1, 1, 0, 3, 1024, 0, 1, 2, 1025, 0, 1, 1, 2048, 0, 1, 4326};
+        int dataOffset = geoKeysOffset + geoKeys.length * 2;
+        dataOffset += dataOffset % 2;
+
+        long totalBytes = dataOffset + (long) tileCount * tileBytes;
+        if (totalBytes > MAX_CLASSIC_TIFF_BYTES) {
+            throw new IllegalArgumentException("합성 GeoTIFF는 4GB 미만만 지원합니다: " + totalBytes);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(dataOffset).order(ByteOrder.LITTLE_ENDIAN);
+        header.put((byte) 'I').put((byte) 'I').putShort((short) 42).putInt(ifdOffset);
+
+        header.putShort((short) ENTRY_COUNT);
+        entry(header, TiffTag.IMAGE_WIDTH, TiffType.LONG, 1, width);
+        entry(header, TiffTag.IMAGE_LENGTH, TiffType.LONG, 1, height);
+        entry(header, TiffTag.BITS_PER_SAMPLE, TiffType.SHORT, bands, bands == 1 ? 8 : bands == 2 ? 8 | 8 << 16 : bitsOffset);
+        entry(header, TiffTag.COMPRESSION, TiffType.SHORT, 1, TiffTag.COMPRESSION_NONE);
+        entry(header, TiffTag.PHOTOMETRIC_INTERPRETATION, TiffType.SHORT, 1, bands == 3 ? 2 : 1);
+        entry(header, TiffTag.SAMPLES_PER_PIXEL, TiffType.SHORT, 1, bands);
+        entry(header, TiffTag.PLANAR_CONFIGURATION, TiffType.SHORT, 1, 1);
+        entry(header, TiffTag.TILE_WIDTH, TiffType.SHORT, 1, TILE_SIZE);
+        entry(header, TiffTag.TILE_LENGTH, TiffType.SHORT, 1, TILE_SIZE);
+        entry(header, TiffTag.TILE_OFFSETS, TiffType.LONG, tileCount,
+                tileCount == 1 ? dataOffset : tileOffsetsOffset);
+        entry(header, TiffTag.TILE_BYTE_COUNTS, TiffType.LONG, tileCount,
+                tileCount == 1 ? tileBytes : tileCountsOffset);
+        entry(header, TiffTag.MODEL_PIXEL_SCALE, TiffType.DOUBLE, 3, scaleOffset);
+        entry(header, TiffTag.MODEL_TIEPOINT, TiffType.DOUBLE, 6, tiepointOffset);
+        entry(header, TiffTag.GEO_KEY_DIRECTORY, TiffType.SHORT, geoKeys.length, geoKeysOffset);
+        // nodata 값 "0" (NUL 포함 2바이트로 값 필드에 직접 기록)
+        entry(header, TiffTag.GDAL_NODATA, TiffType.ASCII, 2, '0');
+        header.putInt(0);
+
+        // 태그 값 영역
+        for (int b = 0; b < bands; b++) {
+            header.putShort((short) 8);
+        }
+        for (int t = 0; t < tileCount; t++) {
+            header.putInt((int) (dataOffset + (long) t * tileBytes));
+        }
+        for (int t = 0; t < tileCount; t++) {
+            header.putInt(tileBytes);
+        }
+        // 서울 부근 경위도, 픽셀당 약 10m
+        header.putDouble(0.0001).putDouble(0.0001).putDouble(0);
+        header.putDouble(0).putDouble(0).putDouble(0).putDouble(126.9).putDouble(37.6).putDouble(0);
+        for (short value : geoKeys) {
+            header.putShort(value);
+        }
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.position(dataOffset);
+
+            ByteBuffer tile = ByteBuffer.allocateDirect(tileBytes);
+            for (int t = 0; t < tileCount; t++) {
+                fillTile(tile, t % tilesAcross, t / tilesAcross, bands);
+                while (tile.hasRemaining()) {
+                    channel.write(tile);
+                }
+            }
+        }
+        return path;
+    }
+
+    /**
+     * 위치에 따라 값이 변하는 그라데이션 패턴으로 타일 채우기
+     */
+    private static void fillTile(ByteBuffer tile, int tileX, int tileY, int bands) {
+        tile.clear();
+        for (int y = 0; y < TILE_SIZE; y++) {
+            int row = tileY * TILE_SIZE + y;
+            for (int x = 0; x < TILE_SIZE; x++) {
+                int column = tileX * TILE_SIZE + x;
+                for (int b = 0; b < bands; b++) {
+                    tile.put((byte) (column + row * 3 + b * 50));
+                }
+            }
+        }
+        tile.flip();
+    }
+
+    private static void entry(ByteBuffer buffer, int tag, int type, int count, long value) {
+        buffer.putShort((short) tag).putShort((short) type).putInt(count).putInt((int) value);
+    }
+}